@@ -29,4 +29,18 @@ public interface Piece<D extends PieceDescriptor>
 	D getDescriptor();
 	
 	boolean canMove(Coordinate from, Coordinate to, Board b);
+	
+	/**
+	 * The same question as canMove(Coordinate, Coordinate, Board) for callers
+	 * that already work with square indices (see Board#squareOf). Pieces that
+	 * can answer without building Coordinates should override this.
+	 * @param fromSquare the index of the square the piece is on
+	 * @param toSquare the index of the square it wants to move to
+	 * @param b the board
+	 * @return true if the move is allowed
+	 */
+	default boolean canMove(int fromSquare, int toSquare, Board b)
+	{
+		return canMove(b.coordinateOf(fromSquare), b.coordinateOf(toSquare), b);
+	}
 }
@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import java.util.*;
+import gpv.chess.ChessBehavior.Behavior;
+import gpv.util.*;
+
+/**
+ * The rules of ChessRules, with the checks each piece's rule is made of run
+ * in the order that rejects the moves actually asked about most cheaply.
+ * <br/>
+ * A piece's rule is withinBounds, availableSpace and its movement, all of
+ * which must pass and none of which depends on another having passed, so
+ * any order gives the same answer. Every samplePeriod-th call for a piece
+ * runs all of its checks, timing each and noting which reject; every
+ * reorderPeriod calls the checks are sorted by their mean cost divided by
+ * how often they reject, which is the order with the least expected cost
+ * when the checks reject independently. Checks that have never rejected go
+ * last, cheapest first. The other calls stop at the first check to reject.
+ * <br/>
+ * The king keeps its rule as a single check, since a castling move in a
+ * table (see CastlingTable) is allowed without the general behavior.
+ * <br/>
+ * Instances may be shared between threads. The call counts are not
+ * synchronized, so under contention some samples are skipped, which only
+ * slows the learning down.
+ * <code>
+ * 	AdaptiveRules rules = new AdaptiveRules();
+ * 	rules.allowed(from, to, board);
+ * 	rules.getOrder(PieceName.ROOK);	// e.g. [straightMovement, withinBounds, availableSpace]
+ * </code>
+ * @version Oct 19, 2026
+ */
+public class AdaptiveRules
+{
+	public static final int DEFAULT_SAMPLE_PERIOD = 64;
+	public static final int DEFAULT_REORDER_PERIOD = 4096;
+
+	private final int samplePeriod;
+	private final int reorderPeriod;
+	private final EnumMap<PieceName, Chain> chains = new EnumMap<PieceName, Chain>(PieceName.class);
+
+	/**
+	 * Rules that sample one call in DEFAULT_SAMPLE_PERIOD and reorder every
+	 * DEFAULT_REORDER_PERIOD calls.
+	 */
+	public AdaptiveRules()
+	{
+		this(DEFAULT_SAMPLE_PERIOD, DEFAULT_REORDER_PERIOD);
+	}
+
+	/**
+	 * @param samplePeriod every how many calls for a piece all its checks are
+	 * 	run and measured
+	 * @param reorderPeriod every how many calls for a piece its checks are
+	 * 	reordered
+	 */
+	public AdaptiveRules(int samplePeriod, int reorderPeriod)
+	{
+		if (samplePeriod < 1 || reorderPeriod < 1) {
+			throw new IllegalArgumentException("the periods must be positive");
+		}
+		this.samplePeriod = samplePeriod;
+		this.reorderPeriod = reorderPeriod;
+		for (PieceName name : PieceName.values()) {
+			chains.put(name, new Chain(checksOf(name)));
+		}
+	}
+
+	private static Check[] checksOf(PieceName name)
+	{
+		Check withinBounds = new Check("withinBounds", ChessBehavior.withinBounds);
+		Check availableSpace = new Check("availableSpace", ChessBehavior.availableSpace);
+		switch (name) {
+			case QUEEN:
+				return new Check[] { withinBounds, availableSpace,
+						new Check("queenMovement", ChessRules.queenMovement) };
+			case ROOK:
+				return new Check[] { withinBounds, availableSpace,
+						new Check("straightMovement", ChessBehavior.straightMovement) };
+			case BISHOP:
+				return new Check[] { withinBounds, availableSpace,
+						new Check("orthogonalMovement", ChessBehavior.orthogonalMovement) };
+			case KNIGHT:
+				return new Check[] { withinBounds, availableSpace,
+						new Check("knightMovement", ChessRules.knightMovement) };
+			case PAWN:
+				return new Check[] { withinBounds, availableSpace,
+						new Check("pawnMovement", ChessRules.pawnMovement) };
+			default:
+				return new Check[] { new Check(name.toString().toLowerCase() + "Behavior",
+						ChessRules.getRules(name)) };
+		}
+	}
+
+	/**
+	 * @param from the coordinate of the piece to move
+	 * @param to the destination
+	 * @param board the board
+	 * @return what ChessRules says, or false if there is no chess piece to move
+	 */
+	public boolean allowed(Coordinate from, Coordinate to, Board board)
+	{
+		Object piece = board.getPieceAt(from);
+		return piece instanceof ChessPiece
+				&& chains.get(((ChessPiece) piece).getName()).allowed(from, to, board);
+	}
+
+	/**
+	 * @param name a kind of piece
+	 * @return the rule for the piece, answering as ChessRules#getRules does,
+	 * 	that learns along with this instance
+	 */
+	public Behavior getRules(PieceName name)
+	{
+		return chains.get(name);
+	}
+
+	/**
+	 * @param name a kind of piece
+	 * @return the names of the piece's checks in the order they now run
+	 */
+	public List<String> getOrder(PieceName name)
+	{
+		List<String> order = new ArrayList<String>();
+		for (Check check : chains.get(name).order) {
+			order.add(check.name);
+		}
+		return order;
+	}
+
+	/**
+	 * @param name a kind of piece
+	 * @return what has been measured of the piece's checks, in the order they
+	 * 	now run
+	 */
+	public List<CheckStats> getStatistics(PieceName name)
+	{
+		Chain chain = chains.get(name);
+		List<CheckStats> stats = new ArrayList<CheckStats>();
+		synchronized (chain) {
+			for (Check check : chain.order) {
+				stats.add(new CheckStats(check.name, check.samples, check.rejections, check.nanos));
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * Sort every piece's checks by what has been measured so far, without
+	 * waiting for the next reorderPeriod calls.
+	 */
+	public void reorder()
+	{
+		for (Chain chain : chains.values()) {
+			chain.reorder();
+		}
+	}
+
+	/**
+	 * What has been measured of one check of one piece.
+	 */
+	public static final class CheckStats
+	{
+		private final String name;
+		private final long samples;
+		private final long rejections;
+		private final long nanos;
+
+		CheckStats(String name, long samples, long rejections, long nanos)
+		{
+			this.name = name;
+			this.samples = samples;
+			this.rejections = rejections;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * @return the name of the check
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * @return the number of sampled calls
+		 */
+		public long getSamples()
+		{
+			return samples;
+		}
+
+		/**
+		 * @return the fraction of sampled calls the check rejected
+		 */
+		public double getRejectionRate()
+		{
+			return samples == 0 ? 0 : rejections / (double) samples;
+		}
+
+		/**
+		 * @return the mean time the check took, in nanoseconds
+		 */
+		public double getMeanNanos()
+		{
+			return samples == 0 ? 0 : nanos / (double) samples;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%s: %.1f%% rejected, %.0f ns", name, 100 * getRejectionRate(), getMeanNanos());
+		}
+	}
+
+	/**
+	 * One check of a piece's rule and what has been measured of it.
+	 */
+	private static final class Check
+	{
+		final String name;
+		final Behavior behavior;
+		long samples;
+		long rejections;
+		long nanos;
+
+		Check(String name, Behavior behavior)
+		{
+			this.name = name;
+			this.behavior = behavior;
+		}
+
+		/**
+		 * @return the expected cost of running this check per move it rejects
+		 */
+		double rank()
+		{
+			return rejections == 0 ? Double.POSITIVE_INFINITY : nanos / (double) rejections;
+		}
+	}
+
+	/**
+	 * The checks of one piece's rule.
+	 */
+	private final class Chain implements Behavior
+	{
+		private final Check[] checks;
+		private volatile Check[] order;
+		private int calls;
+
+		Chain(Check[] checks)
+		{
+			this.checks = checks;
+			order = checks.clone();
+		}
+
+		@Override
+		public boolean allowed(Coordinate from, Coordinate to, Board board)
+		{
+			int call = ++calls;
+			if (call >= reorderPeriod) {
+				calls = 0;
+				reorder();
+			}
+			if (call % samplePeriod == 0) {
+				return sample(from, to, board);
+			}
+			for (Check check : order) {
+				if (!check.behavior.allowed(from, to, board)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean sample(Coordinate from, Coordinate to, Board board)
+		{
+			boolean allowed = true;
+			for (Check check : order) {
+				long start = System.nanoTime();
+				boolean passed = check.behavior.allowed(from, to, board);
+				long nanos = System.nanoTime() - start;
+				synchronized (this) {
+					check.samples++;
+					check.nanos += nanos;
+					if (!passed) {
+						check.rejections++;
+					}
+				}
+				allowed &= passed;
+			}
+			return allowed;
+		}
+
+		synchronized void reorder()
+		{
+			Check[] sorted = checks.clone();
+			Arrays.sort(sorted, (a, b) -> {
+				int byRank = Double.compare(a.rank(), b.rank());
+				if (byRank != 0 || a.rejections != 0) {
+					return byRank;
+				}
+				return Long.compare(a.nanos, b.nanos);	// both never rejected
+			});
+			order = sorted;
+		}
+	}
+}
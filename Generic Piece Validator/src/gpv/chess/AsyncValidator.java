@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import gpv.Piece;
+import gpv.chess.ShadowValidator.LatencyStats;
+import gpv.util.*;
+
+/**
+ * Validates moves off the caller's thread: validateAsync() answers with a
+ * CompletableFuture that completes with what ChessPiece#canMove says.
+ * <br/>
+ * The work runs on the executor given to the constructor: a ForkJoinPool
+ * (see forkJoin()), the caller's thread (CALLER_RUNS), or any other, such as
+ * a virtual thread per task executor on a Java that has them. Moves of a
+ * king, knight or pawn take a few array reads, less than handing them to
+ * another thread, so by default they run on the caller's thread whatever
+ * the executor.
+ * <br/>
+ * Requests for the same move in the same position while one is in flight
+ * share its answer instead of queueing again. The position hash only
+ * narrows the search: the same position means the same pieces on every
+ * square (chess pieces of the same kind and moved state, other pieces by
+ * identity), the same moved squares, game state and game rules (see
+ * Board#getGameRules), so a shared answer is always the one the request
+ * would have got. The board must not change until its future
+ * completes.
+ * <code>
+ * 	AsyncValidator validator = new AsyncValidator(AsyncValidator.forkJoin(4), true);
+ * 	validator.validateAsync(board, from, to).thenAccept(allowed -> ...);
+ * </code>
+ * @version Oct 19, 2026
+ */
+public class AsyncValidator
+{
+	/**
+	 * Runs every validation on the thread that asks for it.
+	 */
+	public static final Executor CALLER_RUNS = Runnable::run;
+
+	private final Executor executor;
+	private final boolean inlineCheap;
+	private final ConcurrentMap<Key, CompletableFuture<Boolean>> inFlight =
+			new ConcurrentHashMap<Key, CompletableFuture<Boolean>>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder inlined = new LongAdder();
+	private final LatencyStats queueLatency = new LatencyStats();
+	private final LatencyStats latency = new LatencyStats();
+
+	/**
+	 * A validator on the common ForkJoinPool that runs cheap moves inline.
+	 */
+	public AsyncValidator()
+	{
+		this(ForkJoinPool.commonPool(), true);
+	}
+
+	/**
+	 * @param executor where validations run
+	 * @param inlineCheap true to run the moves of kings, knights and pawns on
+	 * 	the caller's thread
+	 */
+	public AsyncValidator(Executor executor, boolean inlineCheap)
+	{
+		this.executor = executor;
+		this.inlineCheap = inlineCheap;
+	}
+
+	/**
+	 * @param parallelism the number of worker threads
+	 * @return a new ForkJoinPool in asynchronous (FIFO) mode, suited to many
+	 * 	small independent tasks; shut it down when done with it
+	 */
+	public static ForkJoinPool forkJoin(int parallelism)
+	{
+		return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+	}
+
+	/**
+	 * @param board the board
+	 * @param from the coordinate of the piece to move
+	 * @param to the destination
+	 * @return a future that completes with true if the move is allowed, false
+	 * 	if not or if there is no piece to move, or exceptionally if the rules
+	 * 	throw or the executor refuses the work. Cancelling it does not affect
+	 * 	other callers waiting for the same answer.
+	 */
+	public CompletableFuture<Boolean> validateAsync(Board board, Coordinate from, Coordinate to)
+	{
+		requests.increment();
+		long submitted = System.nanoTime();
+		Piece<?> piece = board.getPieceAt(from);
+		if (inlineCheap && isCheap(piece)) {
+			inlined.increment();
+			CompletableFuture<Boolean> answer = new CompletableFuture<Boolean>();
+			try {
+				answer.complete(piece != null && piece.canMove(from, to, board));
+			} catch (RuntimeException e) {
+				answer.completeExceptionally(e);
+			}
+			latency.record(System.nanoTime() - submitted);
+			return answer;
+		}
+		Key key = new Key(board, from, to);
+		CompletableFuture<Boolean> shared = new CompletableFuture<Boolean>();
+		CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, shared);
+		if (existing != null) {
+			coalesced.increment();
+			return existing.whenComplete((allowed, e) -> latency.record(System.nanoTime() - submitted))
+					.thenApply(allowed -> allowed);
+		}
+		queued.incrementAndGet();
+		try {
+			executor.execute(() -> {
+				queued.decrementAndGet();
+				queueLatency.record(System.nanoTime() - submitted);
+				boolean allowed;
+				try {
+					allowed = piece != null && piece.canMove(from, to, board);
+				} catch (RuntimeException e) {
+					finish(key, shared, submitted);
+					shared.completeExceptionally(e);
+					return;
+				}
+				finish(key, shared, submitted);
+				shared.complete(allowed);
+			});
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			inFlight.remove(key, shared);
+			shared.completeExceptionally(e);
+		}
+		return shared.thenApply(allowed -> allowed);
+	}
+
+	/**
+	 * @return the number of validations waiting for a thread
+	 */
+	public int getQueueDepth()
+	{
+		return queued.get();
+	}
+
+	/**
+	 * @return the number of distinct validations queued or running
+	 */
+	public int getInFlight()
+	{
+		return inFlight.size();
+	}
+
+	/**
+	 * @return the number of calls to validateAsync
+	 */
+	public long getRequestCount()
+	{
+		return requests.sum();
+	}
+
+	/**
+	 * @return the number of calls that shared an answer already in flight
+	 */
+	public long getCoalescedCount()
+	{
+		return coalesced.sum();
+	}
+
+	/**
+	 * @return the number of calls answered on the caller's thread
+	 */
+	public long getInlinedCount()
+	{
+		return inlined.sum();
+	}
+
+	/**
+	 * @return the time validations waited for a thread
+	 */
+	public LatencyStats getQueueLatency()
+	{
+		return queueLatency;
+	}
+
+	/**
+	 * @return the time from a call to its answer, queueing included, for
+	 * 	every call, whether inlined, queued or sharing another's answer
+	 */
+	public LatencyStats getLatency()
+	{
+		return latency;
+	}
+
+	/**
+	 * Leave the in-flight map before completing, so that later calls ask
+	 * again rather than get a stale answer.
+	 */
+	private void finish(Key key, CompletableFuture<Boolean> shared, long submitted)
+	{
+		inFlight.remove(key, shared);
+		latency.record(System.nanoTime() - submitted);
+	}
+
+	private static boolean isCheap(Piece<?> piece)
+	{
+		if (!(piece instanceof ChessPiece)) {
+			return piece == null;
+		}
+		PieceName name = ((ChessPiece) piece).getName();
+		return name == PieceName.KING || name == PieceName.KNIGHT || name == PieceName.PAWN;
+	}
+
+	/**
+	 * A move in a position. The hash, game state and rules are compared
+	 * first; equal keys on different boards then compare every square.
+	 */
+	private static final class Key
+	{
+		private final Board board;
+		private final long hash;
+		private final int gameState;
+		private final GameRules rules;
+		private final Piece<?> moving;
+		private final Piece<?> target;
+		private final int fromRow;
+		private final int fromColumn;
+		private final int toRow;
+		private final int toColumn;
+
+		Key(Board board, Coordinate from, Coordinate to)
+		{
+			this.board = board;
+			hash = board.getPositionHash();
+			gameState = board.getGameState();
+			rules = board.getGameRules();
+			moving = board.getPieceAt(from);	// the squares may be off the board, outside the hash
+			target = board.getPieceAt(to);
+			fromRow = from.getRow();
+			fromColumn = from.getColumn();
+			toRow = to.getRow();
+			toColumn = to.getColumn();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int h = Long.hashCode(hash) * 31 + gameState;
+			h = h * 31 + fromRow * 1021 + fromColumn;
+			return h * 31 + toRow * 1021 + toColumn;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && gameState == other.gameState && rules == other.rules
+					&& samePiece(moving, other.moving) && samePiece(target, other.target)
+					&& fromRow == other.fromRow && fromColumn == other.fromColumn
+					&& toRow == other.toRow && toColumn == other.toColumn
+					&& (board == other.board || samePosition(board, other.board));
+		}
+
+		private static boolean samePosition(Board a, Board b)
+		{
+			if (a.getnRows() != b.getnRows() || a.getnColumns() != b.getnColumns()) {
+				return false;
+			}
+			for (int square = 0; square < a.getSquareCount(); square++) {
+				if (!samePiece(a.getPieceAt(square), b.getPieceAt(square)) || a.hasMoved(square) != b.hasMoved(square)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * The rules only ask a chess piece for its kind and whether it has
+		 * moved; other pieces may answer as they like.
+		 */
+		private static boolean samePiece(Piece<?> p, Piece<?> q)
+		{
+			if (p == q) {
+				return true;
+			}
+			return p instanceof ChessPiece && q instanceof ChessPiece
+					&& p.getClass() == ChessPiece.class && q.getClass() == ChessPiece.class
+					&& p.getDescriptor() == q.getDescriptor()
+					&& ((ChessPiece) p).hasMoved() == ((ChessPiece) q).hasMoved();
+		}
+	}
+}
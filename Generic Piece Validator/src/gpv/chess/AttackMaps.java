@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import java.util.*;
+import gpv.Piece;
+import gpv.util.*;
+
+/**
+ * Per-color attack maps for one board. For every square the map knows how
+ * many white and how many black pieces attack it (see ChessAttacks for what
+ * counts as an attack), so isAttacked is a single array read.
+ * <br/>
+ * The maps listen to the board and update themselves when a square changes.
+ * Only the attacks of the piece that left or arrived, and of the sliding
+ * pieces whose lines run through the changed square, are recomputed.
+ * <code>
+ * 	AttackMaps attacks = new AttackMaps(board);
+ * 	...
+ * 	if (attacks.isAttacked(kingSquare, BLACK)) ...
+ * </code>
+ * Call detach() when the maps are no longer needed.
+ * @version Oct 19, 2026
+ */
+public class AttackMaps implements SquareListener
+{
+	private static final int[][] ALL_RAYS = {
+			{ 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 }, { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 } };
+
+	private final Board board;
+	private int[][] counts;		// [color][square] number of attackers
+	private int[][] attacks;	// [square] the squares attacked by the piece on it
+	private int[] nAttacks;		// [square] how much of attacks[square] is in use
+	private byte[] owner;		// [square] 1 + the ordinal of the color of those attacks, 0 if none
+
+	/**
+	 * Build the maps for a board and keep them up to date from now on.
+	 * @param board the board
+	 */
+	public AttackMaps(Board board)
+	{
+		this.board = board;
+		rebuild();
+		board.addSquareListener(this);
+	}
+
+	/**
+	 * Stop following the board.
+	 */
+	public void detach()
+	{
+		board.removeSquareListener(this);
+	}
+
+	/**
+	 * @param c the coordinate of the square
+	 * @param by the color of the attacking side
+	 * @return true if any piece of that color attacks the square
+	 */
+	public boolean isAttacked(Coordinate c, PlayerColor by)
+	{
+		int square = board.squareOf(c);
+		return square >= 0 && counts[by.ordinal()][square] > 0;
+	}
+
+	/**
+	 * @param square the index of the square
+	 * @param by the color of the attacking side
+	 * @return true if any piece of that color attacks the square
+	 */
+	public boolean isAttacked(int square, PlayerColor by)
+	{
+		return counts[by.ordinal()][square] > 0;
+	}
+
+	/**
+	 * @param c the coordinate of the square
+	 * @param by the color of the attacking side
+	 * @return the number of pieces of that color attacking the square
+	 */
+	public int attackCount(Coordinate c, PlayerColor by)
+	{
+		int square = board.squareOf(c);
+		return square < 0 ? 0 : counts[by.ordinal()][square];
+	}
+
+	/**
+	 * @param c the coordinate of the square
+	 * @param by the color of the attacking side
+	 * @return the coordinates of the pieces of that color attacking the square
+	 */
+	public List<Coordinate> attackersOf(Coordinate c, PlayerColor by)
+	{
+		if (attackCount(c, by) == 0) {
+			return new ArrayList<Coordinate>();
+		}
+		return ChessAttacks.attackersOf(board, c, by);
+	}
+
+	/*
+	 * @see gpv.util.SquareListener#squareChanged(gpv.util.Board, int, gpv.Piece, gpv.Piece)
+	 */
+	@Override
+	public void squareChanged(Board b, int square, Piece old, Piece now)
+	{
+		removeAttacks(square);
+		int row = board.rowOf(square);
+		int column = board.columnOf(square);
+		for (int[] ray : ALL_RAYS) {
+			int slider = firstPiece(row, column, ray);
+			if (slider >= 0) {
+				ChessPiece p = ChessAttacks.chessPieceAt(board, slider);
+				if (p != null && ChessAttacks.slidesAlong(p.getName(), ray)) {
+					removeAttacks(slider);
+					addAttacks(slider, p);
+				}
+			}
+		}
+		if (now instanceof ChessPiece) {
+			addAttacks(square, (ChessPiece) now);
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareListener#boardReset(gpv.util.Board)
+	 */
+	@Override
+	public void boardReset(Board b)
+	{
+		rebuild();
+	}
+
+	private void rebuild()
+	{
+		int squares = board.getSquareCount();
+		counts = new int[PlayerColor.values().length][squares];
+		attacks = new int[squares][];
+		nAttacks = new int[squares];
+		owner = new byte[squares];
+		for (int square = 0; square < squares; square++) {
+			ChessPiece p = ChessAttacks.chessPieceAt(board, square);
+			if (p != null) {
+				addAttacks(square, p);
+			}
+		}
+	}
+
+	private void addAttacks(int square, ChessPiece p)
+	{
+		int[] colorCounts = counts[p.getColor().ordinal()];
+		owner[square] = (byte) (p.getColor().ordinal() + 1);
+		nAttacks[square] = 0;
+		ChessAttacks.forEachAttack(board, square, p, target -> {
+			append(square, target);
+			colorCounts[target]++;
+		});
+	}
+
+	private void append(int square, int target)
+	{
+		int[] list = attacks[square];
+		if (list == null) {
+			list = attacks[square] = new int[8];
+		} else if (nAttacks[square] == list.length) {
+			list = attacks[square] = Arrays.copyOf(list, list.length * 2);
+		}
+		list[nAttacks[square]++] = target;
+	}
+
+	private void removeAttacks(int square)
+	{
+		if (owner[square] == 0) {
+			return;
+		}
+		int[] colorCounts = counts[owner[square] - 1];
+		for (int i = 0; i < nAttacks[square]; i++) {
+			colorCounts[attacks[square][i]]--;
+		}
+		nAttacks[square] = 0;
+		owner[square] = 0;
+	}
+
+	/**
+	 * @return the square of the first piece along the ray, or -1
+	 */
+	private int firstPiece(int row, int column, int[] ray)
+	{
+		int r = row + ray[0];
+		int c = column + ray[1];
+		int square;
+		while ((square = board.squareOf(r, c)) >= 0) {
+			if (board.getPieceAt(square) != null) {
+				return square;
+			}
+			r += ray[0];
+			c += ray[1];
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessAttacks.chessPieceAt;
+import java.util.Arrays;
+import gpv.util.*;
+
+/**
+ * The castling moves of one game, worked out once from where its kings and
+ * rooks start. For each castling right (see GameState) the table holds the
+ * king's and rook's origin and destination squares and the squares that
+ * must be empty, so checking a castling move is a few array reads whatever
+ * the starting position.
+ * <br/>
+ * Kings castle to column 3 or 7 and their rooks to column 4 or 6, as in
+ * standard chess and Chess960. A castling move is the king moving to its
+ * destination, when that is at least two columns away, or onto its own
+ * rook's square, which is the only way to write it when the king starts
+ * next to its destination in Chess960.
+ * <br/>
+ * A table is kept with the board it belongs to as its GameRules (see
+ * attach). Boards without one castle by the standard rules of ChessRules;
+ * GameState#start attaches the standard table if there is none. Board#reset
+ * discards the table, so attach it again when reusing a board.
+ * <code>
+ * 	CastlingTable.chess960(8, 8, 2, 1, 6).attach(board);	// king on b, rooks on a and f
+ * 	GameState.start(board, PlayerColor.WHITE);
+ * </code>
+ * @version Oct 19, 2026
+ */
+public final class CastlingTable implements GameRules
+{
+	static final int KING_SIDE_KING_COLUMN = 7;
+	static final int KING_SIDE_ROOK_COLUMN = 6;
+	static final int QUEEN_SIDE_KING_COLUMN = 3;
+	static final int QUEEN_SIDE_ROOK_COLUMN = 4;
+
+	private final int rows;
+	private final int columns;
+	private final int kingColumn;
+	private final int queenRookColumn;
+	private final int kingRookColumn;
+	// indexed by the bit number of the castling right; -1 if it cannot exist
+	private final int[] kingFrom = new int[4];
+	private final int[] kingTo = new int[4];
+	private final int[] rookFrom = new int[4];
+	private final int[] rookTo = new int[4];
+	private final int[][] mustBeEmpty = new int[4][];
+
+	/**
+	 * @param rows the number of rows of the board
+	 * @param columns the number of columns of the board
+	 * @return the table for kings in column 5 and rooks in columns 1 and 8
+	 */
+	public static CastlingTable standard(int rows, int columns)
+	{
+		return new CastlingTable(rows, columns, 5, 1, 8);
+	}
+
+	/**
+	 * @param rows the number of rows of the board
+	 * @param columns the number of columns of the board
+	 * @param kingColumn the column the kings start in
+	 * @param queenRookColumn the column of the rooks that castle queen side
+	 * @param kingRookColumn the column of the rooks that castle king side
+	 * @return the table for a Chess960 (or any other) starting position
+	 * @throws IllegalArgumentException unless the king starts between its rooks
+	 */
+	public static CastlingTable chess960(int rows, int columns, int kingColumn, int queenRookColumn,
+			int kingRookColumn)
+	{
+		if (!(queenRookColumn < kingColumn && kingColumn < kingRookColumn)) {
+			throw new IllegalArgumentException("the king must start between its rooks");
+		}
+		return new CastlingTable(rows, columns, kingColumn, queenRookColumn, kingRookColumn);
+	}
+
+	/**
+	 * @param board a board
+	 * @return the table attached to the board, or null if there is none
+	 */
+	public static CastlingTable of(Board board)
+	{
+		GameRules rules = board.getGameRules();
+		return rules instanceof CastlingTable ? (CastlingTable) rules : null;
+	}
+
+	private CastlingTable(int rows, int columns, int kingColumn, int queenRookColumn, int kingRookColumn)
+	{
+		this.rows = rows;
+		this.columns = columns;
+		this.kingColumn = kingColumn;
+		this.queenRookColumn = queenRookColumn;
+		this.kingRookColumn = kingRookColumn;
+		for (PlayerColor color : PlayerColor.values()) {
+			int row = color == PlayerColor.WHITE ? 1 : rows;
+			add(color, true, row, kingColumn, kingRookColumn, KING_SIDE_KING_COLUMN, KING_SIDE_ROOK_COLUMN);
+			add(color, false, row, kingColumn, queenRookColumn, QUEEN_SIDE_KING_COLUMN, QUEEN_SIDE_ROOK_COLUMN);
+		}
+	}
+
+	private void add(PlayerColor color, boolean kingSide, int row, int kingColumn, int rookColumn,
+			int kingToColumn, int rookToColumn)
+	{
+		int right = Integer.numberOfTrailingZeros(GameState.castlingRight(color, kingSide));
+		int low = Math.min(Math.min(kingColumn, rookColumn), Math.min(kingToColumn, rookToColumn));
+		int high = Math.max(Math.max(kingColumn, rookColumn), Math.max(kingToColumn, rookToColumn));
+		if (low < 1 || high > columns) {
+			kingFrom[right] = -1;
+			return;
+		}
+		kingFrom[right] = squareOf(row, kingColumn);
+		kingTo[right] = squareOf(row, kingToColumn);
+		rookFrom[right] = squareOf(row, rookColumn);
+		rookTo[right] = squareOf(row, rookToColumn);
+		int[] empty = new int[high - low + 1];
+		int n = 0;
+		for (int column = low; column <= high; column++) {
+			if (column != kingColumn && column != rookColumn) {
+				empty[n++] = squareOf(row, column);
+			}
+		}
+		mustBeEmpty[right] = Arrays.copyOf(empty, n);
+	}
+
+	/**
+	 * Keep this table with a board, replacing whatever the rules kept there.
+	 * @param board a board of the size the table was made for
+	 */
+	public void attach(Board board)
+	{
+		if (!fits(board.getnRows(), board.getnColumns())) {
+			throw new IllegalArgumentException("the table is for a " + rows + "x" + columns + " board");
+		}
+		board.setGameRules(this);
+	}
+
+	/*
+	 * @see gpv.util.GameRules#fits(int, int)
+	 */
+	@Override
+	public boolean fits(int rows, int columns)
+	{
+		return rows == this.rows && columns == this.columns;
+	}
+
+	/**
+	 * A castling move is written as the king moving to targetOf(right), so
+	 * a king moving onto its own rook castles only when its destination is
+	 * next to it, as in Chess960.
+	 * @param from the square of a king
+	 * @param to the square it moves to
+	 * @return the bit number of the castling right the move would use, or
+	 * 	-1 if it is not a castling move
+	 */
+	int castlingOf(int from, int to)
+	{
+		for (int right = 0; right < 4; right++) {
+			if (kingFrom[right] == from && to == targetOf(right)) {
+				return right;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param board the board
+	 * @param right the bit number of a castling right
+	 * @return true if the king and rook are in place, have not lost the
+	 * 	right (or, in a game whose state is not kept, have not moved), and
+	 * 	nothing else stands on the squares they cross or land on
+	 */
+	boolean allows(Board board, int right)
+	{
+		ChessPiece king = chessPieceAt(board, kingFrom[right]);
+		ChessPiece rook = chessPieceAt(board, rookFrom[right]);
+		PlayerColor color = right < 2 ? PlayerColor.WHITE : PlayerColor.BLACK;
+		if (king == null || king.getName() != PieceName.KING || king.getColor() != color
+				|| rook == null || rook.getName() != PieceName.ROOK || rook.getColor() != color) {
+			return false;
+		}
+		int state = board.getGameState();
+		if (GameState.isStarted(state)) {
+			if ((state & (1 << right)) == 0) {
+				return false;
+			}
+		} else if (king.hasMoved(board, kingFrom[right]) || rook.hasMoved(board, rookFrom[right])) {
+			return false;
+		}
+		for (int square : mustBeEmpty[right]) {
+			if (board.getPieceAt(square) != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param board the board
+	 * @return the castling rights of the kings and rooks on their starting
+	 * 	squares that are not marked as moved
+	 */
+	int initialRights(Board board)
+	{
+		int rights = 0;
+		for (int right = 0; right < 4; right++) {
+			if (kingFrom[right] >= 0) {
+				ChessPiece king = chessPieceAt(board, kingFrom[right]);
+				ChessPiece rook = chessPieceAt(board, rookFrom[right]);
+				PlayerColor color = right < 2 ? PlayerColor.WHITE : PlayerColor.BLACK;
+				if (king != null && king.getName() == PieceName.KING && king.getColor() == color
+						&& !king.hasMoved(board, kingFrom[right])
+						&& rook != null && rook.getName() == PieceName.ROOK && rook.getColor() == color
+						&& !rook.hasMoved(board, rookFrom[right])) {
+					rights |= 1 << right;
+				}
+			}
+		}
+		return rights;
+	}
+
+	/**
+	 * @param square the index of a square
+	 * @return the castling rights lost when a piece leaves or lands on it
+	 */
+	int rightsTouching(int square)
+	{
+		int rights = 0;
+		for (int right = 0; right < 4; right++) {
+			if (kingFrom[right] >= 0 && (kingFrom[right] == square || rookFrom[right] == square)) {
+				rights |= 1 << right;
+			}
+		}
+		return rights;
+	}
+
+	/**
+	 * @param right the bit number of a castling right
+	 * @return the square a king castling with that right is moved to when
+	 * 	generating moves: its destination, or its rook's square when the
+	 * 	destination is next to it
+	 */
+	int targetOf(int right)
+	{
+		return Math.abs(kingTo[right] - kingFrom[right]) >= 2 ? kingTo[right] : rookFrom[right];
+	}
+
+	/**
+	 * @return the column the kings start in
+	 */
+	public int getKingColumn()
+	{
+		return kingColumn;
+	}
+
+	/**
+	 * @return the column of the rooks that castle queen side
+	 */
+	public int getQueenRookColumn()
+	{
+		return queenRookColumn;
+	}
+
+	/**
+	 * @return the column of the rooks that castle king side
+	 */
+	public int getKingRookColumn()
+	{
+		return kingRookColumn;
+	}
+
+	int kingFrom(int right)
+	{
+		return kingFrom[right];
+	}
+
+	int kingTo(int right)
+	{
+		return kingTo[right];
+	}
+
+	int rookFrom(int right)
+	{
+		return rookFrom[right];
+	}
+
+	int rookTo(int right)
+	{
+		return rookTo[right];
+	}
+
+	private int squareOf(int row, int column)
+	{
+		return (row - 1) * columns + column - 1;
+	}
+}
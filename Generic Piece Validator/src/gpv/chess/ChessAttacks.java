@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import java.util.*;
+import gpv.Piece;
+import gpv.util.*;
+
+/**
+ * Static helpers that work out which squares chess pieces attack. A square is
+ * attacked by a piece if that piece could capture an enemy standing there:
+ * pawns attack diagonally forward, kings and knights attack their usual
+ * targets, and the sliding pieces attack along their lines up to and
+ * including the first occupied square. Castling is not an attack.
+ * <br/>
+ * Squares are the square indices of the board (see Board#squareOf).
+ * @version Oct 19, 2026
+ */
+public final class ChessAttacks
+{
+	static final int[][] KNIGHT_STEPS = {
+			{ 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+	static final int[][] KING_STEPS = {
+			{ 1, 0 }, { 1, 1 }, { 0, 1 }, { -1, 1 }, { -1, 0 }, { -1, -1 }, { 0, -1 }, { 1, -1 } };
+	static final int[][] STRAIGHT_RAYS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+	static final int[][] DIAGONAL_RAYS = { { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 } };
+
+	/**
+	 * Receives attacked squares.
+	 */
+	@FunctionalInterface
+	interface SquareSink
+	{
+		void accept(int square);
+	}
+
+	private ChessAttacks()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @param board the board
+	 * @param target the coordinate of the square
+	 * @param by the color of the attacking side
+	 * @return true if any piece of that color attacks the square
+	 */
+	public static boolean isAttacked(Board board, Coordinate target, PlayerColor by)
+	{
+		int square = board.squareOf(target);
+		return square >= 0 && isAttacked(board, square, by);
+	}
+
+	/**
+	 * Looks outward from the square for attackers instead of asking every
+	 * enemy piece, so it costs a handful of lookups per direction.
+	 * @param board the board
+	 * @param square the index of the square
+	 * @param by the color of the attacking side
+	 * @return true if any piece of that color attacks the square
+	 */
+	public static boolean isAttacked(Board board, int square, PlayerColor by)
+	{
+		return scanAttackers(board, square, by, null) > 0;
+	}
+
+	/**
+	 * @param board the board
+	 * @param target the coordinate of the square
+	 * @param by the color of the attacking side
+	 * @return the coordinates of every piece of that color attacking the square
+	 */
+	public static List<Coordinate> attackersOf(Board board, Coordinate target, PlayerColor by)
+	{
+		List<Coordinate> attackers = new ArrayList<Coordinate>();
+		int square = board.squareOf(target);
+		if (square >= 0) {
+			scanAttackers(board, square, by, s -> attackers.add(board.coordinateOf(s)));
+		}
+		return attackers;
+	}
+
+	/**
+	 * Find the attackers of a square by color.
+	 * @param board the board
+	 * @param square the index of the square
+	 * @param by the color of the attacking side
+	 * @param sink receives each attacker's square; when null the scan stops
+	 * 	at the first attacker
+	 * @return the number of attackers found
+	 */
+	static int scanAttackers(Board board, int square, PlayerColor by, SquareSink sink)
+	{
+		return scanAttackers(board, square, by, sink, -1);
+	}
+
+	/**
+	 * Like scanAttackers, but the sliders see through one square as if it
+	 * were empty, such as the square a king is about to leave.
+	 * @param board the board
+	 * @param square the index of the square
+	 * @param by the color of the attacking side
+	 * @param sink receives each attacker's square, or null
+	 * @param vacated the index of the square to see through, or -1
+	 * @return the number of attackers found
+	 */
+	static int scanAttackers(Board board, int square, PlayerColor by, SquareSink sink, int vacated)
+	{
+		int row = board.rowOf(square);
+		int column = board.columnOf(square);
+		int found = 0;
+
+		int pawnRow = by == PlayerColor.WHITE ? row - 1 : row + 1;
+		found += leapers(board, pawnRow, column - 1, by, PieceName.PAWN, sink);
+		if (found > 0 && sink == null) return found;
+		found += leapers(board, pawnRow, column + 1, by, PieceName.PAWN, sink);
+		if (found > 0 && sink == null) return found;
+
+		for (int[] step : KNIGHT_STEPS) {
+			found += leapers(board, row + step[0], column + step[1], by, PieceName.KNIGHT, sink);
+			if (found > 0 && sink == null) return found;
+		}
+		for (int[] step : KING_STEPS) {
+			found += leapers(board, row + step[0], column + step[1], by, PieceName.KING, sink);
+			if (found > 0 && sink == null) return found;
+		}
+		for (int[] ray : STRAIGHT_RAYS) {
+			found += slider(board, row, column, ray, by, PieceName.ROOK, sink, vacated);
+			if (found > 0 && sink == null) return found;
+		}
+		for (int[] ray : DIAGONAL_RAYS) {
+			found += slider(board, row, column, ray, by, PieceName.BISHOP, sink, vacated);
+			if (found > 0 && sink == null) return found;
+		}
+		return found;
+	}
+
+	/**
+	 * Report every square attacked by a piece.
+	 * @param board the board
+	 * @param square the index of the square the piece stands on
+	 * @param piece the piece
+	 * @param sink receives each attacked square
+	 */
+	static void forEachAttack(Board board, int square, ChessPiece piece, SquareSink sink)
+	{
+		int row = board.rowOf(square);
+		int column = board.columnOf(square);
+		switch (piece.getName()) {
+			case PAWN:
+				int forward = piece.getColor() == PlayerColor.WHITE ? 1 : -1;
+				step(board, row + forward, column - 1, sink);
+				step(board, row + forward, column + 1, sink);
+				break;
+			case KNIGHT:
+				for (int[] step : KNIGHT_STEPS) {
+					step(board, row + step[0], column + step[1], sink);
+				}
+				break;
+			case KING:
+				for (int[] step : KING_STEPS) {
+					step(board, row + step[0], column + step[1], sink);
+				}
+				break;
+			case ROOK:
+				rays(board, row, column, STRAIGHT_RAYS, sink);
+				break;
+			case BISHOP:
+				rays(board, row, column, DIAGONAL_RAYS, sink);
+				break;
+			case QUEEN:
+				rays(board, row, column, STRAIGHT_RAYS, sink);
+				rays(board, row, column, DIAGONAL_RAYS, sink);
+				break;
+		}
+	}
+
+	/**
+	 * @return true if a piece with this name slides along the given ray
+	 */
+	static boolean slidesAlong(PieceName name, int[] ray)
+	{
+		boolean diagonal = ray[0] != 0 && ray[1] != 0;
+		return name == PieceName.QUEEN
+				|| (diagonal ? name == PieceName.BISHOP : name == PieceName.ROOK);
+	}
+
+	/**
+	 * @return the chess piece on the square, or null if it is empty or not a chess piece
+	 */
+	static ChessPiece chessPieceAt(Board board, int square)
+	{
+		Piece p = board.getPieceAt(square);
+		return p instanceof ChessPiece ? (ChessPiece) p : null;
+	}
+
+	private static int leapers(Board board, int row, int column, PlayerColor by, PieceName name,
+			SquareSink sink)
+	{
+		int square = board.squareOf(row, column);
+		if (square < 0) {
+			return 0;
+		}
+		ChessPiece p = chessPieceAt(board, square);
+		if (p != null && p.getColor() == by && p.getName() == name) {
+			if (sink != null) {
+				sink.accept(square);
+			}
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * @param straightName ROOK for straight rays, BISHOP for diagonal ones;
+	 * 	queens are always accepted
+	 */
+	private static int slider(Board board, int row, int column, int[] ray, PlayerColor by,
+			PieceName straightName, SquareSink sink, int vacated)
+	{
+		int r = row + ray[0];
+		int c = column + ray[1];
+		int square;
+		while ((square = board.squareOf(r, c)) >= 0) {
+			Piece p = square == vacated ? null : board.getPieceAt(square);
+			if (p != null) {
+				if (p instanceof ChessPiece) {
+					ChessPiece cp = (ChessPiece) p;
+					if (cp.getColor() == by
+							&& (cp.getName() == straightName || cp.getName() == PieceName.QUEEN)) {
+						if (sink != null) {
+							sink.accept(square);
+						}
+						return 1;
+					}
+				}
+				return 0;
+			}
+			r += ray[0];
+			c += ray[1];
+		}
+		return 0;
+	}
+
+	private static void step(Board board, int row, int column, SquareSink sink)
+	{
+		int square = board.squareOf(row, column);
+		if (square >= 0) {
+			sink.accept(square);
+		}
+	}
+
+	private static void rays(Board board, int row, int column, int[][] rays, SquareSink sink)
+	{
+		for (int[] ray : rays) {
+			int r = row + ray[0];
+			int c = column + ray[1];
+			int square;
+			while ((square = board.squareOf(r, c)) >= 0) {
+				sink.accept(square);
+				if (board.getPieceAt(square) != null) {
+					break;
+				}
+				r += ray[0];
+				c += ray[1];
+			}
+		}
+	}
+}
@@ -23,6 +23,16 @@ public interface ChessBehavior {
 		public boolean allowed(Coordinate from, Coordinate to, Board board);
 	}
 
+	/**
+	 * The same question as Behavior, asked with square indices (see
+	 * Board#squareOf) instead of Coordinates. Both squares must be on the
+	 * board.
+	 */
+	@FunctionalInterface
+	interface SquareBehavior {
+		public boolean allowed(int from, int to, Board board);
+	}
+
 	/**
 	 * This lambda will check if the given coordinates to move to are valid
 	 * coordinates on the given board.
@@ -83,14 +93,14 @@ public interface ChessBehavior {
 	 * @returns true if there is, false if not
 	 */
 	public static Behavior clearPath = (from, to, board) -> {
-		int changeX = (int) ((to.getX() - from.getX()) / Math.abs(to.getX() - from.getX())); // get the x unit vector
-		int changeY = (int) ((to.getY() - from.getY()) / Math.abs(to.getY() - from.getY())); // get the x unit vector
+		int changeX = Integer.signum(to.getRow() - from.getRow()); // get the x unit vector
+		int changeY = Integer.signum(to.getColumn() - from.getColumn()); // get the x unit vector
 
-		int endX = (int) to.getX(); // store for ease
-		int endY = (int) to.getY(); // store for ease
+		int endX = to.getRow(); // store for ease
+		int endY = to.getColumn(); // store for ease
 
-		int x = (int) from.getX(); // and the starting point
-		int y = (int) from.getY(); // and the starting point
+		int x = from.getRow(); // and the starting point
+		int y = from.getColumn(); // and the starting point
 
 		if (x != endX)
 			x += changeX; // if there is to be a change here, add it
@@ -122,8 +132,8 @@ public interface ChessBehavior {
 		if (!ChessBehavior.clearPath.allowed(from, to, board))
 			return false;
 
-		int distanceX = (int) Math.abs(to.getX() - from.getX()); // the the delta change in the x
-		int distanceY = (int) Math.abs(to.getY() - from.getY()); // get the delta change in the y
+		int distanceX = Math.abs(to.getRow() - from.getRow()); // the the delta change in the x
+		int distanceY = Math.abs(to.getColumn() - from.getColumn()); // get the delta change in the y
 
 		return distanceX == distanceY; // for them to be a valid diagonal this had be true
 	};
@@ -138,8 +148,8 @@ public interface ChessBehavior {
 		if (!ChessBehavior.clearPath.allowed(from, to, board))
 			return false;
 
-		int distanceX = (int) Math.abs(to.getX() - from.getX()); // the the delta change in the x
-		int distanceY = (int) Math.abs(to.getY() - from.getY()); // get the delta change in the y
+		int distanceX = Math.abs(to.getRow() - from.getRow()); // the the delta change in the x
+		int distanceY = Math.abs(to.getColumn() - from.getColumn()); // get the delta change in the y
 
 		return (distanceX != 0 && distanceY == 0) || (distanceY != 0 && distanceX == 0); // this must be true for it to
 																							// be a valid straight //
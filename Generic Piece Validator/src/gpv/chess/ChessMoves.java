@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessAttacks.*;
+import gpv.Piece;
+import gpv.util.Board;
+
+/**
+ * Move generation and move making for engines built on the validator. A move
+ * is an int holding the from and to square indices (see Board#squareOf), so
+ * boards may have up to 65536 squares.
+ * <br/>
+ * generate() only proposes the squares each kind of piece could reach
+ * geometrically and keeps the ones that ChessPiece#canMove accepts, so the
+ * moves an engine plays are exactly the moves the validator allows. As in
+ * the rules, there is no notion of check: a side may leave its king attacked,
+ * and the king can be captured.
+ * @version Oct 19, 2026
+ */
+public final class ChessMoves
+{
+	private static final ChessPieceDescriptor[][] PIECES_OF = new ChessPieceDescriptor[2][];
+	static {
+		for (PlayerColor color : PlayerColor.values()) {
+			int n = 0;
+			PIECES_OF[color.ordinal()] = new ChessPieceDescriptor[6];
+			for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+				if (d.getColor() == color) {
+					PIECES_OF[color.ordinal()][n++] = d;
+				}
+			}
+		}
+	}
+
+	private ChessMoves()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @param from the index of the square the piece leaves
+	 * @param to the index of the square the piece goes to
+	 * @return the move
+	 */
+	public static int encode(int from, int to)
+	{
+		return (from << 16) | to;
+	}
+
+	/**
+	 * @param move a move
+	 * @return the index of the square the piece leaves
+	 */
+	public static int fromOf(int move)
+	{
+		return move >>> 16;
+	}
+
+	/**
+	 * @param move a move
+	 * @return the index of the square the piece goes to
+	 */
+	public static int toOf(int move)
+	{
+		return move & 0xFFFF;
+	}
+
+	/**
+	 * Add every move the validator allows the given side to the list.
+	 * @param board the board
+	 * @param color the side to move
+	 * @param moves the list to add to; it is not cleared first
+	 */
+	public static void generate(Board board, PlayerColor color, MoveList moves)
+	{
+		if (moves.scratch.length < board.getSquareCount()) {
+			moves.scratch = new int[board.getSquareCount()];
+		}
+		int[] squares = moves.scratch;
+		int n = 0;
+		for (ChessPieceDescriptor d : PIECES_OF[color.ordinal()]) {
+			n = board.collectSquaresOf(d, squares, n);
+		}
+		for (int i = 0; i < n; i++) {
+			generateFrom(board, squares[i], moves);
+		}
+	}
+
+	/**
+	 * Make a move on the board. On a board with a CastlingTable, a king move
+	 * the table lists as castling puts the king and rook on their castling
+	 * squares. On other boards a king moving two columns castles, and the
+	 * rook it castles with, in column 1 or 8, lands on the square the king
+	 * crossed. If the board's game state has been started (see GameState) it
+	 * is brought up to date, and a pawn moving diagonally onto an empty
+	 * square captures en passant. BoardChangeListeners are told about the
+	 * whole move at once.
+	 * @param board the board
+	 * @param move a move that the validator allows
+	 * @return the piece captured by the move, or null
+	 */
+	public static Piece apply(Board board, int move)
+	{
+		board.beginChanges();
+		try {
+			return applyMove(board, move);
+		} finally {
+			board.endChanges();
+		}
+	}
+
+	private static Piece applyMove(Board board, int move)
+	{
+		int from = fromOf(move);
+		int to = toOf(move);
+		Piece piece = board.getPieceAt(from);
+		boolean started = GameState.isStarted(board.getGameState());
+		if (started) {
+			board.setGameState(GameState.afterMove(board, from, to));
+		}
+		CastlingTable table = CastlingTable.of(board);
+		int right = table == null ? -1 : table.castlingOf(from, to);
+		if (right >= 0 && piece instanceof ChessPiece && ((ChessPiece) piece).getName() == PieceName.KING) {
+			castle(board, table, right);
+			return null;
+		}
+		Piece captured = board.movePiece(from, to);
+		if (started && captured == null && piece instanceof ChessPiece && ((ChessPiece) piece).getName() == PieceName.PAWN
+				&& board.columnOf(from) != board.columnOf(to)) {
+			int passed = board.squareOf(board.rowOf(from), board.columnOf(to));
+			captured = board.getPieceAt(passed);
+			board.putPieceAt(null, board.coordinateOf(passed));
+		}
+		if (table == null && piece instanceof ChessPiece && ((ChessPiece) piece).getName() == PieceName.KING
+				&& board.rowOf(from) == board.rowOf(to)
+				&& Math.abs(board.columnOf(to) - board.columnOf(from)) == 2) {
+			int row = board.rowOf(from);
+			int direction = Integer.signum(board.columnOf(to) - board.columnOf(from));
+			int rook = board.squareOf(row, direction > 0 ? 8 : 1);
+			board.movePiece(rook, board.squareOf(row, board.columnOf(from) + direction));
+		}
+		return captured;
+	}
+
+	/**
+	 * Lift the king and rook off the board before putting them down, since
+	 * in Chess960 either may land where the other stood.
+	 */
+	private static void castle(Board board, CastlingTable table, int right)
+	{
+		Piece king = board.getPieceAt(table.kingFrom(right));
+		Piece rook = board.getPieceAt(table.rookFrom(right));
+		board.putPieceAt(null, board.coordinateOf(table.kingFrom(right)));
+		board.putPieceAt(null, board.coordinateOf(table.rookFrom(right)));
+		board.putPieceAt(king, board.coordinateOf(table.kingTo(right)));
+		board.putPieceAt(rook, board.coordinateOf(table.rookTo(right)));
+		board.setMoved(table.kingTo(right), true);
+		board.setMoved(table.rookTo(right), true);
+	}
+
+	/**
+	 * Propose the geometric targets of the piece on a square and keep the
+	 * ones the piece's rules accept. Also used by LegalDestinations.
+	 */
+	static void generateFrom(Board board, int from, MoveList moves)
+	{
+		ChessPiece piece = chessPieceAt(board, from);
+		int row = board.rowOf(from);
+		int column = board.columnOf(from);
+		switch (piece.getName()) {
+			case PAWN:
+				int forward = piece.getColor() == PlayerColor.WHITE ? 1 : -1;
+				tryStep(board, piece, from, row + forward, column, moves);
+				tryStep(board, piece, from, row + 2 * forward, column, moves);
+				tryStep(board, piece, from, row + forward, column - 1, moves);
+				tryStep(board, piece, from, row + forward, column + 1, moves);
+				break;
+			case KNIGHT:
+				for (int[] step : KNIGHT_STEPS) {
+					tryStep(board, piece, from, row + step[0], column + step[1], moves);
+				}
+				break;
+			case KING:
+				for (int[] step : KING_STEPS) {
+					tryStep(board, piece, from, row + step[0], column + step[1], moves);
+				}
+				CastlingTable table = CastlingTable.of(board);
+				if (table == null) {
+					tryStep(board, piece, from, row, column - 2, moves);
+					tryStep(board, piece, from, row, column + 2, moves);
+					break;
+				}
+				for (int right = 0; right < 4; right++) {
+					if (table.kingFrom(right) == from) {
+						int to = table.targetOf(right);
+						if (piece.canMove(from, to, board)) {
+							moves.add(encode(from, to));
+						}
+					}
+				}
+				break;
+			case ROOK:
+				tryRays(board, piece, from, row, column, STRAIGHT_RAYS, moves);
+				break;
+			case BISHOP:
+				tryRays(board, piece, from, row, column, DIAGONAL_RAYS, moves);
+				break;
+			case QUEEN:
+				tryRays(board, piece, from, row, column, STRAIGHT_RAYS, moves);
+				tryRays(board, piece, from, row, column, DIAGONAL_RAYS, moves);
+				break;
+		}
+	}
+
+	private static void tryStep(Board board, ChessPiece piece, int from, int row, int column,
+			MoveList moves)
+	{
+		int to = board.squareOf(row, column);
+		if (to >= 0 && piece.canMove(from, to, board)) {
+			moves.add(encode(from, to));
+		}
+	}
+
+	/**
+	 * Sliding targets stop at the first occupied square, which is proposed
+	 * in case it can be captured.
+	 */
+	private static void tryRays(Board board, ChessPiece piece, int from, int row, int column,
+			int[][] rays, MoveList moves)
+	{
+		for (int[] ray : rays) {
+			int r = row + ray[0];
+			int c = column + ray[1];
+			int to;
+			while ((to = board.squareOf(r, c)) >= 0) {
+				if (piece.canMove(from, to, board)) {
+					moves.add(encode(from, to));
+				}
+				if (board.getPieceAt(to) != null) {
+					break;
+				}
+				r += ray[0];
+				c += ray[1];
+			}
+		}
+	}
+}
@@ -20,20 +20,40 @@ import gpv.util.*;
  * determining whether a piece can move. It implements the Piece interface
  * and adds properties and methods that are necessary for the chess-specific
  * behavior.
+ * <br/>
+ * A piece is either private to one board, in which case it can remember that
+ * it has moved, or a shared instance handed out by a sharing
+ * ChessPieceFactory. Shared pieces are immutable and their moved state is
+ * kept by the Board they stand on.
+ * <br/>
+ * canMove answers for the piece standing on the from square, whichever
+ * piece it is called on, and false when that square is empty. It first
+ * asks MoveShapes whether a piece of that kind could ever make the move.
  * @version Feb 21, 2020
  */
 public class ChessPiece implements Piece<ChessPieceDescriptor>
 {
 	private final ChessPieceDescriptor descriptor;
+	private final boolean shared;	// true if this instance is used on many squares and boards
 	private boolean hasMoved;	// true if this piece has moved
 	
 	/**
-	 * The only constructor for a ChessPiece instance. Requires a descriptor.
+	 * The public constructor for a ChessPiece instance. Requires a descriptor.
 	 * @param descriptor
 	 */
 	public ChessPiece(ChessPieceDescriptor descriptor)
+	{
+		this(descriptor, false);
+	}
+
+	/**
+	 * @param descriptor
+	 * @param shared true for the immutable instances of a sharing factory
+	 */
+	ChessPiece(ChessPieceDescriptor descriptor, boolean shared)
 	{
 		this.descriptor = descriptor;
+		this.shared = shared;
 		hasMoved = false;
 	}
 
@@ -69,27 +89,95 @@ public class ChessPiece implements Piece<ChessPieceDescriptor>
 	public boolean canMove(Coordinate from, Coordinate to, Board b)
 	{
 		if(from != null && to != null && b != null) {
-			PieceName name = ((ChessPieceDescriptor) b.getPieceAt(from).getDescriptor()).getName();
-			return ChessRules.getRules(name).allowed(from, to, b);
+			Piece<?> p = b.getPieceAt(from);
+			if (p == null) {
+				return false;
+			}
+			ChessPieceDescriptor d = (ChessPieceDescriptor) p.getDescriptor();
+			if (!MoveShapes.isPossible(d, to.getRow() - from.getRow(), to.getColumn() - from.getColumn())) {
+				return false; // no board could allow it
+			}
+			int fromSquare = b.squareOf(from);
+			if (fromSquare < 0) { // a piece placed off the board, leave it to the original rules
+				return ChessRules.getRules(d.getName()).allowed(from, to, b);
+			}
+			int toSquare = b.squareOf(to);
+			return toSquare >= 0 && canMove(fromSquare, toSquare, b);
 		}
 		
 		return false;
 	}
 
+	/*
+	 * @see gpv.Piece#canMove(int, int, gpv.util.Board)
+	 */
+	@Override
+	public boolean canMove(int fromSquare, int toSquare, Board b)
+	{
+		Piece<?> p = b.getPieceAt(fromSquare);
+		if (p == null) {
+			return false;
+		}
+		ChessPieceDescriptor d = (ChessPieceDescriptor) p.getDescriptor();
+		int columns = b.getnColumns();
+		int fromRow = fromSquare / columns;
+		int toRow = toSquare / columns;
+		if (!MoveShapes.isPossible(d, toRow - fromRow,
+				(toSquare - toRow * columns) - (fromSquare - fromRow * columns))) {
+			return false;
+		}
+		return ChessSquareRules.getRules(d.getName()).allowed(fromSquare, toSquare, b);
+	}
+
 	/**
-	 * @return the hasMoved
+	 * @return the hasMoved; always false for a shared piece, ask
+	 * 	hasMoved(Board, int) instead
 	 */
 	public boolean hasMoved()
 	{
 		return hasMoved;
 	}
 
+	/**
+	 * @param b the board this piece stands on
+	 * @param square the index of the square it stands on
+	 * @return true if the piece remembers moving or the board does
+	 */
+	public boolean hasMoved(Board b, int square)
+	{
+		return hasMoved || b.hasMoved(square);
+	}
+
+	/**
+	 * @param b the board this piece stands on
+	 * @param c the coordinate of the square it stands on
+	 * @return true if the piece remembers moving or the board does
+	 */
+	public boolean hasMoved(Board b, Coordinate c)
+	{
+		return hasMoved || b.hasMoved(c);
+	}
+
 	/**
 	 * Once it moves, you can't change it.
 	 * @param hasMoved the hasMoved to set
+	 * @throws UnsupportedOperationException for a shared piece, whose moved
+	 * 	state lives on the board (see Board#movePiece)
 	 */
 	public void setHasMoved()
 	{
+		if (shared) {
+			throw new UnsupportedOperationException(
+					"A shared " + descriptor + " cannot be marked as moved; use the Board");
+		}
 		hasMoved = true;
 	}
+
+	/**
+	 * @return true if this is an immutable instance shared between squares and boards
+	 */
+	public boolean isShared()
+	{
+		return shared;
+	}
 }
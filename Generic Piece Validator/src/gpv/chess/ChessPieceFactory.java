@@ -16,10 +16,38 @@ import gpv.PieceFactory;
 
 /**
  * A factory that makes chess pieces.
+ * <br/>
+ * By default every call makes a new piece. A sharing factory instead hands
+ * out one immutable instance per ChessPieceDescriptor, which costs nothing
+ * per board; the boards then keep track of which pieces have moved.
  * @version Feb 21, 2020
  */
 public class ChessPieceFactory implements PieceFactory<ChessPiece, ChessPieceDescriptor>
 {
+	private static final ChessPiece[] SHARED = new ChessPiece[ChessPieceDescriptor.values().length];
+	static {
+		for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+			SHARED[d.ordinal()] = new ChessPiece(d, true);
+		}
+	}
+
+	private final boolean sharing;
+
+	/**
+	 * Make a factory that creates a new piece for every request.
+	 */
+	public ChessPieceFactory()
+	{
+		this(false);
+	}
+
+	/**
+	 * @param sharing true to hand out the shared instance for each descriptor
+	 */
+	public ChessPieceFactory(boolean sharing)
+	{
+		this.sharing = sharing;
+	}
 
 	/*
 	 * @see gpv.PieceFactory#makePiece(gpv.PieceDescriptor)
@@ -27,7 +55,32 @@ public class ChessPieceFactory implements PieceFactory<ChessPiece, ChessPieceDes
 	@Override
 	public ChessPiece makePiece(ChessPieceDescriptor descriptor)
 	{
-		return new ChessPiece(descriptor);
+		return sharing ? SHARED[descriptor.ordinal()] : new ChessPiece(descriptor);
 	}
 
+	/**
+	 * @param descriptor
+	 * @return the shared, immutable piece for the descriptor
+	 */
+	public static ChessPiece sharedPiece(ChessPieceDescriptor descriptor)
+	{
+		return SHARED[descriptor.ordinal()];
+	}
+
+	/**
+	 * @return the shared pieces, indexed by descriptor ordinal; for example
+	 * 	the palette of a PositionArena
+	 */
+	public static ChessPiece[] sharedPieces()
+	{
+		return SHARED.clone();
+	}
+
+	/**
+	 * @return true if this factory hands out shared pieces
+	 */
+	public boolean isSharing()
+	{
+		return sharing;
+	}
 }
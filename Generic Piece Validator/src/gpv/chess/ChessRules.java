@@ -3,6 +3,7 @@ package gpv.chess;
 import static gpv.util.Coordinate.makeCoordinate;
 
 import gpv.chess.ChessBehavior.Behavior;
+import gpv.util.Coordinate;
 
 public class ChessRules {
 
@@ -48,10 +49,15 @@ public class ChessRules {
 
 		// passed the general behavior test, now it must return true for one of the
 		// following behaviors
-		return ChessBehavior.straightMovement.allowed(from, to, board)
-				|| ChessBehavior.orthogonalMovement.allowed(from, to, board);
+		return ChessRules.queenMovement.allowed(from, to, board);
 	};
 
+	/**
+	 * The geometric part of the queen's rule, without the general behavior.
+	 */
+	static Behavior queenMovement = (from, to, board) -> ChessBehavior.straightMovement.allowed(from, to, board)
+			|| ChessBehavior.orthogonalMovement.allowed(from, to, board);
+
 	/**
 	 * This lambda controls the movement for the rook piece
 	 * 
@@ -77,13 +83,22 @@ public class ChessRules {
 		if (!ChessBehavior.generalBehavior.allowed(from, to, board)) // general behavior
 			return false;
 
+		return ChessRules.pawnMovement.allowed(from, to, board);
+	};
+
+	/**
+	 * The pawn's rule without the general behavior. It does not depend on the
+	 * general behavior having passed, so the two may be checked in either
+	 * order (see AdaptiveRules).
+	 */
+	static Behavior pawnMovement = (from, to, board) -> {
 		// check the color specific directions
-		ChessPiece piece = (ChessPiece) board.getPieceAt(makeCoordinate((int) from.getX(), (int) from.getY()));
-		int distanceX = (int) Math.abs(to.getX() - from.getX()); // get the absolute distance x
-		int distanceY = (int) Math.abs(to.getY() - from.getY()); // get the absolute distance y
+		ChessPiece piece = (ChessPiece) board.getPieceAt(makeCoordinate(from.getRow(), from.getColumn()));
+		int distanceX = Math.abs(to.getRow() - from.getRow()); // get the absolute distance x
+		int distanceY = Math.abs(to.getColumn() - from.getColumn()); // get the absolute distance y
 
-		int changeX = (int) ((to.getX() - from.getX()) / distanceX); // get the x unit vector
-		int changeY = (int) ((to.getY() - from.getY()) / distanceY); // get the x unit vector
+		int changeX = Integer.signum(to.getRow() - from.getRow()); // get the x unit vector
+		int changeY = Integer.signum(to.getColumn() - from.getColumn()); // get the x unit vector
 
 		if (piece.getColor() == PlayerColor.BLACK && changeX != -1) { // if the player is black make sure they are
 																		// moving the right way
@@ -96,11 +111,12 @@ public class ChessRules {
 		}
 
 		// check if it is within one block
-		if (( (distanceX > 1 && piece.hasMoved()) || distanceY > 1)) {
+		boolean moved = piece.hasMoved(board, from); // the piece or the board may remember the move
+		if (( (distanceX > 1 && moved) || distanceY > 1)) {
 			return false;
 		}
 		
-		if(!piece.hasMoved() &&  distanceX > 2) { //this is the case for the double move
+		if(!moved &&  distanceX > 2) { //this is the case for the double move
 			return false;
 		}
 
@@ -108,8 +124,11 @@ public class ChessRules {
 		if (changeY == 0 && board.getPieceAt(to) == null) { // straight move and its is an available space
 			return ChessBehavior.straightMovement.allowed(from, to, board); // just make sure it is straight movement
 		} else { // diagonal move
-			if (board.getPieceAt(makeCoordinate((int) from.getX() + changeX, (int) from.getY() + changeY)) == null) {
-				return false;
+			if (board.getPieceAt(makeCoordinate(from.getRow() + changeX, from.getColumn() + changeY)) == null) {
+				// only an en passant capture may go to an empty square
+				return distanceX == 1 && GameState.isStarted(board.getGameState())
+						&& board.squareOf(from) >= 0 && board.squareOf(to) >= 0
+						&& GameState.isEnPassant(board, board.squareOf(from), board.squareOf(to));
 			}
 
 			return ChessBehavior.orthogonalMovement.allowed(from, to, board);
@@ -125,10 +144,17 @@ public class ChessRules {
 		if (!ChessBehavior.generalBehavior.allowed(from, to, board)) // general behavior
 			return false;
 
+		return ChessRules.knightMovement.allowed(from, to, board);
+	};
+
+	/**
+	 * The geometric part of the knight's rule, without the general behavior.
+	 */
+	static Behavior knightMovement = (from, to, board) -> {
 		final double DISTANCE = Math.sqrt(Math.pow(2, 2) + Math.pow(1, 2)); // a knight can only travel this distance
 
-		int distanceX = (int) Math.abs(to.getX() - from.getX()); // the the delta change in the x
-		int distanceY = (int) Math.abs(to.getY() - from.getY()); // get the delta change in the y
+		int distanceX = Math.abs(to.getRow() - from.getRow()); // the the delta change in the x
+		int distanceY = Math.abs(to.getColumn() - from.getColumn()); // get the delta change in the y
 
 		double attempted_distance = Math.sqrt(Math.pow(distanceX, 2) + Math.pow(distanceY, 2)); // get the distance
 																								// travelld
@@ -153,25 +179,27 @@ public class ChessRules {
 	 * This lambda handles the functionality for the king castling case
 	 */
 	private static Behavior kingCastling = (from, to, board) -> {
-		int distanceX = (int) Math.abs(to.getX() - from.getX()); // the the delta change in the x
-		int distanceY = (int) Math.abs(to.getY() - from.getY()); // get the delta change in the y
+		int distanceX = Math.abs(to.getRow() - from.getRow()); // the the delta change in the x
+		int distanceY = Math.abs(to.getColumn() - from.getColumn()); // get the delta change in the y
 		
 		if(distanceY == 2 && distanceX == 0) { //if it is a castling attempt
-			int directionY = (int) ((to.getY() - from.getY()) / distanceY); //get the direction of the castle
+			int directionY = Integer.signum(to.getColumn() - from.getColumn()); //get the direction of the castle
 			
 			int rookY = 1; //and the position of the rook
 			if(directionY == 1) rookY = 8; //but if the direction is 1 then the rook is at y = 8
 			
-			ChessPiece king = (ChessPiece) board.getPieceAt(makeCoordinate((int) from.getX(), (int) from.getY())); //load the pieces
-			ChessPiece rook = (ChessPiece) board.getPieceAt(makeCoordinate((int) from.getX(), rookY)); //load the rook
+			Coordinate kingSquare = makeCoordinate(from.getRow(), from.getColumn());
+			Coordinate rookSquare = makeCoordinate(from.getRow(), rookY);
+			ChessPiece king = (ChessPiece) board.getPieceAt(kingSquare); //load the pieces
+			ChessPiece rook = (ChessPiece) board.getPieceAt(rookSquare); //load the rook
 			
-			if(rook == null || rook.getName() != PieceName.ROOK || king.hasMoved() || rook.hasMoved() || king.getColor() != rook.getColor()) return false;
+			if(rook == null || rook.getName() != PieceName.ROOK || king.hasMoved(board, kingSquare) || rook.hasMoved(board, rookSquare) || king.getColor() != rook.getColor()) return false;
 			//make sure there is indeed a rook there and neither piece have moved
 			
-			for(int y = rookY; y != (int) from.getY(); y += directionY * -1) { //linear scan to see if there are no pieces in between
+			for(int y = rookY; y != from.getColumn(); y += directionY * -1) { //linear scan to see if there are no pieces in between
 				if(rookY == y) continue; //skip the first run
 				
-				if(board.getPieceAt(makeCoordinate((int) from.getX(), y)) != null) { //if there is not a null piece
+				if(board.getPieceAt(makeCoordinate(from.getRow(), y)) != null) { //if there is not a null piece
 					return false; //return false 
 				}
 			}
@@ -188,14 +216,20 @@ public class ChessRules {
 	 * @return true if king can move here, otherwise false
 	 */
 	private static Behavior kingBehavior = (from, to, board) -> {
+		CastlingTable table = CastlingTable.of(board); // a board with a table castles as the table says
+		if (table != null && board.squareOf(from) >= 0 && board.squareOf(to) >= 0) {
+			int right = table.castlingOf(board.squareOf(from), board.squareOf(to));
+			if (right >= 0) return table.allows(board, right);
+		}
+
 		if (!ChessBehavior.generalBehavior.allowed(from, to, board)) // general behavior
 			return false;
 
-		int distanceX = (int) Math.abs(to.getX() - from.getX()); // the the delta change in the x
-		int distanceY = (int) Math.abs(to.getY() - from.getY()); // get the delta change in the y
+		int distanceX = Math.abs(to.getRow() - from.getRow()); // the the delta change in the x
+		int distanceY = Math.abs(to.getColumn() - from.getColumn()); // get the delta change in the y
 
 		if(distanceY == 2 && distanceX == 0) {
-			return kingCastling.allowed(from, to, board);
+			return table == null && kingCastling.allowed(from, to, board);
 		}
 		
 
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import gpv.chess.ChessBehavior.SquareBehavior;
+import gpv.util.Board;
+
+/**
+ * The movement rules of ChessRules, written against square indices with int
+ * arithmetic only. Both squares must be on the board, which is what
+ * ChessBehavior.withinBounds checks in the Coordinate version; everything
+ * else gives the same answer as the matching ChessRules behavior.
+ * <br/>
+ * Rows and columns here are zero based and derived from the square index.
+ * @version Oct 19, 2026
+ */
+public class ChessSquareRules
+{
+	/**
+	 * This function takes in the name of a piece and returns the rules function
+	 *
+	 * @param name
+	 * @return the rules function if one exists
+	 */
+	public static SquareBehavior getRules(PieceName name)
+	{
+		switch (name) {
+			case QUEEN:
+				return queenBehavior;
+			case KING:
+				return kingBehavior;
+			case ROOK:
+				return rookBehavior;
+			case KNIGHT:
+				return knightBehavior;
+			case PAWN:
+				return pawnBehavior;
+			case BISHOP:
+				return bishopBehavior;
+			default:
+				return null;
+		}
+	}
+
+	/*
+	 * Behavior shared by all pieces. The helpers take the rows and columns of
+	 * both squares so that each rule splits a square index only once.
+	 */
+
+	/**
+	 * The target square is either empty or holds an enemy piece.
+	 */
+	static boolean availableSpace(int from, int to, Board board)
+	{
+		ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+		ChessPiece target = (ChessPiece) board.getPieceAt(to);
+		return piece != null && (target == null || target.getColor() != piece.getColor());
+	}
+
+	/**
+	 * Every square strictly between (x, y) and (endX, endY), stepping one row
+	 * and/or one column at a time towards the target, is empty.
+	 */
+	static boolean clearPath(Board board, int columns, int x, int y, int endX, int endY)
+	{
+		int changeX = Integer.signum(endX - x);
+		int changeY = Integer.signum(endY - y);
+
+		if (x != endX)
+			x += changeX;
+		if (y != endY)
+			y += changeY;
+
+		while (x != endX || y != endY) {
+			if (board.getPieceAt(x * columns + y) != null) {
+				return false;
+			}
+			if (x != endX)
+				x += changeX;
+			if (y != endY)
+				y += changeY;
+		}
+		return true;
+	}
+
+	/**
+	 * A diagonal move with a clear path.
+	 */
+	static boolean orthogonalMovement(Board board, int columns, int fromX, int fromY, int toX, int toY)
+	{
+		return Math.abs(toX - fromX) == Math.abs(toY - fromY)
+				&& clearPath(board, columns, fromX, fromY, toX, toY);
+	}
+
+	/**
+	 * A move along a row or a column with a clear path.
+	 */
+	static boolean straightMovement(Board board, int columns, int fromX, int fromY, int toX, int toY)
+	{
+		return (fromX == toX) != (fromY == toY)
+				&& clearPath(board, columns, fromX, fromY, toX, toY);
+	}
+
+	/*
+	 * Beginning of chess piece specific behavior
+	 */
+
+	/**
+	 * The queen moves straight or diagonally.
+	 */
+	private static SquareBehavior queenBehavior = (from, to, board) -> {
+		if (!availableSpace(from, to, board))
+			return false;
+
+		int columns = board.getnColumns();
+		int fromX = from / columns, fromY = from - fromX * columns;
+		int toX = to / columns, toY = to - toX * columns;
+		return straightMovement(board, columns, fromX, fromY, toX, toY)
+				|| orthogonalMovement(board, columns, fromX, fromY, toX, toY);
+	};
+
+	/**
+	 * The rook moves straight.
+	 */
+	private static SquareBehavior rookBehavior = (from, to, board) -> {
+		if (!availableSpace(from, to, board))
+			return false;
+
+		int columns = board.getnColumns();
+		int fromX = from / columns, fromY = from - fromX * columns;
+		int toX = to / columns, toY = to - toX * columns;
+		return straightMovement(board, columns, fromX, fromY, toX, toY);
+	};
+
+	/**
+	 * The bishop moves diagonally.
+	 */
+	private static SquareBehavior bishopBehavior = (from, to, board) -> {
+		if (!availableSpace(from, to, board))
+			return false;
+
+		int columns = board.getnColumns();
+		int fromX = from / columns, fromY = from - fromX * columns;
+		int toX = to / columns, toY = to - toX * columns;
+		return orthogonalMovement(board, columns, fromX, fromY, toX, toY);
+	};
+
+	/**
+	 * The knight moves in an L, which is the only move with a squared length of 5.
+	 */
+	private static SquareBehavior knightBehavior = (from, to, board) -> {
+		if (!availableSpace(from, to, board))
+			return false;
+
+		int columns = board.getnColumns();
+		int fromX = from / columns, fromY = from - fromX * columns;
+		int toX = to / columns, toY = to - toX * columns;
+		int distanceX = toX - fromX;
+		int distanceY = toY - fromY;
+		return distanceX * distanceX + distanceY * distanceY == 5;
+	};
+
+	/**
+	 * Pawns move one square forward (two if they have not moved yet) and
+	 * capture one square diagonally forward, or en passant in a game whose
+	 * state is kept. White moves up the rows and black moves down.
+	 */
+	private static SquareBehavior pawnBehavior = (from, to, board) -> {
+		if (!availableSpace(from, to, board))
+			return false;
+
+		ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+		int columns = board.getnColumns();
+		int fromX = from / columns, fromY = from - fromX * columns;
+		int toX = to / columns, toY = to - toX * columns;
+		int distanceX = Math.abs(toX - fromX);
+		int distanceY = Math.abs(toY - fromY);
+		int changeX = Integer.signum(toX - fromX);
+		int changeY = Integer.signum(toY - fromY);
+
+		if (piece.getColor() == PlayerColor.BLACK && changeX != -1)
+			return false;
+		if (piece.getColor() == PlayerColor.WHITE && changeX != 1)
+			return false;
+
+		boolean moved = piece.hasMoved(board, from);
+		if ((distanceX > 1 && moved) || distanceY > 1)
+			return false;
+		if (!moved && distanceX > 2)
+			return false;
+
+		if (changeY == 0 && board.getPieceAt(to) == null) {
+			return straightMovement(board, columns, fromX, fromY, toX, toY);
+		}
+		if (board.getPieceAt((fromX + changeX) * columns + fromY + changeY) == null) {
+			return distanceX == 1 && GameState.isStarted(board.getGameState())
+					&& GameState.isEnPassant(board, from, to);
+		}
+		return orthogonalMovement(board, columns, fromX, fromY, toX, toY);
+	};
+
+	/**
+	 * Castling on a board without a CastlingTable: the king moves two squares
+	 * towards an unmoved rook of its own color in column 1 or 8 with nothing
+	 * in between.
+	 */
+	private static boolean kingCastling(Board board, int columns, int fromX, int fromY, int toX, int toY)
+	{
+		int directionY = Integer.signum(toY - fromY);
+		int rookY = directionY == 1 ? 7 : 0;
+		if (rookY >= columns)
+			return false;
+
+		int kingSquare = fromX * columns + fromY;
+		int rookSquare = fromX * columns + rookY;
+		ChessPiece king = (ChessPiece) board.getPieceAt(kingSquare);
+		ChessPiece rook = (ChessPiece) board.getPieceAt(rookSquare);
+		if (rook == null || rook.getName() != PieceName.ROOK || king.hasMoved(board, kingSquare)
+				|| rook.hasMoved(board, rookSquare) || king.getColor() != rook.getColor())
+			return false;
+
+		for (int y = rookY - directionY; y != fromY; y -= directionY) {
+			if (board.getPieceAt(fromX * columns + y) != null) {
+				return false;
+			}
+		}
+		return straightMovement(board, columns, fromX, fromY, toX, toY);
+	}
+
+	/**
+	 * The king moves one square in any direction, or castles. A board with a
+	 * CastlingTable castles only as the table says.
+	 */
+	private static SquareBehavior kingBehavior = (from, to, board) -> {
+		CastlingTable table = CastlingTable.of(board);
+		if (table != null) {
+			int right = table.castlingOf(from, to);
+			if (right >= 0)
+				return table.allows(board, right);
+		}
+		if (!availableSpace(from, to, board))
+			return false;
+
+		int columns = board.getnColumns();
+		int fromX = from / columns, fromY = from - fromX * columns;
+		int toX = to / columns, toY = to - toX * columns;
+		int distanceX = Math.abs(toX - fromX);
+		int distanceY = Math.abs(toY - fromY);
+
+		if (distanceY == 2 && distanceX == 0) {
+			return table == null && kingCastling(board, columns, fromX, fromY, toX, toY);
+		}
+		return distanceX <= 1 && distanceY <= 1
+				&& (orthogonalMovement(board, columns, fromX, fromY, toX, toY)
+						|| straightMovement(board, columns, fromX, fromY, toX, toY));
+	};
+}
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessAttacks.*;
+import gpv.util.Board;
+
+/**
+ * Tells whether the side to move is checkmated or stalemated. A legal move
+ * here is one the validator allows that does not leave the mover's own king
+ * attacked; the search stops at the first one found.
+ * <br/>
+ * The king's own moves are tried first, since they are the only answer to a
+ * double check and are few. For the other pieces the check and pin
+ * information is worked out once from the king's square: in check, only
+ * moves that capture the checker or step in between can be legal, and a
+ * pinned piece may only move along the line of its pin. So no move needs to
+ * be made on a board to see whether it is legal, except en passant, which
+ * takes two pieces off one row, and castling.
+ * <br/>
+ * Castling counts only if the king is not in check and neither crosses nor
+ * lands on an attacked square. A side without a king has lost, and is
+ * reported as checkmated.
+ * @version Oct 19, 2026
+ */
+public final class GameEnd
+{
+	/**
+	 * Whether the game is over for the side to move.
+	 */
+	public enum Outcome
+	{
+		NOT_OVER, CHECKMATE, STALEMATE;
+	}
+
+	private static final int[][] KING_RAYS = {
+			STRAIGHT_RAYS[0], STRAIGHT_RAYS[1], STRAIGHT_RAYS[2], STRAIGHT_RAYS[3],
+			DIAGONAL_RAYS[0], DIAGONAL_RAYS[1], DIAGONAL_RAYS[2], DIAGONAL_RAYS[3] };
+
+	private GameEnd()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @param board a board whose game state is kept (see GameState)
+	 * @return the outcome for the side to move
+	 */
+	public static Outcome of(Board board)
+	{
+		return of(board, GameState.sideToMove(board.getGameState()));
+	}
+
+	/**
+	 * @param board the board
+	 * @param side the side to move
+	 * @return the outcome for that side
+	 */
+	public static Outcome of(Board board, PlayerColor side)
+	{
+		int king = kingOf(board, side);
+		if (king < 0) {
+			return Outcome.CHECKMATE;
+		}
+		if (new Search(board, side, king).hasLegalMove()) {
+			return Outcome.NOT_OVER;
+		}
+		return isAttacked(board, king, enemyOf(side)) ? Outcome.CHECKMATE : Outcome.STALEMATE;
+	}
+
+	/**
+	 * @param board the board
+	 * @param side a side
+	 * @return true if the side's king is attacked
+	 */
+	public static boolean isInCheck(Board board, PlayerColor side)
+	{
+		int king = kingOf(board, side);
+		return king >= 0 && isAttacked(board, king, enemyOf(side));
+	}
+
+	/**
+	 * @param board the board
+	 * @param side a side
+	 * @return true if the side has a move that does not leave its king attacked
+	 */
+	public static boolean hasLegalMove(Board board, PlayerColor side)
+	{
+		int king = kingOf(board, side);
+		return king >= 0 && new Search(board, side, king).hasLegalMove();
+	}
+
+	private static int kingOf(Board board, PlayerColor side)
+	{
+		int[] square = new int[1];
+		ChessPieceDescriptor king = side == PlayerColor.WHITE
+				? ChessPieceDescriptor.WHITEKING : ChessPieceDescriptor.BLACKKING;
+		return board.collectSquaresOf(king, square, 0) == 0 ? -1 : square[0];
+	}
+
+	private static PlayerColor enemyOf(PlayerColor side)
+	{
+		return side == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+	}
+
+	/**
+	 * The search for one legal move of one side.
+	 */
+	private static final class Search
+	{
+		private final Board board;
+		private final PlayerColor side;
+		private final PlayerColor enemy;
+		private final int king;
+		private final int kingRow;
+		private final int kingColumn;
+		private final MoveList moves = new MoveList();
+		private final int[] checkers = new int[2];
+		private int nCheckers;
+		private final int[] pinned = new int[KING_RAYS.length];
+		private final int[][] pinRays = new int[KING_RAYS.length][];
+		private int nPinned;
+
+		Search(Board board, PlayerColor side, int king)
+		{
+			this.board = board;
+			this.side = side;
+			this.king = king;
+			enemy = enemyOf(side);
+			kingRow = board.rowOf(king);
+			kingColumn = board.columnOf(king);
+		}
+
+		boolean hasLegalMove()
+		{
+			scanAttackers(board, king, enemy, s -> {
+				if (nCheckers < checkers.length) {
+					checkers[nCheckers] = s;
+				}
+				nCheckers++;
+			});
+			if (hasKingMove()) {
+				return true;
+			}
+			if (nCheckers > 1) {
+				return false;	// only the king can answer a double check
+			}
+			findPins();
+			int[] squares = new int[board.getSquareCount()];
+			int n = 0;
+			for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+				if (d.getColor() == side && d.getName() != PieceName.KING) {
+					n = board.collectSquaresOf(d, squares, n);
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				moves.clear();
+				ChessMoves.generateFrom(board, squares[i], moves);
+				for (int m = 0; m < moves.size(); m++) {
+					if (isLegal(squares[i], ChessMoves.toOf(moves.get(m)))) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		private boolean hasKingMove()
+		{
+			CastlingTable table = CastlingTable.of(board);
+			moves.clear();
+			ChessMoves.generateFrom(board, king, moves);
+			for (int m = 0; m < moves.size(); m++) {
+				int to = ChessMoves.toOf(moves.get(m));
+				int right = table == null ? -1 : table.castlingOf(king, to);
+				if (right >= 0) {
+					if (nCheckers == 0 && isSafeCastling(table.kingTo(right), moves.get(m))) {
+						return true;
+					}
+				} else if (table == null && Math.abs(board.columnOf(to) - kingColumn) == 2
+						&& board.rowOf(to) == kingRow) {
+					if (nCheckers == 0 && isSafeCastling(to, moves.get(m))) {
+						return true;
+					}
+				} else if (!attacked(to)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * The king may not cross an attacked square, and in Chess960 the rook
+		 * may uncover its destination, so the end is checked on a copy.
+		 */
+		private boolean isSafeCastling(int destination, int move)
+		{
+			int step = Integer.signum(board.columnOf(destination) - kingColumn);
+			for (int column = kingColumn + step; column != board.columnOf(destination); column += step) {
+				if (attacked(board.squareOf(kingRow, column))) {
+					return false;
+				}
+			}
+			Board after = board.copy();
+			ChessMoves.apply(after, move);
+			return !isAttacked(after, destination, enemy);
+		}
+
+		/**
+		 * @return true if the enemy attacks the square once the king has left
+		 * 	its own
+		 */
+		private boolean attacked(int square)
+		{
+			return scanAttackers(board, square, enemy, null, king) > 0;
+		}
+
+		/**
+		 * Note each piece of ours that is the only one between our king and
+		 * an enemy slider, and the ray it is pinned along.
+		 */
+		private void findPins()
+		{
+			for (int[] ray : KING_RAYS) {
+				int r = kingRow + ray[0];
+				int c = kingColumn + ray[1];
+				int square;
+				int ours = -1;
+				while ((square = board.squareOf(r, c)) >= 0) {
+					ChessPiece piece = chessPieceAt(board, square);
+					if (board.getPieceAt(square) != null) {
+						if (ours < 0 && piece != null && piece.getColor() == side) {
+							ours = square;
+						} else {
+							if (ours >= 0 && piece != null && piece.getColor() == enemy
+									&& slidesAlong(piece.getName(), ray)) {
+								pinned[nPinned] = ours;
+								pinRays[nPinned++] = ray;
+							}
+							break;
+						}
+					}
+					r += ray[0];
+					c += ray[1];
+				}
+			}
+		}
+
+		/**
+		 * @return true if a move the validator allows for a piece other than
+		 * 	the king leaves the king safe
+		 */
+		private boolean isLegal(int from, int to)
+		{
+			ChessPiece piece = chessPieceAt(board, from);
+			if (piece.getName() == PieceName.PAWN && board.getPieceAt(to) == null
+					&& board.columnOf(from) != board.columnOf(to)) {
+				Board after = board.copy();	// en passant
+				ChessMoves.apply(after, ChessMoves.encode(from, to));
+				return !isAttacked(after, king, enemy);
+			}
+			for (int i = 0; i < nPinned; i++) {
+				if (pinned[i] == from && !onRay(to, pinRays[i])) {
+					return false;
+				}
+			}
+			return nCheckers == 0 || to == checkers[0] || blocks(to);
+		}
+
+		/**
+		 * @return true if the square is on the line through the king along
+		 * 	the ray, on either side of it
+		 */
+		private boolean onRay(int square, int[] ray)
+		{
+			int dr = board.rowOf(square) - kingRow;
+			int dc = board.columnOf(square) - kingColumn;
+			return dr * ray[1] == dc * ray[0];
+		}
+
+		/**
+		 * @return true if the square is strictly between the king and a
+		 * 	sliding checker
+		 */
+		private boolean blocks(int square)
+		{
+			int checker = checkers[0];
+			ChessPiece piece = chessPieceAt(board, checker);
+			PieceName name = piece == null ? null : piece.getName();
+			if (name != PieceName.ROOK && name != PieceName.BISHOP && name != PieceName.QUEEN) {
+				return false;
+			}
+			int stepRow = Integer.signum(board.rowOf(checker) - kingRow);
+			int stepColumn = Integer.signum(board.columnOf(checker) - kingColumn);
+			int r = kingRow + stepRow;
+			int c = kingColumn + stepColumn;
+			int s;
+			while ((s = board.squareOf(r, c)) != checker && s >= 0) {
+				if (s == square) {
+					return true;
+				}
+				r += stepRow;
+				c += stepColumn;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import gpv.Piece;
+import gpv.util.Board;
+
+/**
+ * The positions of a game played on one board, for draw claims: threefold
+ * repetition and the fifty-move rule.
+ * <br/>
+ * A position is identified by a hash of which piece is on which square
+ * (Board#getPlacementHash), the castling rights, the en passant column and
+ * the side to move, taken from the board's game state (see GameState). The
+ * hashes are kept in a ring buffer. A capture or pawn move can never be
+ * undone, so no earlier position can come back after one; the half-move
+ * clock says how far back that was, and only that tail is searched. The
+ * buffer grows if the tail ever outgrows it.
+ * <code>
+ * 	GameHistory game = new GameHistory(board);
+ * 	game.play(move);
+ * 	if (game.isThreefoldRepetition() || game.isFiftyMoveDraw()) ...
+ * </code>
+ * Moves must be made through play(), or be followed by a call to record().
+ * @version Oct 19, 2026
+ */
+public class GameHistory
+{
+	static final int INITIAL_CAPACITY = 128;	// a power of two
+
+	private final Board board;
+	private long[] hashes = new long[INITIAL_CAPACITY];
+	private int mask = INITIAL_CAPACITY - 1;
+	private long plies;		// positions recorded, less one
+
+	/**
+	 * Follow a game from the position on the board. If the board's game
+	 * state has not been started, it is started with white to move.
+	 * @param board the board
+	 */
+	public GameHistory(Board board)
+	{
+		this.board = board;
+		if (!GameState.isStarted(board.getGameState())) {
+			GameState.start(board, PlayerColor.WHITE);
+		}
+		hashes[0] = positionKey(board);
+	}
+
+	/**
+	 * Make a move on the board (see ChessMoves#apply) and record the
+	 * position it leads to.
+	 * @param move a move that the validator allows
+	 * @return the piece captured by the move, or null
+	 */
+	public Piece play(int move)
+	{
+		Piece captured = ChessMoves.apply(board, move);
+		record();
+		return captured;
+	}
+
+	/**
+	 * Record the position on the board after a move made some other way.
+	 * The board's game state must have been kept up to date.
+	 */
+	public void record()
+	{
+		int tail = GameState.halfMoveClock(board.getGameState());
+		if (tail >= hashes.length) {
+			grow();
+		}
+		hashes[(int) ++plies & mask] = positionKey(board);
+	}
+
+	/**
+	 * @return how many times the current position has occurred, counting
+	 * 	this time
+	 */
+	public int getRepetitions()
+	{
+		int tail = (int) Math.min(GameState.halfMoveClock(board.getGameState()), plies);
+		long current = hashes[(int) plies & mask];
+		int count = 1;
+		// the same side is to move only every other ply
+		for (int back = 2; back <= tail; back += 2) {
+			if (hashes[(int) (plies - back) & mask] == current) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return true if the current position has occurred at least three times
+	 */
+	public boolean isThreefoldRepetition()
+	{
+		return getRepetitions() >= 3;
+	}
+
+	/**
+	 * @return true if fifty moves by each side have passed without a
+	 * 	capture or a pawn move
+	 */
+	public boolean isFiftyMoveDraw()
+	{
+		return GameState.halfMoveClock(board.getGameState()) >= 100;
+	}
+
+	/**
+	 * @return the number of moves recorded
+	 */
+	public long getPlies()
+	{
+		return plies;
+	}
+
+	/**
+	 * @return the board the game is played on
+	 */
+	public Board getBoard()
+	{
+		return board;
+	}
+
+	/**
+	 * @param board a board whose game state is kept
+	 * @return the key of its position for repetition: piece placement,
+	 * 	castling rights, en passant column and side to move
+	 */
+	static long positionKey(Board board)
+	{
+		int state = board.getGameState()
+				& (GameState.CASTLING | GameState.EN_PASSANT | GameState.BLACK_TO_MOVE);
+		long z = board.getPlacementHash() + state * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Double the buffer, keeping every recorded hash at its ply.
+	 */
+	private void grow()
+	{
+		long[] larger = new long[hashes.length * 2];
+		int kept = (int) Math.min(plies + 1, hashes.length);
+		for (long ply = plies - kept + 1; ply <= plies; ply++) {
+			larger[(int) ply & (larger.length - 1)] = hashes[(int) ply & mask];
+		}
+		hashes = larger;
+		mask = larger.length - 1;
+	}
+}
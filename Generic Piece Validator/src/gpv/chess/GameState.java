@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessAttacks.chessPieceAt;
+import gpv.util.Board;
+
+/**
+ * The state of a game that the pieces on the board do not show, packed into
+ * the board's game state word (see Board#getGameState):
+ * <pre>
+ * 	bits 0-3	castling rights: white king side, white queen side,
+ * 			black king side, black queen side
+ * 	bits 4-13	the column a pawn just passed through with a double step, 0 if none
+ * 	bit 14		set when black is to move
+ * 	bits 15-30	the half-move clock: moves since the last capture or pawn move
+ * 	bit 31		set once start() has been called
+ * </pre>
+ * A board whose state has not been started has the word 0, and the rules
+ * fall back to looking at the pieces: castling asks whether the king and
+ * rook have moved, and there is no en passant. Once started, ChessMoves#apply
+ * keeps the word up to date, so castling and en passant become bit tests.
+ * Moves made any other way, or pieces put on the board by hand, leave the
+ * word behind; call start() again after setting up a position.
+ * <br/>
+ * Where the kings and rooks that may castle start is up to the board's
+ * CastlingTable. Kings start on row 1 (white) or the last row (black). The
+ * en passant field holds columns up to MAX_COLUMNS, so wider boards cannot
+ * keep a game state.
+ * @version Oct 19, 2026
+ */
+public final class GameState
+{
+	public static final int WHITE_KING_SIDE = 1;
+	public static final int WHITE_QUEEN_SIDE = 2;
+	public static final int BLACK_KING_SIDE = 4;
+	public static final int BLACK_QUEEN_SIDE = 8;
+	public static final int CASTLING = 0xF;
+	static final int EN_PASSANT_SHIFT = 4;
+	public static final int MAX_COLUMNS = 0x3FF;
+	public static final int EN_PASSANT = MAX_COLUMNS << EN_PASSANT_SHIFT;
+	static final int BLACK_TO_MOVE = 1 << 14;
+	static final int CLOCK_SHIFT = 15;
+	static final int CLOCK_MAX = 0xFFFF;
+	static final int CLOCK = CLOCK_MAX << CLOCK_SHIFT;
+	static final int STARTED = 1 << 31;
+
+	private GameState()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * Start keeping the state of a game on a board. Castling rights are
+	 * given to each king and rook still on their starting squares (see
+	 * CastlingTable) and not marked as moved; there is no en passant and the
+	 * clock is 0. A board without a castling table gets the standard one.
+	 * @param board the board, set up
+	 * @param toMove the side to move
+	 * @throws IllegalArgumentException if the board has more than MAX_COLUMNS
+	 * 	columns
+	 */
+	public static void start(Board board, PlayerColor toMove)
+	{
+		if (board.getnColumns() > MAX_COLUMNS) {
+			throw new IllegalArgumentException("a game state is kept for at most " + MAX_COLUMNS + " columns");
+		}
+		CastlingTable table = CastlingTable.of(board);
+		if (table == null) {
+			table = CastlingTable.standard(board.getnRows(), board.getnColumns());
+			table.attach(board);
+		}
+		int state = STARTED | table.initialRights(board);
+		if (toMove == PlayerColor.BLACK) {
+			state |= BLACK_TO_MOVE;
+		}
+		board.setGameState(state);
+	}
+
+	/**
+	 * @param state a game state word
+	 * @return true if it is the state of a started game
+	 */
+	public static boolean isStarted(int state)
+	{
+		return (state & STARTED) != 0;
+	}
+
+	/**
+	 * @param state a game state word
+	 * @return the side to move
+	 */
+	public static PlayerColor sideToMove(int state)
+	{
+		return (state & BLACK_TO_MOVE) != 0 ? PlayerColor.BLACK : PlayerColor.WHITE;
+	}
+
+	/**
+	 * @param state a game state word
+	 * @return the castling rights still held, a combination of WHITE_KING_SIDE,
+	 * 	WHITE_QUEEN_SIDE, BLACK_KING_SIDE and BLACK_QUEEN_SIDE
+	 */
+	public static int castlingRights(int state)
+	{
+		return state & CASTLING;
+	}
+
+	/**
+	 * @param state a game state word
+	 * @return the column, starting at 1, of the square a pawn skipped on the
+	 * 	last move, or 0 if the last move was not a pawn's double step
+	 */
+	public static int enPassantColumn(int state)
+	{
+		return (state & EN_PASSANT) >>> EN_PASSANT_SHIFT;
+	}
+
+	/**
+	 * @param state a game state word
+	 * @return the number of moves since the last capture or pawn move
+	 */
+	public static int halfMoveClock(int state)
+	{
+		return (state & CLOCK) >>> CLOCK_SHIFT;
+	}
+
+	/**
+	 * @param color a side
+	 * @param kingSide true for king side, towards the higher columns
+	 * @return the castling right bit
+	 */
+	public static int castlingRight(PlayerColor color, boolean kingSide)
+	{
+		int right = kingSide ? WHITE_KING_SIDE : WHITE_QUEEN_SIDE;
+		return color == PlayerColor.WHITE ? right : right << 2;
+	}
+
+	/**
+	 * For a started game: a pawn moving diagonally forward onto an empty
+	 * square captures en passant, which it may only do right after an enemy
+	 * pawn's double step past that square.
+	 * @param board the board
+	 * @param from the square of the pawn
+	 * @param to the empty square it moves to
+	 * @return true if the move captures en passant
+	 */
+	static boolean isEnPassant(Board board, int from, int to)
+	{
+		int state = board.getGameState();
+		int column = board.columnOf(to);
+		if (enPassantColumn(state) != column) {
+			return false;
+		}
+		ChessPiece pawn = chessPieceAt(board, from);
+		ChessPiece victim = chessPieceAt(board, board.squareOf(board.rowOf(from), column));
+		return pawn != null && pawn.getColor() == sideToMove(state)
+				&& victim != null && victim.getName() == PieceName.PAWN
+				&& victim.getColor() != pawn.getColor()
+				&& board.rowOf(from) == homeRow(board, victim.getColor()) + (victim.getColor() == PlayerColor.WHITE ? 3 : -3);
+	}
+
+	/**
+	 * The state after a move, worked out by ChessMoves#apply before the
+	 * pieces are moved.
+	 * @param board the board, before the move
+	 * @param from the square of the moving piece
+	 * @param to its destination
+	 * @return the new state word
+	 */
+	static int afterMove(Board board, int from, int to)
+	{
+		int state = board.getGameState();
+		ChessPiece piece = chessPieceAt(board, from);
+		ChessPiece target = chessPieceAt(board, to);
+		boolean pawn = piece != null && piece.getName() == PieceName.PAWN;
+		boolean capture = target != null && piece != null && target.getColor() != piece.getColor();
+		int clock = pawn || capture ? 0 : Math.min(halfMoveClock(state) + 1, CLOCK_MAX);
+		int passed = pawn && Math.abs(board.rowOf(to) - board.rowOf(from)) == 2 ? board.columnOf(from) : 0;
+		CastlingTable table = CastlingTable.of(board);
+		int rights = table == null ? 0 : state & CASTLING & ~(table.rightsTouching(from) | table.rightsTouching(to));
+		return STARTED | rights | passed << EN_PASSANT_SHIFT | (~state & BLACK_TO_MOVE) | clock << CLOCK_SHIFT;
+	}
+
+	private static int homeRow(Board board, PlayerColor color)
+	{
+		return color == PlayerColor.WHITE ? 1 : board.getnRows();
+	}
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessAttacks.*;
+import java.util.*;
+import gpv.Piece;
+import gpv.util.*;
+
+/**
+ * The squares each piece of one board may move to, as bit sets over the
+ * square indices (see Board#squareOf): bit i is set when the piece can move
+ * to square i. Boards of up to 64 squares, such as 8x8, get the set as a
+ * long; any board can get it as a BitSet.
+ * <br/>
+ * Only the squares a piece could reach geometrically are asked about (see
+ * ChessMoves), and each result is cached. The cache listens to the board
+ * and drops a piece's result only when a square it depends on changes: its
+ * own square, the squares along its rays up to the first piece, its leap
+ * targets, and for a king the squares of its row that castling looks at.
+ * Everything is dropped when the castling rights or en passant column of the
+ * board's game state change (see GameState), or its CastlingTable does.
+ * <code>
+ * 	LegalDestinations destinations = new LegalDestinations(board);
+ * 	long targets = destinations.legalDestinations(makeCoordinate(1, 2));
+ * </code>
+ * Call detach() when the cache is no longer needed.
+ * @version Oct 19, 2026
+ */
+public class LegalDestinations implements SquareListener
+{
+	private static final int RULES_STATE = GameState.STARTED | GameState.CASTLING | GameState.EN_PASSANT;
+	private final Board board;
+	private final MoveList moves = new MoveList();
+	private int words;			// longs per bit set
+	private long[][] targets;	// [square] the cached destinations, or null
+	private long[][] depends;	// [square] the squares the cached destinations depend on
+	private int[] cached;		// the squares with a cached result
+	private int nCached;
+	private int state;			// the parts of the game state the cached results saw
+	private GameRules rules;		// and the game rules
+
+	/**
+	 * Start caching the destinations of the pieces on a board.
+	 * @param board the board
+	 */
+	public LegalDestinations(Board board)
+	{
+		this.board = board;
+		clear();
+		board.addSquareListener(this);
+	}
+
+	/**
+	 * Stop following the board.
+	 */
+	public void detach()
+	{
+		board.removeSquareListener(this);
+	}
+
+	/**
+	 * @param from the coordinate of the piece
+	 * @return the squares the piece may move to, bit i standing for square i;
+	 * 	0 if there is no piece on the square
+	 * @throws IllegalStateException if the board has more than 64 squares
+	 */
+	public long legalDestinations(Coordinate from)
+	{
+		if (board.getSquareCount() > Long.SIZE) {
+			throw new IllegalStateException("the board has more than " + Long.SIZE
+					+ " squares, use legalDestinationSet");
+		}
+		long[] set = destinationsOf(from);
+		return set.length == 0 ? 0 : set[0];
+	}
+
+	/**
+	 * @param from the coordinate of the piece
+	 * @return the squares the piece may move to, as a new BitSet over the
+	 * 	square indices; empty if there is no piece on the square
+	 */
+	public BitSet legalDestinationSet(Coordinate from)
+	{
+		return BitSet.valueOf(destinationsOf(from));
+	}
+
+	/**
+	 * @param from the coordinate of the piece
+	 * @param to the coordinate of a square
+	 * @return true if the piece may move to the square
+	 */
+	public boolean canMove(Coordinate from, Coordinate to)
+	{
+		int square = board.squareOf(to);
+		return square >= 0 && (destinationsOf(from)[square >>> 6] & (1L << square)) != 0;
+	}
+
+	/*
+	 * @see gpv.util.SquareListener#squareChanged(gpv.util.Board, int, gpv.Piece, gpv.Piece)
+	 */
+	@Override
+	public void squareChanged(Board b, int square, Piece old, Piece now)
+	{
+		if (square >= targets.length) {
+			clear();	// the dimensions were changed under us
+			return;
+		}
+		int word = square >>> 6;
+		long bit = 1L << square;
+		for (int i = 0; i < nCached; ) {
+			int s = cached[i];
+			if ((depends[s][word] & bit) != 0) {
+				targets[s] = null;
+				depends[s] = null;
+				cached[i] = cached[--nCached];
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareListener#boardReset(gpv.util.Board)
+	 */
+	@Override
+	public void boardReset(Board b)
+	{
+		clear();
+	}
+
+	private void clear()
+	{
+		int squares = board.getSquareCount();
+		words = (squares + Long.SIZE - 1) / Long.SIZE;
+		targets = new long[squares][];
+		depends = new long[squares][];
+		cached = new int[squares];
+		nCached = 0;
+		state = board.getGameState() & RULES_STATE;
+		rules = board.getGameRules();
+	}
+
+	/**
+	 * @return the cached destinations of the piece on a square, computed
+	 * 	first if need be
+	 */
+	private long[] destinationsOf(Coordinate from)
+	{
+		int square = board.squareOf(from);
+		if (square < 0) {
+			return new long[words];
+		}
+		if (targets.length != board.getSquareCount()
+				|| state != (board.getGameState() & RULES_STATE) || rules != board.getGameRules()) {
+			clear();	// the dimensions or game state were changed under us
+		}
+		if (targets[square] == null) {
+			long[] set = new long[words];
+			long[] dependencies = new long[words];
+			add(dependencies, square);
+			ChessPiece piece = chessPieceAt(board, square);
+			if (piece != null) {
+				moves.clear();
+				ChessMoves.generateFrom(board, square, moves);
+				for (int i = 0; i < moves.size(); i++) {
+					add(set, ChessMoves.toOf(moves.get(i)));
+				}
+				addDependencies(dependencies, square, piece);
+			}
+			targets[square] = set;
+			depends[square] = dependencies;
+			cached[nCached++] = square;
+		}
+		return targets[square];
+	}
+
+	/**
+	 * Mark the squares whose contents the piece's moves depend on.
+	 */
+	private void addDependencies(long[] set, int square, ChessPiece piece)
+	{
+		int row = board.rowOf(square);
+		int column = board.columnOf(square);
+		switch (piece.getName()) {
+			case PAWN:
+				int forward = piece.getColor() == PlayerColor.WHITE ? 1 : -1;
+				for (int[] step : new int[][] { { forward, 0 }, { 2 * forward, 0 }, { forward, -1 }, { forward, 1 } }) {
+					add(set, board.squareOf(row + step[0], column + step[1]));
+				}
+				break;
+			case KNIGHT:
+				for (int[] step : KNIGHT_STEPS) {
+					add(set, board.squareOf(row + step[0], column + step[1]));
+				}
+				break;
+			case KING:
+				for (int[] step : KING_STEPS) {
+					add(set, board.squareOf(row + step[0], column + step[1]));
+				}
+				// castling looks at columns 1 to 8, or wherever a CastlingTable says
+				int last = CastlingTable.of(board) == null ? 8 : board.getnColumns();
+				for (int c = 1; c <= last; c++) {
+					add(set, board.squareOf(row, c));
+				}
+				break;
+			case ROOK:
+				addRays(set, row, column, STRAIGHT_RAYS);
+				break;
+			case BISHOP:
+				addRays(set, row, column, DIAGONAL_RAYS);
+				break;
+			case QUEEN:
+				addRays(set, row, column, STRAIGHT_RAYS);
+				addRays(set, row, column, DIAGONAL_RAYS);
+				break;
+		}
+	}
+
+	/**
+	 * Mark each ray up to and including its first piece.
+	 */
+	private void addRays(long[] set, int row, int column, int[][] rays)
+	{
+		for (int[] ray : rays) {
+			int r = row + ray[0];
+			int c = column + ray[1];
+			int square;
+			while ((square = board.squareOf(r, c)) >= 0) {
+				add(set, square);
+				if (board.getPieceAt(square) != null) {
+					break;
+				}
+				r += ray[0];
+				c += ray[1];
+			}
+		}
+	}
+
+	private static void add(long[] set, int square)
+	{
+		if (square >= 0) {
+			set[square >>> 6] |= 1L << square;
+		}
+	}
+}
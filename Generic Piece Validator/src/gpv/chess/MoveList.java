@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of moves encoded as ints (see ChessMoves#encode). A search
+ * keeps one list per ply and clears it instead of allocating a new one.
+ * @version Oct 19, 2026
+ */
+public final class MoveList
+{
+	private int[] moves = new int[64];
+	private int size;
+	int[] scratch = new int[0];	// square buffer for ChessMoves.generate
+
+	/**
+	 * @param move the move to append
+	 */
+	public void add(int move)
+	{
+		if (size == moves.length) {
+			moves = Arrays.copyOf(moves, size * 2);
+		}
+		moves[size++] = move;
+	}
+
+	/**
+	 * @param i the position in the list
+	 * @return the move at that position
+	 */
+	public int get(int i)
+	{
+		return moves[i];
+	}
+
+	/**
+	 * Exchange two moves, used to order moves in place.
+	 * @param i a position in the list
+	 * @param j another position in the list
+	 */
+	public void swap(int i, int j)
+	{
+		int move = moves[i];
+		moves[i] = moves[j];
+		moves[j] = move;
+	}
+
+	/**
+	 * @return the number of moves in the list
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Empty the list, keeping its storage.
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+/**
+ * The shapes of the moves each kind of piece can ever make, whatever stands
+ * on the board: a table indexed by descriptor and the change in row and
+ * column that says whether the rules could allow such a move. ChessPiece
+ * asks it about the piece on the from square before reading any other, so
+ * a rook moving diagonally or a knight moving three squares is turned down
+ * with one more array read.
+ * <br/>
+ * A move the table rejects is rejected by the rules too. The converse does
+ * not hold: the rules go on to look at the board. Kings may move any
+ * distance along their row, which is how castling is written in Chess960
+ * (see CastlingTable). Changes beyond MAX_DELTA, which only sliders and
+ * castling kings make on boards larger than 16 squares, are worked out
+ * instead of looked up.
+ * @version Oct 19, 2026
+ */
+public final class MoveShapes
+{
+	public static final int MAX_DELTA = 15;
+	private static final int SPAN = 2 * MAX_DELTA + 1;
+	private static final boolean[] POSSIBLE = new boolean[ChessPieceDescriptor.values().length * SPAN * SPAN];
+
+	static {
+		for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+			for (int dRow = -MAX_DELTA; dRow <= MAX_DELTA; dRow++) {
+				for (int dColumn = -MAX_DELTA; dColumn <= MAX_DELTA; dColumn++) {
+					POSSIBLE[indexOf(d, dRow, dColumn)] = isShapeOf(d, dRow, dColumn);
+				}
+			}
+		}
+	}
+
+	private MoveShapes()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @param d the descriptor of the piece that moves
+	 * @param dRow the change in row, positive up the board
+	 * @param dColumn the change in column
+	 * @return false if no piece of that kind may ever make the move
+	 */
+	public static boolean isPossible(ChessPieceDescriptor d, int dRow, int dColumn)
+	{
+		if (dRow < -MAX_DELTA || dRow > MAX_DELTA || dColumn < -MAX_DELTA || dColumn > MAX_DELTA) {
+			return isShapeOf(d, dRow, dColumn);
+		}
+		return POSSIBLE[indexOf(d, dRow, dColumn)];
+	}
+
+	private static int indexOf(ChessPieceDescriptor d, int dRow, int dColumn)
+	{
+		return (d.ordinal() * SPAN + dRow + MAX_DELTA) * SPAN + dColumn + MAX_DELTA;
+	}
+
+	private static boolean isShapeOf(ChessPieceDescriptor d, int dRow, int dColumn)
+	{
+		int rows = Math.abs(dRow);
+		int columns = Math.abs(dColumn);
+		boolean straight = (rows == 0) != (columns == 0);
+		boolean diagonal = rows == columns && rows != 0;
+		switch (d.getName()) {
+			case ROOK:
+				return straight;
+			case BISHOP:
+				return diagonal;
+			case QUEEN:
+				return straight || diagonal;
+			case KNIGHT:
+				return rows * rows + columns * columns == 5;
+			case KING:
+				return (rows <= 1 && columns <= 1 && (rows | columns) != 0) || (rows == 0 && columns != 0);
+			case PAWN:
+				int forward = d.getColor() == PlayerColor.WHITE ? dRow : -dRow;
+				return (forward == 1 && columns <= 1) || (forward == 2 && columns == 0);
+			default:
+				return true;
+		}
+	}
+}
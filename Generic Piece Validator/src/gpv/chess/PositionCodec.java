@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import gpv.util.Board;
+
+/**
+ * Writes a chess position as one line of text and reads it back, so that a
+ * position can be logged, pasted into a test and rebuilt exactly. The format
+ * is the board size followed by one entry per piece, with a star for a piece
+ * that has moved:
+ * <code>
+ * 	8x8/WHITEKING@1,5/BLACKROOK@8,1*
+ * </code>
+ * A board with a game state (see GameState) or a CastlingTable is written in
+ * version 2, which adds the state word in hexadecimal and the table's king,
+ * queen side rook and king side rook columns to the size:
+ * <code>
+ * 	8x8;v2;state=80000005;castling=5,1,8/WHITEKING@1,5/BLACKROOK@8,1*
+ * </code>
+ * Only squares on the board are written.
+ * @version Oct 19, 2026
+ */
+public final class PositionCodec
+{
+	private PositionCodec()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @param board a board holding chess pieces
+	 * @return the position as text
+	 */
+	public static String encode(Board board)
+	{
+		StringBuilder text = new StringBuilder();
+		text.append(board.getnRows()).append('x').append(board.getnColumns());
+		CastlingTable table = CastlingTable.of(board);
+		if (board.getGameState() != 0 || table != null) {
+			text.append(";v2;state=").append(Integer.toHexString(board.getGameState()));
+			if (table != null) {
+				text.append(";castling=").append(table.getKingColumn()).append(',')
+						.append(table.getQueenRookColumn()).append(',').append(table.getKingRookColumn());
+			}
+		}
+		for (int square = 0; square < board.getSquareCount(); square++) {
+			ChessPiece p = ChessAttacks.chessPieceAt(board, square);
+			if (p != null) {
+				text.append('/').append(p.getDescriptor())
+						.append('@').append(board.rowOf(square)).append(',').append(board.columnOf(square));
+				if (p.hasMoved(board, square)) {
+					text.append('*');
+				}
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Rebuild a position. Every piece is a new, unshared instance, and a
+	 * piece that had moved is marked as moved on the board. Text in either
+	 * version is read; version 2 also restores the game state and table.
+	 * @param text a position written by encode
+	 * @return a new board holding the position
+	 * @throws IllegalArgumentException if the text is not a position
+	 */
+	public static Board decode(String text)
+	{
+		try {
+			String[] parts = text.trim().split("/");
+			String[] header = parts[0].split(";");
+			String[] size = header[0].split("x");
+			Board board = new Board(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+			int state = 0;
+			for (int i = 1; i < header.length; i++) {
+				if (header[i].startsWith("state=")) {
+					state = Integer.parseUnsignedInt(header[i].substring(6), 16);
+				} else if (header[i].startsWith("castling=")) {
+					String[] columns = header[i].substring(9).split(",");
+					CastlingTable.chess960(board.getnRows(), board.getnColumns(), Integer.parseInt(columns[0]),
+							Integer.parseInt(columns[1]), Integer.parseInt(columns[2])).attach(board);
+				} else if (!header[i].equals("v2")) {
+					throw new IllegalArgumentException("unknown field " + header[i]);
+				}
+			}
+			ChessPieceFactory factory = new ChessPieceFactory();
+			for (int i = 1; i < parts.length; i++) {
+				String entry = parts[i];
+				boolean moved = entry.endsWith("*");
+				if (moved) {
+					entry = entry.substring(0, entry.length() - 1);
+				}
+				int at = entry.indexOf('@');
+				int comma = entry.indexOf(',', at);
+				ChessPieceDescriptor d = ChessPieceDescriptor.valueOf(entry.substring(0, at));
+				int row = Integer.parseInt(entry.substring(at + 1, comma));
+				int column = Integer.parseInt(entry.substring(comma + 1));
+				board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+				if (moved) {
+					board.setMoved(board.squareOf(row, column), true);
+				}
+			}
+			board.setGameState(state);
+			return board;
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("not a position: " + text, e);
+		}
+	}
+}
@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import gpv.chess.ChessBehavior.Behavior;
+import gpv.util.*;
+
+/**
+ * Runs a candidate rule engine in the shadow of the reference one, the
+ * ChessRules lambdas, to prove that it gives the same answers before it is
+ * relied on. Every check asks both engines, answers with the reference and
+ * records any disagreement with a reproduction: the position (see
+ * PositionCodec), the move and both answers. It also times both engines.
+ * <br/>
+ * For live traffic, call check() where ChessPiece#canMove would have been
+ * called. For generated traffic, checkRandomPositions() tries every move on
+ * random boards. A validator may be shared between threads.
+ * <code>
+ * 	ShadowValidator shadow = new ShadowValidator(ShadowValidator.SQUARE_RULES);
+ * 	shadow.checkRandomPositions(8, 8, 1000, 4233L);
+ * 	System.out.println(shadow.getReport());
+ * </code>
+ * @version Oct 19, 2026
+ */
+public class ShadowValidator
+{
+	/**
+	 * The reference engine: ChessRules for the piece on the from square.
+	 */
+	public static final Behavior REFERENCE = (from, to, board) -> {
+		ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+		return piece != null && ChessRules.getRules(piece.getName()).allowed(from, to, board);
+	};
+
+	/**
+	 * The engine behind ChessPiece#canMove, which uses ChessSquareRules for
+	 * squares on the board.
+	 */
+	public static final Behavior SQUARE_RULES = (from, to, board) -> {
+		ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+		return piece != null && piece.canMove(from, to, board);
+	};
+
+	private static final int MAX_RECORDED = 100;
+
+	private final Behavior candidate;
+	private final LatencyStats referenceLatency = new LatencyStats();
+	private final LatencyStats candidateLatency = new LatencyStats();
+	private final Queue<Disagreement> disagreements = new ConcurrentLinkedQueue<Disagreement>();
+	private final AtomicLong disagreementCount = new AtomicLong();
+	private final AtomicLong checks = new AtomicLong();
+
+	/**
+	 * @param candidate the engine to compare with the reference
+	 */
+	public ShadowValidator(Behavior candidate)
+	{
+		this.candidate = candidate;
+	}
+
+	/**
+	 * Ask both engines about a move. The engines run in alternating order so
+	 * that neither always gets the warmer cache.
+	 * @param board the board
+	 * @param from the coordinate of the piece to move
+	 * @param to the destination
+	 * @return the reference engine's answer
+	 */
+	public boolean check(Board board, Coordinate from, Coordinate to)
+	{
+		boolean expected;
+		boolean actual;
+		if ((checks.getAndIncrement() & 1) == 0) {
+			expected = timed(REFERENCE, referenceLatency, board, from, to);
+			actual = timed(candidate, candidateLatency, board, from, to);
+		} else {
+			actual = timed(candidate, candidateLatency, board, from, to);
+			expected = timed(REFERENCE, referenceLatency, board, from, to);
+		}
+		if (expected != actual && disagreementCount.getAndIncrement() < MAX_RECORDED) {
+			disagreements.add(new Disagreement(PositionCodec.encode(board), from, to, expected, actual));
+		}
+		return expected;
+	}
+
+	/**
+	 * Check every move of every piece on randomly generated boards. Pieces
+	 * are placed uniformly at random, and one in four is marked as moved.
+	 * @param rows the number of rows of each board
+	 * @param columns the number of columns of each board
+	 * @param positions the number of boards to generate
+	 * @param seed the random seed, so that a run can be repeated
+	 * @return the number of disagreements found in this run
+	 */
+	public long checkRandomPositions(int rows, int columns, int positions, long seed)
+	{
+		long before = disagreementCount.get();
+		Random random = new Random(seed);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		for (int n = 0; n < positions; n++) {
+			Board board = new Board(rows, columns);
+			int pieces = 2 + random.nextInt(Math.max(1, rows * columns / 2));
+			for (int i = 0; i < pieces; i++) {
+				int row = random.nextInt(rows) + 1;
+				int column = random.nextInt(columns) + 1;
+				board.putPieceAt(factory.makePiece(all[random.nextInt(all.length)]), makeCoordinate(row, column));
+				if (random.nextInt(4) == 0) {
+					board.setMoved(board.squareOf(row, column), true);
+				}
+			}
+			for (int from = 0; from < board.getSquareCount(); from++) {
+				if (board.getPieceAt(from) == null) {
+					continue;
+				}
+				Coordinate fromCoordinate = board.coordinateOf(from);
+				for (int to = 0; to < board.getSquareCount(); to++) {
+					check(board, fromCoordinate, board.coordinateOf(to));
+				}
+			}
+		}
+		return disagreementCount.get() - before;
+	}
+
+	/**
+	 * @return the disagreements recorded so far, at most MAX_RECORDED of them
+	 */
+	public List<Disagreement> getDisagreements()
+	{
+		return new ArrayList<Disagreement>(disagreements);
+	}
+
+	/**
+	 * @return the number of disagreements found, recorded or not
+	 */
+	public long getDisagreementCount()
+	{
+		return disagreementCount.get();
+	}
+
+	/**
+	 * @return the number of moves checked
+	 */
+	public long getCheckCount()
+	{
+		return checks.get();
+	}
+
+	/**
+	 * @return the timings of the reference engine
+	 */
+	public LatencyStats getReferenceLatency()
+	{
+		return referenceLatency;
+	}
+
+	/**
+	 * @return the timings of the candidate engine
+	 */
+	public LatencyStats getCandidateLatency()
+	{
+		return candidateLatency;
+	}
+
+	/**
+	 * @return a summary of the checks, timings and first disagreements
+	 */
+	public String getReport()
+	{
+		StringBuilder report = new StringBuilder();
+		report.append("checks: ").append(getCheckCount())
+				.append(", disagreements: ").append(getDisagreementCount()).append('\n');
+		report.append("reference: ").append(referenceLatency).append('\n');
+		report.append("candidate: ").append(candidateLatency).append('\n');
+		for (Disagreement d : disagreements) {
+			report.append(d).append('\n');
+		}
+		return report.toString();
+	}
+
+	private static boolean timed(Behavior engine, LatencyStats stats, Board board, Coordinate from,
+			Coordinate to)
+	{
+		long start = System.nanoTime();
+		boolean answer = engine.allowed(from, to, board);
+		stats.record(System.nanoTime() - start);
+		return answer;
+	}
+
+	/**
+	 * A move on which the engines disagree, with what is needed to replay it.
+	 */
+	public static final class Disagreement
+	{
+		private final String position;
+		private final Coordinate from;
+		private final Coordinate to;
+		private final boolean expected;
+		private final boolean actual;
+
+		private Disagreement(String position, Coordinate from, Coordinate to, boolean expected,
+				boolean actual)
+		{
+			this.position = position;
+			this.from = from;
+			this.to = to;
+			this.expected = expected;
+			this.actual = actual;
+		}
+
+		/**
+		 * @return the position, as written by PositionCodec
+		 */
+		public String getPosition()
+		{
+			return position;
+		}
+
+		/**
+		 * @return the coordinate of the piece to move
+		 */
+		public Coordinate getFrom()
+		{
+			return from;
+		}
+
+		/**
+		 * @return the destination
+		 */
+		public Coordinate getTo()
+		{
+			return to;
+		}
+
+		/**
+		 * @return the reference engine's answer
+		 */
+		public boolean getExpected()
+		{
+			return expected;
+		}
+
+		/**
+		 * @return the candidate engine's answer
+		 */
+		public boolean getActual()
+		{
+			return actual;
+		}
+
+		/**
+		 * @return a fresh board holding the position
+		 */
+		public Board rebuild()
+		{
+			return PositionCodec.decode(position);
+		}
+
+		/*
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return position + " " + from + "->" + to + " reference " + expected + " candidate " + actual;
+		}
+	}
+
+	/**
+	 * Call latencies in nanoseconds, with power-of-two buckets for
+	 * percentiles. Safe to update from several threads.
+	 */
+	public static final class LatencyStats
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder total = new LongAdder();
+		private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+		void record(long nanos)
+		{
+			count.increment();
+			total.add(nanos);
+			buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0)));
+		}
+
+		/**
+		 * @return the number of calls timed
+		 */
+		public long getCount()
+		{
+			return count.sum();
+		}
+
+		/**
+		 * @return the mean call time in nanoseconds
+		 */
+		public double getMeanNanos()
+		{
+			long n = count.sum();
+			return n == 0 ? 0 : (double) total.sum() / n;
+		}
+
+		/**
+		 * @param percentile between 0 and 100
+		 * @return an upper bound, a power of two, on that percentile of the
+		 * 	call times in nanoseconds
+		 */
+		public long getPercentileNanos(double percentile)
+		{
+			long n = count.sum();
+			long wanted = (long) Math.ceil(n * percentile / 100);
+			long seen = 0;
+			for (int b = 0; b < 64; b++) {
+				seen += buckets.get(b);
+				if (seen >= wanted && seen > 0) {
+					return b == 0 ? 0 : 1L << b;
+				}
+			}
+			return 0;
+		}
+
+		/*
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return String.format("%d calls, mean %.1f ns, p50 <= %d ns, p99 <= %d ns", getCount(),
+					getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99));
+		}
+	}
+}
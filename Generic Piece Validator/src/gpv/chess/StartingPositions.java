@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static gpv.util.SquareInitializer.makeSquareInitializer;
+import java.util.*;
+import gpv.util.*;
+
+/**
+ * Compiled chess positions to start games and tests from (see
+ * BoardTemplate). Their pieces are the shared instances of
+ * ChessPieceFactory.
+ * <code>
+ * 	Board board = StartingPositions.STANDARD.newBoard();
+ * 	board.reset(StartingPositions.STANDARD);	// the next game
+ * </code>
+ * @version Oct 19, 2026
+ */
+public final class StartingPositions
+{
+	/**
+	 * The standard starting position, white on rows 1 and 2.
+	 */
+	public static final BoardTemplate STANDARD = new BoardTemplate(8, 8, standardInitializers());
+
+	private StartingPositions()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @return the initializers of the standard starting position, with
+	 * 	shared pieces
+	 */
+	public static List<SquareInitializer> standardInitializers()
+	{
+		ChessPieceDescriptor[] white = { WHITEROOK, WHITEKNIGHT, WHITEBISHOP, WHITEQUEEN,
+				WHITEKING, WHITEBISHOP, WHITEKNIGHT, WHITEROOK };
+		ChessPieceDescriptor[] black = { BLACKROOK, BLACKKNIGHT, BLACKBISHOP, BLACKQUEEN,
+				BLACKKING, BLACKBISHOP, BLACKKNIGHT, BLACKROOK };
+		List<SquareInitializer> initializers = new ArrayList<SquareInitializer>();
+		for (int column = 1; column <= 8; column++) {
+			add(initializers, white[column - 1], 1, column);
+			add(initializers, WHITEPAWN, 2, column);
+			add(initializers, BLACKPAWN, 7, column);
+			add(initializers, black[column - 1], 8, column);
+		}
+		return initializers;
+	}
+
+	/**
+	 * Compile a position written by PositionCodec, such as one pasted into
+	 * a test, with shared pieces in place of the decoded ones.
+	 * @param position the position as text
+	 * @return the template
+	 * @throws IllegalArgumentException if the text is not a position
+	 */
+	public static BoardTemplate compile(String position)
+	{
+		Board board = PositionCodec.decode(position);
+		for (int square = 0; square < board.getSquareCount(); square++) {
+			ChessPiece piece = ChessAttacks.chessPieceAt(board, square);
+			if (piece != null) {
+				boolean moved = board.hasMoved(square);
+				board.putPieceAt(ChessPieceFactory.sharedPiece(piece.getDescriptor()), board.coordinateOf(square));
+				board.setMoved(square, moved);
+			}
+		}
+		return BoardTemplate.of(board);
+	}
+
+	private static void add(List<SquareInitializer> initializers, ChessPieceDescriptor d, int row, int column)
+	{
+		initializers.add(makeSquareInitializer(ChessPieceFactory.sharedPiece(d), makeCoordinate(row, column)));
+	}
+}
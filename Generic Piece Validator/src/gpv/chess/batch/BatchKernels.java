@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.batch;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import java.util.Arrays;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * The ChessBehavior checks, and a few questions built on them, evaluated for
+ * every board of a BoardBatch at once. Each kernel writes one answer per
+ * lane into out, 1 for true and 0 for false, and returns the number of true
+ * lanes.
+ * <br/>
+ * The geometry of a question is the same in every lane, so it is worked out
+ * once as a square mask. The per-lane work is then a few shifts, ANDs and
+ * ORs on one long with no branches, in loops that run over plain long
+ * arrays. HotSpot's superword optimization compiles loops of that shape
+ * into SIMD instructions where the processor has them. Because a long
+ * covers every square of a board, each lane is already checked 64 squares
+ * at a time.
+ * <br/>
+ * Each kernel has a scalar fallback that rebuilds every lane as a Board and
+ * asks the ChessBehavior lambdas, ChessRules or ChessAttacks. The fallback
+ * is slow. It defines the right answer and serves callers that need a
+ * Board anyway.
+ * @version Oct 19, 2026
+ */
+public final class BatchKernels
+{
+	private static final int[][] KNIGHT_STEPS = {
+			{ 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+
+	private BatchKernels()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * ChessBehavior.withinBounds, which only depends on the board size and
+	 * so has one answer for the whole batch.
+	 * @param batch the batch
+	 * @param toRow the row of the destination
+	 * @param toColumn the column of the destination
+	 * @return true if the destination is on the boards
+	 */
+	public static boolean withinBounds(BoardBatch batch, int toRow, int toColumn)
+	{
+		return batch.squareOf(toRow, toColumn) >= 0;
+	}
+
+	/**
+	 * ChessBehavior.availableSpace: there is a piece on from, and to is empty
+	 * or holds an enemy piece. An empty from square gives false.
+	 * @param batch the batch
+	 * @param from the square index of the moving piece
+	 * @param to the square index of the destination
+	 * @param out one answer per lane
+	 * @return the number of lanes where the space is available
+	 */
+	public static int availableSpace(BoardBatch batch, int from, int to, long[] out)
+	{
+		long[] white = batch.white;
+		long[] black = batch.black;
+		int n = batch.size();
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			long w = white[i];
+			long b = black[i];
+			long answer = (((w >>> from) & ~(w >>> to)) | ((b >>> from) & ~(b >>> to))) & 1L;
+			out[i] = answer;
+			count += (int) answer;
+		}
+		return count;
+	}
+
+	/**
+	 * ChessBehavior.clearPath: every square the path from one square to the
+	 * other crosses is empty.
+	 * @param batch the batch
+	 * @param from the square index where the path starts
+	 * @param to the square index where the path ends
+	 * @param out one answer per lane
+	 * @return the number of lanes where the path is clear
+	 */
+	public static int clearPath(BoardBatch batch, int from, int to, long[] out)
+	{
+		return emptyUnder(batch.occupied, batch.size(), pathMask(batch, from, to), out);
+	}
+
+	/**
+	 * The knight's rule: a knight of either color on from, an L-shaped step
+	 * and an available space on to.
+	 * @param batch the batch
+	 * @param from the square index of the knight
+	 * @param to the square index of the destination
+	 * @param out one answer per lane
+	 * @return the number of lanes where the move is allowed
+	 */
+	public static int knightMove(BoardBatch batch, int from, int to, long[] out)
+	{
+		int columns = batch.getColumns();
+		int dx = to / columns - from / columns;
+		int dy = to % columns - from % columns;
+		int n = batch.size();
+		if (dx * dx + dy * dy != 5) {
+			Arrays.fill(out, 0, n, 0L);
+			return 0;
+		}
+		availableSpace(batch, from, to, out);
+		long[] whiteKnights = batch.pieces[WHITEKNIGHT.ordinal()];
+		long[] blackKnights = batch.pieces[BLACKKNIGHT.ordinal()];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			long answer = out[i] & ((whiteKnights[i] | blackKnights[i]) >>> from);
+			out[i] = answer;
+			count += (int) answer;
+		}
+		return count;
+	}
+
+	/**
+	 * ChessAttacks#isAttacked for every lane: pawns, knights and kings are
+	 * found with one mask each, and sliders by finding the nearest occupied
+	 * square along each of the eight rays.
+	 * @param batch the batch
+	 * @param square the square index of the target
+	 * @param by the attacking color
+	 * @param out one answer per lane
+	 * @return the number of lanes where the square is attacked
+	 */
+	public static int isAttacked(BoardBatch batch, int square, PlayerColor by, long[] out)
+	{
+		boolean white = by == PlayerColor.WHITE;
+		int row = square / batch.getColumns() + 1;
+		int column = square % batch.getColumns() + 1;
+		int pawnRow = white ? row - 1 : row + 1;
+		long pawnMask = bit(batch, pawnRow, column - 1) | bit(batch, pawnRow, column + 1);
+		long knightMask = 0;
+		for (int[] step : KNIGHT_STEPS) {
+			knightMask |= bit(batch, row + step[0], column + step[1]);
+		}
+		long kingMask = 0;
+		for (int dr = -1; dr <= 1; dr++) {
+			for (int dc = -1; dc <= 1; dc++) {
+				if (dr != 0 || dc != 0) {
+					kingMask |= bit(batch, row + dr, column + dc);
+				}
+			}
+		}
+		long[] pawns = batch.pieces[(white ? WHITEPAWN : BLACKPAWN).ordinal()];
+		long[] knights = batch.pieces[(white ? WHITEKNIGHT : BLACKKNIGHT).ordinal()];
+		long[] kings = batch.pieces[(white ? WHITEKING : BLACKKING).ordinal()];
+		long[] rooks = batch.pieces[(white ? WHITEROOK : BLACKROOK).ordinal()];
+		long[] bishops = batch.pieces[(white ? WHITEBISHOP : BLACKBISHOP).ordinal()];
+		long[] queens = batch.pieces[(white ? WHITEQUEEN : BLACKQUEEN).ordinal()];
+		long[] occupied = batch.occupied;
+		int n = batch.size();
+
+		for (int i = 0; i < n; i++) {
+			out[i] = (pawns[i] & pawnMask) | (knights[i] & knightMask) | (kings[i] & kingMask);
+		}
+		for (int dr = -1; dr <= 1; dr++) {
+			for (int dc = -1; dc <= 1; dc++) {
+				if (dr == 0 && dc == 0) {
+					continue;
+				}
+				long ray = 0;
+				for (int r = row + dr, c = column + dc; batch.squareOf(r, c) >= 0; r += dr, c += dc) {
+					ray |= bit(batch, r, c);
+				}
+				if (ray == 0) {
+					continue;
+				}
+				boolean upward = dr > 0 || (dr == 0 && dc > 0);	// square indices grow along the ray
+				long[] sliders = dr != 0 && dc != 0 ? bishops : rooks;
+				for (int i = 0; i < n; i++) {
+					long blockers = occupied[i] & ray;
+					long nearest = upward ? blockers & -blockers : Long.highestOneBit(blockers);
+					out[i] |= nearest & (sliders[i] | queens[i]);
+				}
+			}
+		}
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			long answer = (out[i] | -out[i]) >>> 63;
+			out[i] = answer;
+			count += (int) answer;
+		}
+		return count;
+	}
+
+	/**
+	 * The squares ChessBehavior.clearPath looks at, found by taking the same
+	 * steps it does.
+	 * @param batch the batch, for its size
+	 * @param from the square index where the path starts
+	 * @param to the square index where the path ends
+	 * @return a mask of the squares strictly between the two
+	 */
+	public static long pathMask(BoardBatch batch, int from, int to)
+	{
+		int columns = batch.getColumns();
+		int x = from / columns, y = from % columns;
+		int endX = to / columns, endY = to % columns;
+		int changeX = Integer.signum(endX - x);
+		int changeY = Integer.signum(endY - y);
+		long mask = 0;
+		if (x != endX)
+			x += changeX;
+		if (y != endY)
+			y += changeY;
+		while (x != endX || y != endY) {
+			mask |= 1L << (x * columns + y);
+			if (x != endX)
+				x += changeX;
+			if (y != endY)
+				y += changeY;
+		}
+		return mask;
+	}
+
+	/*
+	 * Scalar fallbacks
+	 */
+
+	/**
+	 * @see #availableSpace(BoardBatch, int, int, long[])
+	 */
+	public static int scalarAvailableSpace(BoardBatch batch, int from, int to, long[] out)
+	{
+		return scalar(batch, out, board -> {
+			Coordinate f = board.coordinateOf(from);
+			return board.getPieceAt(f) != null
+					&& ChessBehavior.availableSpace.allowed(f, board.coordinateOf(to), board);
+		});
+	}
+
+	/**
+	 * @see #clearPath(BoardBatch, int, int, long[])
+	 */
+	public static int scalarClearPath(BoardBatch batch, int from, int to, long[] out)
+	{
+		return scalar(batch, out, board ->
+				ChessBehavior.clearPath.allowed(board.coordinateOf(from), board.coordinateOf(to), board));
+	}
+
+	/**
+	 * @see #knightMove(BoardBatch, int, int, long[])
+	 */
+	public static int scalarKnightMove(BoardBatch batch, int from, int to, long[] out)
+	{
+		return scalar(batch, out, board -> {
+			ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+			return piece != null && piece.getName() == PieceName.KNIGHT
+					&& ChessRules.getRules(PieceName.KNIGHT)
+							.allowed(board.coordinateOf(from), board.coordinateOf(to), board);
+		});
+	}
+
+	/**
+	 * @see #isAttacked(BoardBatch, int, PlayerColor, long[])
+	 */
+	public static int scalarIsAttacked(BoardBatch batch, int square, PlayerColor by, long[] out)
+	{
+		return scalar(batch, out, board -> ChessAttacks.isAttacked(board, square, by));
+	}
+
+	/**
+	 * A question about one board.
+	 */
+	@FunctionalInterface
+	private interface BoardQuestion
+	{
+		boolean ask(Board board);
+	}
+
+	private static int scalar(BoardBatch batch, long[] out, BoardQuestion question)
+	{
+		int count = 0;
+		for (int i = 0; i < batch.size(); i++) {
+			out[i] = question.ask(batch.toBoard(i)) ? 1 : 0;
+			count += (int) out[i];
+		}
+		return count;
+	}
+
+	private static int emptyUnder(long[] occupied, int n, long mask, long[] out)
+	{
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			long hit = occupied[i] & mask;
+			long answer = 1L - ((hit | -hit) >>> 63);
+			out[i] = answer;
+			count += (int) answer;
+		}
+		return count;
+	}
+
+	private static long bit(BoardBatch batch, int row, int column)
+	{
+		int square = batch.squareOf(row, column);
+		return square < 0 ? 0 : 1L << square;
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.batch;
+
+import java.util.Arrays;
+import gpv.Piece;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * Many chess positions of the same size stored column by column, for
+ * asking one question of all of them at once (see BatchKernels). Each
+ * position is a lane, and each column is an array with one long per lane:
+ * bit s of a lane's long is square index s (see Board#squareOf). That
+ * limits a batch to boards of at most 64 squares.
+ * <br/>
+ * There is a column per piece descriptor, one per color, one for all
+ * occupied squares and one for the moved bits.
+ * @version Oct 19, 2026
+ */
+public final class BoardBatch
+{
+	public static final int MAX_SQUARES = 64;
+
+	private static final ChessPieceDescriptor[] DESCRIPTORS = ChessPieceDescriptor.values();
+
+	private final int rows;
+	private final int columns;
+	private int size;
+	long[][] pieces;	// [descriptor ordinal][lane]
+	long[] white;
+	long[] black;
+	long[] occupied;
+	long[] moved;
+
+	/**
+	 * @param rows the number of rows of every board in the batch
+	 * @param columns the number of columns of every board in the batch
+	 * @param capacity the expected number of boards
+	 */
+	public BoardBatch(int rows, int columns, int capacity)
+	{
+		if (rows < 1 || columns < 1 || rows * columns > MAX_SQUARES) {
+			throw new IllegalArgumentException("a batch holds boards of 1 to " + MAX_SQUARES + " squares");
+		}
+		this.rows = rows;
+		this.columns = columns;
+		allocate(Math.max(capacity, 1));
+	}
+
+	/**
+	 * Copy a board into the next lane. Pieces off the board are left out.
+	 * @param board a board of the batch's size holding chess pieces
+	 * @return the lane of the board
+	 */
+	public int add(Board board)
+	{
+		if (board.getnRows() != rows || board.getnColumns() != columns) {
+			throw new IllegalArgumentException("the board is not " + rows + "x" + columns);
+		}
+		if (size == occupied.length) {
+			allocate(size * 2);
+		}
+		int lane = size++;
+		for (int square = 0; square < rows * columns; square++) {
+			Piece p = board.getPieceAt(square);
+			if (p instanceof ChessPiece) {
+				ChessPiece cp = (ChessPiece) p;
+				long bit = 1L << square;
+				pieces[cp.getDescriptor().ordinal()][lane] |= bit;
+				if (cp.getColor() == PlayerColor.WHITE) {
+					white[lane] |= bit;
+				} else {
+					black[lane] |= bit;
+				}
+				occupied[lane] |= bit;
+				if (cp.hasMoved(board, square)) {
+					moved[lane] |= bit;
+				}
+			}
+		}
+		return lane;
+	}
+
+	/**
+	 * Rebuild the board in a lane, with shared pieces.
+	 * @param lane the lane
+	 * @return a new board
+	 */
+	public Board toBoard(int lane)
+	{
+		Board board = new Board(rows, columns);
+		for (ChessPieceDescriptor d : DESCRIPTORS) {
+			long bits = pieces[d.ordinal()][lane];
+			while (bits != 0) {
+				int square = Long.numberOfTrailingZeros(bits);
+				board.putPieceAt(ChessPieceFactory.sharedPiece(d), board.coordinateOf(square));
+				if ((moved[lane] & (1L << square)) != 0) {
+					board.setMoved(square, true);
+				}
+				bits &= bits - 1;
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * Empty the batch, keeping its arrays.
+	 */
+	public void clear()
+	{
+		for (long[] column : pieces) {
+			Arrays.fill(column, 0, size, 0L);
+		}
+		Arrays.fill(white, 0, size, 0L);
+		Arrays.fill(black, 0, size, 0L);
+		Arrays.fill(occupied, 0, size, 0L);
+		Arrays.fill(moved, 0, size, 0L);
+		size = 0;
+	}
+
+	/**
+	 * @return the number of boards in the batch
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return the number of rows of the boards
+	 */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * @return the number of columns of the boards
+	 */
+	public int getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * @param row the row, starting at 1
+	 * @param column the column, starting at 1
+	 * @return the square index, or -1 if it is not on the boards
+	 */
+	public int squareOf(int row, int column)
+	{
+		if (row < 1 || row > rows || column < 1 || column > columns) {
+			return -1;
+		}
+		return (row - 1) * columns + column - 1;
+	}
+
+	private void allocate(int capacity)
+	{
+		if (pieces == null) {
+			pieces = new long[DESCRIPTORS.length][];
+		}
+		for (int d = 0; d < pieces.length; d++) {
+			pieces[d] = grow(pieces[d], capacity);
+		}
+		white = grow(white, capacity);
+		black = grow(black, capacity);
+		occupied = grow(occupied, capacity);
+		moved = grow(moved, capacity);
+	}
+
+	private static long[] grow(long[] column, int capacity)
+	{
+		return column == null ? new long[capacity] : Arrays.copyOf(column, capacity);
+	}
+}
@@ -0,0 +1,496 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.search;
+
+import static gpv.chess.search.TranspositionTable.*;
+import java.util.concurrent.atomic.*;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * A best-move search for chess positions that plays by the validator's own
+ * rules: moves come from ChessMoves, which keeps only what ChessPiece#canMove
+ * accepts. Since the rules have no check, a king can be captured, and
+ * capturing it wins.
+ * <br/>
+ * The search is an iterative deepening alpha-beta (negamax) search with a
+ * capture-only quiescence search and a material evaluation. Moves are made
+ * on copies taken from the thread's BoardPool, so no move is ever unmade.
+ * <br/>
+ * Several threads search the same position at once in the Lazy SMP style:
+ * they share nothing but a lock-free TranspositionTable and a stop flag,
+ * and the helpers, which start at staggered depths and try root moves in a
+ * rotated order, make the main thread faster by filling the table. The
+ * result is that of the main thread, which runs on the caller's thread.
+ * <code>
+ * 	ChessSearch search = new ChessSearch(4);
+ * 	SearchResult best = search.search(board, PlayerColor.WHITE, makeSearchLimits(0, 500, 0));
+ * </code>
+ * @version Oct 19, 2026
+ */
+public class ChessSearch
+{
+	public static final int NO_MOVE = 0;
+	/**
+	 * The score for capturing the enemy king now; a capture n plies away
+	 * scores WIN - n.
+	 */
+	public static final int WIN = 30000;
+	static final int MAX_PLY = 64;
+
+	private static final int WIN_BOUND = WIN - MAX_PLY;
+	private static final int[] VALUES = new int[PieceName.values().length];
+	static {
+		VALUES[PieceName.PAWN.ordinal()] = 100;
+		VALUES[PieceName.KNIGHT.ordinal()] = 300;
+		VALUES[PieceName.BISHOP.ordinal()] = 320;
+		VALUES[PieceName.ROOK.ordinal()] = 500;
+		VALUES[PieceName.QUEEN.ordinal()] = 900;
+		VALUES[PieceName.KING.ordinal()] = 0;	// losing it ends the game instead
+	}
+	private static final long BLACK_TO_MOVE = 0x6A09E667F3BCC909L;
+	private static final int CHECK_INTERVAL = 1024;
+
+	private final int threads;
+	private final TranspositionTable table;
+
+	/**
+	 * @param threads the number of search threads, including the caller's
+	 */
+	public ChessSearch(int threads)
+	{
+		this(threads, new TranspositionTable(16));
+	}
+
+	/**
+	 * @param threads the number of search threads, including the caller's
+	 * @param table the transposition table, which may be shared with other
+	 * 	searches
+	 */
+	public ChessSearch(int threads, TranspositionTable table)
+	{
+		if (threads < 1) {
+			throw new IllegalArgumentException("a search needs at least one thread");
+		}
+		this.threads = threads;
+		this.table = table;
+	}
+
+	/**
+	 * Find the best move for one side. The board is not changed.
+	 * @param board the position
+	 * @param side the side to move
+	 * @param limits when to stop
+	 * @return the best move of the deepest iteration that was completed or,
+	 * 	if none was, the best of the root moves searched before the search
+	 * 	stopped, with a depth of 0
+	 */
+	public SearchResult search(Board board, PlayerColor side, SearchLimits limits)
+	{
+		long start = System.nanoTime();
+		Shared shared = new Shared(limits, start);
+		Thread[] helpers = new Thread[threads - 1];
+		for (int i = 0; i < helpers.length; i++) {
+			Worker helper = new Worker(i + 1, board.copy(), side, shared);
+			helpers[i] = new Thread(helper, "chess-search-" + (i + 1));
+			helpers[i].setDaemon(true);
+			helpers[i].start();
+		}
+		Worker main = new Worker(0, board.copy(), side, shared);
+		main.run();
+		shared.stop.set(true);
+		for (Thread helper : helpers) {
+			try {
+				helper.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return new SearchResult(board, main.bestMove, main.bestScore, main.completedDepth,
+				shared.nodes.get(), System.nanoTime() - start);
+	}
+
+	/**
+	 * @return the transposition table
+	 */
+	public TranspositionTable getTable()
+	{
+		return table;
+	}
+
+	/**
+	 * Material balance from one side's point of view.
+	 * @param board the position
+	 * @param side the side to score for
+	 * @return the score in centipawns
+	 */
+	static int evaluate(Board board, PlayerColor side)
+	{
+		int score = 0;
+		for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+			int value = board.countOf(d) * VALUES[d.getName().ordinal()];
+			score += d.getColor() == side ? value : -value;
+		}
+		return Math.max(-WIN_BOUND + 1, Math.min(WIN_BOUND - 1, score));
+	}
+
+	/**
+	 * State shared by the threads of one search.
+	 */
+	private static final class Shared
+	{
+		private final AtomicBoolean stop = new AtomicBoolean();
+		private final AtomicLong nodes = new AtomicLong();
+		private final SearchLimits limits;
+		private final long deadline;
+
+		private Shared(SearchLimits limits, long start)
+		{
+			this.limits = limits;
+			this.deadline = limits.getMaxMillis() == 0 ? Long.MAX_VALUE
+					: start + limits.getMaxMillis() * 1_000_000L;
+		}
+
+		/**
+		 * Add a thread's nodes and raise the stop flag if a limit is reached.
+		 */
+		private void report(long count)
+		{
+			long total = nodes.addAndGet(count);
+			if ((limits.getMaxNodes() > 0 && total >= limits.getMaxNodes())
+					|| System.nanoTime() - deadline >= 0) {
+				stop.set(true);
+			}
+		}
+	}
+
+	/**
+	 * One search thread. Everything it touches, apart from the table and the
+	 * shared state, is its own.
+	 */
+	private final class Worker implements Runnable
+	{
+		private final int id;
+		private final Board root;
+		private final PlayerColor side;
+		private final Shared shared;
+		private final MoveList[] lists = new MoveList[MAX_PLY + 1];
+		private BoardPool pool;
+		private long unreported;
+		private int bestMove = NO_MOVE;
+		private int bestScore;
+		private int completedDepth;
+
+		private Worker(int id, Board root, PlayerColor side, Shared shared)
+		{
+			this.id = id;
+			this.root = root;
+			this.side = side;
+			this.shared = shared;
+			for (int i = 0; i < lists.length; i++) {
+				lists[i] = new MoveList();
+			}
+		}
+
+		/*
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run()
+		{
+			pool = BoardPool.get();
+			int maxDepth = shared.limits.getMaxDepth() == 0 ? MAX_PLY
+					: Math.min(shared.limits.getMaxDepth(), MAX_PLY);
+			for (int depth = 1 + (id & 1); depth <= maxDepth; depth++) {
+				searchRoot(depth);
+				if (shared.stop.get()) {
+					break;
+				}
+				completedDepth = depth;
+			}
+			shared.report(unreported);
+			unreported = 0;
+		}
+
+		/**
+		 * Search every root move to the given depth. An iteration that is
+		 * stopped is abandoned, since the scores below a stop are 0 rather
+		 * than real: it is neither kept nor stored in the table. Only when
+		 * the main thread has not completed one yet does it keep the best of
+		 * the root moves searched in full, or the first move to be tried
+		 * with the static evaluation, so that there is a move to report.
+		 */
+		private void searchRoot(int depth)
+		{
+			MoveList moves = lists[0];
+			moves.clear();
+			ChessMoves.generate(root, side, moves);
+			if (moves.size() == 0) {
+				bestMove = NO_MOVE;
+				bestScore = 0;
+				return;
+			}
+			long key = keyOf(root, side);
+			long entry = table.probe(key);
+			orderFirst(moves, 0, entry == 0 ? bestMove : moveOf(entry));
+			if (id > 0) {
+				rotate(moves, id % moves.size());
+			}
+			int alpha = -WIN - 1;
+			int beta = WIN + 1;
+			int iterationMove = NO_MOVE;
+			for (int i = 0; i < moves.size(); i++) {
+				int move = moves.get(i);
+				Board child = pool.acquire(root);
+				ChessMoves.apply(child, move);
+				int score = -negamax(child, opponent(side), depth - 1, -beta, -alpha, 1);
+				pool.release(child);
+				if (shared.stop.get()) {
+					if (id == 0 && completedDepth == 0) {
+						bestMove = iterationMove == NO_MOVE ? moves.get(0) : iterationMove;
+						bestScore = iterationMove == NO_MOVE ? evaluate(root, side) : alpha;
+					}
+					return;
+				}
+				if (score > alpha) {
+					alpha = score;
+					iterationMove = move;
+				}
+			}
+			bestMove = iterationMove;
+			bestScore = alpha;
+			table.store(key, iterationMove, toTable(alpha, 0), depth, EXACT);
+		}
+
+		private int negamax(Board board, PlayerColor toMove, int depth, int alpha, int beta, int ply)
+		{
+			if (++unreported == CHECK_INTERVAL) {
+				shared.report(unreported);
+				unreported = 0;
+			}
+			if (board.countOf(kingOf(toMove)) == 0) {
+				return -WIN + ply;
+			}
+			if (depth <= 0 || ply >= MAX_PLY) {
+				return quiesce(board, toMove, alpha, beta, ply);
+			}
+			if (shared.stop.get()) {
+				return 0;
+			}
+
+			long key = keyOf(board, toMove);
+			long entry = table.probe(key);
+			int hashMove = NO_MOVE;
+			if (entry != 0) {
+				hashMove = moveOf(entry);
+				if (depthOf(entry) >= depth) {
+					int score = fromTable(scoreOf(entry), ply);
+					int bound = boundOf(entry);
+					if (bound == EXACT || (bound == LOWER && score >= beta)
+							|| (bound == UPPER && score <= alpha)) {
+						return score;
+					}
+				}
+			}
+
+			MoveList moves = lists[ply];
+			moves.clear();
+			ChessMoves.generate(board, toMove, moves);
+			if (moves.size() == 0) {
+				return 0;
+			}
+			int originalAlpha = alpha;
+			int best = -WIN - 1;
+			int bestMoveHere = NO_MOVE;
+			for (int i = 0; i < moves.size(); i++) {
+				pickNext(board, moves, i, hashMove);
+				int move = moves.get(i);
+				Board child = pool.acquire(board);
+				ChessMoves.apply(child, move);
+				int score = -negamax(child, opponent(toMove), depth - 1, -beta, -alpha, ply + 1);
+				pool.release(child);
+				if (shared.stop.get()) {
+					return 0;
+				}
+				if (score > best) {
+					best = score;
+					bestMoveHere = move;
+					if (score > alpha) {
+						alpha = score;
+						if (alpha >= beta) {
+							break;
+						}
+					}
+				}
+			}
+			int bound = best >= beta ? LOWER : best > originalAlpha ? EXACT : UPPER;
+			table.store(key, bestMoveHere, toTable(best, ply), depth, bound);
+			return best;
+		}
+
+		/**
+		 * Search captures only, so that the evaluation is not taken in the
+		 * middle of an exchange.
+		 */
+		private int quiesce(Board board, PlayerColor toMove, int alpha, int beta, int ply)
+		{
+			int standPat = evaluate(board, toMove);
+			if (standPat >= beta || ply >= MAX_PLY) {
+				return standPat;
+			}
+			if (standPat > alpha) {
+				alpha = standPat;
+			}
+			MoveList moves = lists[ply];
+			moves.clear();
+			ChessMoves.generate(board, toMove, moves);
+			for (int i = 0; i < moves.size(); i++) {
+				pickNext(board, moves, i, NO_MOVE);
+				int move = moves.get(i);
+				if (capturedBy(board, move) == null) {
+					break;	// captures are ordered first
+				}
+				if (++unreported == CHECK_INTERVAL) {
+					shared.report(unreported);
+					unreported = 0;
+				}
+				Board child = pool.acquire(board);
+				ChessMoves.apply(child, move);
+				int score = child.countOf(kingOf(opponent(toMove))) == 0 ? WIN - ply - 1
+						: -quiesce(child, opponent(toMove), -beta, -alpha, ply + 1);
+				pool.release(child);
+				if (shared.stop.get()) {
+					return 0;
+				}
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+			return alpha;
+		}
+	}
+
+	/**
+	 * Move the best remaining move into position i: the hash move, then
+	 * captures of the most valuable victim by the least valuable attacker,
+	 * then quiet moves in generation order.
+	 */
+	private static void pickNext(Board board, MoveList moves, int i, int hashMove)
+	{
+		int best = i;
+		int bestRank = rank(board, moves.get(i), hashMove);
+		for (int j = i + 1; j < moves.size(); j++) {
+			int rank = rank(board, moves.get(j), hashMove);
+			if (rank > bestRank) {
+				best = j;
+				bestRank = rank;
+			}
+		}
+		if (best != i) {
+			moves.swap(i, best);
+		}
+	}
+
+	private static int rank(Board board, int move, int hashMove)
+	{
+		if (move == hashMove) {
+			return Integer.MAX_VALUE;
+		}
+		ChessPiece captured = capturedBy(board, move);
+		if (captured == null) {
+			return 0;
+		}
+		ChessPiece attacker = (ChessPiece) board.getPieceAt(ChessMoves.fromOf(move));
+		int value = captured.getName() == PieceName.KING ? WIN : VALUES[captured.getName().ordinal()];
+		return 16 * value - VALUES[attacker.getName().ordinal()] + 1;
+	}
+
+	/**
+	 * @return the enemy piece on the move's destination, or null; a king
+	 * 	moving onto its own rook castles rather than captures
+	 */
+	static ChessPiece capturedBy(Board board, int move)
+	{
+		ChessPiece target = (ChessPiece) board.getPieceAt(ChessMoves.toOf(move));
+		if (target == null) {
+			return null;
+		}
+		ChessPiece mover = (ChessPiece) board.getPieceAt(ChessMoves.fromOf(move));
+		return target.getColor() != mover.getColor() ? target : null;
+	}
+
+	private static void orderFirst(MoveList moves, int i, int move)
+	{
+		for (int j = i; j < moves.size(); j++) {
+			if (moves.get(j) == move) {
+				moves.swap(i, j);
+				return;
+			}
+		}
+	}
+
+	private static void rotate(MoveList moves, int by)
+	{
+		for (int k = 0; k < by; k++) {
+			for (int j = 0; j + 1 < moves.size(); j++) {
+				moves.swap(j, j + 1);
+			}
+		}
+	}
+
+	/**
+	 * Positions that differ only in castling rights or en passant allow
+	 * different moves, so they get different keys, as in GameHistory.
+	 */
+	static long keyOf(Board board, PlayerColor toMove)
+	{
+		long key = board.getPositionHash() ^ (toMove == PlayerColor.BLACK ? BLACK_TO_MOVE : 0);
+		int state = board.getGameState() & (GameState.CASTLING | GameState.EN_PASSANT);
+		return state == 0 ? key : key ^ mix(state);
+	}
+
+	private static long mix(long z)
+	{
+		z = (z * 0x9E3779B97F4A7C15L) ^ 0xA54FF53A5F1D36F1L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static PlayerColor opponent(PlayerColor color)
+	{
+		return color == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+	}
+
+	private static ChessPieceDescriptor kingOf(PlayerColor color)
+	{
+		return color == PlayerColor.WHITE ? ChessPieceDescriptor.WHITEKING : ChessPieceDescriptor.BLACKKING;
+	}
+
+	/**
+	 * King capture scores count plies from the root; the table stores them
+	 * counted from the position instead so they can be reused at any ply.
+	 */
+	private static int toTable(int score, int ply)
+	{
+		return score > WIN_BOUND ? score + ply : score < -WIN_BOUND ? score - ply : score;
+	}
+
+	private static int fromTable(int score, int ply)
+	{
+		return score > WIN_BOUND ? score - ply : score < -WIN_BOUND ? score + ply : score;
+	}
+}
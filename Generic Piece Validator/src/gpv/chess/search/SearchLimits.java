@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.search;
+
+/**
+ * When a search stops: after a given depth, after a given time or after a
+ * given number of nodes, whichever comes first. A limit of zero means no
+ * limit, but at least one limit must be set.
+ * @version Oct 19, 2026
+ */
+public final class SearchLimits
+{
+	private final int maxDepth;
+	private final long maxMillis;
+	private final long maxNodes;
+
+	private SearchLimits(int maxDepth, long maxMillis, long maxNodes)
+	{
+		this.maxDepth = maxDepth;
+		this.maxMillis = maxMillis;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Factory method.
+	 * @param maxDepth the deepest iteration to search, or 0
+	 * @param maxMillis the time to search for in milliseconds, or 0
+	 * @param maxNodes the number of nodes to search, or 0
+	 * @return the limits
+	 */
+	public static SearchLimits makeSearchLimits(int maxDepth, long maxMillis, long maxNodes)
+	{
+		if (maxDepth < 0 || maxMillis < 0 || maxNodes < 0) {
+			throw new IllegalArgumentException("search limits cannot be negative");
+		}
+		if (maxDepth == 0 && maxMillis == 0 && maxNodes == 0) {
+			throw new IllegalArgumentException("a search needs at least one limit");
+		}
+		return new SearchLimits(maxDepth, maxMillis, maxNodes);
+	}
+
+	/**
+	 * @return the deepest iteration to search, or 0 for no limit
+	 */
+	public int getMaxDepth()
+	{
+		return maxDepth;
+	}
+
+	/**
+	 * @return the time to search for in milliseconds, or 0 for no limit
+	 */
+	public long getMaxMillis()
+	{
+		return maxMillis;
+	}
+
+	/**
+	 * @return the number of nodes to search, or 0 for no limit
+	 */
+	public long getMaxNodes()
+	{
+		return maxNodes;
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.search;
+
+import gpv.chess.ChessMoves;
+import gpv.util.*;
+
+/**
+ * The outcome of a search: the best move of the deepest completed iteration,
+ * its score from the point of view of the side to move, and statistics.
+ * @version Oct 19, 2026
+ */
+public final class SearchResult
+{
+	private final int move;
+	private final Coordinate from;
+	private final Coordinate to;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long elapsedNanos;
+
+	SearchResult(Board board, int move, int score, int depth, long nodes, long elapsedNanos)
+	{
+		this.move = move;
+		this.from = move == ChessSearch.NO_MOVE ? null : board.coordinateOf(ChessMoves.fromOf(move));
+		this.to = move == ChessSearch.NO_MOVE ? null : board.coordinateOf(ChessMoves.toOf(move));
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return true if a move was found; false if the side had no move
+	 */
+	public boolean hasMove()
+	{
+		return move != ChessSearch.NO_MOVE;
+	}
+
+	/**
+	 * @return the move as encoded by ChessMoves
+	 */
+	public int getMove()
+	{
+		return move;
+	}
+
+	/**
+	 * @return the square the moving piece leaves, or null
+	 */
+	public Coordinate getFrom()
+	{
+		return from;
+	}
+
+	/**
+	 * @return the square the moving piece goes to, or null
+	 */
+	public Coordinate getTo()
+	{
+		return to;
+	}
+
+	/**
+	 * @return the score in centipawns; ChessSearch.WIN minus the number of
+	 * 	plies for a forced king capture
+	 */
+	public int getScore()
+	{
+		return score;
+	}
+
+	/**
+	 * @return the depth of the deepest completed iteration
+	 */
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	/**
+	 * @return the number of nodes searched by all threads
+	 */
+	public long getNodes()
+	{
+		return nodes;
+	}
+
+	/**
+	 * @return the time the search took in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return the number of nodes searched per second
+	 */
+	public long getNodesPerSecond()
+	{
+		return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return from + "->" + to + " score " + score + " depth " + depth + " nodes " + nodes
+				+ " nps " + getNodesPerSecond();
+	}
+}
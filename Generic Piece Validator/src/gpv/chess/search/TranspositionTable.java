@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size hash table of search results shared by every search thread
+ * without locks. Each entry is two longs: the position key XORed with the
+ * data, and the data. A reader recomputes key ^ data and only trusts the
+ * entry when that matches its key, so an entry torn by two threads writing
+ * at once simply reads as a miss.
+ * <br/>
+ * The data packs the best move (32 bits), the score (16 bits), the depth
+ * (8 bits) and the bound type (2 bits), plus a bit that marks the entry as
+ * used.
+ * @version Oct 19, 2026
+ */
+public final class TranspositionTable
+{
+	public static final int EXACT = 0;
+	public static final int LOWER = 1;	// the score is at least this (a beta cutoff)
+	public static final int UPPER = 2;	// the score is at most this (no move raised alpha)
+
+	private static final long USED = 1L << 63;
+
+	private final AtomicLongArray slots;
+	private final int mask;
+
+	/**
+	 * @param megabytes the size of the table; it is rounded down to a power
+	 * 	of two number of entries
+	 */
+	public TranspositionTable(int megabytes)
+	{
+		long entries = Math.max(1L, ((long) megabytes << 20) / 16);
+		int size = Integer.highestOneBit((int) Math.min(entries, 1 << 28));
+		slots = new AtomicLongArray(size * 2);
+		mask = size - 1;
+	}
+
+	/**
+	 * @param key the position key
+	 * @return the data stored for the key, or 0 if there is none
+	 */
+	public long probe(long key)
+	{
+		int slot = slot(key);
+		long data = slots.get(slot + 1);
+		return data != 0 && (slots.get(slot) ^ data) == key ? data : 0;
+	}
+
+	/**
+	 * Store a result. An entry for a different position is always replaced;
+	 * an entry for the same position only by a search at least as deep.
+	 * @param key the position key
+	 * @param move the best move found, or 0
+	 * @param score the score, which must fit in a short
+	 * @param depth the depth searched
+	 * @param bound EXACT, LOWER or UPPER
+	 */
+	public void store(long key, int move, int score, int depth, int bound)
+	{
+		int slot = slot(key);
+		long old = slots.get(slot + 1);
+		if (old != 0 && (slots.get(slot) ^ old) == key && depthOf(old) > depth) {
+			return;
+		}
+		long data = USED | ((long) bound << 56) | ((long) (depth & 0xFF) << 48)
+				| ((long) (score & 0xFFFF) << 32) | (move & 0xFFFFFFFFL);
+		slots.lazySet(slot, key ^ data);
+		slots.lazySet(slot + 1, data);
+	}
+
+	/**
+	 * Empty the table.
+	 */
+	public void clear()
+	{
+		for (int i = 0; i < slots.length(); i++) {
+			slots.lazySet(i, 0);
+		}
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int capacity()
+	{
+		return mask + 1;
+	}
+
+	/**
+	 * @param data data returned by probe
+	 * @return the move stored in it
+	 */
+	public static int moveOf(long data)
+	{
+		return (int) data;
+	}
+
+	/**
+	 * @param data data returned by probe
+	 * @return the score stored in it
+	 */
+	public static int scoreOf(long data)
+	{
+		return (short) (data >>> 32);
+	}
+
+	/**
+	 * @param data data returned by probe
+	 * @return the depth stored in it
+	 */
+	public static int depthOf(long data)
+	{
+		return (int) (data >>> 48) & 0xFF;
+	}
+
+	/**
+	 * @param data data returned by probe
+	 * @return the bound type stored in it
+	 */
+	public static int boundOf(long data)
+	{
+		return (int) (data >>> 56) & 0x3;
+	}
+
+	private int slot(long key)
+	{
+		return ((int) (key ^ (key >>> 32)) & mask) << 1;
+	}
+}
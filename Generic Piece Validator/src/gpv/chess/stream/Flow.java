@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.stream;
+
+/**
+ * The interfaces of java.util.concurrent.Flow, which is not available in the
+ * Java 8 this project targets. They have the same methods and contract (the
+ * Reactive Streams specification), so a JDK Flow publisher or subscriber is
+ * adapted by a class that forwards each call.
+ * @version Oct 19, 2026
+ */
+public final class Flow
+{
+	private Flow()
+	{
+		// interfaces only
+	}
+
+	/**
+	 * A source of items for subscribers that ask for them.
+	 */
+	@FunctionalInterface
+	public interface Publisher<T>
+	{
+		/**
+		 * Add a subscriber. It is given a Subscription through onSubscribe,
+		 * or told why it cannot have one through onError.
+		 * @param subscriber the subscriber
+		 */
+		void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * A receiver of items. The methods are called one at a time, in order.
+	 */
+	public interface Subscriber<T>
+	{
+		/**
+		 * Called first, with the subscription to ask for items through.
+		 * @param subscription the subscription
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Called with each item, never more often than items were asked for.
+		 * @param item the item
+		 */
+		void onNext(T item);
+
+		/**
+		 * Called at most once, when the publisher fails; nothing follows it.
+		 * @param throwable what went wrong
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * Called at most once, after the last item; nothing follows it.
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * The link between a publisher and one subscriber.
+	 */
+	public interface Subscription
+	{
+		/**
+		 * Ask for n more items. Requests add up.
+		 * @param n the number of items, which must be positive
+		 */
+		void request(long n);
+
+		/**
+		 * Stop receiving items. Some may still arrive.
+		 */
+		void cancel();
+	}
+
+	/**
+	 * Both a subscriber and a publisher, transforming items as they pass.
+	 */
+	public interface Processor<T, R> extends Subscriber<T>, Publisher<R>
+	{
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.stream;
+
+import gpv.Piece;
+import gpv.util.*;
+
+/**
+ * A move to validate: the board, the square of the piece and the square it
+ * wants to move to. The board must not change until the verdict is out.
+ * @version Oct 19, 2026
+ */
+public final class MoveRequest
+{
+	private final Board board;
+	private final Coordinate from;
+	private final Coordinate to;
+
+	/**
+	 * @param board the board
+	 * @param from the coordinate of the piece to move
+	 * @param to the destination
+	 */
+	public MoveRequest(Board board, Coordinate from, Coordinate to)
+	{
+		this.board = board;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * @return the board
+	 */
+	public Board getBoard()
+	{
+		return board;
+	}
+
+	/**
+	 * @return the coordinate of the piece to move
+	 */
+	public Coordinate getFrom()
+	{
+		return from;
+	}
+
+	/**
+	 * @return the destination
+	 */
+	public Coordinate getTo()
+	{
+		return to;
+	}
+
+	/**
+	 * Ask the piece on the from square, as ChessPiece#canMove does.
+	 * @return true if the move is allowed, false if not or if there is no
+	 * 	piece to move
+	 */
+	public boolean validate()
+	{
+		Piece<?> piece = board.getPieceAt(from);
+		return piece != null && piece.canMove(from, to, board);
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return from + "->" + to;
+	}
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.stream;
+
+/**
+ * The answer to a MoveRequest.
+ * @version Oct 19, 2026
+ */
+public final class MoveVerdict
+{
+	private final MoveRequest request;
+	private final boolean allowed;
+
+	/**
+	 * @param request the request answered
+	 * @param allowed true if the move is allowed
+	 */
+	public MoveVerdict(MoveRequest request, boolean allowed)
+	{
+		this.request = request;
+		this.allowed = allowed;
+	}
+
+	/**
+	 * @return the request answered
+	 */
+	public MoveRequest getRequest()
+	{
+		return request;
+	}
+
+	/**
+	 * @return true if the move is allowed
+	 */
+	public boolean isAllowed()
+	{
+		return allowed;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return request + (allowed ? " allowed" : " rejected");
+	}
+}
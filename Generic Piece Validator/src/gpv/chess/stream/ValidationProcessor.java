@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.stream;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A stream stage that validates moves: it subscribes to a publisher of
+ * MoveRequests and publishes a MoveVerdict for each, in order, to one
+ * subscriber.
+ * <br/>
+ * Nothing is done without demand. Upstream is asked for at most batchSize
+ * requests ahead, and asked for more only as verdicts go out, so the buffer
+ * never holds more than batchSize requests. Verdicts are worked out on the
+ * executor in batches of up to batchSize, as many as the subscriber has
+ * asked for, and then handed out: with a subscriber that asks for one at a
+ * time this is one request per batch, with a hungry one it is a tight loop.
+ * <code>
+ * 	ValidationProcessor validator = new ValidationProcessor(executor, 256);
+ * 	requests.subscribe(validator);
+ * 	validator.subscribe(verdicts);
+ * </code>
+ * An exception thrown by a piece's rules cancels upstream and is passed on
+ * to the subscriber through onError.
+ * @version Oct 19, 2026
+ */
+public class ValidationProcessor implements Flow.Processor<MoveRequest, MoveVerdict>
+{
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	private final Executor executor;
+	private final int batchSize;
+	private final int replenish;	// ask upstream for more once this many were used
+	private final Queue<MoveRequest> buffer = new ConcurrentLinkedQueue<MoveRequest>();
+	private final AtomicReference<Flow.Subscriber<? super MoveVerdict>> downstream =
+			new AtomicReference<Flow.Subscriber<? super MoveVerdict>>();
+	private final AtomicLong demand = new AtomicLong();
+	private final AtomicInteger wip = new AtomicInteger();	// drain requests; the drain runs while > 0
+	private volatile Flow.Subscription upstream;
+	private volatile boolean ready;		// downstream has its subscription
+	private volatile boolean done;		// upstream has finished, or failed
+	private volatile Throwable error;
+	private volatile boolean cancelled;	// downstream cancelled, or was terminated
+	private int consumed;	// the rest is used by the drain only
+	private final MoveRequest[] batch;
+	private final boolean[] verdicts;
+
+	/**
+	 * A processor on the common ForkJoinPool with the default batch size.
+	 */
+	public ValidationProcessor()
+	{
+		this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param executor where validation runs and verdicts are delivered
+	 * @param batchSize the most requests buffered or validated at once
+	 */
+	public ValidationProcessor(Executor executor, int batchSize)
+	{
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("the batch size must be positive");
+		}
+		this.executor = executor;
+		this.batchSize = batchSize;
+		replenish = Math.max(1, batchSize / 2);
+		batch = new MoveRequest[batchSize];
+		verdicts = new boolean[batchSize];
+	}
+
+	/*
+	 * @see gpv.chess.stream.Flow.Publisher#subscribe(gpv.chess.stream.Flow.Subscriber)
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super MoveVerdict> subscriber)
+	{
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber");
+		}
+		if (!downstream.compareAndSet(null, subscriber)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n)
+				{
+				}
+
+				@Override
+				public void cancel()
+				{
+				}
+			});
+			subscriber.onError(new IllegalStateException("a ValidationProcessor has only one subscriber"));
+			return;
+		}
+		subscriber.onSubscribe(new Flow.Subscription() {
+			@Override
+			public void request(long n)
+			{
+				if (n <= 0) {
+					fail(new IllegalArgumentException("request(" + n + "): requests must be positive"));
+				} else {
+					demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+				}
+				drain();
+			}
+
+			@Override
+			public void cancel()
+			{
+				cancelled = true;
+				cancelUpstream();
+				drain();
+			}
+		});
+		ready = true;
+		drain();
+	}
+
+	/*
+	 * @see gpv.chess.stream.Flow.Subscriber#onSubscribe(gpv.chess.stream.Flow.Subscription)
+	 */
+	@Override
+	public void onSubscribe(Flow.Subscription subscription)
+	{
+		if (upstream != null) {
+			subscription.cancel();	// only one upstream
+			return;
+		}
+		upstream = subscription;
+		if (cancelled) {
+			subscription.cancel();
+		} else {
+			subscription.request(batchSize);
+		}
+	}
+
+	/*
+	 * @see gpv.chess.stream.Flow.Subscriber#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(MoveRequest request)
+	{
+		if (!done && !cancelled) {
+			buffer.offer(request);
+			drain();
+		}
+	}
+
+	/*
+	 * @see gpv.chess.stream.Flow.Subscriber#onError(java.lang.Throwable)
+	 */
+	@Override
+	public void onError(Throwable throwable)
+	{
+		if (!done) {
+			error = throwable;
+			done = true;
+			drain();
+		}
+	}
+
+	/*
+	 * @see gpv.chess.stream.Flow.Subscriber#onComplete()
+	 */
+	@Override
+	public void onComplete()
+	{
+		done = true;
+		drain();
+	}
+
+	/**
+	 * @return the number of requests waiting for demand
+	 */
+	public int getBuffered()
+	{
+		return buffer.size();
+	}
+
+	/**
+	 * End the stream with an error once what is buffered is dropped.
+	 */
+	private void fail(Throwable throwable)
+	{
+		cancelUpstream();
+		buffer.clear();
+		error = throwable;
+		done = true;
+	}
+
+	private void cancelUpstream()
+	{
+		Flow.Subscription subscription = upstream;
+		if (subscription != null) {
+			subscription.cancel();
+		}
+	}
+
+	/**
+	 * Start the drain on the executor unless it is running, in which case
+	 * it goes round once more.
+	 */
+	private void drain()
+	{
+		if (wip.getAndIncrement() == 0) {
+			try {
+				executor.execute(this::drainLoop);
+			} catch (RejectedExecutionException e) {
+				wip.set(0);
+				cancelled = true;
+				cancelUpstream();
+				Flow.Subscriber<? super MoveVerdict> subscriber = downstream.get();
+				if (subscriber != null) {
+					subscriber.onError(e);
+				}
+			}
+		}
+	}
+
+	private void drainLoop()
+	{
+		int missed = 1;
+		do {
+			Flow.Subscriber<? super MoveVerdict> subscriber = downstream.get();
+			if (cancelled) {
+				buffer.clear();
+			} else if (ready) {
+				long wanted = demand.get();
+				long emitted = 0;
+				while (emitted < wanted && !cancelled) {
+					int n = 0;
+					int limit = (int) Math.min(batchSize, wanted - emitted);
+					MoveRequest request;
+					while (n < limit && (request = buffer.poll()) != null) {
+						batch[n++] = request;
+					}
+					if (n == 0) {
+						break;
+					}
+					try {
+						for (int i = 0; i < n; i++) {
+							verdicts[i] = batch[i].validate();
+						}
+					} catch (RuntimeException e) {
+						cancelled = true;
+						cancelUpstream();
+						buffer.clear();
+						subscriber.onError(e);
+						break;
+					}
+					for (int i = 0; i < n && !cancelled; i++) {
+						subscriber.onNext(new MoveVerdict(batch[i], verdicts[i]));
+						batch[i] = null;
+						emitted++;
+						if (++consumed == replenish) {
+							consumed = 0;
+							upstream.request(replenish);
+						}
+					}
+				}
+				if (emitted > 0 && wanted != Long.MAX_VALUE) {
+					demand.addAndGet(-emitted);
+				}
+				if (!cancelled && done && buffer.isEmpty()) {
+					cancelled = true;
+					Throwable failure = error;
+					if (failure != null) {
+						subscriber.onError(failure);
+					} else {
+						subscriber.onComplete();
+					}
+				}
+			}
+			missed = wip.addAndGet(-missed);
+		} while (missed != 0);
+	}
+}
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.tablebase;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * The exact value of every position of a small endgame, for both sides to
+ * move, as built by TablebaseGenerator. A value is the number of plies
+ * until the king is captured with best play, which under these rules is
+ * what mate means:
+ * <ul>
+ * <li>n &gt; 0: the side to move wins, capturing the enemy king on its
+ * 	n-th ply from now (1 means it can capture it right away)</li>
+ * <li>-n &lt; 0: the side to move loses, its king being captured after n plies</li>
+ * <li>0: a draw</li>
+ * </ul>
+ * The table holds one byte per position, indexed by the side to move and
+ * the square of each piece, so a probe is a few multiplications and one
+ * read. Tables can be written to a file and memory mapped back.
+ * @version Oct 19, 2026
+ */
+public final class Tablebase
+{
+	static final byte INVALID = Byte.MIN_VALUE;	// two pieces on one square
+	static final int MAX_DISTANCE = Byte.MAX_VALUE;
+	private static final int MAGIC = 0x47505442;	// "GPTB"
+	private static final int VERSION = 1;
+
+	private final int rows;
+	private final int columns;
+	private final ChessPieceDescriptor[] material;
+	private final ByteBuffer values;
+
+	/**
+	 * @param material the pieces, in canonical order (see canonical)
+	 */
+	Tablebase(int rows, int columns, ChessPieceDescriptor[] material, ByteBuffer values)
+	{
+		this.rows = rows;
+		this.columns = columns;
+		this.material = material;
+		this.values = values;
+	}
+
+	/**
+	 * Probe the table with a position on a board.
+	 * @param board a board of the table's size holding exactly the table's pieces
+	 * @param toMove the side to move
+	 * @return the value of the position, as described above
+	 * @throws IllegalArgumentException if the board does not match the table
+	 */
+	public int probe(Board board, PlayerColor toMove)
+	{
+		if (board.getnRows() != rows || board.getnColumns() != columns) {
+			throw new IllegalArgumentException("the table is for " + rows + "x" + columns + " boards");
+		}
+		int[] squares = new int[material.length];
+		int[] found = new int[material.length];
+		int n = 0;
+		for (int i = 0; i < material.length; i++) {
+			if (i > 0 && material[i] == material[i - 1]) {
+				continue;
+			}
+			int count = board.collectSquaresOf(material[i], found, 0);
+			for (int j = 0; j < count; j++) {
+				if (n == squares.length || material[n] != material[i]) {
+					throw new IllegalArgumentException("the board does not hold " + getName());
+				}
+				squares[n++] = found[j];
+			}
+		}
+		int pieces = 0;
+		for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+			pieces += board.countOf(d);
+		}
+		if (n != material.length || pieces != n) {
+			throw new IllegalArgumentException("the board does not hold " + getName());
+		}
+		return probe(squares, toMove);
+	}
+
+	/**
+	 * @param squares the square index of each piece, in the order of getMaterial()
+	 * @param toMove the side to move
+	 * @return the value of the position
+	 */
+	public int probe(int[] squares, PlayerColor toMove)
+	{
+		return values.get(index(squares, toMove));
+	}
+
+	/**
+	 * @return the pieces of the endgame, in the order probe(int[], ...) uses
+	 */
+	public List<ChessPieceDescriptor> getMaterial()
+	{
+		return Collections.unmodifiableList(Arrays.asList(material));
+	}
+
+	/**
+	 * @return the number of rows of the board
+	 */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * @return the number of columns of the board
+	 */
+	public int getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * @return the number of positions, including impossible ones
+	 */
+	public int size()
+	{
+		return values.capacity();
+	}
+
+	/**
+	 * @return a short name such as KQK-8x8
+	 */
+	public String getName()
+	{
+		return nameOf(rows, columns, material);
+	}
+
+	/**
+	 * Write the table to a file.
+	 * @param file the file
+	 */
+	public void write(Path file) throws IOException
+	{
+		ByteBuffer header = ByteBuffer.allocate(20 + 4 * material.length);
+		header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns).putInt(material.length);
+		for (ChessPieceDescriptor d : material) {
+			header.putInt(d.ordinal());
+		}
+		header.flip();
+		ByteBuffer body = values.duplicate();
+		body.clear();
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+			while (body.hasRemaining()) {
+				channel.write(body);
+			}
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Memory map a table written by write().
+	 * @param file the file
+	 * @return the table
+	 */
+	public static Tablebase open(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(20);
+			channel.read(header, 0);
+			header.flip();
+			if (header.remaining() < 20 || header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(file + " is not a tablebase");
+			}
+			int rows = header.getInt();
+			int columns = header.getInt();
+			int pieces = header.getInt();
+			ByteBuffer ordinals = ByteBuffer.allocate(4 * pieces);
+			channel.read(ordinals, 20);
+			ordinals.flip();
+			ChessPieceDescriptor[] material = new ChessPieceDescriptor[pieces];
+			for (int i = 0; i < pieces; i++) {
+				material[i] = ChessPieceDescriptor.values()[ordinals.getInt()];
+			}
+			long start = 20 + 4L * pieces;
+			long size = sizeOf(rows * columns, pieces);
+			if (channel.size() != start + size) {
+				throw new IOException(file + " is truncated");
+			}
+			MappedByteBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+			return new Tablebase(rows, columns, material, values);
+		}
+	}
+
+	/**
+	 * The index of a position: the side to move, then each piece's square
+	 * as a digit in base (number of squares).
+	 */
+	int index(int[] squares, PlayerColor toMove)
+	{
+		int n = rows * columns;
+		int index = toMove.ordinal();
+		for (int i = squares.length - 1; i >= 0; i--) {
+			index = index * n + squares[i];
+		}
+		return index;
+	}
+
+	/**
+	 * @return the number of positions of a table
+	 */
+	static long sizeOf(int squares, int pieces)
+	{
+		long size = 2;
+		for (int i = 0; i < pieces; i++) {
+			size *= squares;
+		}
+		return size;
+	}
+
+	/**
+	 * @return the material sorted by descriptor, the order tables use
+	 */
+	static ChessPieceDescriptor[] canonical(ChessPieceDescriptor... material)
+	{
+		ChessPieceDescriptor[] sorted = material.clone();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * @return the usual short name of an endgame, such as KBNK-8x8
+	 */
+	static String nameOf(int rows, int columns, ChessPieceDescriptor[] material)
+	{
+		StringBuilder white = new StringBuilder();
+		StringBuilder black = new StringBuilder();
+		for (ChessPieceDescriptor d : material) {
+			char letter = d.getName() == PieceName.KNIGHT ? 'N' : d.getName().name().charAt(0);
+			(d.getColor() == PlayerColor.WHITE ? white : black).append(letter);
+		}
+		return sortKingFirst(white) + sortKingFirst(black) + "-" + rows + "x" + columns;
+	}
+
+	private static String sortKingFirst(StringBuilder side)
+	{
+		String order = "KQRBNP";
+		char[] letters = side.toString().toCharArray();
+		Character[] boxed = new Character[letters.length];
+		for (int i = 0; i < letters.length; i++) {
+			boxed[i] = letters[i];
+		}
+		Arrays.sort(boxed, (a, b) -> order.indexOf(a) - order.indexOf(b));
+		StringBuilder sorted = new StringBuilder();
+		for (Character c : boxed) {
+			sorted.append(c);
+		}
+		return sorted.toString();
+	}
+}
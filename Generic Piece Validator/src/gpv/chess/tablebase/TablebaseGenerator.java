@@ -0,0 +1,497 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.tablebase;
+
+import static gpv.chess.tablebase.Tablebase.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import gpv.Piece;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * Builds endgame tablebases by retrograde analysis, with the moves that
+ * ChessMoves generates, so the tables follow the validator's rules exactly:
+ * there is no check, and capturing the king wins. Pawns are not supported,
+ * since they never move back. Castling never happens in a table, as every
+ * piece counts as having moved.
+ * <br/>
+ * Generation starts from the positions where the side to move can capture
+ * the king, then walks backwards one ply at a time: the predecessors of a
+ * position lost in n-1 plies are won in n, and a predecessor of a position
+ * won in n-1 is lost in n once every one of its moves is known to lose.
+ * Since these pieces move symmetrically, the predecessors of a position are
+ * found by moving the other side's pieces to empty squares. A capture leaves
+ * the table for a smaller one, which the generator builds first and keeps.
+ * Each pass is split into chunks of positions shared by a pool of threads.
+ * <code>
+ * 	TablebaseGenerator generator = new TablebaseGenerator(8, 8, 4);
+ * 	Tablebase krk = generator.generate(directory, WHITEKING, WHITEROOK, BLACKKING);
+ * 	int value = krk.probe(board, PlayerColor.WHITE);
+ * </code>
+ * @version Oct 19, 2026
+ */
+public class TablebaseGenerator
+{
+	static final String SUFFIX = ".gptb";
+	private static final int CHUNK = 1 << 14;
+
+	private final int rows;
+	private final int columns;
+	private final int threads;
+	private final Map<String, Tablebase> tables = new HashMap<String, Tablebase>();	// by name or file
+
+	/**
+	 * @param rows the number of rows of the board
+	 * @param columns the number of columns of the board
+	 * @param threads the number of threads to generate with
+	 */
+	public TablebaseGenerator(int rows, int columns, int threads)
+	{
+		if (rows < 1 || columns < 1 || threads < 1) {
+			throw new IllegalArgumentException("a generator needs a board and at least one thread");
+		}
+		this.rows = rows;
+		this.columns = columns;
+		this.threads = threads;
+	}
+
+	/**
+	 * Build the table of an endgame, and those of the endgames its captures
+	 * lead to, in memory.
+	 * @param material the pieces: both kings and any other pieces but pawns
+	 * @return the table
+	 * @throws IllegalArgumentException if the material is not supported or
+	 * 	the table would be too large
+	 */
+	public synchronized Tablebase generate(ChessPieceDescriptor... material)
+	{
+		try {
+			return build(canonical(material), null);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);	// nothing is read or written
+		}
+	}
+
+	/**
+	 * Build the table of an endgame, and those of the endgames its captures
+	 * lead to, as files in a directory named after each table, such as
+	 * KRK-8x8.gptb. Tables already in the directory are memory mapped instead
+	 * of being built again.
+	 * @param directory the directory of the tables
+	 * @param material the pieces: both kings and any other pieces but pawns
+	 * @return the table, memory mapped from its file
+	 */
+	public synchronized Tablebase generate(Path directory, ChessPieceDescriptor... material)
+			throws IOException
+	{
+		Files.createDirectories(directory);
+		return build(canonical(material), directory);
+	}
+
+	private Tablebase build(ChessPieceDescriptor[] material, Path directory) throws IOException
+	{
+		String name = nameOf(rows, columns, material);
+		Path file = directory == null ? null : directory.resolve(name + SUFFIX);
+		String key = file == null ? name : file.toString();
+		Tablebase table = tables.get(key);
+		if (table != null) {
+			return table;
+		}
+		check(material);
+		if (file != null && Files.exists(file)) {
+			table = Tablebase.open(file);
+		} else {
+			Tablebase[] smaller = new Tablebase[material.length];
+			for (int i = 0; i < material.length; i++) {
+				if (material[i].getName() != PieceName.KING && (i == 0 || material[i] != material[i - 1])) {
+					smaller[i] = build(without(material, i), directory);
+				} else if (i > 0 && material[i] == material[i - 1]) {
+					smaller[i] = smaller[i - 1];
+				}
+			}
+			table = new Generation(material, smaller).run();
+			if (file != null) {
+				table.write(file);
+				table = Tablebase.open(file);
+			}
+		}
+		tables.put(key, table);
+		return table;
+	}
+
+	private void check(ChessPieceDescriptor[] material)
+	{
+		int kings = 0;
+		for (ChessPieceDescriptor d : material) {
+			if (d.getName() == PieceName.PAWN) {
+				throw new IllegalArgumentException("tablebases with pawns are not supported");
+			}
+			if (d.getName() == PieceName.KING) {
+				kings++;
+			}
+		}
+		List<ChessPieceDescriptor> pieces = Arrays.asList(material);
+		if (kings != 2 || !pieces.contains(ChessPieceDescriptor.WHITEKING)
+				|| !pieces.contains(ChessPieceDescriptor.BLACKKING)) {
+			throw new IllegalArgumentException("a tablebase needs one king of each color");
+		}
+		if (material.length > rows * columns
+				|| sizeOf(rows * columns, material.length) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(nameOf(rows, columns, material) + " is too large");
+		}
+	}
+
+	private static ChessPieceDescriptor[] without(ChessPieceDescriptor[] material, int i)
+	{
+		ChessPieceDescriptor[] rest = new ChessPieceDescriptor[material.length - 1];
+		System.arraycopy(material, 0, rest, 0, i);
+		System.arraycopy(material, i + 1, rest, i, rest.length - i);
+		return rest;
+	}
+
+	/**
+	 * The generation of one table. values holds 0 for a position that is not
+	 * known yet, which is what a draw ends up as.
+	 */
+	private final class Generation
+	{
+		private final ChessPieceDescriptor[] material;
+		private final Tablebase[] smaller;	// the table a capture of each piece leads to
+		private final Tablebase table;
+		private final byte[] values;
+		private final byte[] captureWins;	// the fastest win by a capture, or 0
+		private final AtomicInteger horizon = new AtomicInteger();	// the longest distance set so far
+
+		Generation(ChessPieceDescriptor[] material, Tablebase[] smaller)
+		{
+			this.material = material;
+			this.smaller = smaller;
+			int size = (int) sizeOf(rows * columns, material.length);
+			values = new byte[size];
+			captureWins = new byte[size];
+			table = new Tablebase(rows, columns, material, ByteBuffer.wrap(values));
+		}
+
+		Tablebase run()
+		{
+			ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+				Thread thread = new Thread(r, "tablebase-" + table.getName());
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				pass(pool, Worker::initialize, -1);
+				for (int n = 2; n <= horizon.get() + 1; n++) {
+					pass(pool, Worker::findWins, n);
+					pass(pool, Worker::findLosses, n);
+				}
+			} finally {
+				pool.shutdownNow();
+			}
+			return table;
+		}
+
+		/**
+		 * Run a step over every position, in chunks handed out to the threads.
+		 */
+		private void pass(ExecutorService pool, Step step, int n)
+		{
+			AtomicInteger next = new AtomicInteger();
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for (int t = 0; t < threads; t++) {
+				tasks.add(() -> {
+					Worker worker = new Worker();
+					int chunk;
+					while ((chunk = next.getAndIncrement()) * (long) CHUNK < values.length) {
+						int end = (int) Math.min(values.length, (chunk + 1L) * CHUNK);
+						for (int index = chunk * CHUNK; index < end; index++) {
+							step.apply(worker, index, n);
+						}
+					}
+					return null;
+				});
+			}
+			try {
+				for (Future<Void> done : pool.invokeAll(tasks)) {
+					done.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while generating " + table.getName(), e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		private void set(int index, int value)
+		{
+			if (Math.abs(value) > MAX_DISTANCE) {
+				throw new IllegalStateException(table.getName() + " has mates longer than "
+						+ MAX_DISTANCE + " plies");
+			}
+			values[index] = (byte) value;
+			horizon.accumulateAndGet(Math.abs(value), Math::max);
+		}
+
+		/**
+		 * The state of one thread: a board to set positions up on.
+		 */
+		private final class Worker
+		{
+			private final Board board = new Board(rows, columns);
+			private final MoveList moves = new MoveList();
+			private final int[] squares = new int[material.length];
+			private final int[] placed = new int[material.length];
+			private final int[] child = new int[material.length];
+			private final int[] rest = new int[material.length - 1];
+			private int nPlaced;
+
+			/**
+			 * Resolve what can be told from one position's own moves: a king
+			 * capture, and the moves that leave the table.
+			 */
+			void initialize(int index, int n)
+			{
+				PlayerColor toMove = decode(index);
+				if (toMove == null) {
+					values[index] = INVALID;
+					return;
+				}
+				setUp();
+				ChessMoves.generate(board, toMove, moves);
+				int quiet = 0;
+				int fastestWin = 0;
+				int slowestLoss = 0;
+				boolean drawn = false;
+				for (int i = 0; i < moves.size(); i++) {
+					int move = moves.get(i);
+					int captured = slotAt(ChessMoves.toOf(move));
+					if (captured < 0) {
+						quiet++;
+						continue;
+					}
+					if (material[captured].getName() == PieceName.KING) {
+						set(index, 1);
+						return;
+					}
+					int value = probeCapture(move, captured, toMove);
+					if (value < 0 && (fastestWin == 0 || 1 - value < fastestWin)) {
+						fastestWin = 1 - value;
+					} else if (value > 0) {
+						slowestLoss = Math.max(slowestLoss, value);
+					} else if (value == 0) {
+						drawn = true;
+					}
+				}
+				if (fastestWin > MAX_DISTANCE) {
+					set(index, fastestWin);	// throws
+				}
+				captureWins[index] = (byte) fastestWin;
+				horizon.accumulateAndGet(fastestWin, Math::max);
+				if (quiet == 0 && moves.size() > 0) {	// every move leaves the table
+					if (fastestWin > 0) {
+						set(index, fastestWin);
+					} else if (!drawn) {
+						set(index, -(slowestLoss + 1));
+					}
+				}
+			}
+
+			/**
+			 * Win in n plies: a move to a position lost in n-1, found backwards
+			 * from that position, or a capture that leaves the table for one.
+			 */
+			void findWins(int index, int n)
+			{
+				if (values[index] == 0 && captureWins[index] == n) {
+					set(index, n);
+				}
+				if (values[index] != -(n - 1)) {
+					return;
+				}
+				PlayerColor toMove = decode(index);
+				PlayerColor mover = opponent(toMove);
+				setUp();
+				ChessMoves.generate(board, mover, moves);
+				for (int i = 0; i < moves.size(); i++) {
+					int predecessor = predecessorOf(moves.get(i), mover);
+					if (predecessor >= 0 && values[predecessor] == 0) {
+						set(predecessor, n);
+					}
+				}
+			}
+
+			/**
+			 * Lost: every move is known to win for the other side. Only
+			 * predecessors of positions won in n-1 can have become lost.
+			 */
+			void findLosses(int index, int n)
+			{
+				if (values[index] != n - 1) {
+					return;
+				}
+				PlayerColor toMove = decode(index);
+				PlayerColor mover = opponent(toMove);
+				setUp();
+				ChessMoves.generate(board, mover, moves);
+				int[] predecessors = new int[moves.size()];
+				int count = 0;
+				for (int i = 0; i < moves.size(); i++) {
+					int predecessor = predecessorOf(moves.get(i), mover);
+					if (predecessor >= 0 && values[predecessor] == 0) {
+						predecessors[count++] = predecessor;
+					}
+				}
+				for (int i = 0; i < count; i++) {
+					int loss = lossOf(predecessors[i]);
+					if (loss < 0) {
+						set(predecessors[i], loss);
+					}
+				}
+			}
+
+			/**
+			 * @return the value of a position if every move from it loses,
+			 * 	otherwise 0
+			 */
+			private int lossOf(int index)
+			{
+				PlayerColor toMove = decode(index);
+				setUp();
+				ChessMoves.generate(board, toMove, moves);
+				int slowest = 0;
+				for (int i = 0; i < moves.size(); i++) {
+					int move = moves.get(i);
+					int captured = slotAt(ChessMoves.toOf(move));
+					int value;
+					if (captured < 0) {
+						moveSlot(move, child);
+						value = values[table.index(child, opponent(toMove))];
+					} else {
+						value = probeCapture(move, captured, toMove);
+					}
+					if (value <= 0) {
+						return 0;
+					}
+					slowest = Math.max(slowest, value);
+				}
+				return moves.size() == 0 ? 0 : -(slowest + 1);
+			}
+
+			/**
+			 * @return the position that a move of the other side, made
+			 * 	backwards, leads to, or -1 if the move is a capture
+			 */
+			private int predecessorOf(int move, PlayerColor mover)
+			{
+				if (slotAt(ChessMoves.toOf(move)) >= 0) {
+					return -1;
+				}
+				moveSlot(move, child);
+				return table.index(child, mover);
+			}
+
+			/**
+			 * @return the value, for the side to move, of the position a
+			 * 	capture leads to
+			 */
+			private int probeCapture(int move, int captured, PlayerColor toMove)
+			{
+				moveSlot(move, child);
+				for (int i = 0, j = 0; i < child.length; i++) {
+					if (i != captured) {
+						rest[j++] = child[i];
+					}
+				}
+				return smaller[captured].probe(rest, opponent(toMove));
+			}
+
+			/**
+			 * Copy the squares, with the piece on the move's from square on
+			 * its to square instead.
+			 */
+			private void moveSlot(int move, int[] into)
+			{
+				System.arraycopy(squares, 0, into, 0, squares.length);
+				into[slotAt(ChessMoves.fromOf(move))] = ChessMoves.toOf(move);
+			}
+
+			private int slotAt(int square)
+			{
+				for (int i = 0; i < squares.length; i++) {
+					if (squares[i] == square) {
+						return i;
+					}
+				}
+				return -1;
+			}
+
+			/**
+			 * Read the squares of a position from its index.
+			 * @return the side to move, or null if two pieces share a square
+			 */
+			private PlayerColor decode(int index)
+			{
+				int n = rows * columns;
+				for (int i = 0; i < squares.length; i++) {
+					squares[i] = index % n;
+					index /= n;
+					for (int j = 0; j < i; j++) {
+						if (squares[j] == squares[i]) {
+							return null;
+						}
+					}
+				}
+				return PlayerColor.values()[index];
+			}
+
+			/**
+			 * Put the decoded position on the board, every piece marked as
+			 * having moved.
+			 */
+			private void setUp()
+			{
+				moves.clear();
+				for (int i = 0; i < nPlaced; i++) {
+					board.putPieceAt(null, board.coordinateOf(placed[i]));
+				}
+				for (int i = 0; i < squares.length; i++) {
+					Piece piece = ChessPieceFactory.sharedPiece(material[i]);
+					board.putPieceAt(piece, board.coordinateOf(squares[i]));
+					board.setMoved(squares[i], true);
+					placed[i] = squares[i];
+				}
+				nPlaced = squares.length;
+			}
+		}
+	}
+
+	private static PlayerColor opponent(PlayerColor color)
+	{
+		return color == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+	}
+
+	@FunctionalInterface
+	private interface Step
+	{
+		void apply(TablebaseGenerator.Generation.Worker worker, int index, int n);
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+import java.io.IOException;
+import java.util.Iterator;
+import gpv.chess.ChessMoves;
+import gpv.util.*;
+
+/**
+ * Feeds games into a PositionIndex by replaying them. Games are taken one at
+ * a time from an iterator, so an archive of any size can be streamed in; the
+ * index turns the stream into sorted segments as its buffer fills.
+ * @version Oct 19, 2026
+ */
+public final class GameImport
+{
+	private GameImport()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * A game to import: its id, the starting position and the moves played,
+	 * encoded as by ChessMoves.
+	 */
+	public static final class GameRecord
+	{
+		private final long id;
+		private final Board start;
+		private final int[] moves;
+
+		/**
+		 * @param id the id of the game
+		 * @param start the starting position, which is not changed
+		 * @param moves the moves played
+		 */
+		public GameRecord(long id, Board start, int... moves)
+		{
+			this.id = id;
+			this.start = start;
+			this.moves = moves;
+		}
+	}
+
+	/**
+	 * Index every position of one game, the starting one at ply 0.
+	 * @param index the index
+	 * @param game the id of the game
+	 * @param start the starting position, which is not changed
+	 * @param moves the moves played
+	 * @return the number of postings added
+	 */
+	public static int importGame(PositionIndex index, long game, Board start, int... moves) throws IOException
+	{
+		BoardPool pool = BoardPool.get();
+		Board board = pool.acquire(start);
+		try {
+			index.add(board.getPlacementHash(), game, 0);
+			for (int ply = 0; ply < moves.length; ply++) {
+				ChessMoves.apply(board, moves[ply]);
+				index.add(board.getPlacementHash(), game, ply + 1);
+			}
+		} finally {
+			pool.release(board);
+		}
+		return moves.length + 1;
+	}
+
+	/**
+	 * Index a stream of games and flush the index at the end.
+	 * @param index the index
+	 * @param games the games
+	 * @return the number of postings added
+	 */
+	public static long importGames(PositionIndex index, Iterator<GameRecord> games) throws IOException
+	{
+		long postings = 0;
+		while (games.hasNext()) {
+			GameRecord record = games.next();
+			postings += importGame(index, record.id, record.start, record.moves);
+		}
+		index.flush();
+		return postings;
+	}
+}
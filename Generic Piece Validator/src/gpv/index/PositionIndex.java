@@ -0,0 +1,460 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import gpv.util.Board;
+
+/**
+ * A persistent index from position hash to the games and plies where the
+ * position occurred, for questions like "which games reached this position"
+ * across large archives. Positions are keyed by Board#getPlacementHash, so
+ * a position set up by hand finds the games that reached it by play.
+ * <br/>
+ * New postings collect in a heap buffer. When the buffer is full, or on
+ * flush(), it is sorted and written as an immutable segment file, which is
+ * memory mapped. A lookup binary searches every segment, so it reads a few
+ * pages per segment and loads nothing onto the heap.
+ * <br/>
+ * A background thread keeps the number of segments small. Whenever there
+ * are more than MAX_SEGMENTS, it merges the MERGE_FACTOR smallest into one
+ * new segment. The merge streams through the files, so imports larger than
+ * memory work: they are external sorts whose runs are the flushed buffers.
+ * A merged segment records the ids of the segments it replaces, and open()
+ * deletes any of those left behind by a crash before they were deleted.
+ * Lookups run concurrently with adds, flushes and merges: a flush swaps in
+ * a fresh buffer and writes the old one outside the lock, and lookups scan
+ * the old buffer until its segment is published.
+ * <code>
+ * 	try (PositionIndex index = PositionIndex.open(directory)) {
+ * 		GameImport.importGame(index, gameId, start, moves);
+ * 		...
+ * 		List&lt;Posting&gt; games = index.lookup(position);
+ * 	}
+ * </code>
+ * Hash collisions are possible but, with 64-bit hashes, rare. Callers that
+ * must be sure can replay the game to the ply and compare.
+ * @version Oct 19, 2026
+ */
+public class PositionIndex implements Closeable
+{
+	static final int MAX_SEGMENTS = 8;
+	static final int MERGE_FACTOR = 4;
+	private static final int DEFAULT_BUFFER = 1 << 20;
+	private static final String PREFIX = "segment-";
+	private static final String SUFFIX = ".pix";
+
+	private final Path directory;
+	private final int bufferLimit;
+	private final ExecutorService merger;
+	private volatile Segment[] segments;
+	private final Object lock = new Object();	// guards both buffers, segments updates and nextId
+	private final Object flushLock = new Object();	// one flush at a time, taken before lock
+	private long[] hashes;
+	private long[] games;
+	private int[] plies;
+	private int buffered;
+	private long[] flushingHashes;	// the buffer being written, until its segment is published
+	private long[] flushingGames;
+	private int[] flushingPlies;
+	private int flushing;
+	private long nextId;
+	private boolean merging;
+	private boolean closed;
+	private volatile IOException mergeFailure;
+
+	private PositionIndex(Path directory, int bufferLimit, List<Segment> existing, long nextId)
+	{
+		this.directory = directory;
+		this.bufferLimit = bufferLimit;
+		this.segments = existing.toArray(new Segment[0]);
+		this.nextId = nextId;
+		hashes = new long[Math.min(bufferLimit, 1024)];
+		games = new long[hashes.length];
+		plies = new int[hashes.length];
+		merger = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "position-index-merge");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Open the index in a directory, creating it if needed.
+	 * @param directory the directory of the segment files
+	 * @return the index
+	 */
+	public static PositionIndex open(Path directory) throws IOException
+	{
+		return open(directory, DEFAULT_BUFFER);
+	}
+
+	/**
+	 * @param directory the directory of the segment files
+	 * @param bufferLimit the number of postings to collect before writing a
+	 * 	segment
+	 * @return the index
+	 */
+	public static PositionIndex open(Path directory, int bufferLimit) throws IOException
+	{
+		if (bufferLimit < 1) {
+			throw new IllegalArgumentException("the buffer must hold at least one posting");
+		}
+		Files.createDirectories(directory);
+		List<Segment> found = new ArrayList<Segment>();
+		Set<Long> replaced = new HashSet<Long>();
+		long nextId = 1;
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (name.endsWith(SUFFIX + ".tmp")) {
+					Files.delete(file);	// left by a crash while writing
+				} else if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+					long id = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+					Segment segment = Segment.open(file, id);
+					found.add(segment);
+					for (long r : segment.replaces()) {
+						replaced.add(r);
+					}
+					nextId = Math.max(nextId, id + 1);
+				}
+			}
+		}
+		List<Segment> existing = new ArrayList<Segment>();
+		for (Segment segment : found) {
+			if (replaced.contains(segment.id())) {
+				Files.delete(segment.path());	// merged, but a crash kept it from being deleted
+			} else {
+				existing.add(segment);
+			}
+		}
+		existing.sort((a, b) -> Long.compare(a.id(), b.id()));
+		return new PositionIndex(directory, bufferLimit, existing, nextId);
+	}
+
+	/**
+	 * Record that a position occurred in a game.
+	 * @param hash the position hash
+	 * @param game the id of the game
+	 * @param ply the number of half moves played before the position
+	 */
+	public void add(long hash, long game, int ply) throws IOException
+	{
+		boolean full;
+		synchronized (lock) {
+			checkOpen();
+			append(hash, game, ply);
+			full = buffered == bufferLimit;
+		}
+		if (full) {
+			flush();
+		}
+	}
+
+	/**
+	 * Called with the lock held. Adds made while a full buffer waits for
+	 * its flush grow it past bufferLimit.
+	 */
+	private void append(long hash, long game, int ply)
+	{
+		if (buffered == hashes.length) {
+			int capacity = hashes.length < bufferLimit ? Math.min(bufferLimit, hashes.length * 2)
+					: hashes.length * 2;
+			hashes = Arrays.copyOf(hashes, capacity);
+			games = Arrays.copyOf(games, capacity);
+			plies = Arrays.copyOf(plies, capacity);
+		}
+		hashes[buffered] = hash;
+		games[buffered] = game;
+		plies[buffered] = ply;
+		buffered++;
+	}
+
+	/**
+	 * Write the buffered postings as a new segment. The lock is only held to
+	 * swap in a fresh buffer and to publish the segment, so lookups and adds
+	 * do not wait for the disk.
+	 */
+	public void flush() throws IOException
+	{
+		synchronized (flushLock) {
+			long[] h;
+			long[] g;
+			int[] p;
+			int n;
+			long id;
+			synchronized (lock) {
+				checkOpen();
+				if (buffered == 0) {
+					return;
+				}
+				flushingHashes = hashes;
+				flushingGames = games;
+				flushingPlies = plies;
+				flushing = buffered;
+				n = buffered;
+				hashes = new long[Math.min(bufferLimit, 1024)];
+				games = new long[hashes.length];
+				plies = new int[hashes.length];
+				buffered = 0;
+				id = nextId++;
+			}
+			// lookups go on scanning the swapped out arrays, so sort copies
+			h = Arrays.copyOf(flushingHashes, n);
+			g = Arrays.copyOf(flushingGames, n);
+			p = Arrays.copyOf(flushingPlies, n);
+			PostingSort.sort(h, g, p, n);
+			Segment segment;
+			try {
+				segment = Segment.write(segmentPath(id), id, n, new long[0], writer -> {
+					for (int i = 0; i < n; i++) {
+						writer.write(h[i], g[i], p[i]);
+					}
+				});
+			} catch (IOException | RuntimeException e) {
+				synchronized (lock) {
+					for (int i = 0; i < n; i++) {
+						append(h[i], g[i], p[i]);	// keep them for the next flush
+					}
+					clearFlushing();
+				}
+				throw e;
+			}
+			synchronized (lock) {
+				Segment[] more = Arrays.copyOf(segments, segments.length + 1);
+				more[more.length - 1] = segment;
+				segments = more;
+				clearFlushing();
+				scheduleMerge();
+			}
+		}
+	}
+
+	/**
+	 * Called with the lock held.
+	 */
+	private void clearFlushing()
+	{
+		flushingHashes = null;
+		flushingGames = null;
+		flushingPlies = null;
+		flushing = 0;
+	}
+
+	/**
+	 * @param hash a position hash
+	 * @return every posting of the position, flushed or not, in no
+	 * 	particular order
+	 */
+	public List<Posting> lookup(long hash)
+	{
+		List<Posting> found = new ArrayList<Posting>();
+		Segment[] current;
+		// Take the segments along with the buffers, so that a flush between
+		// them cannot hide the postings it moves.
+		synchronized (lock) {
+			current = segments;
+			for (int i = 0; i < buffered; i++) {
+				if (hashes[i] == hash) {
+					found.add(new Posting(games[i], plies[i]));
+				}
+			}
+			for (int i = 0; i < flushing; i++) {
+				if (flushingHashes[i] == hash) {
+					found.add(new Posting(flushingGames[i], flushingPlies[i]));
+				}
+			}
+		}
+		for (Segment segment : current) {
+			segment.lookup(hash, found);
+		}
+		return found;
+	}
+
+	/**
+	 * @param board a position
+	 * @return every posting of the position
+	 */
+	public List<Posting> lookup(Board board)
+	{
+		return lookup(board.getPlacementHash());
+	}
+
+	/**
+	 * @return the number of segment files
+	 */
+	public int getSegmentCount()
+	{
+		return segments.length;
+	}
+
+	/**
+	 * @return the number of postings, flushed or not
+	 */
+	public long getPostingCount()
+	{
+		synchronized (lock) {
+			long count = buffered + flushing;
+			for (Segment segment : segments) {
+				count += segment.count();
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Wait until no merge is running or due, for example before timing
+	 * lookups or copying the directory.
+	 */
+	public void awaitMerges() throws IOException
+	{
+		// a merge may queue the next one, so wait until none is queued
+		boolean pending = true;
+		while (pending && mergeFailure == null) {
+			try {
+				merger.submit(() -> { }).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				throw new IOException(e.getCause());
+			}
+			synchronized (lock) {
+				pending = merging;
+			}
+		}
+		if (mergeFailure != null) {
+			throw mergeFailure;
+		}
+	}
+
+	/**
+	 * Flush, finish any merge and stop the merge thread.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		synchronized (flushLock) {
+			while (true) {
+				synchronized (lock) {
+					if (closed) {
+						return;
+					}
+					if (buffered == 0) {
+						closed = true;
+						break;
+					}
+				}
+				flush();	// adds may race it, so look again
+			}
+		}
+		awaitMerges();
+		merger.shutdown();
+	}
+
+	private void checkOpen() throws IOException
+	{
+		if (closed) {
+			throw new IOException("the position index is closed");
+		}
+	}
+
+	/**
+	 * Called with the lock held. A merge task re-schedules itself while
+	 * there are too many segments, so one task at a time is enough.
+	 */
+	private void scheduleMerge()
+	{
+		if (!merging && segments.length > MAX_SEGMENTS) {
+			merging = true;
+			merger.execute(this::mergeSmallest);
+		}
+	}
+
+	private void mergeSmallest()
+	{
+		try {
+			Segment[] inputs;
+			long id;
+			synchronized (lock) {
+				inputs = segments.clone();
+				Arrays.sort(inputs, (a, b) -> Long.compare(a.count(), b.count()));
+				inputs = Arrays.copyOf(inputs, MERGE_FACTOR);
+				id = nextId++;
+			}
+			Segment merged = merge(inputs, id);
+			synchronized (lock) {
+				List<Segment> kept = new ArrayList<Segment>();
+				Set<Segment> replaced = new HashSet<Segment>(Arrays.asList(inputs));
+				for (Segment s : segments) {
+					if (!replaced.contains(s)) {
+						kept.add(s);
+					}
+				}
+				kept.add(merged);
+				segments = kept.toArray(new Segment[0]);
+				merging = false;
+				scheduleMerge();
+			}
+			// The mappings stay valid after the files are deleted, so lookups
+			// still running on the old segments finish normally.
+			for (Segment s : inputs) {
+				Files.deleteIfExists(s.path());
+			}
+		} catch (IOException e) {
+			mergeFailure = e;
+			synchronized (lock) {
+				merging = false;
+			}
+		}
+	}
+
+	/**
+	 * A k-way merge of sorted segments into a new one.
+	 */
+	private Segment merge(Segment[] inputs, long id) throws IOException
+	{
+		long total = 0;
+		long[] replaces = new long[inputs.length];
+		for (int k = 0; k < inputs.length; k++) {
+			total += inputs[k].count();
+			replaces[k] = inputs[k].id();
+		}
+		return Segment.write(segmentPath(id), id, total, replaces, writer -> {
+			long[] next = new long[inputs.length];
+			while (true) {
+				int best = -1;
+				for (int k = 0; k < inputs.length; k++) {
+					if (next[k] < inputs[k].count()
+							&& (best < 0 || PostingSort.compare(inputs[k], next[k], inputs[best], next[best]) < 0)) {
+						best = k;
+					}
+				}
+				if (best < 0) {
+					return;
+				}
+				long i = next[best]++;
+				writer.write(inputs[best].hashAt(i), inputs[best].gameAt(i), inputs[best].plyAt(i));
+			}
+		});
+	}
+
+	private Path segmentPath(long id)
+	{
+		return directory.resolve(String.format("%s%012d%s", PREFIX, id, SUFFIX));
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+/**
+ * One occurrence of a position: the game it occurred in and the ply, the
+ * number of half moves played before it was reached.
+ * @version Oct 19, 2026
+ */
+public final class Posting
+{
+	private final long game;
+	private final int ply;
+
+	/**
+	 * @param game the id of the game
+	 * @param ply the number of half moves played before the position
+	 */
+	public Posting(long game, int ply)
+	{
+		this.game = game;
+		this.ply = ply;
+	}
+
+	/**
+	 * @return the id of the game
+	 */
+	public long getGame()
+	{
+		return game;
+	}
+
+	/**
+	 * @return the number of half moves played before the position
+	 */
+	public int getPly()
+	{
+		return ply;
+	}
+
+	/*
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode()
+	{
+		return Long.hashCode(game) * 31 + ply;
+	}
+
+	/*
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Posting)) {
+			return false;
+		}
+		Posting other = (Posting) obj;
+		return game == other.game && ply == other.ply;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "game " + game + " ply " + ply;
+	}
+}
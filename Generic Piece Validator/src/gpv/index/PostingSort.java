@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+/**
+ * Sorts postings held in parallel primitive arrays by (hash, game, ply),
+ * so that a buffer of millions of postings can be sorted without boxing.
+ * @version Oct 19, 2026
+ */
+final class PostingSort
+{
+	private static final int INSERTION_SORT_SIZE = 16;
+
+	private PostingSort()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * Sort the first n entries of the arrays.
+	 */
+	static void sort(long[] hashes, long[] games, int[] plies, int n)
+	{
+		quicksort(hashes, games, plies, 0, n - 1);
+	}
+
+	/**
+	 * Compare records of two segments.
+	 */
+	static int compare(Segment a, long i, Segment b, long j)
+	{
+		int c = Long.compare(a.hashAt(i), b.hashAt(j));
+		if (c == 0) {
+			c = Long.compare(a.gameAt(i), b.gameAt(j));
+		}
+		return c != 0 ? c : Integer.compare(a.plyAt(i), b.plyAt(j));
+	}
+
+	private static void quicksort(long[] h, long[] g, int[] p, int low, int high)
+	{
+		while (high - low > INSERTION_SORT_SIZE) {
+			int middle = (low + high) >>> 1;
+			// median of three into high
+			if (compare(h, g, p, middle, low) < 0) swap(h, g, p, middle, low);
+			if (compare(h, g, p, high, low) < 0) swap(h, g, p, high, low);
+			if (compare(h, g, p, middle, high) < 0) swap(h, g, p, middle, high);
+			int store = low;
+			for (int i = low; i < high; i++) {
+				if (compare(h, g, p, i, high) < 0) {
+					swap(h, g, p, i, store++);
+				}
+			}
+			swap(h, g, p, store, high);
+			// recurse into the smaller side to bound the stack depth
+			if (store - low < high - store) {
+				quicksort(h, g, p, low, store - 1);
+				low = store + 1;
+			} else {
+				quicksort(h, g, p, store + 1, high);
+				high = store - 1;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			for (int j = i; j > low && compare(h, g, p, j, j - 1) < 0; j--) {
+				swap(h, g, p, j, j - 1);
+			}
+		}
+	}
+
+	private static int compare(long[] h, long[] g, int[] p, int i, int j)
+	{
+		int c = Long.compare(h[i], h[j]);
+		if (c == 0) {
+			c = Long.compare(g[i], g[j]);
+		}
+		return c != 0 ? c : Integer.compare(p[i], p[j]);
+	}
+
+	private static void swap(long[] h, long[] g, int[] p, int i, int j)
+	{
+		long t = h[i];
+		h[i] = h[j];
+		h[j] = t;
+		t = g[i];
+		g[i] = g[j];
+		g[j] = t;
+		int q = p[i];
+		p[i] = p[j];
+		p[j] = q;
+	}
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.List;
+
+/**
+ * An immutable, sorted file of postings, read through memory mapping so
+ * that lookups touch only the pages they need and nothing is loaded onto
+ * the heap. The file is a header (magic number, version, record count, and
+ * the number and ids of the segments a merged segment replaces) followed
+ * by 20 byte records of position hash, game and ply, in ascending (hash,
+ * game, ply) order. Version 1 files, which have no list of replaced
+ * segments, are still read. Files over 2GB are mapped in several windows.
+ * @version Oct 19, 2026
+ */
+final class Segment
+{
+	static final int RECORD = 20;
+	static final int HEADER = 20;
+	private static final int MAGIC = 0x47505849;	// "GPXI"
+	private static final int VERSION = 2;
+	private static final int VERSION_1_HEADER = 16;
+	private static final int WINDOW_RECORDS = (1 << 30) / RECORD;
+
+	private final Path path;
+	private final long id;
+	private final long count;
+	private final long[] replaces;
+	private final MappedByteBuffer[] windows;
+
+	private Segment(Path path, long id, long count, long[] replaces, MappedByteBuffer[] windows)
+	{
+		this.path = path;
+		this.id = id;
+		this.count = count;
+		this.replaces = replaces;
+		this.windows = windows;
+	}
+
+	/**
+	 * Receives postings in sorted order to write a segment.
+	 */
+	@FunctionalInterface
+	interface Source
+	{
+		/**
+		 * Write every posting, in order, with the writer.
+		 */
+		void writeTo(Writer writer) throws IOException;
+	}
+
+	/**
+	 * Writes records to a new segment file.
+	 */
+	static final class Writer
+	{
+		private final DataOutputStream out;
+		private long written;
+
+		private Writer(DataOutputStream out)
+		{
+			this.out = out;
+		}
+
+		/**
+		 * @param hash the position hash
+		 * @param game the id of the game
+		 * @param ply the ply
+		 */
+		void write(long hash, long game, int ply) throws IOException
+		{
+			out.writeLong(hash);
+			out.writeLong(game);
+			out.writeInt(ply);
+			written++;
+		}
+	}
+
+	/**
+	 * Write a segment file and open it. The file is written under a
+	 * temporary name and renamed when complete, so a crash never leaves a
+	 * partial segment behind.
+	 * @param path the file
+	 * @param id the segment id
+	 * @param count the number of records source will write
+	 * @param replaces the ids of the segments merged into this one, empty
+	 * 	for a flushed buffer
+	 * @param source writes the records in order
+	 * @return the open segment
+	 */
+	static Segment write(Path path, long id, long count, long[] replaces, Source source) throws IOException
+	{
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(count);
+			out.writeInt(replaces.length);
+			for (long replaced : replaces) {
+				out.writeLong(replaced);
+			}
+			Writer writer = new Writer(out);
+			source.writeTo(writer);
+			if (writer.written != count) {
+				throw new IOException("expected " + count + " records, got " + writer.written);
+			}
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return open(path, id);
+	}
+
+	/**
+	 * @param path an existing segment file
+	 * @param id the segment id
+	 * @return the open segment
+	 */
+	static Segment open(Path path, long id) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER));
+			int version = header.limit() < VERSION_1_HEADER || header.getInt(0) != MAGIC ? 0 : header.getInt(4);
+			if (version != 1 && version != VERSION) {
+				throw new IOException(path + " is not a position index segment");
+			}
+			long count = header.getLong(8);
+			long[] replaces = new long[0];
+			long start = VERSION_1_HEADER;
+			if (version == VERSION) {
+				int n = header.limit() < HEADER ? -1 : header.getInt(VERSION_1_HEADER);
+				if (n < 0 || channel.size() < HEADER + 8L * n) {
+					throw new IOException(path + " is truncated");
+				}
+				replaces = new long[n];
+				if (n > 0) {
+					MappedByteBuffer ids = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, 8L * n);
+					for (int i = 0; i < n; i++) {
+						replaces[i] = ids.getLong(8 * i);
+					}
+				}
+				start = HEADER + 8L * n;
+			}
+			if (channel.size() != start + count * RECORD) {
+				throw new IOException(path + " is truncated");
+			}
+			int nWindows = (int) ((count + WINDOW_RECORDS - 1) / WINDOW_RECORDS);
+			MappedByteBuffer[] windows = new MappedByteBuffer[nWindows];
+			for (int w = 0; w < nWindows; w++) {
+				long first = (long) w * WINDOW_RECORDS;
+				long records = Math.min(WINDOW_RECORDS, count - first);
+				windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, start + first * RECORD, records * RECORD);
+			}
+			return new Segment(path, id, count, replaces, windows);
+		}
+	}
+
+	/**
+	 * Add the postings of a position to a list.
+	 * @param hash the position hash
+	 * @param out the list
+	 */
+	void lookup(long hash, List<Posting> out)
+	{
+		for (long i = lowerBound(hash); i < count && hashAt(i) == hash; i++) {
+			out.add(new Posting(gameAt(i), plyAt(i)));
+		}
+	}
+
+	/**
+	 * @return the index of the first record whose hash is at least the given one
+	 */
+	long lowerBound(long hash)
+	{
+		long low = 0;
+		long high = count;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (hashAt(middle) < hash) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	long hashAt(long i)
+	{
+		return windows[(int) (i / WINDOW_RECORDS)].getLong((int) (i % WINDOW_RECORDS) * RECORD);
+	}
+
+	long gameAt(long i)
+	{
+		return windows[(int) (i / WINDOW_RECORDS)].getLong((int) (i % WINDOW_RECORDS) * RECORD + 8);
+	}
+
+	int plyAt(long i)
+	{
+		return windows[(int) (i / WINDOW_RECORDS)].getInt((int) (i % WINDOW_RECORDS) * RECORD + 16);
+	}
+
+	/**
+	 * @return the number of records
+	 */
+	long count()
+	{
+		return count;
+	}
+
+	/**
+	 * @return the ids of the segments merged into this one; they are
+	 * 	obsolete once this segment exists
+	 */
+	long[] replaces()
+	{
+		return replaces.clone();
+	}
+
+	/**
+	 * @return the segment id; later segments have larger ids
+	 */
+	long id()
+	{
+		return id;
+	}
+
+	/**
+	 * @return the file
+	 */
+	Path path()
+	{
+		return path;
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.journal;
+
+import java.nio.ByteBuffer;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * The binary form of a board in the journal. Version 2, written now, starts
+ * with the short -2, then rows and columns as shorts, the game state word
+ * as an int (see GameState), a byte that is 1 if a CastlingTable is
+ * attached followed by its king, queen side rook and king side rook
+ * columns as shorts, the number of pieces as an int, then for each piece
+ * its square index as an int and a byte holding its descriptor's ordinal,
+ * with the top bit set if it has moved. A full 8x8 board with the standard
+ * table takes 181 bytes. Version 1, read for older journals, is the same
+ * without the version, game state and table. Pieces come back as shared
+ * instances, with their moved state on the board.
+ * @version Oct 19, 2026
+ */
+final class BoardSnapshot
+{
+	private static final short VERSION_2 = -2;
+	private static final int MOVED = 0x80;
+	private static final ChessPieceDescriptor[] DESCRIPTORS = ChessPieceDescriptor.values();
+
+	private BoardSnapshot()
+	{
+		// static helpers only
+	}
+
+	/**
+	 * @param board a board holding chess pieces
+	 * @return the number of bytes write() will take
+	 */
+	static int sizeOf(Board board)
+	{
+		int pieces = 0;
+		for (ChessPieceDescriptor d : DESCRIPTORS) {
+			pieces += board.countOf(d);
+		}
+		return 15 + (CastlingTable.of(board) == null ? 0 : 6) + 5 * pieces;
+	}
+
+	/**
+	 * @param board a board holding chess pieces
+	 * @param out where to write it; it must have sizeOf(board) bytes left
+	 */
+	static void write(Board board, ByteBuffer out)
+	{
+		out.putShort(VERSION_2);
+		out.putShort((short) board.getnRows()).putShort((short) board.getnColumns());
+		out.putInt(board.getGameState());
+		CastlingTable table = CastlingTable.of(board);
+		if (table == null) {
+			out.put((byte) 0);
+		} else {
+			out.put((byte) 1).putShort((short) table.getKingColumn())
+					.putShort((short) table.getQueenRookColumn()).putShort((short) table.getKingRookColumn());
+		}
+		int count = out.position();
+		out.putInt(0);
+		int pieces = 0;
+		for (int square = 0; square < board.getSquareCount(); square++) {
+			ChessPiece p = (ChessPiece) board.getPieceAt(square);
+			if (p != null) {
+				out.putInt(square);
+				out.put((byte) (p.getDescriptor().ordinal() | (p.hasMoved(board, square) ? MOVED : 0)));
+				pieces++;
+			}
+		}
+		out.putInt(count, pieces);
+	}
+
+	/**
+	 * @param in a buffer positioned at a snapshot of either version; it is
+	 * 	left after it
+	 * @return a new board holding the position
+	 */
+	static Board read(ByteBuffer in)
+	{
+		short first = in.getShort();
+		boolean version2 = first == VERSION_2;
+		int rows = version2 ? in.getShort() : first;
+		Board board = new Board(rows, in.getShort());
+		int state = 0;
+		if (version2) {
+			state = in.getInt();
+			if (in.get() != 0) {
+				CastlingTable.chess960(rows, board.getnColumns(), in.getShort(), in.getShort(), in.getShort())
+						.attach(board);
+			}
+		}
+		int pieces = in.getInt();
+		for (int i = 0; i < pieces; i++) {
+			int square = in.getInt();
+			int bits = in.get() & 0xFF;
+			board.putPieceAt(ChessPieceFactory.sharedPiece(DESCRIPTORS[bits & ~MOVED]), board.coordinateOf(square));
+			if ((bits & MOVED) != 0) {
+				board.setMoved(square, true);
+			}
+		}
+		board.setGameState(state);
+		return board;
+	}
+}
@@ -0,0 +1,570 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.journal;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import gpv.chess.ChessMoves;
+import gpv.util.Board;
+
+/**
+ * An append-only journal of the moves applied to many games, so that their
+ * boards survive a restart. Each game starts with a snapshot of its board,
+ * then gets one record per move (a move encoded as by ChessMoves), and
+ * every snapshotInterval plies another snapshot. Recovery therefore starts
+ * each game from its latest snapshot and replays at most snapshotInterval-1
+ * moves.
+ * <br/>
+ * Records go to numbered segment files through a FileChannel. A call
+ * returns once its record is forced to disk, but writes are group commits:
+ * a writer thread takes every record appended while the previous force was
+ * running and writes and forces them together, so many games appending at
+ * once share one force. checkpoint() writes a snapshot of every live game
+ * to a new segment and deletes the older ones, which bounds the journal.
+ * <br/>
+ * A record is its length, its type, the game, the ply, the payload and a
+ * CRC32. A record torn by a crash at the end of the last segment is cut off
+ * when the journal is opened.
+ * <code>
+ * 	try (GameJournal journal = GameJournal.open(directory)) {
+ * 		Map&lt;Long, Board&gt; games = journal.recover(8);
+ * 		journal.start(42L, board);
+ * 		journal.append(42L, move, board);	// after applying the move
+ * 	}
+ * </code>
+ * @version Oct 19, 2026
+ */
+public class GameJournal implements Closeable
+{
+	public static final int DEFAULT_SNAPSHOT_INTERVAL = 64;
+	static final long SEGMENT_LIMIT = 64L << 20;
+	static final byte SNAPSHOT = 1;
+	static final byte MOVE = 2;
+	static final byte END = 3;
+	private static final int FRAME = 8;		// length before and CRC after the body
+	private static final int BODY = 13;		// type, game and ply
+	private static final String PREFIX = "journal-";
+	private static final String SUFFIX = ".log";
+
+	private final Path directory;
+	private final int snapshotInterval;
+	private final long segmentLimit;
+	private final Object lock = new Object();	// guards everything below but the channel
+	private final Map<Long, Integer> plies = new HashMap<Long, Integer>();	// live games
+	private final Thread writer;
+	private final Map<Long, GameTail> recovered;	// the live games found by open()
+	private ByteBuffer pending = ByteBuffer.allocate(1 << 16);	// appended, not yet written
+	private ByteBuffer spare = ByteBuffer.allocate(1 << 16);
+	private long appended;	// the sequence number of the last record appended
+	private long durable;	// and of the last one forced to disk
+	private long commits;
+	private long segmentId;
+	private long segmentSize;
+	private boolean closed;
+	private IOException failure;
+	private FileChannel channel;	// used by the writer, or by holders of lock while it is idle
+
+	private GameJournal(Path directory, int snapshotInterval, long segmentLimit, long lastSegment,
+			Map<Long, GameTail> recovered) throws IOException
+	{
+		this.directory = directory;
+		this.snapshotInterval = snapshotInterval;
+		this.segmentLimit = segmentLimit;
+		this.recovered = recovered;
+		for (Map.Entry<Long, GameTail> game : recovered.entrySet()) {
+			plies.put(game.getKey(), game.getValue().ply);
+		}
+		segmentId = lastSegment;
+		openSegment(segmentId + 1);
+		writer = new Thread(this::writeLoop, "game-journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Open the journal in a directory, creating it if needed.
+	 * @param directory the directory of the segment files
+	 * @return the journal, ready to recover from and append to
+	 */
+	public static GameJournal open(Path directory) throws IOException
+	{
+		return open(directory, DEFAULT_SNAPSHOT_INTERVAL, SEGMENT_LIMIT);
+	}
+
+	/**
+	 * @param directory the directory of the segment files
+	 * @param snapshotInterval the number of plies between snapshots of a game
+	 * @param segmentLimit the size at which a new segment file is started
+	 * @return the journal, ready to recover from and append to
+	 */
+	public static GameJournal open(Path directory, int snapshotInterval, long segmentLimit) throws IOException
+	{
+		if (snapshotInterval < 1) {
+			throw new IllegalArgumentException("the snapshot interval must be positive");
+		}
+		Files.createDirectories(directory);
+		SortedMap<Long, Path> segments = new TreeMap<Long, Path>();
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+					segments.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())),
+							file);
+				}
+			}
+		}
+		Map<Long, GameTail> games = new HashMap<Long, GameTail>();
+		for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+			scan(segment.getValue(), segment.getKey().equals(segments.lastKey()), games);
+		}
+		return new GameJournal(directory, snapshotInterval, segmentLimit,
+				segments.isEmpty() ? 0 : segments.lastKey(), games);
+	}
+
+	/**
+	 * Rebuild the boards of the games that were live when the journal was
+	 * opened, in parallel. Each game starts from its latest snapshot, and only
+	 * the moves after it are replayed.
+	 * @param threads the number of threads to rebuild with
+	 * @return a new board for every live game, by game id
+	 */
+	public Map<Long, Board> recover(int threads)
+	{
+		List<Map.Entry<Long, GameTail>> games;
+		synchronized (lock) {
+			games = new ArrayList<Map.Entry<Long, GameTail>>(recovered.entrySet());
+		}
+		Map<Long, Board> boards = new ConcurrentHashMap<Long, Board>(games.size() * 2);
+		ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "game-journal-recovery");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			int slice = (games.size() + threads - 1) / threads;
+			for (int t = 0; t < threads; t++) {
+				List<Map.Entry<Long, GameTail>> mine =
+						games.subList(Math.min(games.size(), t * slice), Math.min(games.size(), (t + 1) * slice));
+				tasks.add(() -> {
+					for (Map.Entry<Long, GameTail> game : mine) {
+						boards.put(game.getKey(), game.getValue().replay());
+					}
+					return null;
+				});
+			}
+			for (Future<Void> done : pool.invokeAll(tasks)) {
+				done.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while recovering", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("a game could not be replayed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		return boards;
+	}
+
+	/**
+	 * Start a game, or restart it from a new position.
+	 * @param game the id of the game
+	 * @param board its board, which is not changed
+	 */
+	public void start(long game, Board board) throws IOException
+	{
+		commit(record(SNAPSHOT, game, 0, board, 0));
+	}
+
+	/**
+	 * Record a move that was just applied.
+	 * @param game the id of a started game
+	 * @param move the move, encoded as by ChessMoves
+	 * @param after the board with the move applied, for snapshots
+	 */
+	public void append(long game, int move, Board after) throws IOException
+	{
+		commit(record(MOVE, game, -1, after, move));
+	}
+
+	/**
+	 * Record a move without waiting for it to reach the disk, for callers
+	 * that can wait for many at once with sync(). The board is read before
+	 * this returns.
+	 * @see #append(long, int, Board)
+	 */
+	public void enqueue(long game, int move, Board after) throws IOException
+	{
+		record(MOVE, game, -1, after, move);
+	}
+
+	/**
+	 * Wait until every record appended so far is on disk.
+	 */
+	public void sync() throws IOException
+	{
+		synchronized (lock) {
+			awaitDurable(appended);
+		}
+	}
+
+	/**
+	 * End a game; it is no longer recovered.
+	 * @param game the id of the game
+	 */
+	public void finish(long game) throws IOException
+	{
+		commit(record(END, game, 0, null, 0));
+	}
+
+	/**
+	 * Write a snapshot of every live game to a new segment and delete the
+	 * older segments. Appends wait while this runs.
+	 * @param boards the current board of every live game, by game id
+	 * @throws IllegalArgumentException if a live game has no board
+	 */
+	public void checkpoint(Map<Long, Board> boards) throws IOException
+	{
+		synchronized (lock) {
+			for (Long game : plies.keySet()) {
+				if (!boards.containsKey(game)) {
+					throw new IllegalArgumentException("no board for live game " + game);
+				}
+			}
+			while (durable < appended) {	// until the writer is idle
+				awaitDurable(appended);
+			}
+			channel.close();
+			openSegment(segmentId + 1);
+			for (Map.Entry<Long, Integer> game : plies.entrySet()) {
+				Board board = boards.get(game.getKey());
+				ByteBuffer buffer = ByteBuffer.allocate(FRAME + BODY + BoardSnapshot.sizeOf(board));
+				frame(buffer, SNAPSHOT, game.getKey(), game.getValue(), board, 0);
+				buffer.flip();
+				write(buffer);
+			}
+			channel.force(false);
+			commits++;
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					String name = file.getFileName().toString();
+					if (name.startsWith(PREFIX) && name.endsWith(SUFFIX) && file.compareTo(segmentPath(segmentId)) < 0) {
+						Files.delete(file);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of forces to disk, each committing one or more
+	 * 	records
+	 */
+	public long getCommitCount()
+	{
+		synchronized (lock) {
+			return commits;
+		}
+	}
+
+	/**
+	 * @return the number of records appended since the journal was opened
+	 */
+	public long getRecordCount()
+	{
+		synchronized (lock) {
+			return appended;
+		}
+	}
+
+	/*
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		channel.close();
+		synchronized (lock) {
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+
+	/**
+	 * Append a record to the pending buffer.
+	 * @param ply the ply, or -1 for the game's next one
+	 * @return the record's sequence number
+	 */
+	private long record(byte type, long game, int ply, Board board, int move) throws IOException
+	{
+		synchronized (lock) {
+			if (closed) {
+				throw new IOException("the journal is closed");
+			}
+			Integer current = plies.get(game);
+			if (type == MOVE) {
+				if (current == null) {
+					throw new IllegalArgumentException("game " + game + " was not started");
+				}
+				ply = current + 1;
+				plies.put(game, ply);
+				put(type, game, ply, null, move);
+				if (ply % snapshotInterval == 0) {
+					put(SNAPSHOT, game, ply, board, 0);
+				}
+			} else if (type == SNAPSHOT) {
+				plies.put(game, ply);
+				put(type, game, ply, board, 0);
+			} else {
+				plies.remove(game);
+				put(type, game, current == null ? 0 : current, null, 0);
+			}
+			lock.notifyAll();
+			return appended;
+		}
+	}
+
+	private void put(byte type, long game, int ply, Board board, int move)
+	{
+		int size = FRAME + BODY + (type == SNAPSHOT ? BoardSnapshot.sizeOf(board) : type == MOVE ? 4 : 0);
+		if (pending.remaining() < size) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + size));
+			pending.flip();
+			larger.put(pending);
+			pending = larger;
+		}
+		frame(pending, type, game, ply, board, move);
+		appended++;
+	}
+
+	private static void frame(ByteBuffer out, byte type, long game, int ply, Board board, int move)
+	{
+		int start = out.position();
+		out.putInt(0);
+		out.put(type).putLong(game).putInt(ply);
+		if (type == SNAPSHOT) {
+			BoardSnapshot.write(board, out);
+		} else if (type == MOVE) {
+			out.putInt(move);
+		}
+		int length = out.position() - start - 4;
+		out.putInt(start, length);
+		CRC32 crc = new CRC32();
+		ByteBuffer body = out.duplicate();
+		body.position(start + 4).limit(start + 4 + length);
+		crc.update(body);
+		out.putInt((int) crc.getValue());
+	}
+
+	/**
+	 * Wait until a record is on disk.
+	 */
+	private void commit(long sequence) throws IOException
+	{
+		synchronized (lock) {
+			awaitDurable(sequence);
+		}
+	}
+
+	private void awaitDurable(long sequence) throws IOException
+	{
+		while (durable < sequence && failure == null) {
+			try {
+				lock.wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while waiting for the journal");
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * The group commit: take whatever was appended, write it, force it and
+	 * tell the waiting callers.
+	 */
+	private void writeLoop()
+	{
+		while (true) {
+			ByteBuffer batch;
+			long upTo;
+			synchronized (lock) {
+				while (pending.position() == 0 && !closed) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (pending.position() == 0) {
+					return;
+				}
+				batch = pending;
+				pending = spare;
+				upTo = appended;
+			}
+			IOException error = null;
+			try {
+				batch.flip();
+				write(batch);
+				channel.force(false);
+			} catch (IOException e) {
+				error = e;
+			}
+			synchronized (lock) {
+				batch.clear();
+				spare = batch;
+				if (error != null) {
+					failure = error;
+				} else {
+					durable = upTo;
+					commits++;
+					if (segmentSize >= segmentLimit) {
+						try {
+							channel.close();
+							openSegment(segmentId + 1);
+						} catch (IOException e) {
+							failure = e;
+						}
+					}
+				}
+				lock.notifyAll();
+				if (failure != null) {
+					return;
+				}
+			}
+		}
+	}
+
+	private void write(ByteBuffer buffer) throws IOException
+	{
+		while (buffer.hasRemaining()) {
+			segmentSize += channel.write(buffer);
+		}
+	}
+
+	private void openSegment(long id) throws IOException
+	{
+		segmentId = id;
+		channel = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		segmentSize = channel.size();
+	}
+
+	private Path segmentPath(long id)
+	{
+		return directory.resolve(String.format("%s%016d%s", PREFIX, id, SUFFIX));
+	}
+
+	/**
+	 * Read one segment into the games' tails.
+	 * @param last true for the last segment, whose torn end is cut off
+	 */
+	private static void scan(Path file, boolean last, Map<Long, GameTail> games) throws IOException
+	{
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+		CRC32 crc = new CRC32();
+		while (data.remaining() > 0) {
+			int start = data.position();
+			int length = data.remaining() >= 4 ? data.getInt() : -1;
+			boolean whole = length >= BODY && data.remaining() >= length + 4;
+			if (whole) {
+				ByteBuffer body = data.duplicate();
+				body.limit(data.position() + length);
+				crc.reset();
+				crc.update(body);
+				whole = (int) crc.getValue() == data.getInt(data.position() + length);
+			}
+			if (!whole) {
+				if (!last) {
+					throw new IOException(file + " is corrupt at " + start);
+				}
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+					channel.truncate(start);
+				}
+				return;
+			}
+			byte type = data.get();
+			long game = data.getLong();
+			int ply = data.getInt();
+			if (type == SNAPSHOT) {
+				GameTail tail = new GameTail();
+				tail.ply = ply;
+				tail.snapshot = new byte[length - BODY];
+				data.get(tail.snapshot);
+				games.put(game, tail);
+			} else if (type == MOVE) {
+				GameTail tail = games.get(game);
+				int move = data.getInt();
+				if (tail != null) {
+					tail.add(move);
+					tail.ply = ply;
+				}
+			} else {
+				games.remove(game);
+			}
+			data.getInt();	// the CRC
+		}
+	}
+
+	/**
+	 * A game as found in the journal: its latest snapshot and the moves after
+	 * it.
+	 */
+	private static final class GameTail
+	{
+		private byte[] snapshot;
+		private int[] moves = new int[8];
+		private int nMoves;
+		private int ply;
+
+		void add(int move)
+		{
+			if (nMoves == moves.length) {
+				moves = Arrays.copyOf(moves, nMoves * 2);
+			}
+			moves[nMoves++] = move;
+		}
+
+		Board replay()
+		{
+			Board board = BoardSnapshot.read(ByteBuffer.wrap(snapshot));
+			for (int i = 0; i < nMoves; i++) {
+				ChessMoves.apply(board, moves[i]);
+			}
+			return board;
+		}
+	}
+}
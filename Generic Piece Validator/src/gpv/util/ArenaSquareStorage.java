@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.nio.ByteBuffer;
+import gpv.Piece;
+
+/**
+ * Square storage that reads and writes one position record of a
+ * PositionArena in place, so a Board can work on a position without copying
+ * it onto the heap. A record holds a 4-bit piece code per square (0 for
+ * empty, otherwise one plus the index into the arena's palette) followed by
+ * one moved bit per square.
+ * @version Oct 19, 2026
+ */
+final class ArenaSquareStorage extends SquareStorage
+{
+	private final Piece[] palette;
+	private final int squares;
+	private final int movedOffset;	// from the start of the record
+	private ByteBuffer buffer;
+	private int base;
+
+	/**
+	 * @param palette the pieces that the codes stand for
+	 * @param squares the number of squares in a record
+	 * @param buffer the memory holding the record
+	 * @param base the offset of the record in the buffer
+	 */
+	ArenaSquareStorage(Piece[] palette, int squares, ByteBuffer buffer, int base)
+	{
+		this.palette = palette;
+		this.squares = squares;
+		this.movedOffset = (squares + 1) >>> 1;
+		aim(buffer, base);
+	}
+
+	/**
+	 * Point at another record with the same layout.
+	 */
+	void aim(ByteBuffer buffer, int base)
+	{
+		this.buffer = buffer;
+		this.base = base;
+	}
+
+	/**
+	 * @return true if this storage decodes with the given palette
+	 */
+	boolean uses(Piece[] palette)
+	{
+		return this.palette == palette;
+	}
+
+	/**
+	 * @return the number of bytes in a record of this many squares
+	 */
+	static int recordBytes(int squares)
+	{
+		return ((squares + 1) >>> 1) + ((squares + 7) >>> 3);
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#get(int)
+	 */
+	@Override
+	Piece get(int square)
+	{
+		int code = code(square);
+		return code == 0 ? null : palette[code - 1];
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#put(int, gpv.Piece)
+	 */
+	@Override
+	Piece put(int square, Piece piece)
+	{
+		Piece old = get(square);
+		int code = piece == null ? 0 : codeOf(piece);
+		int at = base + (square >>> 1);
+		int b = buffer.get(at);
+		b = (square & 1) == 0 ? (b & 0xF0) | code : (b & 0x0F) | (code << 4);
+		buffer.put(at, (byte) b);
+		return old;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#size()
+	 */
+	@Override
+	int size()
+	{
+		int size = 0;
+		for (int square = 0; square < squares; square++) {
+			if (code(square) != 0) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#clear()
+	 */
+	@Override
+	void clear()
+	{
+		for (int i = 0; i < movedOffset; i++) {
+			buffer.put(base + i, (byte) 0);
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#forEach(gpv.util.SquareStorage.SquareVisitor)
+	 */
+	@Override
+	void forEach(SquareVisitor visitor)
+	{
+		for (int square = 0; square < squares; square++) {
+			int code = code(square);
+			if (code != 0) {
+				visitor.visit(square, palette[code - 1]);
+			}
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#isDense()
+	 */
+	@Override
+	boolean isDense()
+	{
+		return true;
+	}
+
+	/**
+	 * The copy lives on the heap.
+	 * @see gpv.util.SquareStorage#copy()
+	 */
+	@Override
+	SquareStorage copy()
+	{
+		DenseSquareStorage copy = new DenseSquareStorage(squares);
+		forEach(copy::put);
+		copy.takeMovedFrom(this);
+		return copy;
+	}
+
+	/**
+	 * Writes any storage of the same size into the record, so that a Board
+	 * view stays a view when it is overwritten.
+	 * @see gpv.util.SquareStorage#copyFrom(gpv.util.SquareStorage)
+	 */
+	@Override
+	boolean copyFrom(SquareStorage other)
+	{
+		clear();
+		other.forEach(this::put);
+		copyMovedFrom(other);
+		return true;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#isMoved(int)
+	 */
+	@Override
+	boolean isMoved(int square)
+	{
+		return (buffer.get(base + movedOffset + (square >>> 3)) & (1 << (square & 7))) != 0;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#setMoved(int, boolean)
+	 */
+	@Override
+	void setMoved(int square, boolean isMoved)
+	{
+		int at = base + movedOffset + (square >>> 3);
+		int b = buffer.get(at);
+		b = isMoved ? b | (1 << (square & 7)) : b & ~(1 << (square & 7));
+		buffer.put(at, (byte) b);
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#clearMoved()
+	 */
+	@Override
+	void clearMoved()
+	{
+		for (int i = movedOffset; i < recordBytes(squares); i++) {
+			buffer.put(base + i, (byte) 0);
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#copyMovedFrom(gpv.util.SquareStorage)
+	 */
+	@Override
+	void copyMovedFrom(SquareStorage other)
+	{
+		for (int square = 0; square < squares; square++) {
+			setMoved(square, other.isMoved(square));
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#takeMovedFrom(gpv.util.SquareStorage)
+	 */
+	@Override
+	void takeMovedFrom(SquareStorage other)
+	{
+		copyMovedFrom(other);
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#movedWords()
+	 */
+	@Override
+	long[] movedWords()
+	{
+		long[] words = new long[(squares + 63) >>> 6];
+		for (int square = 0; square < squares; square++) {
+			if (isMoved(square)) {
+				words[square >>> 6] |= 1L << square;
+			}
+		}
+		return words;
+	}
+
+	private int code(int square)
+	{
+		int b = buffer.get(base + (square >>> 1));
+		return (square & 1) == 0 ? b & 0x0F : (b >>> 4) & 0x0F;
+	}
+
+	/**
+	 * @return the code of a piece: the palette entry with the same descriptor
+	 */
+	int codeOf(Piece piece)
+	{
+		for (int i = 0; i < palette.length; i++) {
+			if (palette[i] == piece || palette[i].getDescriptor().equals(piece.getDescriptor())) {
+				return i + 1;
+			}
+		}
+		throw new IllegalArgumentException(piece.getDescriptor() + " is not in the arena's palette");
+	}
+}
@@ -13,16 +13,78 @@
 package gpv.util;
 
 import java.util.*;
-import java.util.stream.Stream;
 import gpv.Piece;
+import gpv.PieceDescriptor;
 
 /**
- * Class for a rectangular board made up of squares
+ * Class for a rectangular board made up of squares.
+ * <br/>
+ * Squares inside the board dimensions are kept in a storage engine that is
+ * picked from the size of the board and how full it is. Small boards and
+ * well populated large boards use a flat array with a slot per square.
+ * Large, nearly empty boards use an open addressing map keyed by square
+ * index. The board switches between the two at runtime as pieces come and
+ * go. Coordinates outside the board dimensions are still accepted and kept
+ * in a separate map, as they always have been.
+ * <br/>
+ * The board also keeps an index from piece descriptor to the squares holding
+ * that kind of piece, so locating or counting pieces costs time proportional
+ * to the number of pieces found rather than the number of squares. Only
+ * squares inside the board dimensions are indexed.
+ * <br/>
+ * Squares inside the board are also numbered, row-major from zero, for
+ * callers that want to avoid creating Coordinate instances. SquareListeners
+ * are told about every change to those squares. BoardChangeListeners are
+ * told once per batch of changes instead, such as a whole move or a reset,
+ * about the squares whose piece differs (see beginChanges). A board without
+ * change listeners collects nothing for them.
+ * <br/>
+ * Finally, the board keeps a 64-bit hash of the pieces on its squares and
+ * their moved bits, updated with every change, for transposition tables and
+ * repetition checks. Equal positions on boards of the same size have equal
+ * hashes, whichever way they were reached.
+ * <br/>
+ * Alongside the squares the board carries one int of game state that the
+ * pieces do not show, such as whose move it is, and the GameRules of the
+ * game, such as where castling pieces start. The board only stores and
+ * copies them, and reset() clears both; the rules decide what they mean (see
+ * gpv.chess.GameState and gpv.chess.CastlingTable).
  * @version Feb 23, 2020
  */
 public class Board
 {
-	Map<Coordinate, Piece> board;
+	/**
+	 * Boards with at most this many squares always use the flat array.
+	 */
+	static final int ALWAYS_DENSE_SQUARES = 256;
+	/**
+	 * A large board switches to the flat array when more than one square in
+	 * this many is occupied...
+	 */
+	static final int DENSE_FILL_DIVISOR = 4;
+	/**
+	 * ...and back to the sparse map when fewer than one in this many is.
+	 */
+	static final int SPARSE_FILL_DIVISOR = 8;
+
+	private SquareStorage storage;
+	private PieceIndex index;
+	private Map<Coordinate, Piece> outside;	// pieces placed off the board, rarely used
+	private int layoutRows;		// the dimensions that storage was laid out for
+	private int layoutColumns;
+	private boolean adaptive = true;	// false once a test pins the storage engine
+	private static final SquareListener[] NO_LISTENERS = new SquareListener[0];
+	private SquareListener[] listeners = NO_LISTENERS;
+	private boolean resetting;	// true while reset() is replacing every square
+	private static final BoardChangeListener[] NO_CHANGE_LISTENERS = new BoardChangeListener[0];
+	private BoardChangeListener[] changeListeners = NO_CHANGE_LISTENERS;
+	private ChangeBatch batch;	// changes not yet told, null while there are no change listeners
+	private int batchDepth;	// beginChanges() calls not yet ended
+	private long hash;	// XOR of squareKey over the squares on the board
+	private long placementHash;	// the same, ignoring moved bits
+	private boolean derivedStale;	// index and hash must be rebuilt from the storage
+	private int gameState;	// kept for the rules, 0 until they set it
+	private GameRules gameRules;	// likewise, null until they set it
 	public int nRows;
 	public int nColumns;
 	
@@ -35,7 +97,7 @@ public class Board
 	{
 		nRows = maxRows;
 		nColumns = maxColumns;
-		board = new HashMap<Coordinate, Piece>();
+		layout();
 	}
 	
 	/**
@@ -51,27 +113,178 @@ public class Board
 		reset(initializers);
 	}
 	
+	/**
+	 * Constructor for a view onto squares kept elsewhere, such as a record in
+	 * a PositionArena. The storage engine is fixed, and the piece index and
+	 * hash are only built from the storage when something asks for them.
+	 * @param rows the number of rows
+	 * @param columns the number of columns
+	 * @param storage the storage of the squares
+	 */
+	Board(int rows, int columns, SquareStorage storage)
+	{
+		nRows = rows;
+		nColumns = columns;
+		layoutRows = rows;
+		layoutColumns = columns;
+		adaptive = false;
+		this.storage = storage;
+		index = new PieceIndex(squareCount());
+		derivedStale = true;
+	}
+
+	/**
+	 * Point a view at other squares with the same layout. Listeners are told
+	 * about a reset.
+	 * @param storage the storage of the squares
+	 */
+	void attach(SquareStorage storage)
+	{
+		beginChanges();
+		recordLeaving();
+		this.storage = storage;
+		outside = null;
+		derivedStale = true;
+		recordArriving();
+		fireReset();
+		endChanges();
+	}
+
+	/**
+	 * @return the storage of the squares, for PositionArena
+	 */
+	SquareStorage getStorage()
+	{
+		return storage;
+	}
+
+	/**
+	 * @return a new board with the same dimensions, pieces, moved state,
+	 * 	game state and game rules as this one. Listeners are not copied.
+	 */
+	public Board copy()
+	{
+		Board copy = new Board(nRows, nColumns);
+		copy.copyFrom(this);
+		return copy;
+	}
+
+	/**
+	 * Make this board an exact copy of another one: dimensions, pieces,
+	 * moved state, game state and game rules, which are shared. The squares
+	 * are copied as flat arrays. When both boards have the same dimensions
+	 * and storage engine nothing is allocated, which makes this the way to
+	 * reuse boards in a search (see BoardPool). This board's listeners stay
+	 * attached and are told about a reset.
+	 * @param other the board to copy
+	 */
+	public void copyFrom(Board other)
+	{
+		if (other == this) {
+			return;
+		}
+		other.checkLayout();
+		other.refreshDerived();
+		beginChanges();
+		recordLeaving();
+		nRows = other.nRows;
+		nColumns = other.nColumns;
+		if (layoutRows != other.layoutRows || layoutColumns != other.layoutColumns) {
+			layoutRows = other.layoutRows;
+			layoutColumns = other.layoutColumns;
+			index = new PieceIndex(squareCount());
+			storage = other.storage.copy();
+			if (batch != null) {
+				batch.markWholeBoard(squareCount());
+			}
+		} else if (!storage.copyFrom(other.storage)) {
+			storage = other.storage.copy();
+		}
+		index.copyFrom(other.index);
+		hash = other.hash;
+		placementHash = other.placementHash;
+		derivedStale = false;
+		gameState = other.gameState;
+		gameRules = other.gameRules;
+		outside = other.outside == null ? null : new HashMap<Coordinate, Piece>(other.outside);
+		recordArriving();
+		fireReset();
+		endChanges();
+	}
+
 	/**
 	 * @return the piece at the given coordinate or null if none.
 	 */
 	public Piece getPieceAt(Coordinate c)
 	{
-		return board.get(c);
+		if (c == null) {
+			return null;
+		}
+		checkLayout();
+		int square = indexOf(c);
+		if (square >= 0) {
+			return storage.get(square);
+		}
+		return outside == null ? null : outside.get(c);
+	}
+
+	/**
+	 * @param square the index of a square on the board
+	 * @return the piece on that square or null if none
+	 */
+	public Piece getPieceAt(int square)
+	{
+		checkLayout();
+		return storage.get(square);
 	}
 	
 	/**
-	 * Clear the board and re-initialize it with the specified configuration
+	 * Clear the board and re-initialize it with the specified configuration.
+	 * The game state and game rules are cleared as well, so a game with a
+	 * CastlingTable must attach it again.
 	 * @param initializers a configuration consisting of a list of 
 	 * 	SquareInitializers for those squares containing pieces.
 	 */
 	public void reset(List<SquareInitializer> initializers)
 	{
-		board.clear();
-		for (SquareInitializer si : initializers) {
-			board.put(si.getSquare(), si.getPiece());
+		checkLayout();
+		beginChanges();
+		recordLeaving();
+		storage.clear();
+		storage.clearMoved();
+		index.clear();
+		hash = 0;
+		placementHash = 0;
+		derivedStale = false;
+		gameState = 0;
+		gameRules = null;
+		outside = null;
+		if (adaptive && !storage.isDense() && initializers.size() * DENSE_FILL_DIVISOR > squareCount()) {
+			moveTo(new DenseSquareStorage(squareCount()));
 		}
+		resetting = true;
+		try {
+			for (SquareInitializer si : initializers) {
+				putPieceAt(si.getPiece(), si.getSquare());
+			}
+		} finally {
+			resetting = false;
+			endChanges();
+		}
+		fireReset();
 	}
 	
+	/**
+	 * Clear the board and give it a compiled position, which costs a few
+	 * array copies instead of placing every piece.
+	 * @param template the position, for a board of this size
+	 * @throws IllegalArgumentException if the template is for another size
+	 */
+	public void reset(BoardTemplate template)
+	{
+		template.applyTo(this);
+	}
+
 	/**
 	 * Place a piece p at the given location
 	 * @param p the piece to place
@@ -80,7 +293,397 @@ public class Board
 	 */
 	public Piece putPieceAt(Piece p, Coordinate c)
 	{
-		return board.put(c, p);
+		checkLayout();
+		int square = indexOf(c);
+		if (square < 0) {
+			return putOutside(p, c);
+		}
+		return set(square, p, storage.get(square) == p && storage.isMoved(square));
+	}
+
+	/**
+	 * Move the piece on one square to another, capturing whatever is there.
+	 * Unlike two calls to putPieceAt, this marks the piece as having moved
+	 * (see hasMoved). Both squares must be on the board.
+	 * @param from the coordinate of the piece to move
+	 * @param to the coordinate of the destination
+	 * @return the piece that was on the destination square, or null
+	 */
+	public Piece movePiece(Coordinate from, Coordinate to)
+	{
+		return movePiece(squareOf(from), squareOf(to));
+	}
+
+	/**
+	 * @see #movePiece(Coordinate, Coordinate)
+	 * @param from the index of the square of the piece to move
+	 * @param to the index of the destination square
+	 * @return the piece that was on the destination square, or null
+	 */
+	public Piece movePiece(int from, int to)
+	{
+		checkLayout();
+		if (from < 0 || to < 0) {
+			throw new IllegalArgumentException("movePiece needs two squares on the board");
+		}
+		Piece p = storage.get(from);
+		beginChanges();
+		try {
+			set(from, null, false);
+			return set(to, p, p != null);
+		} finally {
+			endChanges();
+		}
+	}
+
+	/**
+	 * The board remembers which pieces have moved, so that pieces themselves
+	 * can be shared between boards. A square's bit is set by movePiece and
+	 * cleared whenever a different piece is put on the square.
+	 * @param c the coordinate of the square
+	 * @return true if the piece on the square has moved, false if it has not
+	 * 	or the square is not on the board
+	 */
+	public boolean hasMoved(Coordinate c)
+	{
+		int square = squareOf(c);
+		return square >= 0 && storage.isMoved(square);
+	}
+
+	/**
+	 * @see #hasMoved(Coordinate)
+	 * @param square the index of a square on the board
+	 * @return true if the piece on the square has moved
+	 */
+	public boolean hasMoved(int square)
+	{
+		checkLayout();
+		return storage.isMoved(square);
+	}
+
+	/**
+	 * Mark the piece on a square as having moved or not, for example when
+	 * setting up a position from a record.
+	 * @param square the index of a square on the board
+	 * @param moved the new value
+	 */
+	public void setMoved(int square, boolean moved)
+	{
+		checkLayout();
+		set(square, storage.get(square), moved);
+	}
+
+	/**
+	 * @param row the row, starting at 1
+	 * @param column the column, starting at 1
+	 * @return the index of the square, or -1 if it is not on the board
+	 */
+	public int squareOf(int row, int column)
+	{
+		checkLayout();
+		if (row < 1 || row > layoutRows || column < 1 || column > layoutColumns) {
+			return -1;
+		}
+		return (row - 1) * layoutColumns + (column - 1);
+	}
+
+	/**
+	 * @param c the coordinate
+	 * @return the index of the square, or -1 if it is not on the board
+	 */
+	public int squareOf(Coordinate c)
+	{
+		return squareOf(c.getRow(), c.getColumn());
+	}
+
+	/**
+	 * @param square the index of a square on the board
+	 * @return the row of the square, starting at 1
+	 */
+	public int rowOf(int square)
+	{
+		checkLayout();
+		return square / layoutColumns + 1;
+	}
+
+	/**
+	 * @param square the index of a square on the board
+	 * @return the column of the square, starting at 1
+	 */
+	public int columnOf(int square)
+	{
+		checkLayout();
+		return square % layoutColumns + 1;
+	}
+
+	/**
+	 * @param square the index of a square on the board
+	 * @return the coordinate of the square
+	 */
+	public Coordinate coordinateOf(int square)
+	{
+		checkLayout();
+		return coordinateAt(square);
+	}
+
+	/**
+	 * @return the number of squares on the board
+	 */
+	public int getSquareCount()
+	{
+		checkLayout();
+		return squareCount();
+	}
+
+	/**
+	 * Start telling a listener about changes to the board.
+	 * @param listener the listener
+	 */
+	public void addSquareListener(SquareListener listener)
+	{
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+	}
+
+	/**
+	 * Stop telling a listener about changes to the board.
+	 * @param listener the listener
+	 */
+	public void removeSquareListener(SquareListener listener)
+	{
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				SquareListener[] fewer = listeners.length == 1 ? NO_LISTENERS 
+						: new SquareListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, fewer, 0, i);
+				System.arraycopy(listeners, i + 1, fewer, i, fewer.length - i);
+				listeners = fewer;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Start telling a listener about the squares that changed, once per
+	 * batch of changes.
+	 * @param listener the listener
+	 */
+	public void addChangeListener(BoardChangeListener listener)
+	{
+		checkLayout();
+		if (batch == null) {
+			batch = new ChangeBatch(squareCount());
+		}
+		changeListeners = Arrays.copyOf(changeListeners, changeListeners.length + 1);
+		changeListeners[changeListeners.length - 1] = listener;
+	}
+
+	/**
+	 * Stop telling a listener about changes. Changes still being batched are
+	 * not told to it.
+	 * @param listener the listener
+	 */
+	public void removeChangeListener(BoardChangeListener listener)
+	{
+		for (int i = 0; i < changeListeners.length; i++) {
+			if (changeListeners[i] == listener) {
+				BoardChangeListener[] fewer = changeListeners.length == 1 ? NO_CHANGE_LISTENERS
+						: new BoardChangeListener[changeListeners.length - 1];
+				System.arraycopy(changeListeners, 0, fewer, 0, i);
+				System.arraycopy(changeListeners, i + 1, fewer, i, fewer.length - i);
+				changeListeners = fewer;
+				if (fewer.length == 0) {
+					batch = null;
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Start a batch of changes: BoardChangeListeners are told about them
+	 * together when the matching endChanges() is called. Batches nest, and
+	 * only the outermost one is told. movePiece and reset batch their own
+	 * changes; a move that changes several squares, such as castling,
+	 * should be made within one batch.
+	 */
+	public void beginChanges()
+	{
+		batchDepth++;
+	}
+
+	/**
+	 * End a batch of changes started by beginChanges().
+	 * @throws IllegalStateException if no batch was started
+	 */
+	public void endChanges()
+	{
+		if (batchDepth == 0) {
+			throw new IllegalStateException("endChanges() without beginChanges()");
+		}
+		if (--batchDepth == 0) {
+			fireChanges();
+		}
+	}
+
+	/**
+	 * Detach every listener; used when a board goes back to a pool.
+	 */
+	void removeAllListeners()
+	{
+		listeners = NO_LISTENERS;
+		changeListeners = NO_CHANGE_LISTENERS;
+		batch = null;
+		batchDepth = 0;
+	}
+
+	/**
+	 * @param descriptor the kind of piece to look for
+	 * @return the number of pieces of that kind on the board
+	 */
+	public int countOf(PieceDescriptor descriptor)
+	{
+		checkLayout();
+		refreshDerived();
+		return index.count(descriptor);
+	}
+
+	/**
+	 * Find a piece of the given kind. Meant for pieces that there is only one
+	 * of, such as a king.
+	 * @param descriptor the kind of piece to look for
+	 * @return the coordinate of a piece of that kind or null if there is none
+	 */
+	public Coordinate findPiece(PieceDescriptor descriptor)
+	{
+		checkLayout();
+		refreshDerived();
+		int square = index.first(descriptor);
+		return square < 0 ? null : coordinateAt(square);
+	}
+
+	/**
+	 * List the squares holding any of the given kinds of pieces, for example
+	 * all of one side's bishops, rooks and queens.
+	 * @param descriptors the kinds of pieces to look for
+	 * @return the coordinates of those pieces, in no particular order
+	 */
+	public List<Coordinate> getSquaresOf(PieceDescriptor... descriptors)
+	{
+		checkLayout();
+		refreshDerived();
+		List<Coordinate> squares = new ArrayList<Coordinate>();
+		for (PieceDescriptor descriptor : descriptors) {
+			index.forEach(descriptor, square -> squares.add(coordinateAt(square)));
+		}
+		return squares;
+	}
+
+	/**
+	 * Allocation free variant of getSquaresOf for search code. The array
+	 * must have room for every piece of the kind; getSquareCount() entries
+	 * are always enough.
+	 * @param descriptor the kind of piece to look for
+	 * @param into receives the square indices of those pieces
+	 * @param offset where to store the first square
+	 * @return the offset after the last square stored
+	 */
+	public int collectSquaresOf(PieceDescriptor descriptor, int[] into, int offset)
+	{
+		checkLayout();
+		refreshDerived();
+		return index.collect(descriptor, into, offset);
+	}
+
+	/**
+	 * The hash covers the squares inside the board: which kind of piece is
+	 * on each one and whether it has moved. Pieces placed outside the board
+	 * are not part of it.
+	 * @return the hash of the position
+	 */
+	public long getPositionHash()
+	{
+		checkLayout();
+		refreshDerived();
+		return hash;
+	}
+
+	/**
+	 * Like getPositionHash, but only which kind of piece is on which square
+	 * counts, not whether it has moved. Boards set up with putPieceAt and
+	 * boards reached by playing moves hash alike here.
+	 * @return the hash of the piece placement
+	 */
+	public long getPlacementHash()
+	{
+		checkLayout();
+		refreshDerived();
+		return placementHash;
+	}
+
+	/**
+	 * @param p a piece, or null
+	 * @param square the index of a square
+	 * @param moved the moved bit of the square
+	 * @return the contribution of the square to the position hash
+	 */
+	static long squareKey(Piece p, int square, boolean moved)
+	{
+		if (p == null) {
+			return 0;
+		}
+		PieceDescriptor d = p.getDescriptor();
+		long kind = d instanceof Enum ? ((Enum<?>) d).ordinal() + 1 : d == null ? 0 : d.hashCode();
+		return mix((kind << 33) ^ ((long) square << 1) ^ (moved ? 1 : 0));
+	}
+
+	/**
+	 * The splitmix64 finalizer, used so that the keys need no table and work
+	 * for any board size.
+	 */
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * @return the game state word, 0 for a new or reset board
+	 */
+	public int getGameState()
+	{
+		return gameState;
+	}
+
+	/**
+	 * @param gameState the game state word to keep with the board
+	 */
+	public void setGameState(int gameState)
+	{
+		this.gameState = gameState;
+	}
+
+	/**
+	 * @return the rules kept for the game, null for a new or reset board
+	 */
+	public GameRules getGameRules()
+	{
+		return gameRules;
+	}
+
+	/**
+	 * @param gameRules the rules to keep with the board, or null for none;
+	 * 	they should not change, since copies of the board share them
+	 * @throws IllegalArgumentException if the rules do not fit a board of
+	 * 	this size
+	 */
+	public void setGameRules(GameRules gameRules)
+	{
+		if (gameRules != null && !gameRules.fits(nRows, nColumns)) {
+			throw new IllegalArgumentException("the rules do not fit a " + nRows + "x" + nColumns + " board");
+		}
+		this.gameRules = gameRules;
 	}
 
 	/**
@@ -105,5 +708,246 @@ public class Board
 	public void setnRows(int nRows)
 	{
 		this.nRows = nRows;
+		checkLayout();
+	}
+
+	/**
+	 * @return true if the board currently keeps its squares in a flat array
+	 */
+	boolean isDense()
+	{
+		checkLayout();
+		return storage.isDense();
+	}
+
+	/**
+	 * Pin the storage engine. Used by tests and benchmarks to compare the
+	 * engines; the board stops adapting afterwards.
+	 * @param dense true for the flat array, false for the sparse map
+	 */
+	void useStorage(boolean dense)
+	{
+		checkLayout();
+		adaptive = false;
+		if (storage.isDense() != dense) {
+			moveTo(dense ? new DenseSquareStorage(squareCount()) 
+					: new SparseSquareStorage(storage.size()));
+		}
+	}
+
+	/**
+	 * @return the square index of c, or -1 if c is outside the board
+	 */
+	private int indexOf(Coordinate c)
+	{
+		int row = c.getRow();
+		int column = c.getColumn();
+		if (row < 1 || row > layoutRows || column < 1 || column > layoutColumns) {
+			return -1;
+		}
+		return (row - 1) * layoutColumns + (column - 1);
+	}
+
+	private Coordinate coordinateAt(int square)
+	{
+		return Coordinate.makeCoordinate(square / layoutColumns + 1, square % layoutColumns + 1);
+	}
+
+	/**
+	 * Every change to a square on the board goes through here so that the
+	 * storage, the moved bits and the piece index stay in step.
+	 */
+	private Piece set(int square, Piece p, boolean moved)
+	{
+		Piece old = storage.put(square, p);
+		boolean wasMoved = storage.isMoved(square);
+		if (wasMoved != moved) {
+			storage.setMoved(square, moved);
+		}
+		if (!derivedStale) {
+			if (old != p) {
+				index.replace(square, old, p);
+			}
+			if (old != p || wasMoved != moved) {
+				hash ^= squareKey(old, square, wasMoved) ^ squareKey(p, square, moved);
+			}
+			if (old != p) {
+				placementHash ^= squareKey(old, square, false) ^ squareKey(p, square, false);
+			}
+		}
+		if ((old == null) != (p == null)) {
+			adaptStorage();
+		}
+		if ((old != p || wasMoved != moved) && !resetting) {
+			for (SquareListener listener : listeners) {
+				listener.squareChanged(this, square, old, p);
+			}
+		}
+		if (old != p && batch != null) {
+			batch.record(square, old, p);
+			if (batchDepth == 0) {
+				fireChanges();
+			}
+		}
+		return old;
+	}
+
+	/**
+	 * Build the piece index and hash of a view from its storage.
+	 */
+	private void refreshDerived()
+	{
+		if (derivedStale) {
+			index.clear();
+			hash = 0;
+			placementHash = 0;
+			storage.forEach((square, piece) -> {
+				index.replace(square, null, piece);
+				hash ^= squareKey(piece, square, storage.isMoved(square));
+				placementHash ^= squareKey(piece, square, false);
+			});
+			derivedStale = false;
+		}
+	}
+
+	private void fireReset()
+	{
+		for (SquareListener listener : listeners) {
+			listener.boardReset(this);
+		}
+	}
+
+	private void fireChanges()
+	{
+		BoardChange change = batch == null ? null : batch.drain(this);
+		if (change != null) {
+			for (BoardChangeListener listener : changeListeners) {
+				listener.boardChanged(change);
+			}
+		}
+	}
+
+	/**
+	 * Before the storage is cleared or replaced wholesale, note every piece
+	 * on the board as leaving its square...
+	 */
+	private void recordLeaving()
+	{
+		if (batch != null) {
+			storage.forEach((square, piece) -> batch.record(square, piece, null));
+		}
+	}
+
+	/**
+	 * ...and afterwards every piece as arriving, so that the batch ends up
+	 * listing the squares that differ.
+	 */
+	private void recordArriving()
+	{
+		if (batch != null) {
+			storage.forEach((square, piece) -> batch.record(square, null, piece));
+		}
+	}
+
+	private int squareCount()
+	{
+		return layoutRows * layoutColumns;
+	}
+
+	/**
+	 * Pick the storage engine for the current size and fill. Hysteresis
+	 * between the two thresholds keeps a board that hovers around one of
+	 * them from converting back and forth.
+	 */
+	private void adaptStorage()
+	{
+		int squares = squareCount();
+		if (!adaptive || squares <= ALWAYS_DENSE_SQUARES) {
+			return;
+		}
+		int pieces = storage.size();
+		if (storage.isDense()) {
+			if (pieces * SPARSE_FILL_DIVISOR < squares) {
+				moveTo(new SparseSquareStorage(pieces));
+			}
+		} else if (pieces * DENSE_FILL_DIVISOR > squares) {
+			moveTo(new DenseSquareStorage(squares));
+		}
+	}
+
+	private void moveTo(SquareStorage target)
+	{
+		storage.forEach(target::put);
+		target.takeMovedFrom(storage);
+		storage = target;
+	}
+
+	private Piece putOutside(Piece p, Coordinate c)
+	{
+		if (outside == null) {
+			outside = new HashMap<Coordinate, Piece>();
+		}
+		return outside.put(c, p);
+	}
+
+	/**
+	 * The dimensions are public fields, so they can change under us. Lay the
+	 * squares out again whenever they no longer match.
+	 */
+	private void checkLayout()
+	{
+		if (layoutRows != nRows || layoutColumns != nColumns) {
+			relayout();
+		}
+	}
+
+	private void layout()
+	{
+		layoutRows = Math.max(nRows, 0);
+		layoutColumns = Math.max(nColumns, 0);
+		int squares = squareCount();
+		boolean dense = adaptive ? squares <= ALWAYS_DENSE_SQUARES : storage.isDense();
+		storage = dense ? new DenseSquareStorage(squares) : new SparseSquareStorage(0);
+		index = new PieceIndex(squares);
+		hash = 0;
+		placementHash = 0;
+		derivedStale = false;
+	}
+
+	private void relayout()
+	{
+		Map<Coordinate, Piece> pieces = new HashMap<Coordinate, Piece>();
+		if (outside != null) {
+			pieces.putAll(outside);
+		}
+		Set<Coordinate> moved = new HashSet<Coordinate>();
+		storage.forEach((square, piece) -> {
+			pieces.put(coordinateAt(square), piece);
+			if (storage.isMoved(square)) {
+				moved.add(coordinateAt(square));
+			}
+		});
+		outside = null;
+		layout();
+		if (batch != null) {
+			batch.markWholeBoard(squareCount());
+		}
+		beginChanges();
+		resetting = true;
+		try {
+			for (Map.Entry<Coordinate, Piece> e : pieces.entrySet()) {
+				putPieceAt(e.getValue(), e.getKey());
+			}
+			for (Coordinate c : moved) {
+				int square = indexOf(c);
+				if (square >= 0) {
+					setMoved(square, true);
+				}
+			}
+		} finally {
+			resetting = false;
+			endChanges();
+		}
+		fireReset();
 	}
 }
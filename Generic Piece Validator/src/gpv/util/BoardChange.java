@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import gpv.Piece;
+
+/**
+ * One batch of changes to a Board, as told to BoardChangeListeners: for
+ * each square whose piece is different at the end of the batch, its index
+ * (see Board#squareOf) and the pieces before and after. A square changed
+ * several times in the batch is listed once, and a square that ends up with
+ * the piece it started with is not listed. Changes to the moved bits alone
+ * are not listed either.
+ * <br/>
+ * When the board's dimensions change its squares are numbered anew, and
+ * the change only says so (see isWholeBoard); listeners should read the
+ * board again.
+ * @version Oct 19, 2026
+ */
+public final class BoardChange
+{
+	private final Board board;
+	private final int[] squares;
+	private final Piece[] oldPieces;
+	private final Piece[] newPieces;
+	private final boolean wholeBoard;
+
+	BoardChange(Board board, int[] squares, Piece[] oldPieces, Piece[] newPieces, boolean wholeBoard)
+	{
+		this.board = board;
+		this.squares = squares;
+		this.oldPieces = oldPieces;
+		this.newPieces = newPieces;
+		this.wholeBoard = wholeBoard;
+	}
+
+	/**
+	 * @return the board that changed
+	 */
+	public Board getBoard()
+	{
+		return board;
+	}
+
+	/**
+	 * @return the number of squares listed
+	 */
+	public int size()
+	{
+		return squares.length;
+	}
+
+	/**
+	 * @param i the position in the list, from 0 to size() - 1
+	 * @return the index of the square
+	 */
+	public int getSquare(int i)
+	{
+		return squares[i];
+	}
+
+	/**
+	 * @param i the position in the list
+	 * @return the piece that was on the square before the batch, or null
+	 */
+	public Piece getOldPiece(int i)
+	{
+		return oldPieces[i];
+	}
+
+	/**
+	 * @param i the position in the list
+	 * @return the piece that is on the square now, or null
+	 */
+	public Piece getNewPiece(int i)
+	{
+		return newPieces[i];
+	}
+
+	/**
+	 * @return true if the board was laid out again and nothing is listed
+	 */
+	public boolean isWholeBoard()
+	{
+		return wholeBoard;
+	}
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+/**
+ * Implemented by renderers and analyzers that want to know which squares of
+ * a Board changed instead of reading every square after each move. Unlike a
+ * SquareListener, which hears about each square as it is written, a
+ * BoardChangeListener hears once per batch of changes (see
+ * Board#beginChanges), with each square that ended up holding a different
+ * piece listed once.
+ * @version Oct 19, 2026
+ */
+public interface BoardChangeListener
+{
+	/**
+	 * Called after a batch of changes to the board.
+	 * @param change the squares whose piece changed, never empty unless the
+	 * 	whole board was laid out again
+	 */
+	void boardChanged(BoardChange change);
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.Collections;
+
+/**
+ * A per-thread pool of boards for workloads, such as a search, that need many
+ * short-lived copies of a position. A board taken from the pool with
+ * acquire(Board) is filled with Board#copyFrom, so once the pool is warm a
+ * copy allocates nothing.
+ * <code>
+ * 	BoardPool pool = BoardPool.get();
+ * 	Board child = pool.acquire(position);
+ * 	...
+ * 	pool.release(child);
+ * </code>
+ * Each thread gets its own pool, so no locking is needed; a board must be
+ * released on the thread that acquired it and must not be used afterwards.
+ * @version Oct 19, 2026
+ */
+public final class BoardPool
+{
+	private static final int MAX_IDLE = 256;
+	private static final ThreadLocal<BoardPool> POOLS = ThreadLocal.withInitial(BoardPool::new);
+
+	private final Board[] idle = new Board[MAX_IDLE];
+	private int nIdle;
+	private long created;
+
+	private BoardPool()
+	{
+		nIdle = 0;
+		created = 0;
+	}
+
+	/**
+	 * @return the pool of the calling thread
+	 */
+	public static BoardPool get()
+	{
+		return POOLS.get();
+	}
+
+	/**
+	 * @param source the board to copy
+	 * @return a board from the pool holding a copy of source
+	 */
+	public Board acquire(Board source)
+	{
+		Board board = take(source.getnRows(), source.getnColumns());
+		board.copyFrom(source);
+		return board;
+	}
+
+	/**
+	 * @param rows the number of rows
+	 * @param columns the number of columns
+	 * @return an empty board from the pool
+	 */
+	public Board acquire(int rows, int columns)
+	{
+		Board board = take(rows, columns);
+		board.nRows = rows;
+		board.nColumns = columns;
+		board.reset(Collections.emptyList());
+		return board;
+	}
+
+	/**
+	 * Give a board back to the pool. Its listeners are detached. When the
+	 * pool is full the board is left to the garbage collector.
+	 * @param board the board, which the caller must no longer use
+	 */
+	public void release(Board board)
+	{
+		if (nIdle < MAX_IDLE) {
+			board.removeAllListeners();
+			idle[nIdle++] = board;
+		}
+	}
+
+	/**
+	 * @return the number of boards this pool has had to create
+	 */
+	public long getCreated()
+	{
+		return created;
+	}
+
+	/**
+	 * @return the number of boards waiting in the pool
+	 */
+	public int getIdle()
+	{
+		return nIdle;
+	}
+
+	/**
+	 * Prefer the most recently released board, which is the one most likely to
+	 * still be in the processor cache and to have the right shape.
+	 */
+	private Board take(int rows, int columns)
+	{
+		if (nIdle > 0) {
+			Board board = idle[--nIdle];
+			idle[nIdle] = null;
+			return board;
+		}
+		created++;
+		return new Board(rows, columns);
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.List;
+
+/**
+ * A position compiled once, such as the starting position of a game, that
+ * boards can be reset to cheaply. The template keeps a board laid out from
+ * the initializers, with its storage, piece index and hashes already built,
+ * and applying it copies those into the target board's arrays (see
+ * Board#copyFrom). On a board of the same size and storage engine that
+ * allocates nothing, where Board#reset(List) places every piece anew.
+ * <br/>
+ * The same piece instances end up on every board the template is applied
+ * to, so they should be immutable, such as those of a sharing
+ * ChessPieceFactory; the boards keep which pieces have moved.
+ * <code>
+ * 	BoardTemplate start = new BoardTemplate(8, 8, initializers);
+ * 	board.reset(start);
+ * </code>
+ * @version Oct 19, 2026
+ */
+public final class BoardTemplate
+{
+	private final Board position;
+
+	/**
+	 * @param rows the number of rows
+	 * @param columns the number of columns
+	 * @param initializers the pieces, as for Board#reset(List)
+	 */
+	public BoardTemplate(int rows, int columns, List<SquareInitializer> initializers)
+	{
+		this(new Board(rows, columns, initializers));
+	}
+
+	private BoardTemplate(Board position)
+	{
+		this.position = position;
+	}
+
+	/**
+	 * @param board a board
+	 * @return a template of the board as it is now, moved bits, game state
+	 * 	and game rules included; later changes to the board do not affect it
+	 */
+	public static BoardTemplate of(Board board)
+	{
+		return new BoardTemplate(board.copy());
+	}
+
+	/**
+	 * Make a board hold the template's position, as if it had been reset
+	 * with the template's initializers. Listeners are told as for a reset.
+	 * @param board a board with the template's dimensions
+	 * @throws IllegalArgumentException if the dimensions differ
+	 */
+	public void applyTo(Board board)
+	{
+		if (board.getnRows() != position.getnRows() || board.getnColumns() != position.getnColumns()) {
+			throw new IllegalArgumentException(
+					"the template is for a " + position.getnRows() + "x" + position.getnColumns() + " board");
+		}
+		board.copyFrom(position);
+	}
+
+	/**
+	 * @return a new board holding the template's position
+	 */
+	public Board newBoard()
+	{
+		return position.copy();
+	}
+
+	/**
+	 * @return the number of rows of the template's boards
+	 */
+	public int getnRows()
+	{
+		return position.getnRows();
+	}
+
+	/**
+	 * @return the number of columns of the template's boards
+	 */
+	public int getnColumns()
+	{
+		return position.getnColumns();
+	}
+}
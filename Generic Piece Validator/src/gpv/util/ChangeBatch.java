@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.Arrays;
+import gpv.Piece;
+
+/**
+ * The changes a Board has collected for its BoardChangeListeners since it
+ * last told them. Each square is listed once, with the piece it held when
+ * first changed and the one it holds last, so a batch costs one slot per
+ * square touched however often it is touched. A Board only has one while
+ * it has change listeners.
+ * @version Oct 19, 2026
+ */
+final class ChangeBatch
+{
+	private int[] slots;	// [square] 1 + the position of the square in the list, 0 if not listed
+	private int[] squares = new int[8];
+	private Piece[] oldPieces = new Piece[8];
+	private Piece[] newPieces = new Piece[8];
+	private int size;
+	private boolean wholeBoard;
+
+	/**
+	 * @param squareCount the number of squares of the board
+	 */
+	ChangeBatch(int squareCount)
+	{
+		slots = new int[squareCount];
+	}
+
+	/**
+	 * @param square the index of a square on the board
+	 * @param old the piece that was on it
+	 * @param now the piece that is on it now
+	 */
+	void record(int square, Piece old, Piece now)
+	{
+		if (wholeBoard) {
+			return;
+		}
+		int slot = slots[square];
+		if (slot != 0) {
+			newPieces[slot - 1] = now;
+			return;
+		}
+		if (size == squares.length) {
+			squares = Arrays.copyOf(squares, size * 2);
+			oldPieces = Arrays.copyOf(oldPieces, size * 2);
+			newPieces = Arrays.copyOf(newPieces, size * 2);
+		}
+		squares[size] = square;
+		oldPieces[size] = old;
+		newPieces[size] = now;
+		slots[square] = ++size;
+	}
+
+	/**
+	 * Forget the squares listed so far: the board was laid out again, and
+	 * its squares numbered anew.
+	 * @param squareCount the new number of squares
+	 */
+	void markWholeBoard(int squareCount)
+	{
+		clear();
+		slots = new int[squareCount];
+		wholeBoard = true;
+	}
+
+	/**
+	 * @param board the board the changes were made to
+	 * @return the changes collected, or null if there are none; the batch
+	 * 	starts again empty
+	 */
+	BoardChange drain(Board board)
+	{
+		BoardChange change = null;
+		if (wholeBoard) {
+			change = new BoardChange(board, new int[0], new Piece[0], new Piece[0], true);
+		} else {
+			int n = 0;
+			for (int i = 0; i < size; i++) {
+				if (oldPieces[i] != newPieces[i]) {
+					n++;
+				}
+			}
+			if (n > 0) {
+				int[] changedSquares = new int[n];
+				Piece[] changedOld = new Piece[n];
+				Piece[] changedNew = new Piece[n];
+				n = 0;
+				for (int i = 0; i < size; i++) {
+					if (oldPieces[i] != newPieces[i]) {
+						changedSquares[n] = squares[i];
+						changedOld[n] = oldPieces[i];
+						changedNew[n++] = newPieces[i];
+					}
+				}
+				change = new BoardChange(board, changedSquares, changedOld, changedNew, false);
+			}
+		}
+		clear();
+		return change;
+	}
+
+	private void clear()
+	{
+		for (int i = 0; i < size; i++) {
+			slots[squares[i]] = 0;
+			oldPieces[i] = null;
+			newPieces[i] = null;
+		}
+		size = 0;
+		wholeBoard = false;
+	}
+}
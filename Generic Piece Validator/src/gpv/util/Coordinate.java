@@ -12,8 +12,6 @@
 
 package gpv.util;
 
-import java.awt.Point;
-
 /**
  * This class represents a two-dimensional coordinate that would be
  * used in a rectangular board. No assumptions are made about the actual
@@ -23,11 +21,15 @@ import java.awt.Point;
  * used as keys in collections that use hashing (e.g. HashMap) and a
  * toString() to print the coordinate in some readable form. This is
  * useful for debugging.
+ * <br/>
+ * A Coordinate is an immutable pair of ints and does not depend on AWT.
  * 
  * @version Feb 21, 2020
  */
-public class Coordinate extends Point
+public final class Coordinate
 {
+	private final int row;
+	private final int column;
 	
 	/**
 	 * The only constructor. It is private to avoid any client from
@@ -38,8 +40,8 @@ public class Coordinate extends Point
 	 */
 	private Coordinate(int row, int column)
 	{
-		this.x = row;
-		this.y = column;
+		this.row = row;
+		this.column = column;
 	}
 	
 	/**
@@ -60,7 +62,7 @@ public class Coordinate extends Point
 	 */
 	public int getRow()
 	{
-		return this.x;
+		return row;
 	}
 	
 	/**
@@ -68,7 +70,7 @@ public class Coordinate extends Point
 	 */
 	public int getColumn()
 	{
-		return this.y;
+		return column;
 	}
 
 	/*
@@ -77,7 +79,7 @@ public class Coordinate extends Point
 	@Override
 	public int hashCode()
 	{
-		return super.hashCode();
+		return 31 * row + column;
 	}
 
 	/*
@@ -89,13 +91,11 @@ public class Coordinate extends Point
 		if (this == obj) {
 			return true;
 		}
-		if (!super.equals(obj)) {
-			return false;
-		}
 		if (!(obj instanceof Coordinate)) {
 			return false;
 		}
-		return true;
+		Coordinate other = (Coordinate) obj;
+		return row == other.row && column == other.column;
 	}
 
 	/*
@@ -104,6 +104,6 @@ public class Coordinate extends Point
 	@Override
 	public String toString()
 	{
-		return "(" + x + ", " + y + ")";
+		return "(" + row + ", " + column + ")";
 	}
 }
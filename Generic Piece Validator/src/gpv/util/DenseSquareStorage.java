@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.Arrays;
+import gpv.Piece;
+
+/**
+ * Square storage backed by one flat array with a slot for every square.
+ * Lookups are a single array read. This is the right choice for small
+ * boards and for large boards that are well populated.
+ * @version Oct 19, 2026
+ */
+final class DenseSquareStorage extends SquareStorage
+{
+	private final Piece[] squares;
+	private int size;
+
+	/**
+	 * @param nSquares the number of squares on the board
+	 */
+	DenseSquareStorage(int nSquares)
+	{
+		squares = new Piece[nSquares];
+		size = 0;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#get(int)
+	 */
+	@Override
+	Piece get(int square)
+	{
+		return squares[square];
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#put(int, gpv.Piece)
+	 */
+	@Override
+	Piece put(int square, Piece piece)
+	{
+		Piece old = squares[square];
+		squares[square] = piece;
+		if (old == null && piece != null) {
+			size++;
+		} else if (old != null && piece == null) {
+			size--;
+		}
+		return old;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#size()
+	 */
+	@Override
+	int size()
+	{
+		return size;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#clear()
+	 */
+	@Override
+	void clear()
+	{
+		if (size > 0) {
+			Arrays.fill(squares, null);
+			size = 0;
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#forEach(gpv.util.SquareStorage.SquareVisitor)
+	 */
+	@Override
+	void forEach(SquareVisitor visitor)
+	{
+		int remaining = size;
+		for (int square = 0; remaining > 0 && square < squares.length; square++) {
+			if (squares[square] != null) {
+				visitor.visit(square, squares[square]);
+				remaining--;
+			}
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#copy()
+	 */
+	@Override
+	SquareStorage copy()
+	{
+		DenseSquareStorage copy = new DenseSquareStorage(squares.length);
+		copy.copyFrom(this);
+		return copy;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#copyFrom(gpv.util.SquareStorage)
+	 */
+	@Override
+	boolean copyFrom(SquareStorage other)
+	{
+		if (!(other instanceof DenseSquareStorage)
+				|| ((DenseSquareStorage) other).squares.length != squares.length) {
+			return false;
+		}
+		DenseSquareStorage dense = (DenseSquareStorage) other;
+		System.arraycopy(dense.squares, 0, squares, 0, squares.length);
+		size = dense.size;
+		copyMovedFrom(other);
+		return true;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#isDense()
+	 */
+	@Override
+	boolean isDense()
+	{
+		return true;
+	}
+}
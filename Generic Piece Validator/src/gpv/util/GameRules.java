@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+/**
+ * Something the rules of a game keep with its Board, such as where the
+ * castling pieces of a Chess960 game start (see gpv.chess.CastlingTable).
+ * Copies of a board share it, so it must not change once it is set.
+ * @version Oct 19, 2026
+ */
+public interface GameRules
+{
+	/**
+	 * @param rows the number of rows of a board
+	 * @param columns the number of columns
+	 * @return true if these rules can be kept with a board of that size
+	 */
+	boolean fits(int rows, int columns);
+}
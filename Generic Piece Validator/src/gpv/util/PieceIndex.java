@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.*;
+import gpv.Piece;
+import gpv.PieceDescriptor;
+
+/**
+ * Keeps, for every piece descriptor, the set of squares holding a piece with
+ * that descriptor. The Board updates it on every change so that questions like
+ * "where is the white king" do not have to look at every square.
+ * <br/>
+ * On boards of up to MAX_MASK_SQUARES squares, descriptors that are enum
+ * constants (the usual case) get a bitmask row, one bit per square, and all
+ * rows live in a single long array. That keeps the index small and cheap to
+ * copy. Other descriptors, and every descriptor on bigger boards, get a
+ * compact list of square indices instead.
+ * @version Oct 19, 2026
+ */
+final class PieceIndex
+{
+	static final int MAX_MASK_SQUARES = 4096;
+
+	private final int words;	// longs per bitmask row, 0 if rows are not used
+	private long[] masks = new long[0];	// [ordinal * words + word]
+	private PieceDescriptor[] rowOwner = new PieceDescriptor[0];
+	private Map<PieceDescriptor, SquareList> lists;
+
+	/**
+	 * Receives the squares found by a query.
+	 */
+	@FunctionalInterface
+	interface SquareConsumer
+	{
+		void accept(int square);
+	}
+
+	/**
+	 * The squares occupied by pieces of one descriptor when there is no mask row.
+	 * Removal swaps the last entry into the hole, so the order is unspecified.
+	 */
+	private static final class SquareList
+	{
+		private int[] squares = new int[4];
+		private int size;
+
+		private void add(int square)
+		{
+			if (size == squares.length) {
+				squares = Arrays.copyOf(squares, size * 2);
+			}
+			squares[size++] = square;
+		}
+
+		private void remove(int square)
+		{
+			for (int i = 0; i < size; i++) {
+				if (squares[i] == square) {
+					squares[i] = squares[--size];
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param nSquares the number of squares on the board
+	 */
+	PieceIndex(int nSquares)
+	{
+		words = nSquares <= MAX_MASK_SQUARES ? (nSquares + 63) >>> 6 : 0;
+	}
+
+	/**
+	 * Record that the piece on a square changed.
+	 * @param square the square index
+	 * @param old the piece that was there, or null
+	 * @param now the piece that is there now, or null
+	 */
+	void replace(int square, Piece old, Piece now)
+	{
+		if (old != null && old.getDescriptor() != null) {
+			PieceDescriptor d = old.getDescriptor();
+			int row = row(d);
+			if (row >= 0) {
+				masks[row * words + (square >>> 6)] &= ~(1L << square);
+			} else if (lists != null && lists.containsKey(d)) {
+				lists.get(d).remove(square);
+			}
+		}
+		if (now != null && now.getDescriptor() != null) {
+			PieceDescriptor d = now.getDescriptor();
+			int row = createRow(d);
+			if (row >= 0) {
+				masks[row * words + (square >>> 6)] |= 1L << square;
+			} else {
+				if (lists == null) {
+					lists = new IdentityHashMap<PieceDescriptor, SquareList>();
+				}
+				lists.computeIfAbsent(d, k -> new SquareList()).add(square);
+			}
+		}
+	}
+
+	/**
+	 * Overwrite this index with another one for a board of the same size,
+	 * reusing this index's arrays when they are the right size.
+	 * @param other the index to copy
+	 */
+	void copyFrom(PieceIndex other)
+	{
+		if (masks.length == other.masks.length) {
+			System.arraycopy(other.masks, 0, masks, 0, masks.length);
+		} else {
+			masks = other.masks.clone();
+		}
+		if (rowOwner.length == other.rowOwner.length) {
+			System.arraycopy(other.rowOwner, 0, rowOwner, 0, rowOwner.length);
+		} else {
+			rowOwner = other.rowOwner.clone();
+		}
+		lists = null;
+		if (other.lists != null) {
+			lists = new IdentityHashMap<PieceDescriptor, SquareList>();
+			for (Map.Entry<PieceDescriptor, SquareList> e : other.lists.entrySet()) {
+				SquareList copy = new SquareList();
+				copy.squares = e.getValue().squares.clone();
+				copy.size = e.getValue().size;
+				lists.put(e.getKey(), copy);
+			}
+		}
+	}
+
+	/**
+	 * Forget every piece.
+	 */
+	void clear()
+	{
+		Arrays.fill(masks, 0L);
+		lists = null;
+	}
+
+	/**
+	 * @param descriptor the descriptor
+	 * @return the number of squares holding that descriptor
+	 */
+	int count(PieceDescriptor descriptor)
+	{
+		int row = row(descriptor);
+		if (row >= 0) {
+			int count = 0;
+			for (int w = row * words, end = w + words; w < end; w++) {
+				count += Long.bitCount(masks[w]);
+			}
+			return count;
+		}
+		SquareList list = lists == null ? null : lists.get(descriptor);
+		return list == null ? 0 : list.size;
+	}
+
+	/**
+	 * @param descriptor the descriptor
+	 * @return one square holding that descriptor, or -1 if there is none
+	 */
+	int first(PieceDescriptor descriptor)
+	{
+		int row = row(descriptor);
+		if (row >= 0) {
+			for (int w = 0; w < words; w++) {
+				long bits = masks[row * words + w];
+				if (bits != 0) {
+					return (w << 6) + Long.numberOfTrailingZeros(bits);
+				}
+			}
+			return -1;
+		}
+		SquareList list = lists == null ? null : lists.get(descriptor);
+		return list == null || list.size == 0 ? -1 : list.squares[0];
+	}
+
+	/**
+	 * Report every square holding the descriptor.
+	 * @param descriptor the descriptor
+	 * @param consumer receives the squares
+	 */
+	void forEach(PieceDescriptor descriptor, SquareConsumer consumer)
+	{
+		int row = row(descriptor);
+		if (row >= 0) {
+			for (int w = 0; w < words; w++) {
+				long bits = masks[row * words + w];
+				while (bits != 0) {
+					consumer.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+					bits &= bits - 1;
+				}
+			}
+			return;
+		}
+		SquareList list = lists == null ? null : lists.get(descriptor);
+		for (int i = 0; list != null && i < list.size; i++) {
+			consumer.accept(list.squares[i]);
+		}
+	}
+
+	/**
+	 * Store every square holding the descriptor in an array.
+	 * @param descriptor the descriptor
+	 * @param into the array, which must have room for them
+	 * @param offset where to store the first square
+	 * @return the offset after the last square stored
+	 */
+	int collect(PieceDescriptor descriptor, int[] into, int offset)
+	{
+		int row = row(descriptor);
+		if (row >= 0) {
+			for (int w = 0; w < words; w++) {
+				long bits = masks[row * words + w];
+				while (bits != 0) {
+					into[offset++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+				}
+			}
+			return offset;
+		}
+		SquareList list = lists == null ? null : lists.get(descriptor);
+		if (list != null) {
+			System.arraycopy(list.squares, 0, into, offset, list.size);
+			offset += list.size;
+		}
+		return offset;
+	}
+
+	/**
+	 * @return the mask row of the descriptor, or -1 if it has none
+	 */
+	private int row(PieceDescriptor descriptor)
+	{
+		if (words > 0 && descriptor instanceof Enum) {
+			int ordinal = ((Enum<?>) descriptor).ordinal();
+			if (ordinal < rowOwner.length && rowOwner[ordinal] == descriptor) {
+				return ordinal;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the mask row of the descriptor, made if needed, or -1 if it
+	 * 	cannot have one
+	 */
+	private int createRow(PieceDescriptor descriptor)
+	{
+		if (words == 0 || !(descriptor instanceof Enum)) {
+			return -1;
+		}
+		int ordinal = ((Enum<?>) descriptor).ordinal();
+		if (ordinal >= rowOwner.length) {
+			int rows = Math.max(ordinal + 1, 12);
+			rowOwner = Arrays.copyOf(rowOwner, rows);
+			masks = Arrays.copyOf(masks, rows * words);
+		}
+		if (rowOwner[ordinal] == null) {
+			rowOwner[ordinal] = descriptor;
+		}
+		return rowOwner[ordinal] == descriptor ? ordinal : -1;
+	}
+}
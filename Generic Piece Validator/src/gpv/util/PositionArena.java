@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import gpv.Piece;
+
+/**
+ * Off-heap storage for large numbers of positions of one board size. Each
+ * position is a fixed-size record in direct (off-heap) memory: half a byte
+ * per square for the piece, as an index into a palette of up to 15 pieces,
+ * and one bit per square for the moved state. An 8x8 position takes 40
+ * bytes, and the garbage collector never has to look at it.
+ * <br/>
+ * view() returns a Board that reads and writes a record in place, so
+ * ChessPiece#canMove and everything else that takes a Board works on
+ * arena positions without copying them. The palette pieces are shared, so
+ * they should be immutable pieces such as the shared chess pieces. Moved
+ * state is taken from the board (see Board#hasMoved) and kept by the
+ * record.
+ * <code>
+ * 	PositionArena arena = new PositionArena(8, 8, 1_000_000, ChessPieceFactory.sharedPieces());
+ * 	int position = arena.add(board);
+ * 	Board view = arena.view(position);
+ * </code>
+ * An arena is not thread safe for writes. Threads that only read may share
+ * it, each with its own views.
+ * @version Oct 19, 2026
+ */
+public final class PositionArena
+{
+	private static final int MAX_PALETTE = 15;
+	private static final int CHUNK_BYTES = 1 << 30;
+
+	private final int rows;
+	private final int columns;
+	private final int recordBytes;
+	private final int chunkRecords;
+	private final Piece[] palette;
+	private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+	private final ArenaSquareStorage writer;
+	private int size;
+
+	/**
+	 * @param rows the number of rows of every position
+	 * @param columns the number of columns of every position
+	 * @param expected the number of positions to reserve memory for; more
+	 * 	memory is added in chunks of this size, up to 1GB each
+	 * @param palette the pieces positions may hold, at most 15
+	 */
+	public PositionArena(int rows, int columns, int expected, Piece... palette)
+	{
+		if (rows < 1 || columns < 1) {
+			throw new IllegalArgumentException("an arena needs at least one square");
+		}
+		if (palette.length == 0 || palette.length > MAX_PALETTE) {
+			throw new IllegalArgumentException("the palette must have 1 to " + MAX_PALETTE + " pieces");
+		}
+		this.rows = rows;
+		this.columns = columns;
+		this.palette = palette.clone();
+		recordBytes = ArenaSquareStorage.recordBytes(rows * columns);
+		chunkRecords = Math.min(Math.max(1, CHUNK_BYTES / recordBytes), Math.max(expected, 1));
+		writer = new ArenaSquareStorage(this.palette, rows * columns, null, 0);
+		reserve(Math.max(expected, 1));
+	}
+
+	/**
+	 * Store a position in a new record.
+	 * @param board a board of the arena's size; pieces off the board are left out
+	 * @return the number of the position
+	 */
+	public int add(Board board)
+	{
+		reserve(size + 1);
+		int position = size++;
+		store(position, board);
+		return position;
+	}
+
+	/**
+	 * Overwrite a position.
+	 * @param position the number of the position
+	 * @param board a board of the arena's size
+	 */
+	public void store(int position, Board board)
+	{
+		checkPosition(position);
+		if (board.getnRows() != rows || board.getnColumns() != columns) {
+			throw new IllegalArgumentException("the board is not " + rows + "x" + columns);
+		}
+		aim(writer, position);
+		writer.clear();
+		writer.clearMoved();
+		for (int square = 0; square < rows * columns; square++) {
+			Piece p = board.getPieceAt(square);
+			if (p != null) {
+				writer.put(square, p);
+				if (board.hasMoved(square)) {
+					writer.setMoved(square, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param position the number of the position
+	 * @return a board that reads and writes the position in place
+	 */
+	public Board view(int position)
+	{
+		checkPosition(position);
+		ArenaSquareStorage storage = new ArenaSquareStorage(palette, rows * columns, null, 0);
+		aim(storage, position);
+		return new Board(rows, columns, storage);
+	}
+
+	/**
+	 * Point an existing view at another position, which allocates nothing.
+	 * @param view a board returned by view() on this arena
+	 * @param position the number of the position
+	 */
+	public void point(Board view, int position)
+	{
+		checkPosition(position);
+		SquareStorage storage = view.getStorage();
+		if (!(storage instanceof ArenaSquareStorage) || !((ArenaSquareStorage) storage).uses(palette)) {
+			throw new IllegalArgumentException("the board is not a view of this arena");
+		}
+		aim((ArenaSquareStorage) storage, position);
+		view.attach(storage);
+	}
+
+	/**
+	 * @return the number of positions stored
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return the number of bytes each position takes
+	 */
+	public int getRecordBytes()
+	{
+		return recordBytes;
+	}
+
+	/**
+	 * @return the off-heap memory reserved, in bytes
+	 */
+	public long getReservedBytes()
+	{
+		long bytes = 0;
+		for (ByteBuffer chunk : chunks) {
+			bytes += chunk.capacity();
+		}
+		return bytes;
+	}
+
+	private void aim(ArenaSquareStorage storage, int position)
+	{
+		storage.aim(chunks.get(position / chunkRecords), (position % chunkRecords) * recordBytes);
+	}
+
+	private void checkPosition(int position)
+	{
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("no position " + position + " in an arena of " + size);
+		}
+	}
+
+	/**
+	 * Add fixed-size chunks until there is room for the given number of
+	 * records. Chunks never move, because views point into them.
+	 */
+	private void reserve(int records)
+	{
+		while ((long) chunks.size() * chunkRecords < records) {
+			chunks.add(ByteBuffer.allocateDirect(chunkRecords * recordBytes));
+		}
+	}
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.Arrays;
+import gpv.Piece;
+
+/**
+ * Square storage backed by an open addressing hash table keyed by the
+ * primitive square index. Collisions are resolved with linear probing and
+ * removals use backward shifting, so there are no tombstones. Memory use
+ * is proportional to the number of pieces, not the number of squares.
+ * @version Oct 19, 2026
+ */
+final class SparseSquareStorage extends SquareStorage
+{
+	private static final int MIN_CAPACITY = 16;
+	private static final int EMPTY = -1;
+
+	private int[] keys;
+	private Piece[] values;
+	private int mask;
+	private int size;
+
+	/**
+	 * @param expectedPieces a hint for the number of pieces that will be stored
+	 */
+	SparseSquareStorage(int expectedPieces)
+	{
+		allocate(capacityFor(expectedPieces));
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#get(int)
+	 */
+	@Override
+	Piece get(int square)
+	{
+		int slot = mix(square) & mask;
+		int key;
+		while ((key = keys[slot]) != EMPTY) {
+			if (key == square) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#put(int, gpv.Piece)
+	 */
+	@Override
+	Piece put(int square, Piece piece)
+	{
+		if (piece == null) {
+			return remove(square);
+		}
+		int slot = mix(square) & mask;
+		int key;
+		while ((key = keys[slot]) != EMPTY) {
+			if (key == square) {
+				Piece old = values[slot];
+				values[slot] = piece;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = square;
+		values[slot] = piece;
+		if (++size * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+		return null;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#size()
+	 */
+	@Override
+	int size()
+	{
+		return size;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#clear()
+	 */
+	@Override
+	void clear()
+	{
+		if (size > 0) {
+			Arrays.fill(keys, EMPTY);
+			Arrays.fill(values, null);
+			size = 0;
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#forEach(gpv.util.SquareStorage.SquareVisitor)
+	 */
+	@Override
+	void forEach(SquareVisitor visitor)
+	{
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != EMPTY) {
+				visitor.visit(keys[slot], values[slot]);
+			}
+		}
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#copy()
+	 */
+	@Override
+	SquareStorage copy()
+	{
+		SparseSquareStorage copy = new SparseSquareStorage(0);
+		copy.keys = keys.clone();
+		copy.values = values.clone();
+		copy.mask = mask;
+		copy.size = size;
+		copy.copyMovedFrom(this);
+		return copy;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#copyFrom(gpv.util.SquareStorage)
+	 */
+	@Override
+	boolean copyFrom(SquareStorage other)
+	{
+		if (!(other instanceof SparseSquareStorage)
+				|| ((SparseSquareStorage) other).keys.length != keys.length) {
+			return false;
+		}
+		SparseSquareStorage sparse = (SparseSquareStorage) other;
+		System.arraycopy(sparse.keys, 0, keys, 0, keys.length);
+		System.arraycopy(sparse.values, 0, values, 0, values.length);
+		size = sparse.size;
+		copyMovedFrom(other);
+		return true;
+	}
+
+	/*
+	 * @see gpv.util.SquareStorage#isDense()
+	 */
+	@Override
+	boolean isDense()
+	{
+		return false;
+	}
+
+	/**
+	 * Remove the entry for a square and shift any entries in the same probe
+	 * run back so that lookups never stop early.
+	 * @param square the square index
+	 * @return the piece that was removed or null
+	 */
+	private Piece remove(int square)
+	{
+		int slot = mix(square) & mask;
+		int key;
+		while ((key = keys[slot]) != EMPTY) {
+			if (key == square) {
+				Piece old = values[slot];
+				shiftBack(slot);
+				size--;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	private void shiftBack(int hole)
+	{
+		int slot = hole;
+		while (true) {
+			slot = (slot + 1) & mask;
+			int key = keys[slot];
+			if (key == EMPTY) {
+				break;
+			}
+			int home = mix(key) & mask;
+			// move the entry into the hole unless its home lies cyclically in (hole, slot]
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				keys[hole] = key;
+				values[hole] = values[slot];
+				hole = slot;
+			}
+		}
+		keys[hole] = EMPTY;
+		values[hole] = null;
+	}
+
+	private void rehash(int capacity)
+	{
+		int[] oldKeys = keys;
+		Piece[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = mix(oldKeys[i]) & mask;
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new Piece[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int capacityFor(int expected)
+	{
+		int capacity = MIN_CAPACITY;
+		while (capacity < expected * 2) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Square indices are consecutive, so spread them before masking.
+	 */
+	private static int mix(int square)
+	{
+		int h = square * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
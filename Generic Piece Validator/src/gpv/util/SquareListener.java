@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import gpv.Piece;
+
+/**
+ * Implemented by structures that are derived from the contents of a Board and
+ * keep themselves up to date incrementally. Squares are given as the board's
+ * square indices (see Board#squareOf).
+ * @version Oct 19, 2026
+ */
+public interface SquareListener
+{
+	/**
+	 * Called after the piece on one square of the board changed.
+	 * @param board the board
+	 * @param square the index of the square that changed
+	 * @param old the piece that was on the square, or null
+	 * @param now the piece that is on the square now, or null
+	 */
+	void squareChanged(Board board, int square, Piece old, Piece now);
+
+	/**
+	 * Called after the whole board was replaced at once, for example by
+	 * Board#reset or a change of the board dimensions. Listeners should
+	 * rebuild from scratch.
+	 * @param board the board
+	 */
+	void boardReset(Board board);
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import java.util.Arrays;
+import gpv.Piece;
+
+/**
+ * The storage engine behind a Board. Squares are addressed by their index,
+ * row-major and zero based, so that the storage never has to deal with
+ * Coordinate instances. The Board decides which implementation to use.
+ * <br/>
+ * Besides the pieces, a storage keeps one "has moved" bit per square. The
+ * bits are allocated on first use, so boards that never record moves do not
+ * pay for them.
+ * @version Oct 19, 2026
+ */
+abstract class SquareStorage
+{
+	private long[] moved;
+
+	/**
+	 * Callback used to walk the occupied squares of a storage.
+	 */
+	@FunctionalInterface
+	interface SquareVisitor
+	{
+		void visit(int square, Piece piece);
+	}
+
+	/**
+	 * @param square the square index
+	 * @return the piece on the square or null if it is empty
+	 */
+	abstract Piece get(int square);
+
+	/**
+	 * Place a piece on a square. A null piece empties the square.
+	 * @param square the square index
+	 * @param piece the piece to place, or null
+	 * @return the piece that was previously on the square, or null
+	 */
+	abstract Piece put(int square, Piece piece);
+
+	/**
+	 * @return the number of occupied squares
+	 */
+	abstract int size();
+
+	/**
+	 * Empty every square.
+	 */
+	abstract void clear();
+
+	/**
+	 * Visit every occupied square. The order is unspecified.
+	 * @param visitor the callback
+	 */
+	abstract void forEach(SquareVisitor visitor);
+
+	/**
+	 * @return true if this storage is a flat array over every square
+	 */
+	abstract boolean isDense();
+
+	/**
+	 * @return an independent copy of this storage, moved bits included
+	 */
+	abstract SquareStorage copy();
+
+	/**
+	 * Overwrite this storage with the contents of another one without
+	 * allocating, if the two have the same shape.
+	 * @param other the storage to copy
+	 * @return true if the copy was made, false if the shapes differ and
+	 * 	nothing was changed
+	 */
+	abstract boolean copyFrom(SquareStorage other);
+
+	/**
+	 * @param square the square index
+	 * @return true if the piece on the square is marked as having moved
+	 */
+	boolean isMoved(int square)
+	{
+		int word = square >>> 6;
+		return moved != null && word < moved.length && (moved[word] & (1L << square)) != 0;
+	}
+
+	/**
+	 * @param square the square index
+	 * @param isMoved the new value of the square's moved bit
+	 */
+	void setMoved(int square, boolean isMoved)
+	{
+		int word = square >>> 6;
+		if (isMoved) {
+			if (moved == null || word >= moved.length) {
+				moved = moved == null ? new long[word + 1] : Arrays.copyOf(moved, word + 1);
+			}
+			moved[word] |= 1L << square;
+		} else if (moved != null && word < moved.length) {
+			moved[word] &= ~(1L << square);
+		}
+	}
+
+	/**
+	 * Clear every moved bit.
+	 */
+	void clearMoved()
+	{
+		if (moved != null) {
+			Arrays.fill(moved, 0L);
+		}
+	}
+
+	/**
+	 * Copy the moved bits of another storage, reusing this storage's array
+	 * when it is the right size.
+	 * @param other the storage to copy from
+	 */
+	void copyMovedFrom(SquareStorage other)
+	{
+		long[] others = other.movedWords();
+		if (others == null) {
+			clearMoved();
+		} else if (moved != null && moved.length == others.length) {
+			System.arraycopy(others, 0, moved, 0, moved.length);
+		} else {
+			moved = others.clone();
+		}
+	}
+
+	/**
+	 * Take over the moved bits of another storage for the same squares.
+	 * @param other the storage being replaced
+	 */
+	void takeMovedFrom(SquareStorage other)
+	{
+		moved = other.movedWords();
+	}
+
+	/**
+	 * @return the moved bits, one per square in 64-bit words, or null if
+	 * 	none has been set. Storages that keep the bits elsewhere build the
+	 * 	array on request.
+	 */
+	long[] movedWords()
+	{
+		return moved;
+	}
+}
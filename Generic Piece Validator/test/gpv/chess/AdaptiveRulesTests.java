@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for the rules that reorder their checks as they learn.
+ * @version Oct 19, 2026
+ */
+class AdaptiveRulesTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+	}
+
+	@Test
+	void answersAsChessRulesWhileReordering()
+	{
+		AdaptiveRules rules = new AdaptiveRules(3, 50);
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int n = 0; n < 200; n++) {
+			board = new Board(8, 8);
+			for (int i = random.nextInt(16); i >= 0; i--) {
+				put(all[random.nextInt(all.length)], random.nextInt(8) + 1, random.nextInt(8) + 1);
+			}
+			if (random.nextBoolean()) {
+				GameState.start(board, PlayerColor.WHITE);
+			}
+			for (int from = 0; from < 64; from++) {
+				ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+				if (piece == null) {
+					continue;
+				}
+				Coordinate f = board.coordinateOf(from);
+				for (int row = 0; row <= 9; row++) {
+					for (int column = 0; column <= 9; column++) {
+						Coordinate t = makeCoordinate(row, column);
+						assertEquals(f + " " + t, ChessRules.getRules(piece.getName()).allowed(f, t, board),
+								rules.allowed(f, t, board));
+					}
+				}
+			}
+		}
+		assertEquals(3, rules.getOrder(PieceName.ROOK).size());
+		assertEquals(1, rules.getOrder(PieceName.KING).size());
+	}
+
+	@Test
+	void aCheckThatNeverRejectsGoesLast()
+	{
+		put(WHITEROOK, 4, 4);
+		AdaptiveRules rules = new AdaptiveRules(1, 1000);
+		Coordinate from = makeCoordinate(4, 4);
+		for (int i = 0; i < 100; i++) {
+			rules.allowed(from, makeCoordinate(9, 4), board);	// off the board, in a straight line
+			rules.allowed(from, makeCoordinate(5, 5), board);	// on the board, not straight
+		}
+		rules.reorder();
+		assertEquals("availableSpace", rules.getOrder(PieceName.ROOK).get(2));
+		for (AdaptiveRules.CheckStats stats : rules.getStatistics(PieceName.ROOK)) {
+			assertEquals(200, stats.getSamples());
+		}
+	}
+
+	@Test
+	void theOnlyRejectingCheckGoesFirst()
+	{
+		put(WHITEROOK, 4, 4);
+		put(WHITEPAWN, 4, 5);
+		AdaptiveRules rules = new AdaptiveRules(1, 10);
+		for (int i = 0; i < 100; i++) {
+			assertFalse(rules.allowed(makeCoordinate(4, 4), makeCoordinate(4, 5), board));
+		}
+		assertEquals("availableSpace", rules.getOrder(PieceName.ROOK).get(0));
+		assertEquals(1.0, rules.getStatistics(PieceName.ROOK).get(0).getRejectionRate(), 0);
+	}
+
+	@Test
+	void periodsMustBePositive()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveRules(0, 10));
+	}
+
+	private void put(ChessPieceDescriptor d, int row, int column)
+	{
+		board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for the asynchronous validation facade.
+ * @version Oct 19, 2026
+ */
+class AsyncValidatorTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory(true);
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		board.putPieceAt(factory.makePiece(WHITEQUEEN), makeCoordinate(1, 4));
+		board.putPieceAt(factory.makePiece(WHITEKNIGHT), makeCoordinate(1, 2));
+		board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(4, 4));
+	}
+
+	@Test
+	void answersMatchCanMove() throws Exception
+	{
+		ForkJoinPool pool = AsyncValidator.forkJoin(2);
+		try {
+			AsyncValidator validator = new AsyncValidator(pool, true);
+			Map<CompletableFuture<Boolean>, Boolean> expected = new HashMap<CompletableFuture<Boolean>, Boolean>();
+			for (int from = 0; from < 64; from++) {
+				for (int to = 0; to < 64; to++) {
+					Coordinate f = board.coordinateOf(from);
+					Coordinate t = board.coordinateOf(to);
+					ChessPiece piece = (ChessPiece) board.getPieceAt(f);
+					expected.put(validator.validateAsync(board, f, t), piece != null && piece.canMove(f, t, board));
+				}
+			}
+			for (Map.Entry<CompletableFuture<Boolean>, Boolean> e : expected.entrySet()) {
+				assertEquals(e.getValue(), e.getKey().get(10, TimeUnit.SECONDS));
+			}
+			assertEquals(64 * 64, validator.getRequestCount());
+			assertEquals(validator.getRequestCount(), validator.getLatency().getCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void duplicatesInFlightShareOneValidation() throws Exception
+	{
+		Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		AsyncValidator validator = new AsyncValidator(tasks::add, true);
+		Board same = board.copy();
+		CompletableFuture<Boolean> first = validator.validateAsync(board, makeCoordinate(1, 4), makeCoordinate(3, 4));
+		CompletableFuture<Boolean> second = validator.validateAsync(same, makeCoordinate(1, 4), makeCoordinate(3, 4));
+		CompletableFuture<Boolean> other = validator.validateAsync(board, makeCoordinate(1, 4), makeCoordinate(5, 4));
+		assertEquals(2, tasks.size());
+		assertEquals(2, validator.getQueueDepth());
+		assertEquals(2, validator.getInFlight());
+		assertEquals(1, validator.getCoalescedCount());
+		second.cancel(false);
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+		assertTrue(first.get());
+		assertFalse(other.get());
+		assertEquals(0, validator.getQueueDepth());
+		assertEquals(0, validator.getInFlight());
+		assertEquals(2, validator.getQueueLatency().getCount());
+		assertEquals(3, validator.getLatency().getCount());
+	}
+
+	@Test
+	void onlyTheSamePositionSharesAnAnswer()
+	{
+		Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+		AsyncValidator validator = new AsyncValidator(tasks::add, true);
+		Board started = board.copy();
+		GameState.start(started, PlayerColor.WHITE);
+		Board rebuilt = new Board(8, 8);
+		rebuilt.putPieceAt(new ChessPiece(WHITEQUEEN), makeCoordinate(1, 4));
+		rebuilt.putPieceAt(new ChessPiece(WHITEKNIGHT), makeCoordinate(1, 2));
+		rebuilt.putPieceAt(new ChessPiece(BLACKPAWN), makeCoordinate(4, 4));
+		Board otherRules = board.copy();
+		CastlingTable.chess960(8, 8, 2, 1, 8).attach(otherRules);
+		for (Board b : Arrays.asList(board, started, rebuilt, otherRules)) {
+			validator.validateAsync(b, makeCoordinate(1, 4), makeCoordinate(3, 4));
+		}
+		assertEquals(1, validator.getCoalescedCount());	// rebuilt from equal pieces
+		assertEquals(3, tasks.size());
+	}
+
+	@Test
+	void cheapMovesRunOnTheCaller()
+	{
+		AsyncValidator validator = new AsyncValidator(task -> fail("queued"), true);
+		CompletableFuture<Boolean> knight = validator.validateAsync(board, makeCoordinate(1, 2), makeCoordinate(3, 3));
+		assertTrue(knight.isDone());
+		assertTrue(knight.join());
+		assertFalse(validator.validateAsync(board, makeCoordinate(5, 5), makeCoordinate(6, 6)).join());
+		assertEquals(2, validator.getInlinedCount());
+
+		AsyncValidator callerRuns = new AsyncValidator(AsyncValidator.CALLER_RUNS, false);
+		assertTrue(callerRuns.validateAsync(board, makeCoordinate(1, 4), makeCoordinate(3, 4)).join());
+		assertEquals(0, callerRuns.getInlinedCount());
+	}
+
+	@Test
+	void refusedWorkFailsTheFuture()
+	{
+		AsyncValidator validator = new AsyncValidator(task -> {
+			throw new RejectedExecutionException("full");
+		}, false);
+		CompletableFuture<Boolean> answer = validator.validateAsync(board, makeCoordinate(1, 4), makeCoordinate(3, 4));
+		assertTrue(answer.isCompletedExceptionally());
+		assertEquals(0, validator.getQueueDepth());
+		assertEquals(0, validator.getInFlight());
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.chess.PlayerColor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for the incrementally maintained attack maps.
+ * @version Oct 19, 2026
+ */
+class AttackMapsTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+	private AttackMaps attacks;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		attacks = new AttackMaps(board);
+	}
+
+	@Test
+	void rookAttacksUpToFirstBlocker()
+	{
+		board.putPieceAt(factory.makePiece(WHITEROOK), makeCoordinate(1, 1));
+		board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(5, 1));
+		assertTrue(attacks.isAttacked(makeCoordinate(4, 1), WHITE));
+		assertTrue(attacks.isAttacked(makeCoordinate(5, 1), WHITE));
+		assertFalse(attacks.isAttacked(makeCoordinate(6, 1), WHITE));
+		assertTrue(attacks.isAttacked(makeCoordinate(1, 8), WHITE));
+		assertFalse(attacks.isAttacked(makeCoordinate(1, 8), BLACK));
+
+		board.putPieceAt(null, makeCoordinate(5, 1));
+		assertTrue(attacks.isAttacked(makeCoordinate(8, 1), WHITE));
+		board.putPieceAt(factory.makePiece(WHITEKNIGHT), makeCoordinate(1, 4));
+		assertFalse(attacks.isAttacked(makeCoordinate(1, 5), WHITE));
+	}
+
+	@Test
+	void pawnsAttackDiagonallyForward()
+	{
+		board.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(4, 4));
+		board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(6, 6));
+		assertTrue(attacks.isAttacked(makeCoordinate(5, 3), WHITE));
+		assertTrue(attacks.isAttacked(makeCoordinate(5, 5), WHITE));
+		assertFalse(attacks.isAttacked(makeCoordinate(5, 4), WHITE));
+		assertTrue(attacks.isAttacked(makeCoordinate(5, 5), BLACK));
+		assertTrue(attacks.isAttacked(makeCoordinate(5, 7), BLACK));
+		assertFalse(attacks.isAttacked(makeCoordinate(3, 3), WHITE));
+	}
+
+	@Test
+	void attackersOfListsEveryAttacker()
+	{
+		board.putPieceAt(factory.makePiece(BLACKQUEEN), makeCoordinate(8, 4));
+		board.putPieceAt(factory.makePiece(BLACKKNIGHT), makeCoordinate(6, 5));
+		board.putPieceAt(factory.makePiece(BLACKBISHOP), makeCoordinate(7, 3));
+		Set<Coordinate> attackers = new HashSet<Coordinate>(
+				attacks.attackersOf(makeCoordinate(4, 4), BLACK));
+		assertEquals(new HashSet<Coordinate>(Arrays.asList(
+				makeCoordinate(8, 4), makeCoordinate(6, 5))), attackers);
+		assertEquals(2, attacks.attackCount(makeCoordinate(4, 4), BLACK));
+	}
+
+	@Test
+	void incrementalMapsMatchAFreshScan()
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int i = 0; i < 2000; i++) {
+			Coordinate c = makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1);
+			board.putPieceAt(random.nextInt(3) == 0 ? null
+					: factory.makePiece(all[random.nextInt(all.length)]), c);
+			if (i % 50 == 0) {
+				for (int row = 1; row <= 8; row++) {
+					for (int column = 1; column <= 8; column++) {
+						Coordinate square = makeCoordinate(row, column);
+						for (PlayerColor color : PlayerColor.values()) {
+							assertEquals(ChessAttacks.attackersOf(board, square, color).size(),
+									attacks.attackCount(square, color));
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.util.Random;
+import gpv.util.*;
+
+/**
+ * Compares the Coordinate rules (ChessRules) with the square index rules
+ * behind canMove(int, int, Board) on random middlegame-like positions. Run it
+ * as a plain Java application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class CanMoveBenchmark
+{
+	private static final int BOARDS = 64;
+	private static final int ROUNDS = 60;
+
+	public static void main(String[] args)
+	{
+		ChessPieceFactory factory = new ChessPieceFactory();
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		Board[] boards = new Board[BOARDS];
+		for (int n = 0; n < BOARDS; n++) {
+			boards[n] = new Board(8, 8);
+			for (int i = 0; i < 24; i++) {
+				boards[n].putPieceAt(factory.makePiece(all[random.nextInt(all.length)]),
+						makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			}
+		}
+		Coordinate[] coordinates = new Coordinate[64];
+		for (int square = 0; square < 64; square++) {
+			coordinates[square] = boards[0].coordinateOf(square);
+		}
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			long calls = 0;
+			int allowed = 0;
+			long start = System.nanoTime();
+			for (Board board : boards) {
+				for (int from = 0; from < 64; from++) {
+					ChessPiece p = (ChessPiece) board.getPieceAt(from);
+					if (p == null) {
+						continue;
+					}
+					for (int to = 0; to < 64; to++) {
+						if (ChessRules.getRules(p.getName()).allowed(coordinates[from], coordinates[to], board)) {
+							allowed++;
+						}
+						calls++;
+					}
+				}
+			}
+			long coordinateNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (Board board : boards) {
+				for (int from = 0; from < 64; from++) {
+					ChessPiece p = (ChessPiece) board.getPieceAt(from);
+					if (p == null) {
+						continue;
+					}
+					for (int to = 0; to < 64; to++) {
+						if (p.canMove(from, to, board)) {
+							allowed--;
+						}
+					}
+				}
+			}
+			long squareNanos = System.nanoTime() - start;
+
+			System.out.printf("round %2d: Coordinate %6.1f ns/call, square index %6.1f ns/call, speedup %.1fx%s%n",
+					round, coordinateNanos / (double) calls, squareNanos / (double) calls,
+					coordinateNanos / (double) squareNanos, allowed == 0 ? "" : " (MISMATCH)");
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.Collections;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for table-driven castling, standard and Chess960.
+ * @version Oct 19, 2026
+ */
+class CastlingTableTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+	}
+
+	@Test
+	void standardTableCastlesBothWays()
+	{
+		put(WHITEKING, 1, 5);
+		put(WHITEROOK, 1, 1);
+		put(WHITEROOK, 1, 8);
+		put(BLACKKING, 8, 5);
+		GameState.start(board, PlayerColor.WHITE);
+		assertNotNull(CastlingTable.of(board));
+		assertTrue(canMove(1, 5, 1, 7));
+		assertFalse(canMove(1, 5, 1, 8));	// onto its rook only when next to its destination
+		assertTrue(canMove(1, 5, 1, 3));
+		assertFalse(canMove(1, 5, 1, 1));
+		MoveList moves = new MoveList();
+		ChessMoves.generate(board, PlayerColor.WHITE, moves);
+		assertTrue(contains(moves, board.squareOf(1, 5), board.squareOf(1, 7)));
+		assertFalse(contains(moves, board.squareOf(1, 5), board.squareOf(1, 8)));
+
+		put(WHITEKNIGHT, 1, 2);
+		assertFalse(canMove(1, 5, 1, 3));
+		board.putPieceAt(null, makeCoordinate(1, 2));
+
+		play(1, 5, 1, 7);
+		assertEquals(WHITEKING, board.getPieceAt(makeCoordinate(1, 7)).getDescriptor());
+		assertEquals(WHITEROOK, board.getPieceAt(makeCoordinate(1, 6)).getDescriptor());
+		assertNull(board.getPieceAt(makeCoordinate(1, 8)));
+		assertEquals(0, GameState.castlingRights(board.getGameState()) & GameState.WHITE_QUEEN_SIDE);
+	}
+
+	@Test
+	void chess960KingNextToItsDestination()
+	{
+		setUp960();
+		// queen side: the king goes from b1 to c1 and the rook from a1 to d1,
+		// written as the king moving onto the rook
+		assertTrue(canMove(1, 2, 1, 1));
+		MoveList moves = new MoveList();
+		ChessMoves.generate(board, PlayerColor.WHITE, moves);
+		assertTrue(contains(moves, board.squareOf(1, 2), board.squareOf(1, 1)));
+		assertTrue(contains(moves, board.squareOf(1, 2), board.squareOf(1, 7)));
+
+		play(1, 2, 1, 1);
+		assertEquals(WHITEKING, board.getPieceAt(makeCoordinate(1, 3)).getDescriptor());
+		assertEquals(WHITEROOK, board.getPieceAt(makeCoordinate(1, 4)).getDescriptor());
+		assertNull(board.getPieceAt(makeCoordinate(1, 1)));
+		assertNull(board.getPieceAt(makeCoordinate(1, 2)));
+		assertEquals(GameState.BLACK_KING_SIDE | GameState.BLACK_QUEEN_SIDE,
+				GameState.castlingRights(board.getGameState()));
+	}
+
+	@Test
+	void chess960KingSideLeavesTheRookInPlace()
+	{
+		setUp960();
+		put(WHITEBISHOP, 1, 5);
+		assertFalse(canMove(1, 2, 1, 7));	// e1 must be empty
+		board.putPieceAt(null, makeCoordinate(1, 5));
+		assertTrue(canMove(1, 2, 1, 7));
+		play(1, 2, 1, 7);
+		assertEquals(WHITEKING, board.getPieceAt(makeCoordinate(1, 7)).getDescriptor());
+		assertEquals(WHITEROOK, board.getPieceAt(makeCoordinate(1, 6)).getDescriptor());
+		assertTrue(board.hasMoved(board.squareOf(1, 6)));
+	}
+
+	@Test
+	void lostRightsStayLost()
+	{
+		setUp960();
+		play(1, 6, 2, 6);
+		play(8, 2, 8, 1);	// black castles queen side
+		play(2, 6, 1, 6);
+		play(8, 3, 7, 3);
+		assertFalse(canMove(1, 2, 1, 7));
+		assertTrue(canMove(1, 2, 1, 1));
+	}
+
+	@Test
+	void bothRuleEnginesAgree()
+	{
+		setUp960();
+		for (int from = 0; from < 64; from++) {
+			ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+			if (piece == null) {
+				continue;
+			}
+			for (int to = 0; to < 64; to++) {
+				assertEquals(from + " " + to, piece.canMove(from, to, board),
+						ChessRules.getRules(piece.getName()).allowed(board.coordinateOf(from),
+								board.coordinateOf(to), board));
+			}
+		}
+	}
+
+	@Test
+	void theKingMustStartBetweenItsRooks()
+	{
+		assertThrows(IllegalArgumentException.class, () -> CastlingTable.chess960(8, 8, 1, 2, 6));
+		assertThrows(IllegalArgumentException.class, () -> CastlingTable.standard(8, 8).attach(new Board(6, 6)));
+		assertThrows(IllegalArgumentException.class, () -> new Board(6, 6).setGameRules(CastlingTable.standard(8, 8)));
+	}
+
+	@Test
+	void resetDiscardsTheTable()
+	{
+		setUp960();
+		assertSame(board.getGameRules(), board.copy().getGameRules());
+		board.reset(Collections.emptyList());
+		assertNull(CastlingTable.of(board));
+		assertEquals(0, board.getGameState());
+	}
+
+	/**
+	 * Kings on b1 and b8 with rooks on a and f.
+	 */
+	private void setUp960()
+	{
+		for (int row : new int[] { 1, 8 }) {
+			boolean white = row == 1;
+			put(white ? WHITEROOK : BLACKROOK, row, 1);
+			put(white ? WHITEKING : BLACKKING, row, 2);
+			put(white ? WHITEROOK : BLACKROOK, row, 6);
+		}
+		CastlingTable.chess960(8, 8, 2, 1, 6).attach(board);
+		GameState.start(board, PlayerColor.WHITE);
+		assertEquals(0xF, GameState.castlingRights(board.getGameState()));
+	}
+
+	private static boolean contains(MoveList moves, int from, int to)
+	{
+		for (int i = 0; i < moves.size(); i++) {
+			if (moves.get(i) == ChessMoves.encode(from, to)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void put(ChessPieceDescriptor d, int row, int column)
+	{
+		board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+	}
+
+	private boolean canMove(int fromRow, int fromColumn, int toRow, int toColumn)
+	{
+		Coordinate from = makeCoordinate(fromRow, fromColumn);
+		return board.getPieceAt(from).canMove(from, makeCoordinate(toRow, toColumn), board);
+	}
+
+	private void play(int fromRow, int fromColumn, int toRow, int toColumn)
+	{
+		assertTrue(canMove(fromRow, fromColumn, toRow, toColumn));
+		ChessMoves.apply(board, ChessMoves.encode(board.squareOf(fromRow, fromColumn),
+				board.squareOf(toRow, toColumn)));
+	}
+}
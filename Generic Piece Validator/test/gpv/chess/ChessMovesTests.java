@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for move generation and move making.
+ * @version Oct 19, 2026
+ */
+class ChessMovesTests
+{
+	private static ChessPieceFactory factory = null;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@Test
+	void generatesExactlyTheMovesTheRulesAllow()
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int n = 0; n < 100; n++) {
+			Board board = new Board(8, 8);
+			int pieces = 2 + random.nextInt(24);
+			for (int i = 0; i < pieces; i++) {
+				ChessPiece p = factory.makePiece(all[random.nextInt(all.length)]);
+				if (random.nextInt(4) == 0) {
+					p.setHasMoved();
+				}
+				board.putPieceAt(p, makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			}
+			for (PlayerColor color : PlayerColor.values()) {
+				Set<Integer> expected = new HashSet<Integer>();
+				for (int from = 0; from < board.getSquareCount(); from++) {
+					ChessPiece p = (ChessPiece) board.getPieceAt(from);
+					for (int to = 0; p != null && p.getColor() == color && to < board.getSquareCount(); to++) {
+						if (ChessRules.getRules(p.getName())
+								.allowed(board.coordinateOf(from), board.coordinateOf(to), board)) {
+							expected.add(ChessMoves.encode(from, to));
+						}
+					}
+				}
+				MoveList moves = new MoveList();
+				ChessMoves.generate(board, color, moves);
+				Set<Integer> generated = new HashSet<Integer>();
+				for (int i = 0; i < moves.size(); i++) {
+					generated.add(moves.get(i));
+				}
+				assertEquals(expected.size(), moves.size());
+				assertEquals(expected, generated);
+			}
+		}
+	}
+
+	@Test
+	void castlingMovesTheRook()
+	{
+		Board board = new Board(8, 8);
+		board.putPieceAt(factory.makePiece(WHITEKING), makeCoordinate(1, 5));
+		board.putPieceAt(factory.makePiece(WHITEROOK), makeCoordinate(1, 8));
+		int move = ChessMoves.encode(board.squareOf(1, 5), board.squareOf(1, 7));
+		assertNull(ChessMoves.apply(board, move));
+		assertEquals(WHITEKING, ((ChessPiece) board.getPieceAt(makeCoordinate(1, 7))).getDescriptor());
+		assertEquals(WHITEROOK, ((ChessPiece) board.getPieceAt(makeCoordinate(1, 6))).getDescriptor());
+		assertNull(board.getPieceAt(makeCoordinate(1, 8)));
+		assertTrue(board.hasMoved(makeCoordinate(1, 6)));
+	}
+
+	@Test
+	void positionHashDependsOnlyOnThePosition()
+	{
+		Board a = new Board(8, 8);
+		Board b = new Board(8, 8);
+		a.putPieceAt(factory.makePiece(WHITEQUEEN), makeCoordinate(4, 4));
+		a.putPieceAt(factory.makePiece(BLACKKING), makeCoordinate(8, 5));
+		b.putPieceAt(factory.makePiece(BLACKKING), makeCoordinate(8, 5));
+		b.putPieceAt(factory.makePiece(WHITEQUEEN), makeCoordinate(2, 2));
+		assertNotEquals(a.getPositionHash(), b.getPositionHash());
+		b.movePiece(makeCoordinate(2, 2), makeCoordinate(4, 4));
+		assertNotEquals(a.getPositionHash(), b.getPositionHash());
+		a.setMoved(a.squareOf(4, 4), true);
+		assertEquals(a.getPositionHash(), b.getPositionHash());
+		assertEquals(a.getPositionHash(), a.copy().getPositionHash());
+		a.reset(Collections.emptyList());
+		assertEquals(0, a.getPositionHash());
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Checks that the square index rules agree with the Coordinate rules they
+ * replace on canMove. The two are written separately, so these tests are
+ * what keeps them in step: every rule is compared on random boards, with
+ * and without a started game state, en passant and a Chess960 table.
+ * @version Oct 19, 2026
+ */
+class ChessSquareRulesTests
+{
+	private static ChessPieceFactory factory = null;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@Test
+	void agreesWithCoordinateRulesOnStandardBoard()
+	{
+		compareOnRandomBoards(8, 8, 200);
+	}
+
+	@Test
+	void agreesWithCoordinateRulesOnOddBoard()
+	{
+		compareOnRandomBoards(6, 9, 100);
+	}
+
+	@Test
+	void agreesWithCoordinateRulesInStartedGames()
+	{
+		compareOnRandomBoards(8, 8, 300, true);
+		compareOnRandomBoards(7, 10, 100, true);
+	}
+
+	private void compareOnRandomBoards(int rows, int columns, int boards)
+	{
+		compareOnRandomBoards(rows, columns, boards, false);
+	}
+
+	/**
+	 * @param started true to attach a castling table, standard or Chess960,
+	 * 	to every board and start its game state with random castling rights,
+	 * 	en passant column and side to move
+	 */
+	private void compareOnRandomBoards(int rows, int columns, int boards, boolean started)
+	{
+		Random random = new Random(rows * 100 + columns);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int n = 0; n < boards; n++) {
+			Board board = new Board(rows, columns);
+			int pieces = 2 + random.nextInt(rows * columns / 2);
+			for (int i = 0; i < pieces; i++) {
+				ChessPiece p = factory.makePiece(all[random.nextInt(all.length)]);
+				if (random.nextInt(4) == 0) {
+					p.setHasMoved();
+				}
+				board.putPieceAt(p, makeCoordinate(random.nextInt(rows) + 1, random.nextInt(columns) + 1));
+			}
+			if (started) {
+				if (random.nextBoolean()) {
+					int king = 2 + random.nextInt(columns - 2);
+					CastlingTable.chess960(rows, columns, king, 1 + random.nextInt(king - 1),
+							king + 1 + random.nextInt(columns - king)).attach(board);
+				}
+				GameState.start(board, random.nextBoolean() ? PlayerColor.WHITE : PlayerColor.BLACK);
+				int state = board.getGameState() & ~random.nextInt(16);
+				if (random.nextBoolean()) {
+					state |= (1 + random.nextInt(columns)) << GameState.EN_PASSANT_SHIFT;
+				}
+				board.setGameState(state);
+			}
+			for (int from = 0; from < board.getSquareCount(); from++) {
+				ChessPiece p = (ChessPiece) board.getPieceAt(from);
+				if (p == null) {
+					continue;
+				}
+				Coordinate fromCoordinate = board.coordinateOf(from);
+				for (int to = 0; to < board.getSquareCount(); to++) {
+					Coordinate toCoordinate = board.coordinateOf(to);
+					boolean expected = ChessRules.getRules(p.getName())
+							.allowed(fromCoordinate, toCoordinate, board);
+					String move = PositionCodec.encode(board) + " " + fromCoordinate + "->" + toCoordinate;
+					assertEquals(move, expected,
+							ChessSquareRules.getRules(p.getName()).allowed(from, to, board));
+					assertEquals(move, expected ? 1 : 0, p.canMove(from, to, board) ? 1 : 0);
+				}
+			}
+		}
+	}
+}
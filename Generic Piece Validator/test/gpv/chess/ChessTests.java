@@ -14,7 +14,9 @@ package gpv.chess;
 
 import static gpv.chess.ChessPieceDescriptor.*;
 import static org.junit.Assert.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static gpv.util.Coordinate.makeCoordinate;
+import java.util.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -96,6 +98,67 @@ class ChessPieceTests
 		assertTrue(bq.hasMoved());
 	}
 	
+	@Test
+	void sharingFactoryReturnsOneInstancePerDescriptor()
+	{
+		ChessPieceFactory sharing = new ChessPieceFactory(true);
+		assertSame(sharing.makePiece(WHITEPAWN), sharing.makePiece(WHITEPAWN));
+		assertSame(ChessPieceFactory.sharedPiece(BLACKKING), sharing.makePiece(BLACKKING));
+		assertNotSame(factory.makePiece(WHITEPAWN), factory.makePiece(WHITEPAWN));
+		assertTrue(sharing.makePiece(WHITEROOK).isShared());
+		assertThrows(UnsupportedOperationException.class,
+				() -> sharing.makePiece(WHITEROOK).setHasMoved());
+	}
+	
+	@Test
+	void boardKeepsMovedStateOfSharedPieces()
+	{
+		ChessPieceFactory sharing = new ChessPieceFactory(true);
+		ChessPiece pawn = sharing.makePiece(WHITEPAWN);
+		board.putPieceAt(pawn, makeCoordinate(2, 2));
+		board.putPieceAt(pawn, makeCoordinate(2, 3));
+		assertTrue(pawn.canMove(makeCoordinate(2, 2), makeCoordinate(4, 2), board));
+		
+		board.movePiece(makeCoordinate(2, 2), makeCoordinate(3, 2));
+		assertTrue(board.hasMoved(makeCoordinate(3, 2)));
+		assertFalse(board.hasMoved(makeCoordinate(2, 2)));
+		assertFalse(pawn.canMove(makeCoordinate(3, 2), makeCoordinate(5, 2), board));
+		assertTrue(pawn.canMove(makeCoordinate(2, 3), makeCoordinate(4, 3), board));
+		
+		board.putPieceAt(sharing.makePiece(WHITEKNIGHT), makeCoordinate(3, 2));
+		assertFalse(board.hasMoved(makeCoordinate(3, 2)));
+	}
+	
+	@Test
+	void movedSharedRookCannotCastle()
+	{
+		ChessPieceFactory sharing = new ChessPieceFactory(true);
+		ChessPiece king = sharing.makePiece(WHITEKING);
+		board.putPieceAt(king, makeCoordinate(1, 5));
+		board.putPieceAt(sharing.makePiece(WHITEROOK), makeCoordinate(2, 8));
+		board.putPieceAt(sharing.makePiece(WHITEROOK), makeCoordinate(1, 1));
+		assertTrue(king.canMove(makeCoordinate(1, 5), makeCoordinate(1, 3), board));
+		
+		board.movePiece(makeCoordinate(2, 8), makeCoordinate(1, 8));
+		assertFalse(king.canMove(makeCoordinate(1, 5), makeCoordinate(1, 7), board));
+		assertFalse(ChessRules.getRules(PieceName.KING)
+				.allowed(makeCoordinate(1, 5), makeCoordinate(1, 7), board));
+	}
+	
+	@Test
+	void sharedPiecesAddNoPerBoardObjects()
+	{
+		ChessPieceFactory sharing = new ChessPieceFactory(true);
+		Set<ChessPiece> perPiece = Collections.newSetFromMap(new IdentityHashMap<ChessPiece, Boolean>());
+		Set<ChessPiece> shared = Collections.newSetFromMap(new IdentityHashMap<ChessPiece, Boolean>());
+		for (int n = 0; n < 100; n++) {
+			perPiece.addAll(fillBackRanks(new Board(8, 8), factory));
+			shared.addAll(fillBackRanks(new Board(8, 8), sharing));
+		}
+		assertEquals(100 * 32, perPiece.size());
+		assertEquals(ChessPieceDescriptor.values().length, shared.size());
+	}
+
 	@Test
 	void thisShouldFailOnDelivery()
 	{
@@ -104,4 +167,26 @@ class ChessPieceTests
 		assertTrue(wk.canMove(makeCoordinate(1,5), makeCoordinate(2, 5), board));
 	}
 
+	
+	private static List<ChessPiece> fillBackRanks(Board b, ChessPieceFactory f)
+	{
+		ChessPieceDescriptor[] white = { WHITEROOK, WHITEKNIGHT, WHITEBISHOP, WHITEQUEEN,
+				WHITEKING, WHITEBISHOP, WHITEKNIGHT, WHITEROOK };
+		ChessPieceDescriptor[] black = { BLACKROOK, BLACKKNIGHT, BLACKBISHOP, BLACKQUEEN,
+				BLACKKING, BLACKBISHOP, BLACKKNIGHT, BLACKROOK };
+		List<ChessPiece> pieces = new ArrayList<ChessPiece>();
+		for (int column = 1; column <= 8; column++) {
+			pieces.add(place(b, f.makePiece(white[column - 1]), 1, column));
+			pieces.add(place(b, f.makePiece(WHITEPAWN), 2, column));
+			pieces.add(place(b, f.makePiece(BLACKPAWN), 7, column));
+			pieces.add(place(b, f.makePiece(black[column - 1]), 8, column));
+		}
+		return pieces;
+	}
+	
+	private static ChessPiece place(Board b, ChessPiece p, int row, int column)
+	{
+		b.putPieceAt(p, makeCoordinate(row, column));
+		return p;
+	}
 }
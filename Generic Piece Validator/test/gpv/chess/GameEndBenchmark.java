@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import gpv.util.*;
+
+/**
+ * Compares GameEnd with asking canMove about every pair of squares and
+ * making each allowed move on a copy, on the starting position. Run it as
+ * a plain Java application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class GameEndBenchmark
+{
+	private static final int ROUNDS = 20;
+	private static final int CALLS = 2000;
+
+	public static void main(String[] args)
+	{
+		Board board = startingPosition();
+		for (int round = 1; round <= ROUNDS; round++) {
+			int over = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++) {
+				if (!anyMoveByScanning(board, PlayerColor.WHITE)) {
+					over++;
+				}
+			}
+			long scanNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++) {
+				if (GameEnd.of(board, PlayerColor.WHITE) != GameEnd.Outcome.NOT_OVER) {
+					over--;
+				}
+			}
+			long gameEndNanos = System.nanoTime() - start;
+
+			System.out.printf("round %2d: scanning %8.2f us, GameEnd %6.2f us, speedup %.0fx%s%n",
+					round, scanNanos / 1000.0 / CALLS, gameEndNanos / 1000.0 / CALLS,
+					scanNanos / (double) gameEndNanos, over == 0 ? "" : " (MISMATCH)");
+		}
+	}
+
+	private static boolean anyMoveByScanning(Board board, PlayerColor side)
+	{
+		PlayerColor enemy = side == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+		ChessPieceDescriptor king = side == PlayerColor.WHITE ? WHITEKING : BLACKKING;
+		boolean any = false;
+		for (int from = 0; from < 64; from++) {
+			ChessPiece p = (ChessPiece) board.getPieceAt(from);
+			if (p == null || p.getColor() != side) {
+				continue;
+			}
+			for (int to = 0; to < 64; to++) {
+				if (p.canMove(from, to, board)) {
+					Board after = board.copy();
+					ChessMoves.apply(after, ChessMoves.encode(from, to));
+					any |= !ChessAttacks.isAttacked(after, after.findPiece(king), enemy);
+				}
+			}
+		}
+		return any;
+	}
+
+	private static Board startingPosition()
+	{
+		ChessPieceFactory factory = new ChessPieceFactory();
+		Board board = new Board(8, 8);
+		ChessPieceDescriptor[] white = { WHITEROOK, WHITEKNIGHT, WHITEBISHOP, WHITEQUEEN,
+				WHITEKING, WHITEBISHOP, WHITEKNIGHT, WHITEROOK };
+		ChessPieceDescriptor[] black = { BLACKROOK, BLACKKNIGHT, BLACKBISHOP, BLACKQUEEN,
+				BLACKKING, BLACKBISHOP, BLACKKNIGHT, BLACKROOK };
+		for (int column = 1; column <= 8; column++) {
+			board.putPieceAt(factory.makePiece(white[column - 1]), makeCoordinate(1, column));
+			board.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(2, column));
+			board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(7, column));
+			board.putPieceAt(factory.makePiece(black[column - 1]), makeCoordinate(8, column));
+		}
+		return board;
+	}
+}
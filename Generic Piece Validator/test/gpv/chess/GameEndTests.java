@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.jupiter.api.*;
+import gpv.chess.GameEnd.Outcome;
+import gpv.util.*;
+
+/**
+ * Tests for checkmate and stalemate detection.
+ * @version Oct 19, 2026
+ */
+class GameEndTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+	}
+
+	@Test
+	void backRankMate()
+	{
+		put(BLACKKING, 8, 7);
+		put(BLACKPAWN, 7, 6);
+		put(BLACKPAWN, 7, 7);
+		put(BLACKPAWN, 7, 8);
+		put(WHITEROOK, 8, 1);
+		put(WHITEKING, 1, 7);
+		assertTrue(GameEnd.isInCheck(board, PlayerColor.BLACK));
+		assertEquals(Outcome.CHECKMATE, GameEnd.of(board, PlayerColor.BLACK));
+		assertEquals(Outcome.NOT_OVER, GameEnd.of(board, PlayerColor.WHITE));
+
+		put(BLACKBISHOP, 6, 3);	// can step in between
+		assertEquals(Outcome.NOT_OVER, GameEnd.of(board, PlayerColor.BLACK));
+	}
+
+	@Test
+	void queenStalemate()
+	{
+		put(BLACKKING, 8, 1);
+		put(WHITEQUEEN, 7, 3);
+		put(WHITEKING, 1, 1);
+		assertFalse(GameEnd.isInCheck(board, PlayerColor.BLACK));
+		assertEquals(Outcome.STALEMATE, GameEnd.of(board, PlayerColor.BLACK));
+	}
+
+	@Test
+	void aPinnedPieceCannotBlock()
+	{
+		put(BLACKKING, 8, 1);
+		put(BLACKKNIGHT, 7, 2);	// pinned by the bishop
+		put(WHITEBISHOP, 5, 4);
+		put(WHITEKNIGHT, 7, 4);	// guards b8
+		put(WHITEQUEEN, 3, 1);	// checks along column 1
+		put(WHITEKING, 1, 8);
+		assertEquals(Outcome.CHECKMATE, GameEnd.of(board, PlayerColor.BLACK));
+		board.putPieceAt(null, makeCoordinate(5, 4));
+		assertEquals(Outcome.NOT_OVER, GameEnd.of(board, PlayerColor.BLACK));	// the knight blocks on a5
+	}
+
+	@Test
+	void onlyTheKingAnswersADoubleCheck()
+	{
+		put(BLACKKING, 8, 1);
+		put(BLACKQUEEN, 5, 3);	// could take either checker, not both
+		put(WHITEROOK, 3, 1);
+		put(WHITEKNIGHT, 6, 2);
+		put(WHITEBISHOP, 6, 4);	// guards b8
+		put(WHITEKNIGHT, 8, 4);	// guards b7
+		put(WHITEKING, 1, 8);
+		assertEquals(Outcome.CHECKMATE, GameEnd.of(board, PlayerColor.BLACK));
+		board.putPieceAt(null, makeCoordinate(6, 2));
+		assertEquals(Outcome.NOT_OVER, GameEnd.of(board, PlayerColor.BLACK));
+	}
+
+	@Test
+	void castlingOutOfCheckDoesNotCount()
+	{
+		put(WHITEKING, 1, 5);
+		put(WHITEROOK, 1, 8);
+		put(BLACKKING, 8, 1);
+		put(BLACKROOK, 8, 5);	// check
+		put(BLACKROOK, 2, 1);	// guards row 2
+		put(BLACKBISHOP, 4, 1);	// guards d1
+		put(BLACKBISHOP, 3, 8);	// guards f1
+		assertTrue(whiteKingCanMove(1, 7));
+		assertEquals(Outcome.CHECKMATE, GameEnd.of(board, PlayerColor.WHITE));
+		assertFalse(legalByCopying(board, PlayerColor.WHITE));
+	}
+
+	@Test
+	void agreesWithMakingEveryMove()
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		int over = 0;
+		for (int n = 0; n < 3000; n++) {
+			board = new Board(8, 8);
+			put(WHITEKING, random.nextInt(8) + 1, random.nextInt(8) + 1);
+			put(BLACKKING, random.nextInt(8) + 1, random.nextInt(8) + 1);
+			int pieces = random.nextInt(12);
+			for (int i = 0; i < pieces; i++) {
+				ChessPieceDescriptor d = all[random.nextInt(all.length)];
+				if (d.getName() != PieceName.KING) {
+					put(d, random.nextInt(8) + 1, random.nextInt(8) + 1);
+				}
+			}
+			for (int square = 0; square < 64; square++) {
+				board.setMoved(square, board.getPieceAt(square) != null);	// no castling
+			}
+			for (PlayerColor side : PlayerColor.values()) {
+				if (board.countOf(side == PlayerColor.WHITE ? WHITEKING : BLACKKING) == 0) {
+					assertEquals(Outcome.CHECKMATE, GameEnd.of(board, side));
+					continue;
+				}
+				boolean legal = legalByCopying(board, side);
+				assertEquals(PositionCodec.encode(board) + " " + side, legal, GameEnd.hasLegalMove(board, side));
+				if (!legal) {
+					over++;
+				}
+			}
+		}
+		assertTrue(over > 0);
+	}
+
+	/**
+	 * Whether any move leaves the mover's king unattacked, found by making
+	 * each one on a copy.
+	 */
+	private static boolean legalByCopying(Board board, PlayerColor side)
+	{
+		PlayerColor enemy = side == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+		ChessPieceDescriptor king = side == PlayerColor.WHITE ? WHITEKING : BLACKKING;
+		boolean inCheck = ChessAttacks.isAttacked(board, board.findPiece(king), enemy);
+		MoveList moves = new MoveList();
+		ChessMoves.generate(board, side, moves);
+		for (int i = 0; i < moves.size(); i++) {
+			int from = ChessMoves.fromOf(moves.get(i));
+			int to = ChessMoves.toOf(moves.get(i));
+			if (board.getPieceAt(from).getDescriptor() == king
+					&& Math.abs(board.columnOf(to) - board.columnOf(from)) == 2) {
+				int crossed = board.squareOf(board.rowOf(from), (board.columnOf(from) + board.columnOf(to)) / 2);
+				if (inCheck || ChessAttacks.isAttacked(board, crossed, enemy)) {
+					continue;
+				}
+			}
+			Board after = board.copy();
+			ChessMoves.apply(after, moves.get(i));
+			if (!ChessAttacks.isAttacked(after, after.findPiece(king), enemy)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean whiteKingCanMove(int row, int column)
+	{
+		Coordinate from = board.findPiece(WHITEKING);
+		return board.getPieceAt(from).canMove(from, makeCoordinate(row, column), board);
+	}
+
+	private void put(ChessPieceDescriptor d, int row, int column)
+	{
+		board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+	}
+}
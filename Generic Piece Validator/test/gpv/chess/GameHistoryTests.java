@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for repetition and fifty-move detection.
+ * @version Oct 19, 2026
+ */
+class GameHistoryTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+	private GameHistory game;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		put(WHITEKING, 1, 5);
+		put(WHITEKNIGHT, 1, 7);
+		put(WHITEPAWN, 2, 1);
+		put(BLACKKING, 8, 5);
+		put(BLACKKNIGHT, 8, 7);
+		game = new GameHistory(board);
+	}
+
+	@Test
+	void shufflingKnightsRepeatsThePosition()
+	{
+		assertEquals(1, game.getRepetitions());
+		shuffle();
+		assertEquals(2, game.getRepetitions());
+		assertFalse(game.isThreefoldRepetition());
+		shuffle();
+		assertTrue(game.isThreefoldRepetition());
+		play(1, 7, 3, 6);
+		assertEquals(3, game.getRepetitions());
+		play(2, 1, 3, 1);
+		assertEquals(1, game.getRepetitions());
+	}
+
+	@Test
+	void aPawnMoveEndsTheSearch()
+	{
+		shuffle();
+		play(2, 1, 3, 1);
+		play(8, 7, 6, 6);
+		play(3, 1, 4, 1);
+		play(6, 6, 8, 7);
+		assertEquals(1, game.getRepetitions());
+		play(1, 7, 3, 6);
+		play(8, 7, 6, 6);
+		play(3, 6, 1, 7);
+		play(6, 6, 8, 7);
+		assertEquals(2, game.getRepetitions());
+	}
+
+	@Test
+	void fiftyMovesWithoutCaptureOrPawnMove()
+	{
+		for (int i = 0; i < 24; i++) {
+			shuffle();
+		}
+		play(1, 7, 3, 6);
+		play(8, 7, 6, 6);
+		play(3, 6, 1, 7);
+		assertFalse(game.isFiftyMoveDraw());
+		play(6, 6, 8, 7);
+		assertTrue(game.isFiftyMoveDraw());
+		assertEquals(26, game.getRepetitions());
+	}
+
+	@Test
+	void longTailsGrowTheBuffer()
+	{
+		Random random = new Random(4233);
+		List<Long> keys = new ArrayList<Long>();
+		keys.add(GameHistory.positionKey(board));
+		MoveList moves = new MoveList();
+		for (int ply = 0; ply < 600; ply++) {
+			PlayerColor side = GameState.sideToMove(board.getGameState());
+			moves.clear();
+			ChessMoves.generate(board, side, moves);
+			int move;
+			do {
+				move = moves.get(random.nextInt(moves.size()));
+			} while (board.getPieceAt(ChessMoves.toOf(move)) != null
+					|| chessPieceAt(ChessMoves.fromOf(move)).getName() == PieceName.PAWN);
+			game.play(move);
+			keys.add(GameHistory.positionKey(board));
+			assertEquals(Collections.frequency(keys, keys.get(keys.size() - 1)), game.getRepetitions());
+		}
+		assertEquals(600, game.getPlies());
+		assertTrue(game.isFiftyMoveDraw());
+	}
+
+	/**
+	 * Both knights go out and come back.
+	 */
+	private void shuffle()
+	{
+		play(1, 7, 3, 6);
+		play(8, 7, 6, 6);
+		play(3, 6, 1, 7);
+		play(6, 6, 8, 7);
+	}
+
+	private void put(ChessPieceDescriptor d, int row, int column)
+	{
+		board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+	}
+
+	private ChessPiece chessPieceAt(int square)
+	{
+		return (ChessPiece) board.getPieceAt(square);
+	}
+
+	private void play(int fromRow, int fromColumn, int toRow, int toColumn)
+	{
+		Coordinate from = makeCoordinate(fromRow, fromColumn);
+		assertTrue(board.getPieceAt(from).canMove(from, makeCoordinate(toRow, toColumn), board));
+		game.play(ChessMoves.encode(board.squareOf(from), board.squareOf(toRow, toColumn)));
+	}
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.*;
+import gpv.Piece;
+import gpv.util.*;
+
+/**
+ * Tests for the game state word: castling rights, en passant, side to move
+ * and the half-move clock.
+ * @version Oct 19, 2026
+ */
+class GameStateTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		put(WHITEKING, 1, 5);
+		put(WHITEROOK, 1, 1);
+		put(WHITEROOK, 1, 8);
+		put(BLACKKING, 8, 5);
+		put(BLACKROOK, 8, 8);
+		put(WHITEPAWN, 2, 4);
+		put(BLACKPAWN, 7, 5);
+	}
+
+	@Test
+	void startGivesRightsToUnmovedKingsAndRooks()
+	{
+		GameState.start(board, PlayerColor.WHITE);
+		int state = board.getGameState();
+		assertTrue(GameState.isStarted(state));
+		assertEquals(GameState.WHITE_KING_SIDE | GameState.WHITE_QUEEN_SIDE | GameState.BLACK_KING_SIDE,
+				GameState.castlingRights(state));
+		assertEquals(PlayerColor.WHITE, GameState.sideToMove(state));
+		assertEquals(0, GameState.enPassantColumn(state));
+		assertEquals(0, GameState.halfMoveClock(state));
+		assertEquals(state, board.copy().getGameState());
+	}
+
+	@Test
+	void movesAdvanceTheClockAndTheSideToMove()
+	{
+		GameState.start(board, PlayerColor.WHITE);
+		play(1, 1, 1, 2);
+		play(8, 8, 8, 7);
+		assertEquals(2, GameState.halfMoveClock(board.getGameState()));
+		assertEquals(PlayerColor.WHITE, GameState.sideToMove(board.getGameState()));
+		play(2, 4, 3, 4);
+		assertEquals(0, GameState.halfMoveClock(board.getGameState()));
+		assertEquals(PlayerColor.BLACK, GameState.sideToMove(board.getGameState()));
+	}
+
+	@Test
+	void castlingRightsAreLostForGood()
+	{
+		GameState.start(board, PlayerColor.WHITE);
+		assertTrue(canMove(1, 5, 1, 7));
+		play(1, 8, 2, 8);
+		play(8, 5, 8, 4);
+		play(2, 8, 1, 8);
+		play(8, 4, 8, 5);
+		assertEquals(GameState.WHITE_QUEEN_SIDE, GameState.castlingRights(board.getGameState()));
+		assertFalse(canMove(1, 5, 1, 7));
+		assertTrue(canMove(1, 5, 1, 3));
+		assertFalse(canMove(8, 5, 8, 7));
+	}
+
+	@Test
+	void capturingARookTakesAwayItsRight()
+	{
+		put(BLACKBISHOP, 3, 3);
+		GameState.start(board, PlayerColor.BLACK);
+		play(3, 3, 1, 1);
+		assertEquals(GameState.WHITE_KING_SIDE | GameState.BLACK_KING_SIDE,
+				GameState.castlingRights(board.getGameState()));
+	}
+
+	@Test
+	void enPassantIsAllowedRightAfterADoubleStep()
+	{
+		board.movePiece(makeCoordinate(2, 4), makeCoordinate(5, 4));
+		assertFalse(canMove(5, 4, 6, 5));	// no state kept, no en passant
+		GameState.start(board, PlayerColor.BLACK);
+		play(7, 5, 5, 5);
+		assertEquals(5, GameState.enPassantColumn(board.getGameState()));
+		assertTrue(canMove(5, 4, 6, 5));
+		assertFalse(canMove(5, 4, 6, 3));
+		assertTrue(ChessRules.getRules(PieceName.PAWN).allowed(makeCoordinate(5, 4), makeCoordinate(6, 5), board));
+
+		LegalDestinations destinations = new LegalDestinations(board);
+		assertTrue(destinations.canMove(makeCoordinate(5, 4), makeCoordinate(6, 5)));
+		Piece captured = play(5, 4, 6, 5);
+		assertEquals(BLACKPAWN, captured.getDescriptor());
+		assertNull(board.getPieceAt(makeCoordinate(5, 5)));
+		assertEquals(0, GameState.halfMoveClock(board.getGameState()));
+		destinations.detach();
+	}
+
+	@Test
+	void enPassantExpiresAfterOneMove()
+	{
+		board.movePiece(makeCoordinate(2, 4), makeCoordinate(5, 4));
+		GameState.start(board, PlayerColor.BLACK);
+		play(7, 5, 5, 5);
+		LegalDestinations destinations = new LegalDestinations(board);
+		assertTrue(destinations.canMove(makeCoordinate(5, 4), makeCoordinate(6, 5)));
+		play(1, 1, 2, 1);
+		play(8, 8, 7, 8);
+		assertEquals(0, GameState.enPassantColumn(board.getGameState()));
+		assertFalse(canMove(5, 4, 6, 5));
+		assertFalse(destinations.canMove(makeCoordinate(5, 4), makeCoordinate(6, 5)));
+		destinations.detach();
+	}
+
+	@Test
+	void enPassantOnAFortyColumnBoard()
+	{
+		board = new Board(8, 40);
+		put(WHITEKING, 1, 5);
+		put(WHITEROOK, 1, 8);
+		put(BLACKKING, 8, 5);
+		put(WHITEPAWN, 2, 35);
+		put(BLACKPAWN, 4, 36);
+		GameState.start(board, PlayerColor.WHITE);
+		play(1, 8, 1, 9);
+		play(8, 5, 8, 6);
+		assertEquals(2, GameState.halfMoveClock(board.getGameState()));
+		play(2, 35, 4, 35);
+		int state = board.getGameState();
+		assertEquals(35, GameState.enPassantColumn(state));
+		assertEquals(PlayerColor.BLACK, GameState.sideToMove(state));
+		assertEquals(0, GameState.halfMoveClock(state));
+		assertEquals(0, GameState.castlingRights(state));
+		assertTrue(canMove(4, 36, 3, 35));
+		assertEquals(WHITEPAWN, play(4, 36, 3, 35).getDescriptor());
+		assertEquals(PlayerColor.WHITE, GameState.sideToMove(board.getGameState()));
+	}
+
+	@Test
+	void startRejectsBoardsTooWideForTheState()
+	{
+		Board wide = new Board(8, GameState.MAX_COLUMNS + 1);
+		assertThrows(IllegalArgumentException.class, () -> GameState.start(wide, PlayerColor.WHITE));
+	}
+
+	private void put(ChessPieceDescriptor d, int row, int column)
+	{
+		board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+	}
+
+	private boolean canMove(int fromRow, int fromColumn, int toRow, int toColumn)
+	{
+		Coordinate from = makeCoordinate(fromRow, fromColumn);
+		return board.getPieceAt(from).canMove(from, makeCoordinate(toRow, toColumn), board);
+	}
+
+	private Piece play(int fromRow, int fromColumn, int toRow, int toColumn)
+	{
+		assertTrue(canMove(fromRow, fromColumn, toRow, toColumn));
+		return ChessMoves.apply(board, ChessMoves.encode(board.squareOf(fromRow, fromColumn),
+				board.squareOf(toRow, toColumn)));
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import gpv.util.*;
+
+/**
+ * Tests for the cached legal destination sets.
+ * @version Oct 19, 2026
+ */
+class LegalDestinationsTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+	private LegalDestinations destinations;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		destinations = new LegalDestinations(board);
+	}
+
+	@Test
+	void rookStopsAtBlockersAndFollowsThem()
+	{
+		board.putPieceAt(factory.makePiece(WHITEROOK), makeCoordinate(1, 1));
+		board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(3, 1));
+		board.putPieceAt(factory.makePiece(WHITEKNIGHT), makeCoordinate(1, 3));
+		long expected = bit(2, 1) | bit(3, 1) | bit(1, 2);
+		assertEquals(expected, destinations.legalDestinations(makeCoordinate(1, 1)));
+
+		board.putPieceAt(null, makeCoordinate(3, 1));
+		long opened = destinations.legalDestinations(makeCoordinate(1, 1));
+		assertTrue((opened & bit(8, 1)) != 0);
+		assertFalse(destinations.canMove(makeCoordinate(1, 1), makeCoordinate(1, 3)));
+		assertEquals(0, destinations.legalDestinations(makeCoordinate(5, 5)));
+	}
+
+	@Test
+	void cachedSetsMatchCanMove()
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int i = 0; i < 1500; i++) {
+			Coordinate c = makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1);
+			if (random.nextBoolean()) {
+				board.movePiece(c, makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			} else {
+				board.putPieceAt(random.nextInt(3) == 0 ? null
+						: factory.makePiece(all[random.nextInt(all.length)]), c);
+			}
+			Coordinate from = makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1);
+			destinations.legalDestinations(from);	// keep some results cached across changes
+			if (i % 25 == 0) {
+				for (int square = 0; square < 64; square++) {
+					assertEquals(scan(board, board.coordinateOf(square)),
+							destinations.legalDestinationSet(board.coordinateOf(square)));
+				}
+			}
+		}
+	}
+
+	@Test
+	void setsMatchCanMoveInStartedAndChess960Games()
+	{
+		Random random = new Random(960);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int n = 0; n < 300; n++) {
+			board = new Board(8, 8);
+			int king = 2 + random.nextInt(6);
+			int queenRook = 1 + random.nextInt(king - 1);
+			int kingRook = king + 1 + random.nextInt(8 - king);
+			for (int row : new int[] { 1, 8 }) {
+				boolean white = row == 1;
+				board.putPieceAt(factory.makePiece(white ? WHITEROOK : BLACKROOK), makeCoordinate(row, queenRook));
+				board.putPieceAt(factory.makePiece(white ? WHITEKING : BLACKKING), makeCoordinate(row, king));
+				board.putPieceAt(factory.makePiece(white ? WHITEROOK : BLACKROOK), makeCoordinate(row, kingRook));
+			}
+			for (int i = random.nextInt(12); i > 0; i--) {
+				Coordinate c = makeCoordinate(2 + random.nextInt(6), random.nextInt(8) + 1);
+				board.putPieceAt(factory.makePiece(all[random.nextInt(all.length)]), c);
+			}
+			if (n % 2 == 0) {
+				CastlingTable.chess960(8, 8, king, queenRook, kingRook).attach(board);
+			}
+			GameState.start(board, random.nextBoolean() ? PlayerColor.WHITE : PlayerColor.BLACK);
+			int state = board.getGameState() & ~random.nextInt(16);
+			if (random.nextBoolean()) {
+				state |= (1 + random.nextInt(8)) << GameState.EN_PASSANT_SHIFT;
+			}
+			board.setGameState(state);
+			LegalDestinations cache = new LegalDestinations(board);
+			for (int from = 0; from < 64; from++) {
+				Coordinate f = board.coordinateOf(from);
+				assertEquals(PositionCodec.encode(board) + " " + f, scan(board, f), cache.legalDestinationSet(f));
+				for (int to = 0; to < 64; to++) {
+					assertEquals(scan(board, f).get(to), cache.canMove(f, board.coordinateOf(to)));
+				}
+			}
+			cache.detach();
+		}
+	}
+
+	@Test
+	void largeBoardsUseBitSets()
+	{
+		Board large = new Board(12, 12);
+		LegalDestinations cache = new LegalDestinations(large);
+		large.putPieceAt(factory.makePiece(WHITEQUEEN), makeCoordinate(10, 10));
+		large.putPieceAt(factory.makePiece(BLACKKNIGHT), makeCoordinate(12, 12));
+		BitSet set = cache.legalDestinationSet(makeCoordinate(10, 10));
+		assertEquals(scan(large, makeCoordinate(10, 10)), set);
+		assertTrue(set.get(large.squareOf(12, 12)));
+		assertTrue(set.get(large.squareOf(1, 1)));
+		assertThrows(IllegalStateException.class, () -> cache.legalDestinations(makeCoordinate(10, 10)));
+		cache.detach();
+	}
+
+	private static BitSet scan(Board board, Coordinate from)
+	{
+		BitSet set = new BitSet();
+		ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+		if (piece != null) {
+			for (int square = 0; square < board.getSquareCount(); square++) {
+				if (piece.canMove(from, board.coordinateOf(square), board)) {
+					set.set(square);
+				}
+			}
+		}
+		return set;
+	}
+
+	private long bit(int row, int column)
+	{
+		return 1L << board.squareOf(row, column);
+	}
+}
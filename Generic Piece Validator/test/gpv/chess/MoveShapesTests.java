@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.jupiter.api.*;
+import gpv.Piece;
+import gpv.util.*;
+
+/**
+ * Tests for the table of move shapes checked before the board is read.
+ * @version Oct 19, 2026
+ */
+class MoveShapesTests
+{
+	private static ChessPieceFactory factory = null;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory();
+	}
+
+	@Test
+	void impossibleShapes()
+	{
+		assertFalse(MoveShapes.isPossible(WHITEROOK, 1, 1));
+		assertFalse(MoveShapes.isPossible(BLACKBISHOP, 0, 3));
+		assertFalse(MoveShapes.isPossible(WHITEKNIGHT, 3, 0));
+		assertFalse(MoveShapes.isPossible(WHITEPAWN, -1, 0));
+		assertFalse(MoveShapes.isPossible(BLACKPAWN, 2, 0));
+		assertFalse(MoveShapes.isPossible(WHITEKING, 2, 2));
+		assertFalse(MoveShapes.isPossible(WHITEQUEEN, 0, 0));
+		assertTrue(MoveShapes.isPossible(WHITEKING, 0, -4));	// Chess960 castling
+		assertTrue(MoveShapes.isPossible(BLACKPAWN, -2, 0));
+		assertTrue(MoveShapes.isPossible(WHITEROOK, 0, 40));	// beyond the table
+		assertFalse(MoveShapes.isPossible(WHITEBISHOP, 40, 39));
+	}
+
+	@Test
+	void rejectsAfterReadingOnlyTheFromSquare()
+	{
+		ChessPiece rook = factory.makePiece(WHITEROOK);
+		Board board = new Board(8, 8) {
+			@Override
+			public Piece getPieceAt(Coordinate c)
+			{
+				assertEquals(makeCoordinate(1, 1), c);
+				return rook;
+			}
+
+			@Override
+			public Piece getPieceAt(int square)
+			{
+				assertEquals(0, square);
+				return rook;
+			}
+		};
+		assertFalse(rook.canMove(makeCoordinate(1, 1), makeCoordinate(3, 3), board));
+		assertFalse(rook.canMove(board.squareOf(1, 1), board.squareOf(3, 3), board));
+	}
+
+	@Test
+	void answersForThePieceOnTheBoard()
+	{
+		Board board = new Board(8, 8);
+		ChessPiece rook = factory.makePiece(WHITEROOK);
+		board.putPieceAt(factory.makePiece(WHITEKNIGHT), makeCoordinate(1, 2));
+		assertTrue(rook.canMove(makeCoordinate(1, 2), makeCoordinate(3, 3), board));
+		assertTrue(rook.canMove(board.squareOf(1, 2), board.squareOf(3, 3), board));
+		assertFalse(rook.canMove(makeCoordinate(1, 2), makeCoordinate(1, 5), board));
+		assertFalse(rook.canMove(makeCoordinate(4, 4), makeCoordinate(4, 6), board));	// empty
+		assertFalse(rook.canMove(board.squareOf(4, 4), board.squareOf(4, 6), board));
+	}
+
+	@Test
+	void neverRejectsAnAllowedMove()
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		for (int n = 0; n < 300; n++) {
+			Board board = new Board(8, 8);
+			for (int i = random.nextInt(20); i >= 0; i--) {
+				board.putPieceAt(factory.makePiece(all[random.nextInt(all.length)]),
+						makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			}
+			if (n % 3 == 0) {
+				CastlingTable.chess960(8, 8, 2 + random.nextInt(5), 1, 8).attach(board);
+			}
+			if (n % 2 == 0) {
+				GameState.start(board, PlayerColor.WHITE);
+			}
+			for (int from = 0; from < 64; from++) {
+				ChessPiece piece = (ChessPiece) board.getPieceAt(from);
+				if (piece == null) {
+					continue;
+				}
+				for (int to = 0; to < 64; to++) {
+					if (ChessSquareRules.getRules(piece.getName()).allowed(from, to, board)) {
+						assertEquals(piece + " " + from + " " + to, true, MoveShapes.isPossible(piece.getDescriptor(),
+								board.rowOf(to) - board.rowOf(from), board.columnOf(to) - board.columnOf(from)));
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import gpv.util.Board;
+
+/**
+ * Measures the heap used by many boards in the standard starting position,
+ * once with a new ChessPiece per square and once with shared pieces. Run it
+ * as a plain Java application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class PieceFootprintBenchmark
+{
+	private static final int BOARDS = 50000;
+
+	public static void main(String[] args)
+	{
+		for (boolean sharing : new boolean[] { false, true, false, true }) {
+			ChessPieceFactory factory = new ChessPieceFactory(sharing);
+			long before = usedHeap();
+			Board[] boards = new Board[BOARDS];
+			for (int n = 0; n < BOARDS; n++) {
+				boards[n] = standardBoard(factory);
+			}
+			long after = usedHeap();
+			System.out.printf("%-10s %8.1f bytes/board (%d boards)%n", sharing ? "shared" : "per-piece",
+					(after - before) / (double) BOARDS, boards.length);
+		}
+	}
+
+	private static Board standardBoard(ChessPieceFactory factory)
+	{
+		ChessPieceDescriptor[] white = { WHITEROOK, WHITEKNIGHT, WHITEBISHOP, WHITEQUEEN,
+				WHITEKING, WHITEBISHOP, WHITEKNIGHT, WHITEROOK };
+		ChessPieceDescriptor[] black = { BLACKROOK, BLACKKNIGHT, BLACKBISHOP, BLACKQUEEN,
+				BLACKKING, BLACKBISHOP, BLACKKNIGHT, BLACKROOK };
+		Board board = new Board(8, 8);
+		for (int column = 1; column <= 8; column++) {
+			board.putPieceAt(factory.makePiece(white[column - 1]), makeCoordinate(1, column));
+			board.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(2, column));
+			board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(7, column));
+			board.putPieceAt(factory.makePiece(black[column - 1]), makeCoordinate(8, column));
+		}
+		return board;
+	}
+
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
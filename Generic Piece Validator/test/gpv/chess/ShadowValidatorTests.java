@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.*;
+import gpv.chess.ShadowValidator.Disagreement;
+import gpv.util.*;
+
+/**
+ * Tests for the shadow validator and the position codec it uses for
+ * reproductions.
+ * @version Oct 19, 2026
+ */
+class ShadowValidatorTests
+{
+	@Test
+	void squareRulesAgreeWithReference()
+	{
+		ShadowValidator shadow = new ShadowValidator(ShadowValidator.SQUARE_RULES);
+		assertEquals(0, shadow.checkRandomPositions(8, 8, 50, 4233L));
+		assertEquals(0, shadow.checkRandomPositions(5, 7, 50, 2020L));
+		assertTrue(shadow.getCheckCount() > 0);
+		assertEquals(shadow.getCheckCount(), shadow.getReferenceLatency().getCount());
+		assertEquals(shadow.getCheckCount(), shadow.getCandidateLatency().getCount());
+		assertTrue(shadow.getDisagreements().isEmpty());
+	}
+
+	@Test
+	void disagreementsCarryAReproduction()
+	{
+		ShadowValidator shadow = new ShadowValidator((from, to, board) -> true);
+		Board board = new Board(8, 8);
+		board.putPieceAt(new ChessPiece(WHITEROOK), makeCoordinate(1, 1));
+		board.movePiece(makeCoordinate(1, 1), makeCoordinate(2, 1));
+		assertFalse(shadow.check(board, makeCoordinate(2, 1), makeCoordinate(3, 2)));
+		assertTrue(shadow.check(board, makeCoordinate(2, 1), makeCoordinate(5, 1)));
+		assertEquals(1, shadow.getDisagreementCount());
+
+		Disagreement d = shadow.getDisagreements().get(0);
+		assertFalse(d.getExpected());
+		assertTrue(d.getActual());
+		Board replay = d.rebuild();
+		assertFalse(ShadowValidator.REFERENCE.allowed(d.getFrom(), d.getTo(), replay));
+		assertTrue(replay.hasMoved(makeCoordinate(2, 1)));
+	}
+
+	@Test
+	void codecRoundTrips()
+	{
+		Board board = new Board(6, 9);
+		board.putPieceAt(new ChessPiece(BLACKKING), makeCoordinate(6, 5));
+		ChessPiece pawn = new ChessPiece(WHITEPAWN);
+		pawn.setHasMoved();
+		board.putPieceAt(pawn, makeCoordinate(3, 9));
+		String text = PositionCodec.encode(board);
+		assertEquals("6x9/WHITEPAWN@3,9*/BLACKKING@6,5", text);
+		assertEquals(text, PositionCodec.encode(PositionCodec.decode(text)));
+	}
+
+	@Test
+	void codecKeepsTheGameStateAndTable()
+	{
+		Board board = new Board(8, 8);
+		board.putPieceAt(new ChessPiece(WHITEKING), makeCoordinate(1, 2));
+		board.putPieceAt(new ChessPiece(WHITEROOK), makeCoordinate(1, 8));
+		CastlingTable.chess960(8, 8, 2, 1, 8).attach(board);
+		GameState.start(board, PlayerColor.BLACK);
+		String text = PositionCodec.encode(board);
+		Board decoded = PositionCodec.decode(text);
+		assertEquals(board.getGameState(), decoded.getGameState());
+		assertEquals(2, CastlingTable.of(decoded).getKingColumn());
+		assertEquals(text, PositionCodec.encode(decoded));
+	}
+
+	@Test
+	void codecRejectsGarbage()
+	{
+		try {
+			PositionCodec.decode("8x8/WHITEKING");
+			fail("expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.batch;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.util.Random;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Asks "is this square attacked" and "is this knight move allowed" of many
+ * positions, once with the batch kernels and once board by board, and
+ * prints positions per second. Run it as a plain Java application; it is
+ * not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class BatchBenchmark
+{
+	private static final int POSITIONS = 200_000;
+	private static final int ROUNDS = 10;
+
+	private static long sink;
+
+	public static void main(String[] args)
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		Board[] boards = new Board[POSITIONS];
+		BoardBatch batch = new BoardBatch(8, 8, POSITIONS);
+		for (int n = 0; n < POSITIONS; n++) {
+			boards[n] = new Board(8, 8);
+			for (int i = 0; i < 20; i++) {
+				boards[n].putPieceAt(ChessPieceFactory.sharedPiece(all[random.nextInt(all.length)]),
+						makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			}
+			batch.add(boards[n]);
+		}
+		long[] out = new long[POSITIONS];
+		int target = boards[0].squareOf(4, 5);
+		int knightFrom = boards[0].squareOf(1, 2);
+		int knightTo = boards[0].squareOf(3, 3);
+		double attackedBatch = 0, attackedBoards = 0, knightBatch = 0, knightBoards = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			sink += BatchKernels.isAttacked(batch, target, PlayerColor.BLACK, out);
+			attackedBatch = rate(start);
+
+			start = System.nanoTime();
+			for (Board board : boards) {
+				sink += ChessAttacks.isAttacked(board, target, PlayerColor.BLACK) ? 1 : 0;
+			}
+			attackedBoards = rate(start);
+
+			start = System.nanoTime();
+			sink += BatchKernels.knightMove(batch, knightFrom, knightTo, out);
+			knightBatch = rate(start);
+
+			start = System.nanoTime();
+			for (Board board : boards) {
+				ChessPiece p = (ChessPiece) board.getPieceAt(knightFrom);
+				sink += p != null && p.getName() == PieceName.KNIGHT
+						&& p.canMove(knightFrom, knightTo, board) ? 1 : 0;
+			}
+			knightBoards = rate(start);
+		}
+		System.out.printf("%-22s %16s %16s%n", "question", "batch pos/sec", "boards pos/sec");
+		System.out.printf("%-22s %,16.0f %,16.0f%n", "square attacked", attackedBatch, attackedBoards);
+		System.out.printf("%-22s %,16.0f %,16.0f%n", "knight move allowed", knightBatch, knightBoards);
+		System.out.println(sink == 42 ? "" : "done");
+	}
+
+	private static double rate(long start)
+	{
+		return POSITIONS * 1e9 / (System.nanoTime() - start);
+	}
+}
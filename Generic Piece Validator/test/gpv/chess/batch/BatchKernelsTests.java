@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.batch;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.Random;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Checks every batch kernel against its scalar fallback.
+ * @version Oct 19, 2026
+ */
+class BatchKernelsTests
+{
+	@Test
+	void kernelsMatchScalarOnStandardBoards()
+	{
+		compare(randomBatch(8, 8, 40, 4233L));
+	}
+
+	@Test
+	void kernelsMatchScalarOnOddBoards()
+	{
+		compare(randomBatch(7, 9, 40, 2020L));
+	}
+
+	@Test
+	void batchRoundTripsBoards()
+	{
+		Board board = new Board(8, 8);
+		board.putPieceAt(ChessPieceFactory.sharedPiece(ChessPieceDescriptor.WHITEROOK), makeCoordinate(1, 1));
+		board.movePiece(makeCoordinate(1, 1), makeCoordinate(4, 1));
+		BoardBatch batch = new BoardBatch(8, 8, 1);
+		batch.add(new Board(8, 8));
+		int lane = batch.add(board);
+		assertEquals(2, batch.size());
+		Board copy = batch.toBoard(lane);
+		assertEquals(board.getPositionHash(), copy.getPositionHash());
+		batch.clear();
+		assertEquals(0, batch.size());
+	}
+
+	@Test
+	void rejectsBoardsOverSixtyFourSquares()
+	{
+		try {
+			new BoardBatch(9, 8, 10);
+			fail("expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private void compare(BoardBatch batch)
+	{
+		int squares = batch.getRows() * batch.getColumns();
+		long[] fast = new long[batch.size()];
+		long[] slow = new long[batch.size()];
+		for (int from = 0; from < squares; from += 3) {
+			for (int to = 0; to < squares; to++) {
+				assertEquals(BatchKernels.scalarAvailableSpace(batch, from, to, slow),
+						BatchKernels.availableSpace(batch, from, to, fast));
+				assertArrayEquals(slow, fast);
+				if (from != to) {
+					assertEquals(BatchKernels.scalarClearPath(batch, from, to, slow),
+							BatchKernels.clearPath(batch, from, to, fast));
+					assertArrayEquals(slow, fast);
+				}
+				assertEquals(BatchKernels.scalarKnightMove(batch, from, to, slow),
+						BatchKernels.knightMove(batch, from, to, fast));
+				assertArrayEquals(slow, fast);
+			}
+			for (PlayerColor by : PlayerColor.values()) {
+				assertEquals(BatchKernels.scalarIsAttacked(batch, from, by, slow),
+						BatchKernels.isAttacked(batch, from, by, fast));
+				assertArrayEquals(slow, fast);
+			}
+		}
+	}
+
+	private static BoardBatch randomBatch(int rows, int columns, int boards, long seed)
+	{
+		Random random = new Random(seed);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		BoardBatch batch = new BoardBatch(rows, columns, 4);
+		for (int n = 0; n < boards; n++) {
+			Board board = new Board(rows, columns);
+			int pieces = 2 + random.nextInt(rows * columns / 2);
+			for (int i = 0; i < pieces; i++) {
+				board.putPieceAt(ChessPieceFactory.sharedPiece(all[random.nextInt(all.length)]),
+						makeCoordinate(random.nextInt(rows) + 1, random.nextInt(columns) + 1));
+			}
+			batch.add(board);
+		}
+		return batch;
+	}
+}
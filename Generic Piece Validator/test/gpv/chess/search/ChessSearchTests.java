@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.search;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.chess.search.SearchLimits.makeSearchLimits;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Tests for the best-move search and its transposition table.
+ * @version Oct 19, 2026
+ */
+class ChessSearchTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory(true);
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		place(WHITEKING, 1, 5);
+		place(BLACKKING, 8, 5);
+	}
+
+	@Test
+	void capturesAnUndefendedQueen()
+	{
+		place(WHITEROOK, 4, 1);
+		place(BLACKQUEEN, 4, 7);
+		SearchResult result = new ChessSearch(1).search(board, PlayerColor.WHITE, makeSearchLimits(3, 0, 0));
+		assertEquals(makeCoordinate(4, 1), result.getFrom());
+		assertEquals(makeCoordinate(4, 7), result.getTo());
+		assertTrue(result.getScore() > 0);
+		assertEquals(3, result.getDepth());
+	}
+
+	@Test
+	void capturingTheKingWins()
+	{
+		place(BLACKKNIGHT, 3, 4);
+		SearchResult result = new ChessSearch(1).search(board, PlayerColor.BLACK, makeSearchLimits(2, 0, 0));
+		assertEquals(makeCoordinate(1, 5), result.getTo());
+		assertEquals(ChessSearch.WIN - 1, result.getScore());
+	}
+
+	@Test
+	void bestMoveIsAllowedByTheValidator()
+	{
+		place(WHITEQUEEN, 1, 4);
+		place(WHITEPAWN, 2, 5);
+		place(BLACKROOK, 8, 1);
+		place(BLACKPAWN, 7, 4);
+		SearchResult result = new ChessSearch(3).search(board, PlayerColor.WHITE, makeSearchLimits(4, 0, 0));
+		assertTrue(result.hasMove());
+		ChessPiece piece = (ChessPiece) board.getPieceAt(result.getFrom());
+		assertTrue(piece.canMove(result.getFrom(), result.getTo(), board));
+		assertTrue(result.getNodes() > 0);
+	}
+
+	@Test
+	void stopsAtTheNodeLimit()
+	{
+		place(WHITEQUEEN, 1, 4);
+		place(BLACKQUEEN, 8, 4);
+		SearchResult result = new ChessSearch(1).search(board, PlayerColor.WHITE, makeSearchLimits(0, 0, 5000));
+		assertTrue(result.hasMove());
+		assertTrue(result.getNodes() < 5000 + 2048);
+	}
+
+	@Test
+	void aStoppedFirstIterationStoresNothing()
+	{
+		for (int row = 2; row <= 7; row++) {
+			for (int column = 1; column <= 8; column++) {
+				place((row + column) % 2 == 0 ? WHITEQUEEN : BLACKQUEEN, row, column);
+			}
+		}
+		TranspositionTable table = new TranspositionTable(16);
+		SearchResult result = new ChessSearch(1, table).search(board, PlayerColor.WHITE, makeSearchLimits(0, 0, 1));
+		assertEquals(0, result.getDepth());
+		assertTrue(result.hasMove());
+		ChessPiece piece = (ChessPiece) board.getPieceAt(result.getFrom());
+		assertTrue(piece.canMove(result.getFrom(), result.getTo(), board));
+		assertEquals(0, table.probe(ChessSearch.keyOf(board, PlayerColor.WHITE)));
+	}
+
+	@Test
+	void castlingOntoTheRookIsNotACapture()
+	{
+		board = new Board(8, 8);
+		place(WHITEROOK, 1, 1);
+		place(WHITEKING, 1, 2);
+		place(WHITEROOK, 1, 8);
+		place(BLACKKING, 8, 5);
+		CastlingTable.chess960(8, 8, 2, 1, 8).attach(board);
+		GameState.start(board, PlayerColor.WHITE);
+		int castle = ChessMoves.encode(board.squareOf(1, 2), board.squareOf(1, 1));
+		assertTrue(((ChessPiece) board.getPieceAt(makeCoordinate(1, 2))).canMove(board.squareOf(1, 2),
+				board.squareOf(1, 1), board));
+		assertNull(ChessSearch.capturedBy(board, castle));
+		assertNull(ChessSearch.capturedBy(board, ChessMoves.encode(board.squareOf(1, 1), board.squareOf(2, 1))));
+		place(BLACKKNIGHT, 2, 2);
+		int capture = ChessMoves.encode(board.squareOf(1, 2), board.squareOf(2, 2));
+		assertEquals(BLACKKNIGHT, ChessSearch.capturedBy(board, capture).getDescriptor());
+	}
+
+	@Test
+	void keysTellCastlingAndEnPassantApart()
+	{
+		place(WHITEROOK, 1, 8);
+		place(WHITEPAWN, 5, 4);
+		place(BLACKPAWN, 7, 5);
+		GameState.start(board, PlayerColor.BLACK);
+		ChessMoves.apply(board, ChessMoves.encode(board.squareOf(7, 5), board.squareOf(5, 5)));
+		long withEnPassant = ChessSearch.keyOf(board, PlayerColor.WHITE);
+		Board same = board.copy();
+		same.setGameState(board.getGameState() & ~GameState.EN_PASSANT);
+		assertNotEquals(withEnPassant, ChessSearch.keyOf(same, PlayerColor.WHITE));
+		same.setGameState(board.getGameState() & ~GameState.CASTLING);
+		assertNotEquals(withEnPassant, ChessSearch.keyOf(same, PlayerColor.WHITE));
+		assertEquals(withEnPassant, ChessSearch.keyOf(board.copy(), PlayerColor.WHITE));
+	}
+
+	@Test
+	void tableKeepsDeeperResults()
+	{
+		TranspositionTable table = new TranspositionTable(1);
+		table.store(42L, 7, -150, 5, TranspositionTable.LOWER);
+		table.store(42L, 9, 10, 3, TranspositionTable.EXACT);
+		long data = table.probe(42L);
+		assertEquals(7, TranspositionTable.moveOf(data));
+		assertEquals(-150, TranspositionTable.scoreOf(data));
+		assertEquals(5, TranspositionTable.depthOf(data));
+		assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(data));
+		assertEquals(0, table.probe(43L));
+	}
+
+	@Test
+	void limitsNeedAtLeastOneBound()
+	{
+		try {
+			makeSearchLimits(0, 0, 0);
+			fail("expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private void place(ChessPieceDescriptor d, int row, int column)
+	{
+		board.putPieceAt(factory.makePiece(d), makeCoordinate(row, column));
+	}
+}
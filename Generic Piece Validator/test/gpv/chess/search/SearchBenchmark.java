@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.search;
+
+import static gpv.chess.search.SearchLimits.makeSearchLimits;
+import static gpv.util.Coordinate.makeCoordinate;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Searches the starting position for a fixed time with a growing number of
+ * threads and prints the nodes per second and depth reached. Run it as a
+ * plain Java application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class SearchBenchmark
+{
+	private static final long MILLIS = 2000;
+
+	public static void main(String[] args)
+	{
+		Board board = startingPosition();
+		int cores = Runtime.getRuntime().availableProcessors();
+		new ChessSearch(1).search(board, PlayerColor.WHITE, makeSearchLimits(0, MILLIS, 0));	// warm up
+		System.out.printf("%-8s %8s %14s %12s  %s%n", "threads", "depth", "nodes", "nps", "best");
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			SearchResult result = new ChessSearch(threads)
+					.search(board, PlayerColor.WHITE, makeSearchLimits(0, MILLIS, 0));
+			System.out.printf("%-8d %8d %,14d %,12d  %s->%s%n", threads, result.getDepth(),
+					result.getNodes(), result.getNodesPerSecond(), result.getFrom(), result.getTo());
+		}
+	}
+
+	private static Board startingPosition()
+	{
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		PieceName[] backRank = { PieceName.ROOK, PieceName.KNIGHT, PieceName.BISHOP, PieceName.QUEEN,
+				PieceName.KING, PieceName.BISHOP, PieceName.KNIGHT, PieceName.ROOK };
+		Board board = new Board(8, 8);
+		for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+			int home = d.getColor() == PlayerColor.WHITE ? 1 : 8;
+			int pawns = d.getColor() == PlayerColor.WHITE ? 2 : 7;
+			for (int column = 1; column <= 8; column++) {
+				if (d.getName() == PieceName.PAWN) {
+					board.putPieceAt(factory.makePiece(d), makeCoordinate(pawns, column));
+				} else if (backRank[column - 1] == d.getName()) {
+					board.putPieceAt(factory.makePiece(d), makeCoordinate(home, column));
+				}
+			}
+		}
+		return board;
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.stream;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.util.Random;
+import java.util.concurrent.*;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Validates the same moves with a plain blocking loop and through a
+ * ValidationProcessor, with a subscriber that asks for everything and one
+ * that asks for one verdict at a time, and prints moves per second. Run it
+ * as a plain Java application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class StreamBenchmark
+{
+	private static final int MOVES = 1_000_000;
+	private static final int ROUNDS = 5;
+
+	private static long sink;
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		MoveRequest[] requests = randomRequests();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		System.out.printf("%-24s %14s%n", "mode", "moves/sec");
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (MoveRequest request : requests) {
+				sink += request.validate() ? 1 : 0;
+			}
+			report("blocking loop", start);
+			for (int batch : new int[] { 1, 64, 1024 }) {
+				start = System.nanoTime();
+				stream(requests, executor, batch, Long.MAX_VALUE);
+				report("stream, batch " + batch, start);
+			}
+			start = System.nanoTime();
+			stream(requests, executor, 64, 1);
+			report("stream, demand 1", start);
+		}
+		executor.shutdown();
+		System.out.println(sink);
+	}
+
+	private static void stream(MoveRequest[] requests, Executor executor, int batch, long ask)
+			throws InterruptedException
+	{
+		CountDownLatch finished = new CountDownLatch(1);
+		ValidationProcessor validator = new ValidationProcessor(executor, batch);
+		new ArrayPublisher(requests).subscribe(validator);
+		validator.subscribe(new Flow.Subscriber<MoveVerdict>() {
+			private Flow.Subscription subscription;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription)
+			{
+				this.subscription = subscription;
+				subscription.request(ask);
+			}
+
+			@Override
+			public void onNext(MoveVerdict verdict)
+			{
+				sink += verdict.isAllowed() ? 1 : 0;
+				if (ask != Long.MAX_VALUE) {
+					subscription.request(ask);
+				}
+			}
+
+			@Override
+			public void onError(Throwable throwable)
+			{
+				throwable.printStackTrace();
+				finished.countDown();
+			}
+
+			@Override
+			public void onComplete()
+			{
+				finished.countDown();
+			}
+		});
+		finished.await();
+	}
+
+	private static void report(String mode, long start)
+	{
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%-24s %,14.0f%n", mode, MOVES / seconds);
+	}
+
+	private static MoveRequest[] randomRequests()
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		Board[] boards = new Board[1000];
+		for (int n = 0; n < boards.length; n++) {
+			boards[n] = new Board(8, 8);
+			for (int i = 0; i < 16; i++) {
+				boards[n].putPieceAt(factory.makePiece(all[random.nextInt(all.length)]),
+						makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			}
+		}
+		MoveRequest[] requests = new MoveRequest[MOVES];
+		for (int i = 0; i < MOVES; i++) {
+			Board board = boards[random.nextInt(boards.length)];
+			requests[i] = new MoveRequest(board, makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1),
+					makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+		}
+		return requests;
+	}
+
+	/**
+	 * Publishes an array from whichever thread asks for more.
+	 */
+	private static class ArrayPublisher implements Flow.Publisher<MoveRequest>
+	{
+		private final MoveRequest[] items;
+
+		ArrayPublisher(MoveRequest[] items)
+		{
+			this.items = items;
+		}
+
+		@Override
+		public void subscribe(Flow.Subscriber<? super MoveRequest> subscriber)
+		{
+			subscriber.onSubscribe(new Flow.Subscription() {
+				private int next;
+				private long requested;
+				private boolean emitting;
+				private boolean cancelled;
+
+				@Override
+				public synchronized void request(long n)
+				{
+					requested += n;
+					if (emitting) {
+						return;	// the outer call keeps going
+					}
+					emitting = true;
+					while (!cancelled && next < items.length && next < requested) {
+						subscriber.onNext(items[next++]);
+					}
+					if (!cancelled && next == items.length) {
+						cancelled = true;
+						subscriber.onComplete();
+					}
+					emitting = false;
+				}
+
+				@Override
+				public synchronized void cancel()
+				{
+					cancelled = true;
+				}
+			});
+		}
+	}
+}
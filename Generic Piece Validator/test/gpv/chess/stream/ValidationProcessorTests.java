@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.stream;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Tests for the streaming validation stage.
+ * @version Oct 19, 2026
+ */
+class ValidationProcessorTests
+{
+	private static ChessPieceFactory factory = null;
+	private Board board;
+
+	@BeforeAll
+	public static void setupBeforeTests()
+	{
+		factory = new ChessPieceFactory(true);
+	}
+
+	@BeforeEach
+	public void setupTest()
+	{
+		board = new Board(8, 8);
+		board.putPieceAt(factory.makePiece(WHITEROOK), makeCoordinate(1, 1));
+		board.putPieceAt(factory.makePiece(WHITEKNIGHT), makeCoordinate(1, 2));
+		board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(4, 1));
+	}
+
+	@Test
+	void verdictsMatchCanMoveInOrder() throws InterruptedException
+	{
+		List<MoveRequest> requests = everyMove(board);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ValidationProcessor validator = new ValidationProcessor(executor, 16);
+			Collector collector = new Collector(Long.MAX_VALUE);
+			new ListPublisher(requests).subscribe(validator);
+			validator.subscribe(collector);
+			assertTrue(collector.finished.await(10, TimeUnit.SECONDS));
+			assertNull(collector.error);
+			assertEquals(requests.size(), collector.verdicts.size());
+			for (int i = 0; i < requests.size(); i++) {
+				MoveVerdict verdict = collector.verdicts.get(i);
+				MoveRequest request = requests.get(i);
+				assertSame(request, verdict.getRequest());
+				ChessPiece piece = (ChessPiece) board.getPieceAt(request.getFrom());
+				assertEquals(piece != null && piece.canMove(request.getFrom(), request.getTo(), board),
+						verdict.isAllowed());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void nothingIsPulledBeyondDemand()
+	{
+		ListPublisher source = new ListPublisher(everyMove(board));
+		ValidationProcessor validator = new ValidationProcessor(Runnable::run, 8);
+		Collector collector = new Collector(3);
+		source.subscribe(validator);
+		validator.subscribe(collector);
+		assertEquals(3, collector.verdicts.size());
+		assertTrue(source.requested <= 8 + 4);
+		assertTrue(validator.getBuffered() <= 8);
+		collector.subscription.request(2);
+		assertEquals(5, collector.verdicts.size());
+		collector.subscription.cancel();
+		assertTrue(source.cancelled);
+		assertEquals(1, collector.finished.getCount());
+	}
+
+	@Test
+	void completesAfterTheLastVerdict()
+	{
+		ValidationProcessor validator = new ValidationProcessor(Runnable::run, 4);
+		Collector collector = new Collector(Long.MAX_VALUE);
+		List<MoveRequest> requests = everyMove(board).subList(0, 10);
+		new ListPublisher(requests).subscribe(validator);
+		validator.subscribe(collector);
+		assertEquals(10, collector.verdicts.size());
+		assertEquals(0, collector.finished.getCount());
+		assertNull(collector.error);
+	}
+
+	@Test
+	void badRequestsEndTheStream()
+	{
+		ValidationProcessor validator = new ValidationProcessor(Runnable::run, 4);
+		Collector collector = new Collector(0);
+		new ListPublisher(everyMove(board)).subscribe(validator);
+		validator.subscribe(collector);
+		collector.subscription.request(0);
+		assertTrue(collector.error instanceof IllegalArgumentException);
+
+		Collector second = new Collector(1);
+		validator.subscribe(second);
+		assertTrue(second.error instanceof IllegalStateException);
+	}
+
+	private static List<MoveRequest> everyMove(Board board)
+	{
+		List<MoveRequest> requests = new ArrayList<MoveRequest>();
+		for (int from = 0; from < board.getSquareCount(); from++) {
+			for (int to = 0; to < board.getSquareCount(); to++) {
+				requests.add(new MoveRequest(board, board.coordinateOf(from), board.coordinateOf(to)));
+			}
+		}
+		return requests;
+	}
+
+	/**
+	 * Publishes a list on the calling thread, as it is asked for.
+	 */
+	private static class ListPublisher implements Flow.Publisher<MoveRequest>
+	{
+		private final List<MoveRequest> items;
+		private int next;
+		private long requested;
+		private boolean cancelled;
+
+		ListPublisher(List<MoveRequest> items)
+		{
+			this.items = items;
+		}
+
+		@Override
+		public void subscribe(Flow.Subscriber<? super MoveRequest> subscriber)
+		{
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n)
+				{
+					requested += n;
+					while (!cancelled && next < items.size() && next < requested) {
+						subscriber.onNext(items.get(next++));
+					}
+					if (!cancelled && next == items.size()) {
+						cancelled = true;
+						subscriber.onComplete();
+					}
+				}
+
+				@Override
+				public void cancel()
+				{
+					cancelled = true;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Collects verdicts, asking for a fixed number up front.
+	 */
+	private static class Collector implements Flow.Subscriber<MoveVerdict>
+	{
+		private final long initial;
+		private final List<MoveVerdict> verdicts = new CopyOnWriteArrayList<MoveVerdict>();
+		private final CountDownLatch finished = new CountDownLatch(1);
+		private volatile Throwable error;
+		private Flow.Subscription subscription;
+
+		Collector(long initial)
+		{
+			this.initial = initial;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription)
+		{
+			this.subscription = subscription;
+			if (initial > 0) {
+				subscription.request(initial);
+			}
+		}
+
+		@Override
+		public void onNext(MoveVerdict item)
+		{
+			verdicts.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable)
+		{
+			error = throwable;
+			finished.countDown();
+		}
+
+		@Override
+		public void onComplete()
+		{
+			finished.countDown();
+		}
+	}
+}
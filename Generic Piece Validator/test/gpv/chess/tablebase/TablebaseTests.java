@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.chess.tablebase;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * Tests for the endgame tablebase generator and prober, on small boards so
+ * that every position can be checked.
+ * @version Oct 19, 2026
+ */
+class TablebaseTests
+{
+	private Path directory;
+
+	@BeforeEach
+	public void setup() throws IOException
+	{
+		directory = Files.createTempDirectory("tablebase");
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException
+	{
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	void kingCaptureIsWonInOnePly()
+	{
+		Tablebase krk = new TablebaseGenerator(4, 4, 2).generate(WHITEKING, WHITEROOK, BLACKKING);
+		Board board = position(4, WHITEKING, 1, 1, WHITEROOK, 4, 1, BLACKKING, 4, 4);
+		assertEquals(1, krk.probe(board, PlayerColor.WHITE));
+	}
+
+	@Test
+	void everyValueAgreesWithItsMoves()
+	{
+		TablebaseGenerator generator = new TablebaseGenerator(4, 4, 3);
+		Tablebase krk = generator.generate(WHITEKING, WHITEROOK, BLACKKING);
+		int n = 16;
+		int longest = 0;
+		for (int king = 0; king < n; king++) {
+			for (int rook = 0; rook < n; rook++) {
+				for (int enemy = 0; enemy < n; enemy++) {
+					if (king == rook || king == enemy || rook == enemy) {
+						continue;
+					}
+					for (PlayerColor side : PlayerColor.values()) {
+						Board board = new Board(4, 4);
+						place(board, WHITEKING, king);
+						place(board, WHITEROOK, rook);
+						place(board, BLACKKING, enemy);
+						int value = krk.probe(board, side);
+						assertEquals(PositionCodec.encode(board) + " " + side,
+								valueFromMoves(generator, board, side), value);
+						longest = Math.max(longest, value);
+					}
+				}
+			}
+		}
+		assertTrue(longest > 1);
+	}
+
+	@Test
+	void threadsDoNotChangeTheTable()
+	{
+		Tablebase one = new TablebaseGenerator(4, 4, 1).generate(WHITEKING, WHITEBISHOP, BLACKKING, BLACKKNIGHT);
+		Tablebase four = new TablebaseGenerator(4, 4, 4).generate(BLACKKNIGHT, WHITEKING, BLACKKING, WHITEBISHOP);
+		assertEquals(one.getMaterial(), four.getMaterial());
+		int[] squares = new int[one.getMaterial().size()];
+		for (int index = 0; index < one.size(); index++) {
+			int rest = index;
+			for (int i = 0; i < squares.length; i++) {
+				squares[i] = rest % 16;
+				rest /= 16;
+			}
+			PlayerColor side = PlayerColor.values()[rest];
+			assertEquals(one.probe(squares, side), four.probe(squares, side));
+		}
+	}
+
+	@Test
+	void writtenTablesAreMappedBack() throws IOException
+	{
+		TablebaseGenerator generator = new TablebaseGenerator(4, 4, 2);
+		Tablebase built = generator.generate(WHITEKING, WHITEROOK, BLACKKING);
+		Tablebase mapped = generator.generate(directory, WHITEKING, WHITEROOK, BLACKKING);
+		assertTrue(Files.exists(directory.resolve("KRK-4x4.gptb")));
+		assertTrue(Files.exists(directory.resolve("KK-4x4.gptb")));
+		Tablebase reopened = Tablebase.open(directory.resolve("KRK-4x4.gptb"));
+		assertEquals("KRK-4x4", reopened.getName());
+		Board board = position(4, WHITEKING, 2, 2, WHITEROOK, 3, 1, BLACKKING, 4, 3);
+		for (PlayerColor side : PlayerColor.values()) {
+			assertEquals(built.probe(board, side), mapped.probe(board, side));
+			assertEquals(built.probe(board, side), reopened.probe(board, side));
+		}
+	}
+
+	@Test
+	void probeRejectsOtherMaterial()
+	{
+		Tablebase krk = new TablebaseGenerator(4, 4, 1).generate(WHITEKING, WHITEROOK, BLACKKING);
+		Board extra = position(4, WHITEKING, 1, 1, WHITEROOK, 4, 1, BLACKKING, 4, 4);
+		place(extra, BLACKKNIGHT, extra.squareOf(2, 3));
+		assertThrows(IllegalArgumentException.class, () -> krk.probe(extra, PlayerColor.WHITE));
+		Board larger = position(5, WHITEKING, 1, 1, WHITEROOK, 4, 1, BLACKKING, 4, 4);
+		assertThrows(IllegalArgumentException.class, () -> krk.probe(larger, PlayerColor.WHITE));
+	}
+
+	@Test
+	void unsupportedMaterialIsRejected()
+	{
+		TablebaseGenerator generator = new TablebaseGenerator(4, 4, 1);
+		assertThrows(IllegalArgumentException.class, () -> generator.generate(WHITEKING, WHITEPAWN, BLACKKING));
+		assertThrows(IllegalArgumentException.class, () -> generator.generate(WHITEKING, WHITEQUEEN));
+	}
+
+	/**
+	 * The value of a position worked out from its moves and the tables
+	 * they lead to.
+	 */
+	private static int valueFromMoves(TablebaseGenerator generator, Board board, PlayerColor side)
+	{
+		PlayerColor other = side == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+		MoveList moves = new MoveList();
+		ChessMoves.generate(board, side, moves);
+		int fastestWin = Integer.MAX_VALUE;
+		int slowestLoss = 0;
+		boolean drawn = false;
+		for (int i = 0; i < moves.size(); i++) {
+			Board next = board.copy();
+			ChessPiece captured = (ChessPiece) ChessMoves.apply(next, moves.get(i));
+			if (captured != null && captured.getName() == PieceName.KING) {
+				fastestWin = 1;
+				continue;
+			}
+			int value;
+			if (captured == null) {
+				value = generator.generate(WHITEKING, WHITEROOK, BLACKKING).probe(next, other);
+			} else {
+				value = generator.generate(WHITEKING, BLACKKING).probe(next, other);
+			}
+			if (value < 0) {
+				fastestWin = Math.min(fastestWin, 1 - value);
+			} else if (value > 0) {
+				slowestLoss = Math.max(slowestLoss, value);
+			} else {
+				drawn = true;
+			}
+		}
+		if (fastestWin != Integer.MAX_VALUE) {
+			return fastestWin;
+		}
+		return drawn || moves.size() == 0 ? 0 : -(slowestLoss + 1);
+	}
+
+	private static Board position(int size, Object... pieces)
+	{
+		Board board = new Board(size, size);
+		for (int i = 0; i < pieces.length; i += 3) {
+			place(board, (ChessPieceDescriptor) pieces[i],
+					board.squareOf((Integer) pieces[i + 1], (Integer) pieces[i + 2]));
+		}
+		return board;
+	}
+
+	private static void place(Board board, ChessPieceDescriptor descriptor, int square)
+	{
+		board.putPieceAt(ChessPieceFactory.sharedPiece(descriptor), board.coordinateOf(square));
+		board.setMoved(square, true);
+	}
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Builds an index of a few million random postings in a temporary
+ * directory and times lookups. Run it as a plain Java application; it is
+ * not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class PositionIndexBenchmark
+{
+	private static final int POSTINGS = 5_000_000;
+	private static final int LOOKUPS = 200_000;
+
+	public static void main(String[] args) throws IOException
+	{
+		Path directory = Files.createTempDirectory("position-index-benchmark");
+		try (PositionIndex index = PositionIndex.open(directory, 250_000)) {
+			Random random = new Random(4233);
+			long start = System.nanoTime();
+			for (int i = 0; i < POSTINGS; i++) {
+				index.add(random.nextLong(), i / 80, i % 80);
+			}
+			index.flush();
+			index.awaitMerges();
+			System.out.printf("built %,d postings in %.1f s, %d segments%n", index.getPostingCount(),
+					(System.nanoTime() - start) / 1e9, index.getSegmentCount());
+
+			long found = 0;
+			for (int round = 0; round < 3; round++) {
+				random = new Random(4233);
+				start = System.nanoTime();
+				for (int i = 0; i < LOOKUPS; i++) {
+					found += index.lookup(random.nextLong()).size();
+					random.nextLong();	// look up every other posting
+				}
+				System.out.printf("lookup %.2f us (%d found)%n", (System.nanoTime() - start) / 1e3 / LOOKUPS, found);
+			}
+		} finally {
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.index;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+import gpv.util.*;
+
+/**
+ * Tests for the disk-backed position index.
+ * @version Oct 19, 2026
+ */
+class PositionIndexTests
+{
+	private Path directory;
+
+	@BeforeEach
+	public void setup() throws IOException
+	{
+		directory = Files.createTempDirectory("position-index");
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException
+	{
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	void findsPostingsBeforeAndAfterFlushAndReopen() throws IOException
+	{
+		try (PositionIndex index = PositionIndex.open(directory, 100)) {
+			index.add(42L, 7, 3);
+			index.add(43L, 7, 4);
+			assertEquals(Arrays.asList(new Posting(7, 3)), index.lookup(42L));
+			index.flush();
+			index.add(42L, 9, 12);
+			assertEquals(2, index.lookup(42L).size());
+			assertEquals(1, index.getSegmentCount());
+		}
+		try (PositionIndex index = PositionIndex.open(directory, 100)) {
+			assertEquals(new HashSet<Posting>(Arrays.asList(new Posting(7, 3), new Posting(9, 12))),
+					new HashSet<Posting>(index.lookup(42L)));
+			assertTrue(index.lookup(44L).isEmpty());
+			assertEquals(3, index.getPostingCount());
+		}
+	}
+
+	@Test
+	void mergesKeepEveryPosting() throws IOException
+	{
+		Random random = new Random(4233);
+		Map<Long, Integer> expected = new HashMap<Long, Integer>();
+		try (PositionIndex index = PositionIndex.open(directory, 50)) {
+			for (int i = 0; i < 2000; i++) {
+				long hash = random.nextInt(300) - 150;
+				index.add(hash, i, i % 40);
+				expected.merge(hash, 1, Integer::sum);
+			}
+			index.flush();
+			index.awaitMerges();
+			assertTrue(index.getSegmentCount() <= PositionIndex.MAX_SEGMENTS);
+			assertEquals(2000, index.getPostingCount());
+			for (Map.Entry<Long, Integer> e : expected.entrySet()) {
+				assertEquals((int) e.getValue(), index.lookup(e.getKey()).size());
+			}
+		}
+	}
+
+	@Test
+	void reopeningAfterACrashMidMergeDropsTheInputs() throws IOException
+	{
+		try (PositionIndex index = PositionIndex.open(directory, 2)) {
+			for (int i = 0; i < 8; i++) {
+				index.add(i % 3, i, i);
+			}
+			assertEquals(4, index.getSegmentCount());
+		}
+		// The merged segment was renamed into place, but the crash came
+		// before its inputs were deleted.
+		List<Segment> inputs = new ArrayList<Segment>();
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+				inputs.add(Segment.open(file, inputs.size() + 1));
+			}
+		}
+		long[] hashes = new long[8];
+		long[] games = new long[8];
+		int[] plies = new int[8];
+		int n = 0;
+		for (Segment segment : inputs) {
+			for (long i = 0; i < segment.count(); i++, n++) {
+				hashes[n] = segment.hashAt(i);
+				games[n] = segment.gameAt(i);
+				plies[n] = segment.plyAt(i);
+			}
+		}
+		PostingSort.sort(hashes, games, plies, n);
+		Segment.write(directory.resolve("segment-000000000005.pix"), 5, n, new long[] { 1, 2, 3, 4 }, writer -> {
+			for (int i = 0; i < 8; i++) {
+				writer.write(hashes[i], games[i], plies[i]);
+			}
+		});
+		try (PositionIndex index = PositionIndex.open(directory, 2)) {
+			assertEquals(1, index.getSegmentCount());
+			assertEquals(8, index.getPostingCount());
+			assertEquals(3, index.lookup(0L).size());
+			index.add(9L, 9, 9);
+			index.flush();
+			assertEquals(2, index.getSegmentCount());
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(2, files.count());
+		}
+	}
+
+	@Test
+	void lookupsNeverMissPostingsBeingFlushed() throws Exception
+	{
+		try (PositionIndex index = PositionIndex.open(directory, 64)) {
+			for (int i = 0; i < 10; i++) {
+				index.add(7L, i, i);
+			}
+			Thread writer = new Thread(() -> {
+				try {
+					for (int i = 0; i < 5000; i++) {
+						index.add(i % 5 == 0 ? 7L : 8L + i, 100 + i, 0);
+					}
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			writer.start();
+			int seen = 10;
+			while (writer.isAlive()) {
+				int now = index.lookup(7L).size();
+				assertEquals("postings went missing", true, now >= seen);
+				seen = now;
+			}
+			writer.join();
+			index.awaitMerges();
+			assertEquals(1010, index.lookup(7L).size());
+			assertEquals(5010, index.getPostingCount());
+		}
+	}
+
+	@Test
+	void importedGamesAreFoundFromAHandBuiltPosition() throws IOException
+	{
+		Board start = new Board(8, 8);
+		start.putPieceAt(ChessPieceFactory.sharedPiece(WHITEKING), makeCoordinate(1, 5));
+		start.putPieceAt(ChessPieceFactory.sharedPiece(WHITEKNIGHT), makeCoordinate(1, 2));
+		start.putPieceAt(ChessPieceFactory.sharedPiece(BLACKKING), makeCoordinate(8, 5));
+		int knightOut = ChessMoves.encode(start.squareOf(1, 2), start.squareOf(3, 3));
+		int kingUp = ChessMoves.encode(start.squareOf(8, 5), start.squareOf(7, 5));
+		Iterator<GameImport.GameRecord> games = Arrays.asList(
+				new GameImport.GameRecord(1, start, knightOut, kingUp),
+				new GameImport.GameRecord(2, start, knightOut)).iterator();
+		try (PositionIndex index = PositionIndex.open(directory, 4)) {
+			assertEquals(5, GameImport.importGames(index, games));
+			Board position = new Board(8, 8);
+			position.putPieceAt(new ChessPiece(WHITEKING), makeCoordinate(1, 5));
+			position.putPieceAt(new ChessPiece(WHITEKNIGHT), makeCoordinate(3, 3));
+			position.putPieceAt(new ChessPiece(BLACKKING), makeCoordinate(8, 5));
+			assertEquals(new HashSet<Posting>(Arrays.asList(new Posting(1, 1), new Posting(2, 1))),
+					new HashSet<Posting>(index.lookup(position)));
+			assertEquals(2, index.lookup(start).size());
+		}
+	}
+
+	@Test
+	void sortOrdersByHashGameAndPly()
+	{
+		Random random = new Random(2020);
+		int n = 1000;
+		long[] hashes = new long[n];
+		long[] games = new long[n];
+		int[] plies = new int[n];
+		for (int i = 0; i < n; i++) {
+			hashes[i] = random.nextInt(20) - 10;
+			games[i] = random.nextInt(5);
+			plies[i] = random.nextInt(100);
+		}
+		PostingSort.sort(hashes, games, plies, n);
+		for (int i = 1; i < n; i++) {
+			int c = Long.compare(hashes[i - 1], hashes[i]);
+			if (c == 0) {
+				c = Long.compare(games[i - 1], games[i]);
+			}
+			if (c == 0) {
+				c = Integer.compare(plies[i - 1], plies[i]);
+			}
+			assertTrue(c <= 0);
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.journal;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * Tests for the game journal and its recovery.
+ * @version Oct 19, 2026
+ */
+class GameJournalTests
+{
+	private Path directory;
+
+	@BeforeEach
+	public void setup() throws IOException
+	{
+		directory = Files.createTempDirectory("game-journal");
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException
+	{
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	void recoversEveryLiveGame() throws IOException
+	{
+		Map<Long, Board> games = new HashMap<Long, Board>();
+		try (GameJournal journal = GameJournal.open(directory, 5, GameJournal.SEGMENT_LIMIT)) {
+			play(journal, games, 20, 23, new Random(4233));
+			journal.finish(3L);
+			games.remove(3L);
+		}
+		try (GameJournal journal = GameJournal.open(directory)) {
+			assertSamePositions(games, journal.recover(3));
+		}
+	}
+
+	@Test
+	void tornTailIsCutOff() throws IOException
+	{
+		Map<Long, Board> games = new HashMap<Long, Board>();
+		try (GameJournal journal = GameJournal.open(directory)) {
+			play(journal, games, 4, 10, new Random(1));
+		}
+		Path last;
+		try (Stream<Path> files = Files.list(directory)) {
+			last = files.max(Comparator.naturalOrder()).get();
+		}
+		Files.write(last, new byte[] { 0, 0, 0, 40, 2, 0, 0 }, StandardOpenOption.APPEND);
+		try (GameJournal journal = GameJournal.open(directory)) {
+			assertSamePositions(games, journal.recover(2));
+			Board board = games.get(0L);
+			MoveList moves = new MoveList();
+			ChessMoves.generate(board, PlayerColor.WHITE, moves);
+			ChessMoves.apply(board, moves.get(0));
+			journal.append(0L, moves.get(0), board);
+		}
+		try (GameJournal journal = GameJournal.open(directory)) {
+			assertSamePositions(games, journal.recover(2));
+		}
+	}
+
+	@Test
+	void checkpointDropsOldSegments() throws IOException
+	{
+		Map<Long, Board> games = new HashMap<Long, Board>();
+		try (GameJournal journal = GameJournal.open(directory, 8, 2048)) {
+			play(journal, games, 10, 30, new Random(7));
+			try (Stream<Path> files = Files.list(directory)) {
+				assertTrue(files.count() > 2);
+			}
+			journal.checkpoint(games);
+			try (Stream<Path> files = Files.list(directory)) {
+				assertEquals(1, files.count());
+			}
+			play(journal, games, 0, 3, new Random(8));
+			assertThrows(IllegalArgumentException.class, () -> journal.checkpoint(new HashMap<Long, Board>()));
+		}
+		try (GameJournal journal = GameJournal.open(directory)) {
+			assertSamePositions(games, journal.recover(4));
+		}
+	}
+
+	@Test
+	void concurrentAppendsShareCommits() throws Exception
+	{
+		try (GameJournal journal = GameJournal.open(directory)) {
+			Thread[] threads = new Thread[8];
+			for (int t = 0; t < threads.length; t++) {
+				long game = t;
+				threads[t] = new Thread(() -> {
+					try {
+						Board board = startingBoard();
+						journal.start(game, board);
+						for (int i = 0; i < 50; i++) {
+							journal.append(game, ChessMoves.encode(0, 0), board);
+						}
+					} catch (IOException e) {
+						throw new IllegalStateException(e);
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertEquals(8 * 51, journal.getRecordCount());
+			assertTrue(journal.getCommitCount() <= journal.getRecordCount());
+		}
+	}
+
+	@Test
+	void recoversAcrossAnEnPassantCapture() throws IOException
+	{
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		Board board = new Board(8, 8);
+		board.putPieceAt(factory.makePiece(WHITEKING), makeCoordinate(1, 1));
+		board.putPieceAt(factory.makePiece(BLACKKING), makeCoordinate(8, 8));
+		board.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(2, 5));
+		board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(4, 4));
+		GameState.start(board, PlayerColor.WHITE);
+		try (GameJournal journal = GameJournal.open(directory, 64, GameJournal.SEGMENT_LIMIT)) {
+			journal.start(0L, board);
+			move(journal, board, 2, 5, 4, 5);
+			move(journal, board, 4, 4, 3, 5);	// takes en passant
+		}
+		assertNull(board.getPieceAt(makeCoordinate(4, 5)));
+		try (GameJournal journal = GameJournal.open(directory)) {
+			Board recovered = journal.recover(1).get(0L);
+			assertNull(recovered.getPieceAt(makeCoordinate(4, 5)));
+			assertEquals(board.getGameState(), recovered.getGameState());
+			assertEquals(PositionCodec.encode(board), PositionCodec.encode(recovered));
+		}
+	}
+
+	@Test
+	void recoversAcrossAChess960Castle() throws IOException
+	{
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		Board board = new Board(8, 8);
+		for (int row : new int[] { 1, 8 }) {
+			boolean white = row == 1;
+			board.putPieceAt(factory.makePiece(white ? WHITEROOK : BLACKROOK), makeCoordinate(row, 1));
+			board.putPieceAt(factory.makePiece(white ? WHITEKING : BLACKKING), makeCoordinate(row, 2));
+			board.putPieceAt(factory.makePiece(white ? WHITEROOK : BLACKROOK), makeCoordinate(row, 8));
+		}
+		CastlingTable.chess960(8, 8, 2, 1, 8).attach(board);
+		GameState.start(board, PlayerColor.WHITE);
+		try (GameJournal journal = GameJournal.open(directory, 2, GameJournal.SEGMENT_LIMIT)) {
+			journal.start(0L, board);
+			move(journal, board, 1, 2, 1, 8);	// white castles king side
+			move(journal, board, 8, 2, 8, 1);	// black castles queen side
+			move(journal, board, 1, 6, 2, 6);
+		}
+		try (GameJournal journal = GameJournal.open(directory)) {
+			Board recovered = journal.recover(1).get(0L);
+			assertEquals(PositionCodec.encode(board), PositionCodec.encode(recovered));
+			assertNotNull(CastlingTable.of(recovered));
+			assertEquals(0, GameState.castlingRights(recovered.getGameState()));
+		}
+	}
+
+	private static void move(GameJournal journal, Board board, int fromRow, int fromColumn, int toRow,
+			int toColumn) throws IOException
+	{
+		int move = ChessMoves.encode(board.squareOf(fromRow, fromColumn), board.squareOf(toRow, toColumn));
+		ChessMoves.apply(board, move);
+		journal.append(0L, move, board);
+	}
+
+	/**
+	 * Start games, if n is positive, and play random moves in every game.
+	 */
+	private static void play(GameJournal journal, Map<Long, Board> games, int n, int plies, Random random)
+			throws IOException
+	{
+		for (long game = 0; game < n; game++) {
+			Board board = startingBoard();
+			games.put(game, board);
+			journal.start(game, board);
+		}
+		MoveList moves = new MoveList();
+		for (int ply = 0; ply < plies; ply++) {
+			PlayerColor side = PlayerColor.values()[ply % 2];
+			for (Map.Entry<Long, Board> game : games.entrySet()) {
+				moves.clear();
+				ChessMoves.generate(game.getValue(), side, moves);
+				if (moves.size() > 0) {
+					int move = moves.get(random.nextInt(moves.size()));
+					ChessMoves.apply(game.getValue(), move);
+					journal.append(game.getKey(), move, game.getValue());
+				}
+			}
+		}
+	}
+
+	private static void assertSamePositions(Map<Long, Board> expected, Map<Long, Board> actual)
+	{
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Long, Board> game : expected.entrySet()) {
+			assertEquals(PositionCodec.encode(game.getValue()), PositionCodec.encode(actual.get(game.getKey())));
+		}
+	}
+
+	private static Board startingBoard()
+	{
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		Board board = new Board(8, 8);
+		ChessPieceDescriptor[] white = { WHITEROOK, WHITEKNIGHT, WHITEBISHOP, WHITEQUEEN, WHITEKING,
+				WHITEBISHOP, WHITEKNIGHT, WHITEROOK };
+		ChessPieceDescriptor[] black = { BLACKROOK, BLACKKNIGHT, BLACKBISHOP, BLACKQUEEN, BLACKKING,
+				BLACKBISHOP, BLACKKNIGHT, BLACKROOK };
+		for (int column = 1; column <= 8; column++) {
+			board.putPieceAt(factory.makePiece(white[column - 1]), makeCoordinate(1, column));
+			board.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(2, column));
+			board.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(7, column));
+			board.putPieceAt(factory.makePiece(black[column - 1]), makeCoordinate(8, column));
+		}
+		return board;
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.journal;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import gpv.chess.*;
+import gpv.util.Board;
+
+/**
+ * Journals a million random moves spread over thousands of games, then
+ * reopens the journal and prints the time to recover every board, per
+ * million moves, for a growing number of threads. Run it as a plain Java
+ * application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class JournalBenchmark
+{
+	private static final int GAMES = 4000;
+	private static final int PLIES = 250;
+
+	public static void main(String[] args) throws IOException
+	{
+		Path directory = Files.createTempDirectory("journal-benchmark");
+		try {
+			long start = System.nanoTime();
+			long moves = write(directory);
+			System.out.printf("journaled %,d moves in %d ms%n", moves, (System.nanoTime() - start) / 1_000_000);
+			int cores = Runtime.getRuntime().availableProcessors();
+			System.out.printf("%-8s %10s %10s %16s%n", "threads", "open ms", "replay ms", "ms per 1M moves");
+			for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+				start = System.nanoTime();
+				try (GameJournal journal = GameJournal.open(directory)) {
+					long opened = System.nanoTime();
+					Map<Long, Board> boards = journal.recover(threads);
+					long done = System.nanoTime();
+					if (boards.size() != GAMES) {
+						throw new IllegalStateException("recovered " + boards.size() + " games");
+					}
+					System.out.printf("%-8d %10d %10d %16.1f%n", threads, (opened - start) / 1_000_000,
+							(done - opened) / 1_000_000, (done - start) / 1e6 * 1_000_000 / moves);
+				}
+			}
+		} finally {
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					Files.delete(file);
+				}
+			}
+			Files.delete(directory);
+		}
+	}
+
+	private static long write(Path directory) throws IOException
+	{
+		Random random = new Random(4233);
+		Board[] boards = new Board[GAMES];
+		long written = 0;
+		try (GameJournal journal = GameJournal.open(directory)) {
+			for (int game = 0; game < GAMES; game++) {
+				boards[game] = startingBoard();
+				journal.start(game, boards[game]);
+			}
+			MoveList moves = new MoveList();
+			for (int ply = 0; ply < PLIES; ply++) {
+				PlayerColor side = PlayerColor.values()[ply % 2];
+				for (int game = 0; game < GAMES; game++) {
+					moves.clear();
+					ChessMoves.generate(boards[game], side, moves);
+					if (moves.size() > 0) {
+						int move = moves.get(random.nextInt(moves.size()));
+						ChessMoves.apply(boards[game], move);
+						journal.enqueue(game, move, boards[game]);
+						written++;
+					}
+				}
+				journal.sync();
+			}
+		}
+		return written;
+	}
+
+	private static Board startingBoard()
+	{
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		PieceName[] backRank = { PieceName.ROOK, PieceName.KNIGHT, PieceName.BISHOP, PieceName.QUEEN,
+				PieceName.KING, PieceName.BISHOP, PieceName.KNIGHT, PieceName.ROOK };
+		Board board = new Board(8, 8);
+		for (ChessPieceDescriptor d : ChessPieceDescriptor.values()) {
+			int home = d.getColor() == PlayerColor.WHITE ? 1 : 8;
+			int pawns = d.getColor() == PlayerColor.WHITE ? 2 : 7;
+			for (int column = 1; column <= 8; column++) {
+				if (d.getName() == PieceName.PAWN) {
+					board.putPieceAt(factory.makePiece(d), makeCoordinate(pawns, column));
+				} else if (backRank[column - 1] == d.getName()) {
+					board.putPieceAt(factory.makePiece(d), makeCoordinate(home, column));
+				}
+			}
+		}
+		return board;
+	}
+}
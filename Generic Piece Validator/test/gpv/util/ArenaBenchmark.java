@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.util.Random;
+import gpv.chess.*;
+
+/**
+ * Stores a million random positions in a PositionArena and compares the
+ * heap they use with the same positions as Boards, then validates a move
+ * through a repointed view of every position. Run it as a plain Java
+ * application, with enough heap for the Boards (-Xmx2g); it is not part of
+ * the test suite.
+ * @version Oct 19, 2026
+ */
+public class ArenaBenchmark
+{
+	private static final int POSITIONS = 1_000_000;
+
+	public static void main(String[] args)
+	{
+		Random random = new Random(4233);
+		ChessPieceDescriptor[] all = ChessPieceDescriptor.values();
+		PositionArena arena = new PositionArena(8, 8, POSITIONS, ChessPieceFactory.sharedPieces());
+		long before = usedHeap();
+		Board[] boards = new Board[POSITIONS];
+		for (int n = 0; n < POSITIONS; n++) {
+			Board board = new Board(8, 8);
+			for (int i = 0; i < 24; i++) {
+				board.putPieceAt(ChessPieceFactory.sharedPiece(all[random.nextInt(all.length)]),
+						makeCoordinate(random.nextInt(8) + 1, random.nextInt(8) + 1));
+			}
+			board.putPieceAt(ChessPieceFactory.sharedPiece(ChessPieceDescriptor.WHITEKNIGHT), makeCoordinate(1, 2));
+			boards[n] = board;
+			arena.add(board);
+		}
+		long heap = usedHeap() - before;
+		System.out.printf("Board heap   %8.1f bytes/position%n", heap / (double) POSITIONS);
+		System.out.printf("arena record %8d bytes/position (%,d bytes off-heap)%n",
+				arena.getRecordBytes(), arena.getReservedBytes());
+
+		int from = boards[0].squareOf(1, 2);
+		int to = boards[0].squareOf(3, 3);
+		Board view = arena.view(0);
+		long allowed = 0;
+		for (int round = 0; round < 5; round++) {
+			long start = System.nanoTime();
+			allowed = 0;
+			for (int n = 0; n < POSITIONS; n++) {
+				arena.point(view, n);
+				allowed += view.getPieceAt(from).canMove(from, to, view) ? 1 : 0;
+			}
+			System.out.printf("view canMove %8.1f ns/position (%d allowed)%n",
+					(System.nanoTime() - start) / (double) POSITIONS, allowed);
+		}
+		System.out.println(boards.length == 0 ? "" : "done");
+	}
+
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import static gpv.util.SquareInitializer.makeSquareInitializer;
+import java.util.*;
+import gpv.chess.*;
+
+/**
+ * Measures board copies per second for the three ways of getting a private
+ * copy of a position: rebuilding from SquareInitializers, Board#copy and a
+ * pooled Board#copyFrom, and resets per second of one board from the
+ * SquareInitializers and from a BoardTemplate. Run it as a plain Java
+ * application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class BoardCopyBenchmark
+{
+	private static final int COPIES = 200_000;
+	private static final int ROUNDS = 10;
+
+	private static long sink;
+
+	public static void main(String[] args)
+	{
+		List<SquareInitializer> initializers = startingPosition();
+		Board position = new Board(8, 8, initializers);
+		BoardTemplate template = new BoardTemplate(8, 8, initializers);
+		double rebuild = 0, copy = 0, pooled = 0, reset = 0, templated = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			rebuild = timeRebuild(initializers);
+			copy = timeCopy(position);
+			pooled = timePooled(position);
+			reset = timeReset(initializers);
+			templated = timeTemplate(template);
+		}
+		System.out.printf("%-12s %14s%n", "method", "copies/sec");
+		System.out.printf("%-12s %,14.0f%n", "rebuild", rebuild);
+		System.out.printf("%-12s %,14.0f%n", "copy()", copy);
+		System.out.printf("%-12s %,14.0f%n", "pooled", pooled);
+		System.out.printf("%-12s %,14.0f%n", "reset(list)", reset);
+		System.out.printf("%-12s %,14.0f%n", "template", templated);
+		System.out.println(sink == 42 ? "" : "done");
+	}
+
+	private static double timeRebuild(List<SquareInitializer> initializers)
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < COPIES; i++) {
+			Board b = new Board(8, 8, initializers);
+			sink += b.getSquareCount();
+		}
+		return rate(start);
+	}
+
+	private static double timeCopy(Board position)
+	{
+		long start = System.nanoTime();
+		for (int i = 0; i < COPIES; i++) {
+			Board b = position.copy();
+			sink += b.getSquareCount();
+		}
+		return rate(start);
+	}
+
+	private static double timePooled(Board position)
+	{
+		BoardPool pool = BoardPool.get();
+		long start = System.nanoTime();
+		for (int i = 0; i < COPIES; i++) {
+			Board b = pool.acquire(position);
+			sink += b.getSquareCount();
+			pool.release(b);
+		}
+		return rate(start);
+	}
+
+	private static double timeReset(List<SquareInitializer> initializers)
+	{
+		Board b = new Board(8, 8);
+		long start = System.nanoTime();
+		for (int i = 0; i < COPIES; i++) {
+			b.movePiece(b.squareOf(2, 5), b.squareOf(4, 5));	// as if a game had been played
+			b.reset(initializers);
+			sink += b.getPositionHash();
+		}
+		return rate(start);
+	}
+
+	private static double timeTemplate(BoardTemplate template)
+	{
+		Board b = template.newBoard();
+		long start = System.nanoTime();
+		for (int i = 0; i < COPIES; i++) {
+			b.movePiece(b.squareOf(2, 5), b.squareOf(4, 5));
+			b.reset(template);
+			sink += b.getPositionHash();
+		}
+		return rate(start);
+	}
+
+	private static double rate(long start)
+	{
+		return COPIES * 1e9 / (System.nanoTime() - start);
+	}
+
+	private static List<SquareInitializer> startingPosition()
+	{
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		ChessPieceDescriptor[] white = { ChessPieceDescriptor.WHITEROOK, ChessPieceDescriptor.WHITEKNIGHT,
+				ChessPieceDescriptor.WHITEBISHOP, ChessPieceDescriptor.WHITEQUEEN, ChessPieceDescriptor.WHITEKING,
+				ChessPieceDescriptor.WHITEBISHOP, ChessPieceDescriptor.WHITEKNIGHT, ChessPieceDescriptor.WHITEROOK };
+		ChessPieceDescriptor[] black = { ChessPieceDescriptor.BLACKROOK, ChessPieceDescriptor.BLACKKNIGHT,
+				ChessPieceDescriptor.BLACKBISHOP, ChessPieceDescriptor.BLACKQUEEN, ChessPieceDescriptor.BLACKKING,
+				ChessPieceDescriptor.BLACKBISHOP, ChessPieceDescriptor.BLACKKNIGHT, ChessPieceDescriptor.BLACKROOK };
+		List<SquareInitializer> initializers = new ArrayList<SquareInitializer>();
+		for (int column = 1; column <= 8; column++) {
+			initializers.add(makeSquareInitializer(factory.makePiece(white[column - 1]), makeCoordinate(1, column)));
+			initializers.add(makeSquareInitializer(factory.makePiece(ChessPieceDescriptor.WHITEPAWN), makeCoordinate(2, column)));
+			initializers.add(makeSquareInitializer(factory.makePiece(ChessPieceDescriptor.BLACKPAWN), makeCoordinate(7, column)));
+			initializers.add(makeSquareInitializer(factory.makePiece(black[column - 1]), makeCoordinate(8, column)));
+		}
+		return initializers;
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import java.util.*;
+import gpv.chess.*;
+
+/**
+ * Compares the dense and sparse Board storage engines against the old
+ * HashMap storage for a few board sizes and fill ratios. Run it as a plain
+ * Java application; it is not part of the test suite.
+ * @version Oct 19, 2026
+ */
+public class BoardStorageBenchmark
+{
+	private static final int[] SIZES = { 8, 20, 64 };
+	private static final double[] FILLS = { 0.05, 0.25, 0.75 };
+	private static final int ROUNDS = 5;
+
+	private static long sink;
+
+	public static void main(String[] args)
+	{
+		System.out.printf("%-6s %-5s %12s %12s %12s%n", "size", "fill", "dense ns/op", "sparse ns/op", "map ns/op");
+		for (int size : SIZES) {
+			for (double fill : FILLS) {
+				Coordinate[] squares = occupied(size, fill);
+				Coordinate[] probes = probes(size);
+				double dense = 0, sparse = 0, map = 0;
+				for (int round = 0; round < ROUNDS; round++) {
+					dense = timeBoard(size, true, squares, probes);
+					sparse = timeBoard(size, false, squares, probes);
+					map = timeMap(squares, probes);
+				}
+				System.out.printf("%-6s %-5.2f %12.2f %12.2f %12.2f%n", size + "x" + size, fill, dense, sparse, map);
+			}
+		}
+		System.out.println(sink == 42 ? "" : "done");
+	}
+
+	private static double timeBoard(int size, boolean dense, Coordinate[] squares, Coordinate[] probes)
+	{
+		ChessPiece piece = new ChessPieceFactory().makePiece(ChessPieceDescriptor.WHITEKNIGHT);
+		Board board = new Board(size, size);
+		board.useStorage(dense);
+		long start = System.nanoTime();
+		int ops = 0;
+		for (int repeat = 0; repeat < 20; repeat++) {
+			for (Coordinate c : squares) {
+				board.putPieceAt(piece, c);
+			}
+			for (Coordinate c : probes) {
+				if (board.getPieceAt(c) != null) {
+					sink++;
+				}
+			}
+			for (Coordinate c : squares) {
+				board.putPieceAt(null, c);
+			}
+			ops += squares.length * 2 + probes.length;
+		}
+		return (System.nanoTime() - start) / (double) ops;
+	}
+
+	private static double timeMap(Coordinate[] squares, Coordinate[] probes)
+	{
+		ChessPiece piece = new ChessPieceFactory().makePiece(ChessPieceDescriptor.WHITEKNIGHT);
+		Map<Coordinate, ChessPiece> map = new HashMap<Coordinate, ChessPiece>();
+		long start = System.nanoTime();
+		int ops = 0;
+		for (int repeat = 0; repeat < 20; repeat++) {
+			for (Coordinate c : squares) {
+				map.put(c, piece);
+			}
+			for (Coordinate c : probes) {
+				if (map.get(c) != null) {
+					sink++;
+				}
+			}
+			for (Coordinate c : squares) {
+				map.remove(c);
+			}
+			ops += squares.length * 2 + probes.length;
+		}
+		return (System.nanoTime() - start) / (double) ops;
+	}
+
+	private static Coordinate[] occupied(int size, double fill)
+	{
+		List<Coordinate> all = new ArrayList<Coordinate>();
+		for (int row = 1; row <= size; row++) {
+			for (int column = 1; column <= size; column++) {
+				all.add(makeCoordinate(row, column));
+			}
+		}
+		Collections.shuffle(all, new Random(size));
+		return all.subList(0, Math.max(1, (int) (all.size() * fill))).toArray(new Coordinate[0]);
+	}
+
+	private static Coordinate[] probes(int size)
+	{
+		Random random = new Random(size * 31);
+		Coordinate[] probes = new Coordinate[20000];
+		for (int i = 0; i < probes.length; i++) {
+			probes[i] = makeCoordinate(random.nextInt(size) + 1, random.nextInt(size) + 1);
+		}
+		return probes;
+	}
+}
@@ -15,7 +15,7 @@ package gpv.util;
 import static gpv.chess.ChessPieceDescriptor.*;
 import static gpv.util.Coordinate.makeCoordinate;
 import static gpv.util.SquareInitializer.makeSquareInitializer;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 import java.util.*;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.*;
@@ -61,6 +61,256 @@ class BoardTests
 		assertNotNull(theBoard.getPieceAt(makeCoordinate(6, 0)));
 	}
 
+	@Test
+	void smallBoardUsesFlatArray()
+	{
+		assertTrue(theBoard.isDense());
+		theBoard.putPieceAt(factory.makePiece(WHITEKING), makeCoordinate(1, 5));
+		theBoard.putPieceAt(null, makeCoordinate(1, 5));
+		assertTrue(theBoard.isDense());
+	}
+	
+	@Test
+	void largeBoardSwitchesStorageWithFill()
+	{
+		Board big = new Board(20, 20);
+		assertFalse(big.isDense());
+		ChessPiece p = factory.makePiece(BLACKROOK);
+		for (int row = 1; row <= 6; row++) {
+			for (int column = 1; column <= 20; column++) {
+				big.putPieceAt(p, makeCoordinate(row, column));
+			}
+		}
+		assertTrue(big.isDense());
+		for (int row = 1; row <= 6; row++) {
+			for (int column = 1; column <= 20; column++) {
+				if (row > 1 || column > 10) {
+					big.putPieceAt(null, makeCoordinate(row, column));
+				}
+			}
+		}
+		assertFalse(big.isDense());
+		assertEquals(p, big.getPieceAt(makeCoordinate(1, 10)));
+		assertNull(big.getPieceAt(makeCoordinate(1, 11)));
+	}
+	
+	@Test
+	void sparseStorageKeepsEveryPiece()
+	{
+		Board big = new Board(64, 64);
+		big.useStorage(false);
+		Random random = new Random(4233);
+		Map<Coordinate, ChessPiece> expected = new HashMap<Coordinate, ChessPiece>();
+		for (int i = 0; i < 5000; i++) {
+			Coordinate c = makeCoordinate(random.nextInt(64) + 1, random.nextInt(64) + 1);
+			ChessPiece p = random.nextInt(3) == 0 ? null 
+					: factory.makePiece(ChessPieceDescriptor.values()[random.nextInt(12)]);
+			assertEquals(expected.get(c), big.putPieceAt(p, c));
+			expected.put(c, p);
+		}
+		for (int row = 1; row <= 64; row++) {
+			for (int column = 1; column <= 64; column++) {
+				Coordinate c = makeCoordinate(row, column);
+				assertEquals(expected.get(c), big.getPieceAt(c));
+			}
+		}
+	}
+	
+	@Test
+	void resizingKeepsPieces()
+	{
+		ChessPiece p = factory.makePiece(WHITEQUEEN);
+		theBoard.putPieceAt(p, makeCoordinate(8, 8));
+		theBoard.setnRows(4);
+		assertEquals(p, theBoard.getPieceAt(makeCoordinate(8, 8)));
+		theBoard.setnRows(8);
+		assertEquals(p, theBoard.getPieceAt(makeCoordinate(8, 8)));
+	}
+
+	@Test
+	void indexFollowsPutAndReset()
+	{
+		theBoard.reset(makeInitializers(
+				WHITEKING, 1, 5,
+				BLACKKING, 8, 5,
+				BLACKROOK, 8, 1,
+				BLACKROOK, 8, 8,
+				BLACKBISHOP, 8, 3));
+		assertEquals(makeCoordinate(1, 5), theBoard.findPiece(WHITEKING));
+		assertEquals(2, theBoard.countOf(BLACKROOK));
+		assertEquals(0, theBoard.countOf(WHITEQUEEN));
+		assertNull(theBoard.findPiece(WHITEQUEEN));
+		
+		theBoard.putPieceAt(factory.makePiece(WHITEKNIGHT), makeCoordinate(8, 1));
+		theBoard.putPieceAt(null, makeCoordinate(1, 5));
+		theBoard.putPieceAt(factory.makePiece(WHITEKING), makeCoordinate(2, 5));
+		assertEquals(1, theBoard.countOf(BLACKROOK));
+		assertEquals(makeCoordinate(2, 5), theBoard.findPiece(WHITEKING));
+		assertEquals(1, theBoard.countOf(WHITEKNIGHT));
+		
+		theBoard.reset(makeInitializers(WHITEPAWN, 2, 1));
+		assertEquals(0, theBoard.countOf(BLACKKING));
+		assertEquals(1, theBoard.countOf(WHITEPAWN));
+	}
+	
+	@Test
+	void listAllSlidersOfOneSide()
+	{
+		theBoard.reset(makeInitializers(
+				BLACKROOK, 8, 1,
+				BLACKBISHOP, 8, 3,
+				BLACKQUEEN, 8, 4,
+				BLACKKNIGHT, 8, 2,
+				WHITEQUEEN, 1, 4));
+		Set<Coordinate> sliders = new HashSet<Coordinate>(
+				theBoard.getSquaresOf(BLACKROOK, BLACKBISHOP, BLACKQUEEN));
+		assertEquals(new HashSet<Coordinate>(Arrays.asList(
+				makeCoordinate(8, 1), makeCoordinate(8, 3), makeCoordinate(8, 4))), sliders);
+	}
+
+	@Test
+	void copyIsIndependentAndKeepsMovedState()
+	{
+		theBoard.reset(makeInitializers(
+				WHITEKING, 1, 5,
+				WHITEROOK, 1, 1,
+				BLACKKING, 8, 5));
+		theBoard.movePiece(makeCoordinate(1, 1), makeCoordinate(3, 1));
+		Board copy = theBoard.copy();
+		assertTrue(copy.hasMoved(makeCoordinate(3, 1)));
+		assertEquals(theBoard.getPieceAt(makeCoordinate(1, 5)), copy.getPieceAt(makeCoordinate(1, 5)));
+		assertEquals(makeCoordinate(8, 5), copy.findPiece(BLACKKING));
+
+		copy.movePiece(makeCoordinate(8, 5), makeCoordinate(7, 5));
+		assertNotNull(theBoard.getPieceAt(makeCoordinate(8, 5)));
+		assertEquals(makeCoordinate(8, 5), theBoard.findPiece(BLACKKING));
+		assertFalse(theBoard.hasMoved(makeCoordinate(7, 5)));
+	}
+
+	@Test
+	void copyFromReplacesSizeAndStorage()
+	{
+		Board big = new Board(20, 20);
+		big.putPieceAt(factory.makePiece(WHITEQUEEN), makeCoordinate(20, 20));
+		theBoard.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(2, 2));
+		theBoard.copyFrom(big);
+		assertEquals(20, theBoard.getnRows());
+		assertNull(theBoard.getPieceAt(makeCoordinate(2, 2)));
+		assertEquals(makeCoordinate(20, 20), theBoard.findPiece(WHITEQUEEN));
+		assertEquals(0, theBoard.countOf(WHITEPAWN));
+	}
+
+	@Test
+	void poolReusesReleasedBoards()
+	{
+		theBoard.reset(makeInitializers(WHITEKING, 1, 5));
+		BoardPool pool = BoardPool.get();
+		Board first = pool.acquire(theBoard);
+		pool.release(first);
+		long created = pool.getCreated();
+		Board second = pool.acquire(theBoard);
+		assertSame(first, second);
+		assertEquals(created, pool.getCreated());
+		assertEquals(makeCoordinate(1, 5), second.findPiece(WHITEKING));
+		pool.release(second);
+		Board empty = pool.acquire(4, 4);
+		assertEquals(0, empty.countOf(WHITEKING));
+		assertEquals(16, empty.getSquareCount());
+		pool.release(empty);
+	}
+
+	@Test
+	void changeListenersHearOncePerBatch()
+	{
+		List<BoardChange> heard = new ArrayList<BoardChange>();
+		theBoard.addChangeListener(heard::add);
+		ChessPiece king = factory.makePiece(WHITEKING);
+		theBoard.putPieceAt(king, makeCoordinate(1, 5));
+		theBoard.putPieceAt(factory.makePiece(WHITEROOK), makeCoordinate(1, 8));
+		assertEquals(2, heard.size());
+		assertEquals(theBoard.squareOf(1, 5), heard.get(0).getSquare(0));
+		assertNull(heard.get(0).getOldPiece(0));
+		assertSame(king, heard.get(0).getNewPiece(0));
+
+		heard.clear();
+		ChessMoves.apply(theBoard, ChessMoves.encode(theBoard.squareOf(1, 5), theBoard.squareOf(1, 7)));
+		assertEquals(1, heard.size());
+		assertEquals(4, heard.get(0).size());	// castling moves the king and the rook
+
+		heard.clear();
+		theBoard.beginChanges();
+		theBoard.putPieceAt(null, makeCoordinate(1, 7));
+		theBoard.putPieceAt(king, makeCoordinate(1, 7));	// back as it was
+		theBoard.putPieceAt(factory.makePiece(BLACKPAWN), makeCoordinate(7, 1));
+		assertTrue(heard.isEmpty());
+		theBoard.endChanges();
+		assertEquals(1, heard.size());
+		assertEquals(1, heard.get(0).size());
+		assertEquals(theBoard.squareOf(7, 1), heard.get(0).getSquare(0));
+
+		heard.clear();
+		theBoard.reset(makeInitializers(BLACKKING, 8, 5));
+		assertEquals(1, heard.size());
+		assertEquals(4, heard.get(0).size());	// three pieces gone, one new
+		assertFalse(heard.get(0).isWholeBoard());
+
+		heard.clear();
+		theBoard.setnRows(10);
+		assertEquals(1, heard.size());
+		assertTrue(heard.get(0).isWholeBoard());
+		assertThrows(IllegalStateException.class, () -> theBoard.endChanges());
+	}
+
+	@Test
+	void copyFromTellsOnlyTheDifferences()
+	{
+		theBoard.reset(makeInitializers(WHITEKING, 1, 5, BLACKKING, 8, 5));
+		Board other = theBoard.copy();
+		other.movePiece(other.squareOf(1, 5), other.squareOf(2, 5));
+		List<BoardChange> heard = new ArrayList<BoardChange>();
+		BoardChangeListener listener = heard::add;
+		theBoard.addChangeListener(listener);
+		theBoard.copyFrom(other);
+		assertEquals(1, heard.size());
+		assertEquals(2, heard.get(0).size());
+		theBoard.removeChangeListener(listener);
+		theBoard.putPieceAt(null, makeCoordinate(8, 5));
+		assertEquals(1, heard.size());
+	}
+
+	@Test
+	void templateResetsLikeTheInitializers()
+	{
+		List<SquareInitializer> initializers = makeInitializers(WHITEKING, 1, 5, WHITEROOK, 1, 8, BLACKKING, 8, 5);
+		BoardTemplate template = new BoardTemplate(8, 8, initializers);
+		Board expected = new Board(8, 8, initializers);
+		theBoard.putPieceAt(factory.makePiece(BLACKQUEEN), makeCoordinate(4, 4));
+		theBoard.setGameState(7);
+		theBoard.reset(template);
+		assertEquals(expected.getPositionHash(), theBoard.getPositionHash());
+		assertEquals(0, theBoard.getGameState());
+		assertNull(theBoard.getPieceAt(makeCoordinate(4, 4)));
+		assertEquals(makeCoordinate(1, 8), theBoard.findPiece(WHITEROOK));
+
+		theBoard.movePiece(theBoard.squareOf(1, 5), theBoard.squareOf(2, 5));
+		Board other = template.newBoard();
+		assertFalse(other.hasMoved(other.squareOf(2, 5)));
+		assertEquals(makeCoordinate(1, 5), other.findPiece(WHITEKING));
+		assertThrows(IllegalArgumentException.class, () -> new Board(6, 6).reset(template));
+	}
+
+	@Test
+	void standardStartingPosition()
+	{
+		theBoard.reset(StartingPositions.STANDARD);
+		assertEquals(32, theBoard.getSquaresOf(ChessPieceDescriptor.values()).size());
+		assertEquals(new Board(8, 8, StartingPositions.standardInitializers()).getPositionHash(),
+				theBoard.getPositionHash());
+		assertTrue(((ChessPiece) theBoard.getPieceAt(makeCoordinate(1, 5))).isShared());
+		Board compiled = StartingPositions.compile(PositionCodec.encode(theBoard)).newBoard();
+		assertEquals(theBoard.getPositionHash(), compiled.getPositionHash());
+	}
+
 	// Helper methods
 	private List<SquareInitializer> makeInitializers(Object... params)
 	{
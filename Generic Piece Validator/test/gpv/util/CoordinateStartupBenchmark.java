@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import static gpv.util.Coordinate.makeCoordinate;
+import gpv.chess.*;
+
+/**
+ * Measures what a fresh JVM spends on its first validation: the time from
+ * entering main to the first answer of the Coordinate rules. Run it as a
+ * plain Java application, in a new JVM each time, with -Xlog:class+load (or
+ * -verbose:class) to count the classes loaded; it is not part of the test
+ * suite.
+ * @version Oct 19, 2026
+ */
+public class CoordinateStartupBenchmark
+{
+	public static void main(String[] args)
+	{
+		long start = System.nanoTime();
+		Board board = new Board(8, 8);
+		Coordinate from = makeCoordinate(1, 1);
+		board.putPieceAt(new ChessPieceFactory().makePiece(ChessPieceDescriptor.WHITEQUEEN), from);
+		boolean allowed = ChessRules.getRules(PieceName.QUEEN).allowed(from, makeCoordinate(8, 8), board);
+		long nanos = System.nanoTime() - start;
+		System.out.printf("first validation %s in %.2f ms%n", allowed ? "allowed" : "refused", nanos / 1e6);
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * This files was developed for CS4233: Object-Oriented Analysis & Design.
+ * The course was taken at Worcester Polytechnic Institute.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Copyright ©2020 Gary F. Pollice
+ *******************************************************************************/
+
+package gpv.util;
+
+import static gpv.chess.ChessPieceDescriptor.*;
+import static gpv.util.Coordinate.makeCoordinate;
+import static org.junit.Assert.*;
+import org.junit.jupiter.api.*;
+import gpv.chess.*;
+
+/**
+ * Tests for the off-heap position arena and its Board views.
+ * @version Oct 19, 2026
+ */
+class PositionArenaTests
+{
+	private PositionArena arena;
+	private Board board;
+
+	@BeforeEach
+	public void setup()
+	{
+		arena = new PositionArena(8, 8, 4, ChessPieceFactory.sharedPieces());
+		board = new Board(8, 8);
+		ChessPieceFactory factory = new ChessPieceFactory(true);
+		board.putPieceAt(factory.makePiece(WHITEKING), makeCoordinate(1, 5));
+		board.putPieceAt(factory.makePiece(WHITEROOK), makeCoordinate(1, 8));
+		board.putPieceAt(factory.makePiece(WHITEPAWN), makeCoordinate(2, 2));
+		board.putPieceAt(factory.makePiece(BLACKKNIGHT), makeCoordinate(3, 3));
+		board.putPieceAt(factory.makePiece(BLACKKING), makeCoordinate(8, 5));
+		board.movePiece(makeCoordinate(1, 8), makeCoordinate(3, 8));
+	}
+
+	@Test
+	void viewShowsTheStoredPosition()
+	{
+		Board view = arena.view(arena.add(board));
+		assertEquals(40, arena.getRecordBytes());
+		assertEquals(board.getPositionHash(), view.getPositionHash());
+		assertEquals(makeCoordinate(8, 5), view.findPiece(BLACKKING));
+		assertTrue(view.hasMoved(makeCoordinate(3, 8)));
+		assertFalse(view.hasMoved(makeCoordinate(1, 5)));
+		for (int from = 0; from < 64; from++) {
+			ChessPiece p = (ChessPiece) board.getPieceAt(from);
+			assertEquals(p, view.getPieceAt(from));
+			for (int to = 0; p != null && to < 64; to++) {
+				assertEquals(p.canMove(from, to, board), p.canMove(from, to, view));
+			}
+		}
+	}
+
+	@Test
+	void writesGoToTheArena()
+	{
+		int position = arena.add(board);
+		Board view = arena.view(position);
+		view.movePiece(makeCoordinate(2, 2), makeCoordinate(3, 3));
+		Board other = arena.view(position);
+		assertNull(other.getPieceAt(makeCoordinate(2, 2)));
+		assertEquals(WHITEPAWN, ((ChessPiece) other.getPieceAt(makeCoordinate(3, 3))).getDescriptor());
+		assertTrue(other.hasMoved(makeCoordinate(3, 3)));
+		assertEquals(0, other.countOf(BLACKKNIGHT));
+
+		Board copy = view.copy();
+		copy.putPieceAt(null, makeCoordinate(3, 3));
+		assertNotNull(other.getPieceAt(makeCoordinate(3, 3)));
+		assertEquals(view.getPositionHash(), other.getPositionHash());
+	}
+
+	@Test
+	void viewsCanBeRepointedAcrossChunks()
+	{
+		Board empty = new Board(8, 8);
+		for (int i = 0; i < 10; i++) {
+			arena.add(i % 2 == 0 ? board : empty);
+		}
+		assertEquals(10, arena.size());
+		assertTrue(arena.getReservedBytes() >= 10L * arena.getRecordBytes());
+		Board view = arena.view(0);
+		for (int i = 0; i < 10; i++) {
+			arena.point(view, i);
+			assertEquals(i % 2 == 0 ? 1 : 0, view.countOf(WHITEKING));
+		}
+		try {
+			arena.point(new Board(8, 8), 0);
+			fail("expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}